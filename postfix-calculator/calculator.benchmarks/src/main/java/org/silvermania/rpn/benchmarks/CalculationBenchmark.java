@@ -0,0 +1,94 @@
+/*
+ * File: CalculationBenchmark.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.silvermania.rpn.infix.converter.InfixConverter;
+import org.silvermania.rpn.postfix.api.CalculatorState;
+import org.silvermania.rpn.postfix.calculator.RPNCalculator;
+import org.silvermania.rpn.support.CalculationContext;
+
+/**
+ * The Class CalculationBenchmark measures
+ * {@link RPNCalculator#calculate(String)} of a converted postfix expression, and
+ * the fluent {@code convert(...).thenCalculate()} path from an infix
+ * expression, by the length of the expression, the number of registered
+ * functions and the precision of the context.
+ *
+ * @author T.N.Silverman
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class CalculationBenchmark {
+
+    /** The number of terms of the expression. */
+    @Param({"10", "100", "1000"})
+    private int length;
+
+    /** The number of registered functions. */
+    @Param({"0", "100"})
+    private int functions;
+
+    /** The rounding decimal places of the context. */
+    @Param({"7", "32", "128"})
+    private int precision;
+
+    private CalculationContext context;
+    private String infix;
+    private String postfix;
+    private RPNCalculator calculator;
+
+    @Setup
+    public void setup() {
+        context = Expressions.context(functions, precision);
+        infix = Expressions.infix(length, functions);
+        postfix = InfixConverter.newInstance(context, null).convert(infix);
+        calculator = new CalculatorState(context).getCalculator();
+    }
+
+    @Benchmark
+    public BigDecimal calculate() {
+        return calculator.calculate(postfix);
+    }
+
+    @Benchmark
+    public BigDecimal convertThenCalculate() {
+        return RPNCalculator.withContext(context).convert(infix).thenCalculate();
+    }
+}
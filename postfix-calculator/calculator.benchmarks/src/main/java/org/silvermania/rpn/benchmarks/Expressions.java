@@ -0,0 +1,98 @@
+/*
+ * File: Expressions.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.benchmarks;
+
+import static org.silvermania.rpn.support.Multiplicity.BINARY;
+
+import org.silvermania.rpn.support.CalculationContext;
+
+/**
+ * The Class Expressions generates the calculation contexts and the infix
+ * expressions the benchmarks run against.
+ *
+ * @author T.N.Silverman
+ */
+final class Expressions {
+
+    /** The prefix of the symbols of generated functions. */
+    static final String FUNCTION_PREFIX = "f";
+
+    /**
+     * hidden constructor.
+     */
+    private Expressions() {
+        super();
+    }
+
+    /**
+     * creates a calculation context with the given number of registered binary
+     * functions, named {@code f0}, {@code f1} and so on, each adding it's
+     * arguments.
+     *
+     * @param functions the number of functions to register
+     * @param precision the rounding decimal places of the context
+     * @return a new calculation context
+     */
+    static CalculationContext context(int functions, int precision) {
+        CalculationContext context = CalculationContext.newInstance();
+        context.setPrecision(precision);
+        for (int idx = 0; idx < functions; idx++) {
+            context.registerFunction(FUNCTION_PREFIX + idx, BINARY, arr -> arr[0].add(arr[1]));
+        }
+        return context;
+    }
+
+    /**
+     * generates an infix expression of the given number of terms, mixing
+     * operators, default functions and, if any are registered, generated
+     * functions. For example, the first terms of an expression with
+     * registered functions are {@code f0(1,2)-sin(2)+(3*2)-2^2}.
+     *
+     * @param length the number of terms
+     * @param functions the number of registered generated functions
+     * @return the infix expression
+     */
+    static String infix(int length, int functions) {
+        StringBuilder infix = new StringBuilder();
+        for (int idx = 1; idx <= length; idx++) {
+            if (idx > 1) {
+                infix.append(idx % 2 == 0 ? "-" : "+");
+            }
+            switch (idx % 4) {
+                case 1:
+                    infix.append(functions > 0 ? FUNCTION_PREFIX + (idx % functions) : "max")
+                         .append("(").append(idx).append(",2)");
+                    break;
+                case 2:
+                    infix.append("sin(").append(idx).append(")");
+                    break;
+                case 3:
+                    infix.append("(").append(idx).append("*2)");
+                    break;
+                default:
+                    infix.append("2^2");
+                    break;
+            }
+        }
+        return infix.toString();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * File: InfixBenchmark.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.silvermania.rpn.infix.converter.ConversionCache;
+import org.silvermania.rpn.infix.converter.InfixConverter;
+import org.silvermania.rpn.infix.support.InfixNormalizer;
+import org.silvermania.rpn.infix.support.InfixTokenizer;
+import org.silvermania.rpn.support.CalculationContext;
+
+/**
+ * The Class InfixBenchmark measures {@link InfixTokenizer#tokenize(CharSequence)},
+ * {@link InfixNormalizer#normalize(CharSequence)} and
+ * {@link InfixConverter#convert(CharSequence)}, with and without a
+ * {@link ConversionCache}, by the length of the infix expression and the
+ * number of registered functions. An expression of 10000 terms holds about
+ * 60000 tokens.
+ *
+ * @author T.N.Silverman
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class InfixBenchmark {
+
+    /** The number of terms of the infix expression. */
+    @Param({"10", "100", "1000", "10000"})
+    private int length;
+
+    /** The number of registered functions. */
+    @Param({"0", "100", "1000"})
+    private int functions;
+
+    private String infix;
+    private InfixTokenizer tokenizer;
+    private InfixNormalizer normalizer;
+    private InfixConverter converter;
+    private InfixConverter cachingConverter;
+
+    @Setup
+    public void setup() {
+        CalculationContext context = Expressions.context(functions, CalculationContext.DEFAULT_PRECISION);
+        infix = Expressions.infix(length, functions);
+        tokenizer = InfixTokenizer.newInstance(context);
+        normalizer = InfixNormalizer.newInstance(context);
+        converter = InfixConverter.newInstance(context, null);
+        cachingConverter = InfixConverter.newInstance(context, ConversionCache.newInstance(1));
+    }
+
+    @Benchmark
+    public List<CharSequence> tokenize() {
+        return tokenizer.tokenize(infix);
+    }
+
+    @Benchmark
+    public CharSequence normalize() {
+        return normalizer.normalize(infix);
+    }
+
+    @Benchmark
+    public String convert() {
+        return converter.convert(infix);
+    }
+
+    @Benchmark
+    public String convertCached() {
+        return cachingConverter.convert(infix);
+    }
+}
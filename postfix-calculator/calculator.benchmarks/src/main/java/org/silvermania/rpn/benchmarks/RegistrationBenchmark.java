@@ -0,0 +1,73 @@
+/*
+ * File: RegistrationBenchmark.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.benchmarks;
+
+import static org.silvermania.rpn.support.Multiplicity.BINARY;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.silvermania.rpn.support.CalculationContext;
+
+/**
+ * The Class RegistrationBenchmark measures the registration of a custom
+ * function in a {@link CalculationContext} by the number of functions already
+ * registered in it. Every invocation registers the function in a fresh copy of
+ * the context.
+ *
+ * @author T.N.Silverman
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 100)
+@Measurement(iterations = 500)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class RegistrationBenchmark {
+
+    /** The number of functions registered before the measured registration. */
+    @Param({"0", "100", "1000"})
+    private int functions;
+
+    private CalculationContext context;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        context = Expressions.context(functions, CalculationContext.DEFAULT_PRECISION);
+    }
+
+    @Benchmark
+    public CalculationContext registerFunction() {
+        return context.registerFunction("g", BINARY, arr -> arr[0].subtract(arr[1]));
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * File: package-info.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+/**
+ * contains JMH benchmarks of the infix normalization, infix to postfix
+ * conversion, postfix calculation and context registration hot paths.
+ * <p>
+ * Build and run the benchmarks from the parent project directory with:
+ *
+ * <pre>
+ * mvn -Pbenchmarks package -DskipTests
+ * java -jar calculator.benchmarks/target/benchmarks.jar
+ * </pre>
+ *
+ * @author T.N.Silverman
+ *
+ */
+package org.silvermania.rpn.benchmarks;
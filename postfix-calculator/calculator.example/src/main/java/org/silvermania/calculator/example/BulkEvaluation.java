@@ -0,0 +1,378 @@
+/*
+ * File: BulkEvaluation.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.calculator.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.silvermania.rpn.infix.converter.InfixConverter;
+import org.silvermania.rpn.postfix.api.CalculatorState;
+import org.silvermania.rpn.postfix.calculator.RPNCalculator;
+import org.silvermania.rpn.support.CalculationContext;
+
+/**
+ * The Class BulkEvaluation evaluates a file of newline separated expressions
+ * and writes the result of each expression, in order, as the same line of an
+ * output file. A line that fails to evaluate is written as {@code ERROR} and
+ * the error message, and a blank line is written as a blank line.
+ * <p>
+ * The input file is split into line aligned chunks, each memory mapped and
+ * evaluated as a separate task by a fixed pool of threads. Every thread has
+ * it's own {@link InfixConverter}, which does not cache conversions, and
+ * {@link RPNCalculator} over an immutable snapshot of the calculation context
+ * (see {@link CalculationContext#freeze()}).
+ * At most twice as many chunks as threads are held in memory at a time, and
+ * their results are written as soon as all the chunks before them are
+ * written.
+ *
+ * <pre>
+ * BulkEvaluation.Summary summary = BulkEvaluation.newInstance(context).withThreads(8)
+ *         .evaluate(Path.of("expressions.txt"), Path.of("results.txt"));
+ * </pre>
+ *
+ * @author T.N.Silverman
+ */
+public final class BulkEvaluation {
+
+    /** The default size of a chunk, in bytes. */
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /** The number of bytes read at a time when looking for the end of a line. */
+    private static final int SCAN_SIZE = 4096;
+
+    /** The immutable snapshot of the calculation context. */
+    private final CalculationContext context;
+
+    /** The number of evaluating threads. */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /** The size of a chunk, in bytes, before it's aligned to the end of a line. */
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /** true if the expressions are postfix expressions, false if they are infix expressions. */
+    private boolean postfix;
+
+    /**
+     * hidden constructor.
+     *
+     * @param context the calculation context
+     */
+    private BulkEvaluation(final CalculationContext context) {
+        super();
+        this.context = context.freeze();
+    }
+
+    /**
+     * a factory method for obtaining a new instance of this
+     * {@code BulkEvaluation} of infix expressions, with a thread per available
+     * processor.
+     *
+     * @param context the calculation context of the expressions
+     * @return new instance of {@code BulkEvaluation}
+     */
+    public static BulkEvaluation newInstance(CalculationContext context) {
+        return new BulkEvaluation(Objects.requireNonNull(context, "calculation context cannot be null!"));
+    }
+
+    /**
+     * sets the number of evaluating threads.
+     *
+     * @param threads the number of threads
+     * @return this bulk evaluation
+     * @throws IllegalArgumentException if the number of threads is not positive
+     */
+    public BulkEvaluation withThreads(int threads) throws IllegalArgumentException {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("number of threads must be positive!");
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * sets the size of a chunk of the input file. Chunks are extended to the
+     * end of their last line.
+     *
+     * @param chunkSize the size of a chunk, in bytes
+     * @return this bulk evaluation
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    public BulkEvaluation withChunkSize(int chunkSize) throws IllegalArgumentException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunk size must be positive!");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * sets whether the expressions are postfix, rather than infix,
+     * expressions.
+     *
+     * @param postfix true if the expressions are postfix expressions
+     * @return this bulk evaluation
+     */
+    public BulkEvaluation withPostfix(boolean postfix) {
+        this.postfix = postfix;
+        return this;
+    }
+
+    /**
+     * evaluates the expressions of the {@code input} file and writes their
+     * results to the {@code output} file, replacing it if it exists.
+     *
+     * @param input the file of newline separated expressions
+     * @param output the file of the results
+     * @return the summary of the evaluation
+     * @throws UncheckedIOException if a file cannot be read or written
+     */
+    public Summary evaluate(Path input, Path output) throws UncheckedIOException {
+        long start = System.nanoTime();
+        long expressions = 0;
+        long errors = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ThreadLocal<Evaluator> evaluators = ThreadLocal.withInitial(Evaluator::new);
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            Deque<Future<Chunk>> pending = new ArrayDeque<>();
+            while (position < size || !pending.isEmpty()) {
+                if (position < size && pending.size() < 2 * threads) {
+                    long end = lineEnd(in, Math.min(size, position + chunkSize), size);
+                    MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, position, end - position);
+                    pending.add(executor.submit(() -> evaluators.get().evaluate(mapped)));
+                    position = end;
+                    continue;
+                }
+                Chunk chunk = pending.poll().get();
+                while (chunk.bytes.hasRemaining()) {
+                    out.write(chunk.bytes);
+                }
+                expressions += chunk.expressions;
+                errors += chunk.errors;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot evaluate " + input + " to " + output, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted evaluating " + input, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("failed evaluating " + input, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Summary(expressions, errors, System.nanoTime() - start);
+    }
+
+    /**
+     * finds the end of the line at the given {@code position}, past it's line
+     * break.
+     *
+     * @param channel the input file channel
+     * @param position the position in the file
+     * @param size the size of the file
+     * @return the position following the line break at or after
+     *         {@code position}, or {@code size} if there is none
+     * @throws IOException if the file cannot be read
+     */
+    private static long lineEnd(FileChannel channel, long position, long size) throws IOException {
+        if (position == 0 || position >= size) {
+            return position;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_SIZE);
+        long offset = position - 1;
+        while (offset < size) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            for (int idx = 0; idx < read; idx++) {
+                if (buffer.get(idx) == '\n') {
+                    return offset + idx + 1;
+                }
+            }
+            offset += Math.max(read, 0);
+            if (read <= 0) {
+                break;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * The Class Evaluator evaluates chunks with the converter and calculator of
+     * a single thread.
+     */
+    private final class Evaluator {
+
+        // the lines of a file rarely repeat, so caching their conversions would only add lookups
+        private final InfixConverter converter = InfixConverter.newInstance(context, null);
+        private final RPNCalculator calculator = new CalculatorState(context).getCalculator();
+
+        /**
+         * evaluates each line of a chunk.
+         *
+         * @param mapped the mapped bytes of the chunk
+         * @return the evaluated chunk
+         */
+        private Chunk evaluate(MappedByteBuffer mapped) {
+            CharBuffer lines = StandardCharsets.UTF_8.decode(mapped);
+            Chunk chunk = new Chunk(lines.length());
+            int start = 0;
+            for (int idx = 0; idx < lines.length(); idx++) {
+                if (lines.charAt(idx) == '\n') {
+                    evaluate(lines.subSequence(start, idx).toString().strip(), chunk);
+                    start = idx + 1;
+                }
+            }
+            // the last line of the file may not end with a line break
+            if (start < lines.length()) {
+                evaluate(lines.subSequence(start, lines.length()).toString().strip(), chunk);
+            }
+            chunk.bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(chunk.results));
+            return chunk;
+        }
+
+        /**
+         * evaluates a single expression and adds it's result to the chunk.
+         *
+         * @param expression the infix or postfix expression
+         * @param chunk the evaluated chunk
+         */
+        private void evaluate(String expression, Chunk chunk) {
+            if (!expression.isEmpty()) {
+                try {
+                    BigDecimal result = calculator.calculate(postfix ? expression : converter.convert(expression));
+                    chunk.results.append(result);
+                } catch (RuntimeException e) {
+                    chunk.results.append("ERROR ").append(String.valueOf(e.getMessage()).lines().findFirst()
+                            .orElse(""));
+                    chunk.errors++;
+                }
+                chunk.expressions++;
+            }
+            chunk.results.append('\n');
+        }
+    }
+
+    /**
+     * The Class Chunk holds the results of the lines of a chunk.
+     */
+    private static final class Chunk {
+
+        private final StringBuilder results;
+        private ByteBuffer bytes;
+        private long expressions;
+        private long errors;
+
+        private Chunk(final int capacity) {
+            this.results = new StringBuilder(capacity);
+        }
+    }
+
+    /**
+     * The Class Summary is the outcome of a bulk evaluation.
+     */
+    public static final class Summary {
+
+        /** The number of evaluated expressions. */
+        private final long expressions;
+
+        /** The number of expressions that failed to evaluate. */
+        private final long errors;
+
+        /** The duration of the evaluation, in nanoseconds. */
+        private final long nanos;
+
+        /**
+         * hidden constructor.
+         *
+         * @param expressions the number of evaluated expressions
+         * @param errors the number of expressions that failed to evaluate
+         * @param nanos the duration of the evaluation, in nanoseconds
+         */
+        private Summary(final long expressions, final long errors, final long nanos) {
+            super();
+            this.expressions = expressions;
+            this.errors = errors;
+            this.nanos = nanos;
+        }
+
+        /**
+         * gets the number of evaluated expressions, including those that
+         * failed.
+         *
+         * @return the number of expressions
+         */
+        public long getExpressions() {
+            return expressions;
+        }
+
+        /**
+         * gets the number of expressions that failed to evaluate.
+         *
+         * @return the number of errors
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * gets the duration of the evaluation, in nanoseconds.
+         *
+         * @return the duration in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * gets the number of expressions evaluated per second.
+         *
+         * @return the throughput in expressions per second
+         */
+        public double getThroughput() {
+            return nanos == 0 ? 0 : expressions * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("evaluated %d expressions (%d errors) in %.3f seconds, %.0f expressions/sec",
+                    expressions, errors, nanos / 1e9, getThroughput());
+        }
+    }
+}
@@ -22,23 +22,39 @@
 package org.silvermania.calculator.example;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
 
 import org.silvermania.rpn.postfix.calculator.RPNCalculator;
 import org.silvermania.rpn.support.CalculationContext;
 
 /**
- * The Class Main is a simple demonstration of the {@link RPNCalculator} usage
+ * The Class Main is a simple demonstration of the {@link RPNCalculator} usage,
+ * and a command line bulk evaluation of files of expressions (see
+ * {@link BulkEvaluation}):
+ *
+ * <pre>
+ * java org.silvermania.calculator.example.Main --bulk input output [--postfix] [--threads n] [--chunk bytes]
+ * </pre>
  *
  * @author T.N.Silveman
  */
 public class Main {
 
+    /** The command line usage of the bulk evaluation mode. */
+    private static final String USAGE = "usage: Main --bulk input output [--postfix] [--threads n] [--chunk bytes]";
+
     /**
-     * The main method demonstrates basic usage of the RPN Calculator
+     * The main method demonstrates basic usage of the RPN Calculator, or
+     * evaluates a file of newline separated expressions in bulk when the first
+     * argument is {@code --bulk}
      *
-     * @param args the arguments (not used in this case)
+     * @param args the arguments (none for the demonstration)
      */
     public static void main(String[] args) {
+        if (args.length > 0 && "--bulk".equals(args[0])) {
+            bulk(args);
+            return;
+        }
         // BigDecimal area = RPNCalculator.accept("π 12 * 2 pow").thenCalculate(); // calculates 1421.2230305
         // BigDecimal area = RPNCalculator.convert("pow(π*12,2)").thenCalculate(); // converts to postfix "π 12 * 2 pow" and calculates 1421.2230305
         CalculationContext context = CalculationContext.newInstance();
@@ -47,4 +63,40 @@ public class Main {
         System.out.format("area: %s%n",area);
     }
 
+    /**
+     * evaluates the expressions of an input file to an output file and
+     * reports the throughput.
+     *
+     * @param args the command line arguments, starting with {@code --bulk}
+     */
+    private static void bulk(String[] args) {
+        if (args.length < 3) {
+            System.err.println(USAGE);
+            return;
+        }
+        BulkEvaluation evaluation = BulkEvaluation.newInstance(CalculationContext.newInstance());
+        try {
+            for (int idx = 3; idx < args.length; idx++) {
+                switch (args[idx]) {
+                    case "--postfix":
+                        evaluation.withPostfix(true);
+                        break;
+                    case "--threads":
+                        evaluation.withThreads(Integer.parseInt(args[++idx]));
+                        break;
+                    case "--chunk":
+                        evaluation.withChunkSize(Integer.parseInt(args[++idx]));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown option " + args[idx]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.format("%s%n%s%n", e.getMessage(), USAGE);
+            return;
+        }
+        BulkEvaluation.Summary summary = evaluation.evaluate(Path.of(args[1]), Path.of(args[2]));
+        System.out.println(summary);
+    }
+
 }
@@ -0,0 +1,110 @@
+/*
+ * File: BulkEvaluationExample.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.calculator.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * The class BulkEvaluationExample demonstrates the evaluation of a file of
+ * newline separated expressions in bulk, by a {@link BulkEvaluation} or by
+ * the {@code --bulk} mode of {@link Main}.
+ *
+ * @author T.N.Silverman
+ */
+public class BulkEvaluationExample extends BaseExampleTestCase {
+
+    /**
+     * Demonstrates how to evaluate a file of infix expressions, one per line,
+     * into a file of their results, one per line and in the same order,
+     * whatever the number of threads and the size of the chunks the file is
+     * split into.
+     *
+     * <pre>
+     * <b>BulkEvaluation.newInstance(context).withThreads(4).evaluate(input, output);</b>
+     * </pre>
+     *
+     * @param chunkSize the size of a chunk, in bytes
+     * @param directory a temporary directory for the input and output files
+     * @throws Exception if anything goes wrong
+     */
+    @ParameterizedTest
+    @DisplayName("bulk evaluation example")
+    @ValueSource(ints = {1, 7, 64, BulkEvaluation.DEFAULT_CHUNK_SIZE})
+    public void bulkEvaluationExample(int chunkSize, @TempDir Path directory) throws Exception {
+        List<String> lines = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int idx = 0; idx < 1000; idx++) {
+            lines.add(idx + "*2+√4");
+            expected.add(idx * 2 + 2 + ".0000000");
+        }
+        lines.set(10, "");
+        expected.set(10, "");
+        lines.set(20, "1/0");
+        expected.set(20, "ERROR / by zero");
+        Path input = Files.write(directory.resolve("input.txt"), lines, StandardCharsets.UTF_8);
+        Path output = directory.resolve("output.txt");
+        BulkEvaluation.Summary summary = BulkEvaluation.newInstance(context).withThreads(4).withChunkSize(chunkSize)
+                .evaluate(input, output);
+        logger.info("{}", summary);
+        assertEquals(expected, Files.readAllLines(output, StandardCharsets.UTF_8));
+        assertEquals(999, summary.getExpressions());
+        assertEquals(1, summary.getErrors());
+        assertTrue(summary.getThroughput() > 0);
+    }
+
+    /**
+     * Demonstrates the bulk evaluation of postfix expressions from the command
+     * line, with a last line that does not end with a line break.
+     *
+     * <pre>
+     * <b>java org.silvermania.calculator.example.Main --bulk input.txt output.txt --postfix --threads 2</b>
+     * </pre>
+     *
+     * @param directory a temporary directory for the input and output files
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    @DisplayName("bulk evaluation command line example")
+    public void bulkEvaluationCommandLineExample(@TempDir Path directory) throws Exception {
+        Path input = Files.writeString(directory.resolve("input.txt"), "1 2 +\r\n2 3 max 3 ÷\n4 ! √ 16 −",
+                StandardCharsets.UTF_8);
+        Path output = directory.resolve("output.txt");
+        Main.main(new String[] {"--bulk", input.toString(), output.toString(), "--postfix", "--threads", "2"});
+        assertEquals(List.of("3.0000000", "1.0000000", "-11.1010205"), Files.readAllLines(output));
+        assertThrows(IllegalArgumentException.class, () -> BulkEvaluation.newInstance(context).withThreads(0));
+    }
+
+}
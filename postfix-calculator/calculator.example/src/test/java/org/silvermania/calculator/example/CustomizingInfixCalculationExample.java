@@ -154,12 +154,12 @@ public class CustomizingInfixCalculationExample extends BaseExampleTestCase {
                         "1+2|3.0000000000000000", // add
                         "1-2|-1.0000000000000000", // subtract
                         "1−2|-1.0000000000000000", // − supported for subtract
-                        "π*2|6.2831853071795862", // pi constant mult
-                        "PI*2|6.2831853071795862", // pi constant mult
-                        "e*2|5.4365600000000001", // Euler's number 2.71828D mult
+                        "π*2|6.2831853071795865", // pi constant mult
+                        "PI*2|6.2831853071795865", // pi constant mult
+                        "e*2|5.4365636569180905", // Euler's number mult
                         "sin(90)|1.0000000000000000", // sin function
-                        "cos(90)|1E-16", // cosin function
-                        "tan(45)|0.9999999999999999", // tangent function
+                        "cos(90)|0.0000000000000000", // cosin function
+                        "tan(45)|1.0000000000000000", // tangent function
                         "√400|20.0000000000000000", // square root function
                         "min(1,4)|1.0000000000000000", // minimum of function
                         "max(1,4)|4.0000000000000000", // maximum of function
@@ -284,7 +284,7 @@ public class CustomizingInfixCalculationExample extends BaseExampleTestCase {
                         "1−2|-1.00", // − supported for subtract
                         "π*2|6.28", // pi constant mult
                         "PI*2|6.28", // pi constant mult
-                        "e*2|5.44", // Euler's number 2.71828D mult
+                        "e*2|5.44", // Euler's number mult
                         "sin(90)|1.00", // sin function
                         "cos(90)|0.00", // cosin function
                         "tan(45)|1.00", // tangent function
@@ -146,12 +146,12 @@ public class CustomizingPostfixCalculationExample extends BaseExampleTestCase {
                         "1 2 +|3.0000000000000000", // add
                         "1 2 -|-1.0000000000000000", // subtract
                         "1 2 −|-1.0000000000000000", // − supported for subtract
-                        "π 2 *|6.2831853071795862", // pi constant mult
-                        "PI 2 *|6.2831853071795862", // pi constant mult
-                        "e 2 *|5.4365600000000001", // Euler's number 2.71828D mult
+                        "π 2 *|6.2831853071795865", // pi constant mult
+                        "PI 2 *|6.2831853071795865", // pi constant mult
+                        "e 2 *|5.4365636569180905", // Euler's number mult
                         "90 sin|1.0000000000000000", // sin function
-                        "90 cos|1E-16", // cosin function
-                        "45 tan|0.9999999999999999", // tangent function
+                        "90 cos|0.0000000000000000", // cosin function
+                        "45 tan|1.0000000000000000", // tangent function
                         "400 √|20.0000000000000000", // square root function
                         "1 4 min|1.0000000000000000", // minimum of function
                         "1 4 max|4.0000000000000000", // maximum of function
@@ -276,7 +276,7 @@ public class CustomizingPostfixCalculationExample extends BaseExampleTestCase {
                         "1 2 −|-1.00", // − supported for subtract
                         "π 2 *|6.28", // pi constant mult
                         "PI 2 *|6.28", // pi constant mult
-                        "e 2 *|5.44", // Euler's number 2.71828D mult
+                        "e 2 *|5.44", // Euler's number mult
                         "90 sin|1.00", // sin function
                         "90 cos|0.00", // cosin function
                         "45 tan|1.00", // tangent function
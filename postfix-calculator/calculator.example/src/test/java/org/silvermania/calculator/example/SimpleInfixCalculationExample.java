@@ -125,7 +125,7 @@ public class SimpleInfixCalculationExample extends BaseExampleTestCase {
                         "1−2|-1.0000000", // − supported for subtract
                         "π*2|6.2831853", // pi constant mult
                         "PI*2|6.2831853", // pi constant mult
-                        "e*2|5.4365600", // Euler's number 2.71828D mult
+                        "e*2|5.4365637", // Euler's number mult
                         "sin(90)|1.0000000", // sin function
                         "cos(90)|0.0000000", // cosin function
                         "tan(45)|1.0000000", // tangent function
@@ -251,7 +251,7 @@ public class SimpleInfixCalculationExample extends BaseExampleTestCase {
                         "1−2|-1.0000000", // − supported for subtract
                         "π*2|6.2831853", // pi constant mult
                         "PI*2|6.2831853", // pi constant mult
-                        "e*2|5.4365600", // Euler's number 2.71828D mult
+                        "e*2|5.4365637", // Euler's number mult
                         "sin(90)|1.0000000", // sin function
                         "cos(90)|0.0000000", // cosin function
                         "tan(45)|1.0000000", // tangent function
@@ -116,7 +116,7 @@ public class SimplePostfixCalculationExample extends BaseExampleTestCase {
                         "1 2 −|-1.0000000", // − supported for subtract
                         "π 2 *|6.2831853", // pi constant mult
                         "PI 2 *|6.2831853", // pi constant mult
-                        "e 2 *|5.4365600", // Euler's number 2.71828D mult
+                        "e 2 *|5.4365637", // Euler's number mult
                         "90 sin|1.0000000", // sin function
                         "90 cos|0.0000000", // cosin function
                         "45 tan|1.0000000", // tangent function
@@ -230,7 +230,7 @@ public class SimplePostfixCalculationExample extends BaseExampleTestCase {
                         "1 2 −|-1.0000000", // − supported for subtract
                         "π 2 *|6.2831853", // pi constant mult
                         "PI 2 *|6.2831853", // pi constant mult
-                        "e 2 *|5.4365600", // Euler's number 2.71828D mult
+                        "e 2 *|5.4365637", // Euler's number mult
                         "90 sin|1.0000000", // sin function
                         "90 cos|0.0000000", // cosin function
                         "45 tan|1.0000000", // tangent function
@@ -0,0 +1,153 @@
+/*
+ * File: CalculationClient.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.server;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+import org.silvermania.rpn.server.CalculationProtocol.Kind;
+import org.zeromq.SocketType;
+import org.zeromq.ZMQ;
+import org.zeromq.ZMQ.Context;
+import org.zeromq.ZMQ.Socket;
+
+/**
+ * The Class CalculationClient sends calculation requests to a
+ * {@link CalculationServer} over a ZeroMQ {@code REQ} socket and waits for
+ * their results. A client is not thread safe, and each thread should connect
+ * it's own client.
+ *
+ * @author T.N.Silverman
+ */
+public final class CalculationClient implements AutoCloseable {
+
+    /** The ZeroMQ context. */
+    private final Context zmq;
+
+    /** The request socket. */
+    private final Socket socket;
+
+    /**
+     * hidden constructor.
+     *
+     * @param endpoint the endpoint of the server
+     */
+    private CalculationClient(final String endpoint) {
+        super();
+        this.zmq = ZMQ.context(1);
+        this.socket = zmq.socket(SocketType.REQ);
+        this.socket.connect(endpoint);
+    }
+
+    /**
+     * factory method connecting a new client to a server.
+     *
+     * @param endpoint the endpoint of the server, such as
+     *        {@code tcp://localhost:5570}
+     * @return a new connected client
+     */
+    public static CalculationClient connect(String endpoint) {
+        return new CalculationClient(Objects.requireNonNull(endpoint, "endpoint cannot be null!"));
+    }
+
+    /**
+     * calculates an infix expression.
+     *
+     * @param infix the infix expression
+     * @return the result of the calculation
+     * @throws IllegalArgumentException if the server failed to calculate the
+     *         expression, with the error message of the server
+     */
+    public BigDecimal calculateInfix(CharSequence infix) throws IllegalArgumentException {
+        return calculate(Kind.INFIX, infix, Collections.emptyMap());
+    }
+
+    /**
+     * calculates an infix expression with the given variable values. The
+     * variables must be declared in the context of the server.
+     *
+     * @param infix the infix expression
+     * @param variables the variable values, by symbol
+     * @return the result of the calculation
+     * @throws IllegalArgumentException if the server failed to calculate the
+     *         expression, with the error message of the server
+     */
+    public BigDecimal calculateInfix(CharSequence infix, Map<? extends CharSequence, ? extends BigDecimal> variables)
+            throws IllegalArgumentException {
+        return calculate(Kind.INFIX, infix, variables);
+    }
+
+    /**
+     * calculates a space separated postfix expression.
+     *
+     * @param postfix the postfix expression
+     * @return the result of the calculation
+     * @throws IllegalArgumentException if the server failed to calculate the
+     *         expression, with the error message of the server
+     */
+    public BigDecimal calculatePostfix(CharSequence postfix) throws IllegalArgumentException {
+        return calculate(Kind.POSTFIX, postfix, Collections.emptyMap());
+    }
+
+    /**
+     * calculates a space separated postfix expression with the given variable
+     * values. The variables must be declared in the context of the server.
+     *
+     * @param postfix the postfix expression
+     * @param variables the variable values, by symbol
+     * @return the result of the calculation
+     * @throws IllegalArgumentException if the server failed to calculate the
+     *         expression, with the error message of the server
+     */
+    public BigDecimal calculatePostfix(CharSequence postfix,
+            Map<? extends CharSequence, ? extends BigDecimal> variables) throws IllegalArgumentException {
+        return calculate(Kind.POSTFIX, postfix, variables);
+    }
+
+    /**
+     * sends a request and waits for it's response.
+     *
+     * @param kind the kind of the expression
+     * @param expression the expression
+     * @param variables the variable values, by symbol
+     * @return the result of the calculation
+     * @throws IllegalArgumentException if the server failed to calculate the
+     *         expression
+     */
+    private BigDecimal calculate(Kind kind, CharSequence expression,
+            Map<? extends CharSequence, ? extends BigDecimal> variables) throws IllegalArgumentException {
+        socket.send(CalculationProtocol.encodeRequest(kind, expression, variables), 0);
+        return CalculationProtocol.decodeResponse(socket.recv(0));
+    }
+
+    /**
+     * disconnects this client.
+     */
+    @Override
+    public void close() {
+        socket.setLinger(0);
+        socket.close();
+        zmq.term();
+    }
+}
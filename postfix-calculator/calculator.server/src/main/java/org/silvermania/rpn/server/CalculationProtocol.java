@@ -0,0 +1,356 @@
+/*
+ * File: CalculationProtocol.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.server;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The Class CalculationProtocol encodes and decodes the single frame binary
+ * messages a {@link CalculationClient} and a {@link CalculationServer}
+ * exchange. All numbers are big endian.
+ * <p>
+ * A request frame is laid out as:
+ *
+ * <pre>
+ * byte      kind          1 for an infix expression, 2 for a postfix expression
+ * short     count         the number of variable bindings
+ * count x   binding       short symbol length, UTF-8 symbol, decimal value
+ * remaining expression    the UTF-8 expression
+ * </pre>
+ *
+ * A response frame is laid out as:
+ *
+ * <pre>
+ * byte      status        0 for a result, 1 for an error
+ * remaining payload       the decimal result, or the UTF-8 error message
+ * </pre>
+ *
+ * where a decimal is an {@code int} scale, followed by an {@code int} length
+ * and the two's complement bytes of the unscaled value.
+ *
+ * @author T.N.Silverman
+ */
+public final class CalculationProtocol {
+
+    /** The status of a response holding a result. */
+    static final byte RESULT = 0;
+
+    /** The status of a response holding an error message. */
+    static final byte ERROR = 1;
+
+    /** The maximal length of an encoded variable symbol. */
+    private static final int MAX_SYMBOL_LENGTH = 0xFFFF;
+
+    /**
+     * The Enum Kind of the expression of a request.
+     *
+     * @author T.N.Silverman
+     */
+    public enum Kind {
+        /** An infix expression, converted to postfix before it's calculated. */
+        INFIX,
+
+        /** A space separated postfix expression. */
+        POSTFIX;
+
+        /**
+         * gets the code of this kind in a request frame.
+         *
+         * @return the code of this kind
+         */
+        byte code() {
+            return (byte) (ordinal() + 1);
+        }
+
+        /**
+         * gets the kind of a code in a request frame.
+         *
+         * @param code the code
+         * @return the kind of the code
+         * @throws IllegalArgumentException if the code is unknown
+         */
+        static Kind of(byte code) throws IllegalArgumentException {
+            if (code < 1 || code > values().length) {
+                throw new IllegalArgumentException("unknown expression kind " + code + "!");
+            }
+            return values()[code - 1];
+        }
+    }
+
+    /**
+     * The Class Request is a decoded calculation request.
+     *
+     * @author T.N.Silverman
+     */
+    public static final class Request {
+
+        /** The kind of the expression. */
+        private final Kind kind;
+
+        /** The expression. */
+        private final String expression;
+
+        /** The variable values, by symbol. */
+        private final Map<String, BigDecimal> variables;
+
+        /**
+         * hidden constructor.
+         *
+         * @param kind the kind of the expression
+         * @param expression the expression
+         * @param variables the variable values, by symbol
+         */
+        private Request(final Kind kind, final String expression, final Map<String, BigDecimal> variables) {
+            super();
+            this.kind = kind;
+            this.expression = expression;
+            this.variables = variables;
+        }
+
+        /**
+         * gets the kind of the expression.
+         *
+         * @return the kind of the expression
+         */
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * gets the expression.
+         *
+         * @return the expression
+         */
+        public String getExpression() {
+            return expression;
+        }
+
+        /**
+         * gets the variable values to evaluate the expression with.
+         *
+         * @return unmodifiable map of the variable values, by symbol
+         */
+        public Map<String, BigDecimal> getVariables() {
+            return variables;
+        }
+    }
+
+    /**
+     * Instantiates a new calculation protocol.
+     */
+    private CalculationProtocol() {
+        super();
+    }
+
+    /**
+     * encodes a calculation request.
+     *
+     * @param kind the kind of the expression
+     * @param expression the expression
+     * @param variables the variable values, by symbol
+     * @return the request frame
+     * @throws IllegalArgumentException if a variable symbol is too long
+     * @throws NullPointerException if an argument, symbol or value is null
+     */
+    public static byte[] encodeRequest(Kind kind, CharSequence expression,
+            Map<? extends CharSequence, ? extends BigDecimal> variables) throws IllegalArgumentException {
+        Objects.requireNonNull(kind, "expression kind cannot be null!");
+        byte[] text = Objects.requireNonNull(expression, "expression cannot be null!").toString().getBytes(UTF_8);
+        if (Objects.requireNonNull(variables, "variables cannot be null!").size() > MAX_SYMBOL_LENGTH) {
+            throw new IllegalArgumentException("too many variables!");
+        }
+        int length = Byte.BYTES + Short.BYTES + text.length;
+        for (Map.Entry<? extends CharSequence, ? extends BigDecimal> entry : variables.entrySet()) {
+            int symbolLength = entry.getKey().toString().getBytes(UTF_8).length;
+            if (symbolLength > MAX_SYMBOL_LENGTH) {
+                throw new IllegalArgumentException("variable symbol '" + entry.getKey() + "' is too long!");
+            }
+            BigDecimal value = Objects.requireNonNull(entry.getValue(), "variable value cannot be null!");
+            length += Short.BYTES + symbolLength + decimalLength(value.unscaledValue());
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.put(kind.code());
+        buffer.putShort((short) variables.size());
+        for (Map.Entry<? extends CharSequence, ? extends BigDecimal> entry : variables.entrySet()) {
+            byte[] symbol = entry.getKey().toString().getBytes(UTF_8);
+            buffer.putShort((short) symbol.length);
+            buffer.put(symbol);
+            putDecimal(buffer, entry.getValue().scale(), entry.getValue().unscaledValue());
+        }
+        buffer.put(text);
+        return buffer.array();
+    }
+
+    /**
+     * decodes a calculation request.
+     *
+     * @param frame the request frame
+     * @return the decoded request
+     * @throws IllegalArgumentException if the frame is malformed
+     */
+    public static Request decodeRequest(byte[] frame) throws IllegalArgumentException {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(frame);
+            Kind kind = Kind.of(buffer.get());
+            int count = Short.toUnsignedInt(buffer.getShort());
+            Map<String, BigDecimal> variables = new LinkedHashMap<>();
+            for (int idx = 0; idx < count; idx++) {
+                String symbol = getString(buffer, Short.toUnsignedInt(buffer.getShort()));
+                variables.put(symbol, getDecimal(buffer));
+            }
+            String expression = getString(buffer, buffer.remaining());
+            return new Request(kind, expression, Collections.unmodifiableMap(variables));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException ex) {
+            throw new IllegalArgumentException("malformed calculation request!", ex);
+        }
+    }
+
+    /**
+     * encodes a response holding a calculation result.
+     *
+     * @param result the result
+     * @return the response frame
+     */
+    public static byte[] encodeResult(BigDecimal result) {
+        BigInteger unscaled = result.unscaledValue();
+        ByteBuffer buffer = ByteBuffer.allocate(Byte.BYTES + decimalLength(unscaled));
+        buffer.put(RESULT);
+        putDecimal(buffer, result.scale(), unscaled);
+        return buffer.array();
+    }
+
+    /**
+     * encodes a response holding an error message.
+     *
+     * @param message the error message
+     * @return the response frame
+     */
+    public static byte[] encodeError(String message) {
+        byte[] text = String.valueOf(message).getBytes(UTF_8);
+        return ByteBuffer.allocate(Byte.BYTES + text.length).put(ERROR).put(text).array();
+    }
+
+    /**
+     * decodes a response.
+     *
+     * @param frame the response frame
+     * @return the result the response holds
+     * @throws IllegalArgumentException if the response holds an error, with
+     *         the error message, or if the frame is malformed
+     */
+    public static BigDecimal decodeResponse(byte[] frame) throws IllegalArgumentException {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(frame);
+            byte status = buffer.get();
+            if (status == ERROR) {
+                throw new IllegalArgumentException(getString(buffer, buffer.remaining()));
+            }
+            if (status != RESULT) {
+                throw new IllegalArgumentException("unknown response status " + status + "!");
+            }
+            return getDecimal(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException ex) {
+            throw new IllegalArgumentException("malformed calculation response!", ex);
+        }
+    }
+
+    /**
+     * gets the encoded length of a decimal.
+     *
+     * @param unscaled the unscaled value of the decimal
+     * @return the number of bytes the decimal takes
+     */
+    private static int decimalLength(BigInteger unscaled) {
+        return Integer.BYTES + Integer.BYTES + unscaled.bitLength() / Byte.SIZE + 1;
+    }
+
+    /**
+     * puts a decimal in a buffer.
+     *
+     * @param buffer the buffer
+     * @param scale the scale of the decimal
+     * @param unscaled the unscaled value of the decimal
+     */
+    private static void putDecimal(ByteBuffer buffer, int scale, BigInteger unscaled) {
+        byte[] bytes = unscaled.toByteArray();
+        buffer.putInt(scale);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * gets a decimal from a buffer.
+     *
+     * @param buffer the buffer
+     * @return the decimal
+     * @throws IllegalArgumentException if the length of the unscaled value
+     *         exceeds the remaining bytes of the buffer
+     */
+    private static BigDecimal getDecimal(ByteBuffer buffer) throws IllegalArgumentException {
+        int scale = buffer.getInt();
+        byte[] bytes = new byte[checkLength(buffer, buffer.getInt())];
+        buffer.get(bytes);
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+
+    /**
+     * gets a UTF-8 string from a buffer.
+     *
+     * @param buffer the buffer
+     * @param length the number of bytes of the string
+     * @return the string
+     * @throws IllegalArgumentException if the length exceeds the remaining
+     *         bytes of the buffer
+     */
+    private static String getString(ByteBuffer buffer, int length) throws IllegalArgumentException {
+        byte[] bytes = new byte[checkLength(buffer, length)];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * checks a length read from a frame before anything is allocated for it,
+     * so that a corrupt or hostile length cannot exhaust the heap.
+     *
+     * @param buffer the buffer
+     * @param length the length
+     * @return the length
+     * @throws IllegalArgumentException if the length is negative or exceeds
+     *         the remaining bytes of the buffer
+     */
+    private static int checkLength(ByteBuffer buffer, int length) throws IllegalArgumentException {
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException(
+                    "length " + length + " exceeds the " + buffer.remaining() + " remaining bytes!");
+        }
+        return length;
+    }
+}
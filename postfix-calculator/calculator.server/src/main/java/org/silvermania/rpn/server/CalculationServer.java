@@ -0,0 +1,221 @@
+/*
+ * File: CalculationServer.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.silvermania.rpn.support.CalculationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zeromq.SocketType;
+import org.zeromq.ZMQ;
+import org.zeromq.ZMQ.Context;
+import org.zeromq.ZMQ.Socket;
+
+/**
+ * The Class CalculationServer serves infix and postfix calculation requests
+ * over a ZeroMQ {@code ROUTER} socket. Requests are proxied to a pool of
+ * {@link CalculationWorker} threads over an in process {@code DEALER} socket,
+ * so that many clients share one warm JVM, with the conversion cache and the
+ * compiled expressions cache of one immutable {@link CalculationContext},
+ * instead of each paying the conversion and compilation costs:
+ *
+ * <pre>
+ * CalculationContext context = CalculationContext.newInstance().declareVariable("r");
+ * try (CalculationServer server = CalculationServer.newInstance(context, "tcp://*:5570").start();
+ *         CalculationClient client = CalculationClient.connect("tcp://localhost:5570")) {
+ *     BigDecimal result = client.calculateInfix("π*r^2", Map.of("r", BigDecimal.TEN));
+ * }
+ * </pre>
+ *
+ * The messages are encoded by the {@link CalculationProtocol}. Clients may
+ * connect with a {@code REQ} socket, as the {@link CalculationClient} does,
+ * or with a {@code DEALER} socket sending an empty delimiter frame before
+ * each request.
+ *
+ * @author T.N.Silverman
+ */
+public final class CalculationServer implements AutoCloseable {
+
+    /** The logger. */
+    private static final Logger logger = LoggerFactory.getLogger(CalculationServer.class);
+
+    /** The address the workers connect to. */
+    static final String BACKEND = "inproc://calculation.workers";
+
+    /** The immutable calculation context. */
+    private final CalculationContext context;
+
+    /** The address the server binds to. */
+    private final String address;
+
+    /** The number of workers. */
+    private final int workers;
+
+    /** The proxy and worker threads. */
+    private final List<Thread> threads = new ArrayList<>();
+
+    /** The ZeroMQ context, or null if the server is not running. */
+    private Context zmq;
+
+    /** The endpoint the server is bound to. */
+    private String endpoint;
+
+    /**
+     * hidden constructor.
+     *
+     * @param context the immutable calculation context
+     * @param address the address to bind to
+     * @param workers the number of workers
+     */
+    private CalculationServer(final CalculationContext context, final String address, final int workers) {
+        super();
+        this.context = context;
+        this.address = address;
+        this.workers = workers;
+    }
+
+    /**
+     * factory method obtaining a new server with a worker per available
+     * processor.
+     *
+     * @param context the calculation context, of which the server takes an
+     *        immutable snapshot
+     * @param address the ZeroMQ address to bind to, such as
+     *        {@code tcp://*:5570}
+     * @return a new server, not yet started
+     */
+    public static CalculationServer newInstance(CalculationContext context, String address) {
+        return newInstance(context, address, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * factory method obtaining a new server.
+     *
+     * @param context the calculation context, of which the server takes an
+     *        immutable snapshot
+     * @param address the ZeroMQ address to bind to, such as
+     *        {@code tcp://*:5570}
+     * @param workers the number of worker threads
+     * @return a new server, not yet started
+     * @throws IllegalArgumentException if the number of workers is not positive
+     */
+    public static CalculationServer newInstance(CalculationContext context, String address, int workers)
+            throws IllegalArgumentException {
+        Objects.requireNonNull(context, "calculation context cannot be null!");
+        Objects.requireNonNull(address, "address cannot be null!");
+        if (workers < 1) {
+            throw new IllegalArgumentException("number of workers must be positive!");
+        }
+        return new CalculationServer(context.freeze(), address, workers);
+    }
+
+    /**
+     * binds the server and starts it's proxy and worker threads.
+     *
+     * @return this server
+     * @throws IllegalStateException if the server is already running
+     */
+    public synchronized CalculationServer start() throws IllegalStateException {
+        if (null != zmq) {
+            throw new IllegalStateException("calculation server is already running!");
+        }
+        zmq = ZMQ.context(1);
+        Socket frontend = zmq.socket(SocketType.ROUTER);
+        Socket backend = zmq.socket(SocketType.DEALER);
+        frontend.bind(address);
+        backend.bind(BACKEND);
+        endpoint = frontend.getLastEndpoint();
+        for (int idx = 0; idx < workers; idx++) {
+            threads.add(new Thread(new CalculationWorker(zmq, BACKEND, context), "calculation-worker-" + idx));
+        }
+        threads.add(new Thread(() -> proxy(frontend, backend), "calculation-proxy"));
+        threads.forEach(thread -> {
+            thread.setDaemon(true);
+            thread.start();
+        });
+        logger.info("calculation server bound to {} with {} workers", endpoint, workers);
+        return this;
+    }
+
+    /**
+     * proxies requests from the frontend to the workers, and their replies
+     * back, until the ZeroMQ context is terminated.
+     *
+     * @param frontend the frontend socket
+     * @param backend the backend socket
+     */
+    private static void proxy(Socket frontend, Socket backend) {
+        try {
+            ZMQ.proxy(frontend, backend, null);
+        } finally {
+            frontend.setLinger(0);
+            frontend.close();
+            backend.setLinger(0);
+            backend.close();
+        }
+    }
+
+    /**
+     * gets the endpoint the server is bound to, which is the address it was
+     * created with, with wildcards resolved.
+     *
+     * @return the bound endpoint, or null if the server was never started
+     */
+    public synchronized String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * returns true if the server is running.
+     *
+     * @return true if the server was started and not closed
+     */
+    public synchronized boolean isRunning() {
+        return null != zmq;
+    }
+
+    /**
+     * stops the server, terminating the ZeroMQ context and waiting for the
+     * proxy and worker threads to finish.
+     */
+    @Override
+    public synchronized void close() {
+        if (null == zmq) {
+            return;
+        }
+        zmq.term();
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        threads.clear();
+        zmq = null;
+        logger.info("calculation server bound to {} stopped", endpoint);
+    }
+}
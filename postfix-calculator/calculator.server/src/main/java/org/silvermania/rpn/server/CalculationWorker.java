@@ -0,0 +1,135 @@
+/*
+ * File: CalculationWorker.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.server;
+
+import java.math.BigDecimal;
+
+import org.silvermania.rpn.infix.converter.InfixConverter;
+import org.silvermania.rpn.postfix.calculator.CompiledExpression;
+import org.silvermania.rpn.server.CalculationProtocol.Kind;
+import org.silvermania.rpn.server.CalculationProtocol.Request;
+import org.silvermania.rpn.support.CalculationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zeromq.SocketType;
+import org.zeromq.ZMQ.Context;
+import org.zeromq.ZMQ.Error;
+import org.zeromq.ZMQ.Socket;
+import org.zeromq.ZMQException;
+
+/**
+ * The Class CalculationWorker replies to the calculation requests the
+ * {@link CalculationServer} routes to it over a {@code REP} socket, until the
+ * ZeroMQ context is terminated. Each worker owns it's {@link InfixConverter},
+ * so that the symbol classifications of it's token handler are never shared,
+ * while the conversion cache and the compiled expressions cache of the
+ * immutable server context are shared by all the workers.
+ *
+ * @author T.N.Silverman
+ */
+final class CalculationWorker implements Runnable {
+
+    /** The logger. */
+    private static final Logger logger = LoggerFactory.getLogger(CalculationWorker.class);
+
+    /** The ZeroMQ context. */
+    private final Context zmq;
+
+    /** The address of the backend socket of the server. */
+    private final String address;
+
+    /** The immutable calculation context. */
+    private final CalculationContext context;
+
+    /** The infix converter of this worker. */
+    private final InfixConverter converter;
+
+    /**
+     * Instantiates a new calculation worker.
+     *
+     * @param zmq the ZeroMQ context
+     * @param address the address of the backend socket of the server
+     * @param context the immutable calculation context
+     */
+    CalculationWorker(final Context zmq, final String address, final CalculationContext context) {
+        super();
+        this.zmq = zmq;
+        this.address = address;
+        this.context = context;
+        this.converter = InfixConverter.newInstance(context);
+    }
+
+    /**
+     * replies to calculation requests until the ZeroMQ context is terminated.
+     */
+    @Override
+    public void run() {
+        Socket socket = zmq.socket(SocketType.REP);
+        try {
+            socket.connect(address);
+            while (!Thread.currentThread().isInterrupted()) {
+                byte[] request = socket.recv(0);
+                if (null != request) {
+                    socket.send(reply(request), 0);
+                }
+            }
+        } catch (ZMQException ex) {
+            if (ex.getErrorCode() != Error.ETERM.getCode()) {
+                logger.error("calculation worker failed", ex);
+            }
+        } finally {
+            socket.setLinger(0);
+            socket.close();
+        }
+        logger.debug("calculation worker {} stopped", Thread.currentThread().getName());
+    }
+
+    /**
+     * replies to a calculation request.
+     *
+     * @param frame the request frame
+     * @return the response frame, holding the result or the error message
+     */
+    byte[] reply(byte[] frame) {
+        try {
+            return CalculationProtocol.encodeResult(calculate(CalculationProtocol.decodeRequest(frame)));
+        } catch (RuntimeException ex) {
+            logger.debug("calculation request failed: {}", ex.toString());
+            return CalculationProtocol.encodeError(null == ex.getMessage() ? ex.toString() : ex.getMessage());
+        }
+    }
+
+    /**
+     * calculates a request. The expression is converted with the converter of
+     * this worker, if it's an infix expression, and compiled once per context.
+     *
+     * @param request the request
+     * @return the result of the calculation
+     */
+    private BigDecimal calculate(Request request) {
+        String postfix = request.getKind() == Kind.INFIX ? converter.convert(request.getExpression())
+                : request.getExpression();
+        CompiledExpression expression = context.getCompiled(CalculationWorker.class, postfix,
+                key -> CompiledExpression.compile(key, context));
+        return request.getVariables().isEmpty() ? expression.evaluate() : expression.evaluate(request.getVariables());
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * File: package-info.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+/**
+ * This package contains the {@link org.silvermania.rpn.server.CalculationServer}
+ * serving calculation requests over ZeroMQ, the
+ * {@link org.silvermania.rpn.server.CalculationClient} sending them and the
+ * binary {@link org.silvermania.rpn.server.CalculationProtocol} they share.
+ *
+ * @author T.N.Silverman
+ *
+ */
+package org.silvermania.rpn.server;
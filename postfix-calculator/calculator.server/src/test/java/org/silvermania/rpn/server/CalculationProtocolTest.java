@@ -0,0 +1,138 @@
+/*
+ * File: CalculationProtocolTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.silvermania.rpn.server.CalculationProtocol.Kind;
+import org.silvermania.rpn.server.CalculationProtocol.Request;
+import org.silvermania.rpn.support.CalculationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class CalculationProtocolTest is a unit test case to assert that the
+ * {@link CalculationProtocol} frames round trip, and that malformed frames are
+ * rejected.
+ *
+ * @author T.N.Silverman
+ */
+class CalculationProtocolTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalculationProtocolTest.class);
+
+    @BeforeEach
+    public void beforeEach(TestInfo info) throws Exception {
+        logger.debug("entering {} {}", info.getTestMethod().orElseThrow().getName(), info.getDisplayName());
+    }
+
+    @ParameterizedTest
+    @DisplayName("test request round trip")
+    @CsvSource(delimiter = '@',
+               value = {"INFIX@π*r^2@r@10",
+                        "POSTFIX@x y +@x@-12345678901234567890.123456789",
+                        "INFIX@√(α²+β²)@α@0.0000001"})
+    public void testRequestRoundTrip(Kind kind, String expression, String symbol, BigDecimal value) {
+        Map<String, BigDecimal> variables = new LinkedHashMap<>();
+        variables.put(symbol, value);
+        variables.put("y", BigDecimal.ONE.negate());
+        Request request = CalculationProtocol.decodeRequest(CalculationProtocol.encodeRequest(kind, expression,
+                variables));
+        assertEquals(kind, request.getKind());
+        assertEquals(expression, request.getExpression());
+        assertEquals(variables, request.getVariables());
+    }
+
+    @ParameterizedTest
+    @DisplayName("test result round trip")
+    @CsvSource({"0", "1.0000000", "-0.5", "3.141592653589793238462643383279503", "1E+40", "-128", "255"})
+    public void testResultRoundTrip(BigDecimal result) {
+        assertEquals(result, CalculationProtocol.decodeResponse(CalculationProtocol.encodeResult(result)));
+    }
+
+    @Test
+    @DisplayName("test error response throws with the error message")
+    public void testErrorResponse() {
+        byte[] frame = CalculationProtocol.encodeError("unknown symbol 'ζ'!");
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> CalculationProtocol.decodeResponse(frame));
+        assertEquals("unknown symbol 'ζ'!", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("test malformed frames are rejected")
+    public void testMalformedFrames() {
+        byte[] request = CalculationProtocol.encodeRequest(Kind.POSTFIX, "x 1 +", Map.of("x", BigDecimal.TEN));
+        byte[] response = CalculationProtocol.encodeResult(BigDecimal.TEN);
+        assertThrows(IllegalArgumentException.class, () -> CalculationProtocol.decodeRequest(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> CalculationProtocol.decodeRequest(new byte[] {9, 0, 0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> CalculationProtocol.decodeRequest(Arrays.copyOf(request, 6)));
+        assertThrows(IllegalArgumentException.class,
+                () -> CalculationProtocol.decodeResponse(Arrays.copyOf(response, response.length - 1)));
+        assertThrows(IllegalArgumentException.class, () -> CalculationProtocol.decodeResponse(new byte[] {7}));
+    }
+
+    @Test
+    @DisplayName("test oversized length fields are rejected before allocating")
+    public void testOversizedLengths() {
+        byte[] request = CalculationProtocol.encodeRequest(Kind.POSTFIX, "x 1 +", Map.of("x", BigDecimal.TEN));
+        byte[] response = CalculationProtocol.encodeResult(BigDecimal.TEN);
+        // kind, count, symbol length, symbol 'x', scale, then the length of the unscaled value
+        ByteBuffer.wrap(request).putInt(1 + 2 + 2 + 1 + 4, Integer.MAX_VALUE);
+        ByteBuffer.wrap(response).putInt(1 + 4, Integer.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> CalculationProtocol.decodeRequest(request));
+        assertThrows(IllegalArgumentException.class, () -> CalculationProtocol.decodeResponse(response));
+        byte[] symbol = CalculationProtocol.encodeRequest(Kind.POSTFIX, "x 1 +", Map.of("x", BigDecimal.TEN));
+        ByteBuffer.wrap(symbol).putShort(1 + 2, (short) -1);
+        assertThrows(IllegalArgumentException.class, () -> CalculationProtocol.decodeRequest(symbol));
+        ByteBuffer.wrap(symbol).putShort(1 + 2, (short) 1).putInt(1 + 2 + 2 + 1 + 4, -1);
+        assertThrows(IllegalArgumentException.class, () -> CalculationProtocol.decodeRequest(symbol));
+    }
+
+    @Test
+    @DisplayName("test worker replies with an error to an oversized request and keeps serving")
+    public void testWorkerRepliesToOversizedRequest() {
+        CalculationWorker worker = new CalculationWorker(null, null,
+                CalculationContext.newInstance().declareVariable("x").freeze());
+        byte[] request = CalculationProtocol.encodeRequest(Kind.POSTFIX, "x 1 +", Map.of("x", BigDecimal.TEN));
+        ByteBuffer.wrap(request).putInt(1 + 2 + 2 + 1 + 4, Integer.MAX_VALUE);
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> CalculationProtocol.decodeResponse(worker.reply(request)));
+        assertEquals("length 2147483647 exceeds the 6 remaining bytes!", ex.getMessage());
+        byte[] valid = CalculationProtocol.encodeRequest(Kind.POSTFIX, "x 1 +", Map.of("x", BigDecimal.TEN));
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(CalculationProtocol.decodeResponse(worker.reply(valid))));
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * File: CalculationServerIntegrationTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.silvermania.rpn.support.CalculationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class CalculationServerIntegrationTest is an integration test to assert
+ * that a {@link CalculationClient} gets the results of it's calculations from
+ * a running {@link CalculationServer}.
+ *
+ * @author T.N.Silverman
+ */
+class CalculationServerIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalculationServerIntegrationTest.class);
+    private static CalculationServer server;
+
+    @BeforeAll
+    public static void beforeAll() {
+        CalculationContext context = CalculationContext.newInstance().declareVariable("x").declareVariable("y");
+        server = CalculationServer.newInstance(context, "tcp://127.0.0.1:*", 2).start();
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        server.close();
+    }
+
+    @BeforeEach
+    public void beforeEach(TestInfo info) throws Exception {
+        logger.debug("entering {} {}", info.getTestMethod().orElseThrow().getName(), info.getDisplayName());
+    }
+
+    @ParameterizedTest
+    @DisplayName("test infix calculation")
+    @CsvSource(delimiter = '@',
+               value = {"2^2^3@256", "(1+2)*3@9", "max(1,2)+√9@5", "-2+5@3"})
+    public void testInfixCalculation(String infix, BigDecimal expected) {
+        try (CalculationClient client = CalculationClient.connect(server.getEndpoint())) {
+            assertEquals(0, expected.compareTo(client.calculateInfix(infix)));
+        }
+    }
+
+    @ParameterizedTest
+    @DisplayName("test postfix calculation")
+    @CsvSource(delimiter = '@',
+               value = {"2 3 ^@8", "1 2 + 3 *@9", "9 √@3"})
+    public void testPostfixCalculation(String postfix, BigDecimal expected) {
+        try (CalculationClient client = CalculationClient.connect(server.getEndpoint())) {
+            assertEquals(0, expected.compareTo(client.calculatePostfix(postfix)));
+        }
+    }
+
+    @Test
+    @DisplayName("test calculation with variables")
+    public void testVariables() {
+        try (CalculationClient client = CalculationClient.connect(server.getEndpoint())) {
+            for (int idx = 1; idx <= 10; idx++) {
+                BigDecimal x = BigDecimal.valueOf(idx);
+                assertEquals(0, x.multiply(x).add(BigDecimal.ONE)
+                        .compareTo(client.calculateInfix("x*x+y", Map.of("x", x, "y", BigDecimal.ONE))));
+            }
+            assertEquals(0, BigDecimal.valueOf(7).compareTo(client.calculatePostfix("x y +",
+                    Map.of("x", BigDecimal.valueOf(3), "y", BigDecimal.valueOf(4)))));
+        }
+    }
+
+    @Test
+    @DisplayName("test failed calculations reply with the error message")
+    public void testErrors() {
+        try (CalculationClient client = CalculationClient.connect(server.getEndpoint())) {
+            assertThrows(IllegalArgumentException.class, () -> client.calculateInfix("2+"));
+            assertThrows(IllegalArgumentException.class, () -> client.calculatePostfix("1 0 /"));
+            assertThrows(IllegalArgumentException.class,
+                    () -> client.calculateInfix("z+1", Map.of("z", BigDecimal.ONE)));
+            // the client and server remain usable after errors
+            assertEquals(0, BigDecimal.valueOf(2).compareTo(client.calculateInfix("1+1")));
+        }
+    }
+
+    @Test
+    @DisplayName("test concurrent clients")
+    public void testConcurrentClients() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<BigDecimal>> futures = new ArrayList<>();
+            for (int idx = 0; idx < 4; idx++) {
+                BigDecimal x = BigDecimal.valueOf(idx);
+                futures.add(executor.submit(() -> {
+                    try (CalculationClient client = CalculationClient.connect(server.getEndpoint())) {
+                        BigDecimal sum = BigDecimal.ZERO;
+                        for (int count = 0; count < 50; count++) {
+                            sum = sum.add(client.calculateInfix("x*2", Map.of("x", x)));
+                        }
+                        return sum;
+                    }
+                }));
+            }
+            for (int idx = 0; idx < futures.size(); idx++) {
+                assertEquals(0, BigDecimal.valueOf(100L * idx).compareTo(futures.get(idx).get()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("test server lifecycle")
+    public void testLifecycle() {
+        CalculationServer other = CalculationServer.newInstance(CalculationContext.newInstance(), "tcp://127.0.0.1:*",
+                1);
+        assertFalse(other.isRunning());
+        other.start();
+        assertThrows(IllegalStateException.class, other::start);
+        try (CalculationClient client = CalculationClient.connect(other.getEndpoint())) {
+            assertEquals(0, BigDecimal.valueOf(6).compareTo(client.calculateInfix("2*3")));
+        }
+        other.close();
+        assertFalse(other.isRunning());
+        assertThrows(IllegalArgumentException.class,
+                () -> CalculationServer.newInstance(CalculationContext.newInstance(), "tcp://127.0.0.1:*", 0));
+    }
+}
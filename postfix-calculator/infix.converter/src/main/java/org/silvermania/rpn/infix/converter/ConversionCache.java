@@ -0,0 +1,295 @@
+/*
+ * File: ConversionCache.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.infix.converter;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.silvermania.rpn.support.CalculationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class ConversionCache is a bounded, thread safe cache of {@code infix}
+ * to {@code postfix} conversions, evicting the least recently used conversion
+ * when it's full.
+ * <p>
+ * Conversions are keyed on the {@link CalculationContext#getRoot() root} of
+ * the context they were converted against, the
+ * {@link CalculationContext#getSymbolsVersion() symbols version} of the root,
+ * the {@link CalculationContext#getOverlaySymbols() variables} the context
+ * overlays on the root and the infix text. A conversion depends on the
+ * symbols of the context only, never on the values of it's variables, so the
+ * child contexts derived from the same context for each request share their
+ * conversions. Registering an operator, function, constant or new variable
+ * changes the symbols version of the context, so conversions made before the
+ * registration are never returned after it, and are eventually evicted. The
+ * root contexts are held weakly, so the cache never keeps a context from
+ * being collected.
+ * <p>
+ * Lookups never lock. Each conversion is stamped whenever it's used, and the
+ * conversions used least recently are evicted by a single thread at a time
+ * once the cache is full, so the cache may briefly exceed it's maximum size
+ * while conversions are added concurrently.
+ * <p>
+ * All {@link InfixConverter} instances share the {@link #shared()} cache
+ * unless created with a cache of their own.
+ *
+ * @author T.N.Silverman
+ */
+public final class ConversionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversionCache.class);
+
+    /** The default maximal number of cached conversions. */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    /** The cache shared by default by all infix converters. */
+    private static final ConversionCache SHARED = newInstance(DEFAULT_MAXIMUM_SIZE);
+
+    /** The maximal number of cached conversions. */
+    private final int maximumSize;
+
+    /** The cached conversions. */
+    private final Map<Key, Conversion> conversions = new ConcurrentHashMap<>();
+
+    /** true while a thread is evicting conversions. */
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    /** The number of conversions found in the cache. */
+    private final LongAdder hits = new LongAdder();
+
+    /** The number of conversions not found in the cache. */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * hidden constructor.
+     *
+     * @param maximumSize the maximal number of cached conversions
+     */
+    private ConversionCache(final int maximumSize) {
+        super();
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * a factory method for obtaining a new, empty conversion cache.
+     *
+     * @param maximumSize the maximal number of cached conversions
+     * @return new instance of {@code ConversionCache}
+     * @throws IllegalArgumentException if the maximum size is not positive
+     */
+    public static ConversionCache newInstance(int maximumSize) throws IllegalArgumentException {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximum cache size must be positive!");
+        }
+        return new ConversionCache(maximumSize);
+    }
+
+    /**
+     * gets the cache shared by default by all infix converters, with a maximum
+     * size of {@value #DEFAULT_MAXIMUM_SIZE} conversions.
+     *
+     * @return the shared conversion cache
+     */
+    public static ConversionCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * gets the cached conversion of the given {@code infix} expression against
+     * the given {@code context}, converting and caching it if it's absent.
+     * Failed conversions are not cached. Concurrent misses of the same
+     * expression may convert it more than once.
+     *
+     * @param context the calculation context of the conversion
+     * @param infix the infix expression
+     * @param converter the conversion to apply on a cache miss
+     * @return the postfix expression
+     */
+    String get(CalculationContext context, CharSequence infix, Function<CharSequence, String> converter) {
+        Key key = new Key(context, infix.toString());
+        Conversion conversion = conversions.get(key);
+        if (null != conversion) {
+            conversion.used = System.nanoTime();
+            hits.increment();
+            context.getMetrics().recordCache("conversion", true);
+            return conversion.postfix;
+        }
+        misses.increment();
+        context.getMetrics().recordCache("conversion", false);
+        String postfix = converter.apply(infix);
+        conversions.put(key, new Conversion(postfix));
+        evict();
+        logger.trace("cached conversion of infix '{}'", infix);
+        return postfix;
+    }
+
+    /**
+     * evicts the least recently used conversions while this cache is larger
+     * than it's maximum size, unless another thread is already evicting them.
+     * Conversions against contexts that were collected are evicted first.
+     */
+    private void evict() {
+        while (conversions.size() > maximumSize && evicting.compareAndSet(false, true)) {
+            try {
+                conversions.keySet().removeIf(key -> null == key.root.get());
+                for (int excess = conversions.size() - maximumSize; excess > 0; excess--) {
+                    Key eldest = null;
+                    long used = Long.MAX_VALUE;
+                    for (Map.Entry<Key, Conversion> entry : conversions.entrySet()) {
+                        if (entry.getValue().used < used) {
+                            eldest = entry.getKey();
+                            used = entry.getValue().used;
+                        }
+                    }
+                    if (null == eldest) {
+                        break;
+                    }
+                    conversions.remove(eldest);
+                }
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    /**
+     * gets the number of conversions found in this cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * gets the number of conversions not found in this cache.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * gets the maximal number of cached conversions.
+     *
+     * @return the maximum size of this cache
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * gets the number of cached conversions.
+     *
+     * @return the size of this cache
+     */
+    public int size() {
+        return conversions.size();
+    }
+
+    /**
+     * removes all the cached conversions and resets the hit and miss counters.
+     */
+    public void clear() {
+        conversions.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ConversionCache [size=" + size() + ", maximumSize=" + maximumSize + ", hits=" + getHitCount()
+            + ", misses=" + getMissCount() + "]";
+    }
+
+    /**
+     * The Class Key identifies a conversion by the root context, symbols
+     * version and overlaid variables of it's context, and by it's infix text.
+     */
+    private static final class Key {
+
+        private final WeakReference<CalculationContext> root;
+        private final long version;
+        private final Set<CharSequence> overlay;
+        private final String infix;
+        private final int hash;
+
+        private Key(final CalculationContext context, final String infix) {
+            super();
+            CalculationContext root = context.getRoot();
+            this.root = new WeakReference<>(root);
+            this.version = root.getSymbolsVersion();
+            this.overlay = context.getOverlaySymbols();
+            this.infix = infix;
+            this.hash = 31 * (31 * (31 * System.identityHashCode(root) + Long.hashCode(version))
+                    + overlay.hashCode()) + infix.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            CalculationContext context = root.get();
+            return null != context && context == other.root.get() && version == other.version
+                    && infix.equals(other.infix) && overlay.equals(other.overlay);
+        }
+    }
+
+    /**
+     * The Class Conversion is a cached postfix expression and the time it was
+     * last used.
+     */
+    private static final class Conversion {
+
+        private final String postfix;
+        private volatile long used;
+
+        private Conversion(final String postfix) {
+            super();
+            this.postfix = postfix;
+            this.used = System.nanoTime();
+        }
+    }
+}
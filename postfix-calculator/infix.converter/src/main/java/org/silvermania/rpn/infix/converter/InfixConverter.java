@@ -24,14 +24,16 @@ package org.silvermania.rpn.infix.converter;
 import static org.silvermania.rpn.support.TokenUtil.isOpener;
 
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
-import java.util.Scanner;
 import java.util.Stack;
 import java.util.stream.Collectors;
 
 import org.silvermania.rpn.infix.support.InfixNormalizer;
 import org.silvermania.rpn.infix.support.InfixTokenHandler;
 import org.silvermania.rpn.support.CalculationContext;
+import org.silvermania.rpn.support.CalculationMetrics;
+import org.silvermania.rpn.support.CalculationMetrics.Phase;
 import org.silvermania.rpn.support.Converter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -82,16 +84,23 @@ public final class InfixConverter implements Converter<CharSequence, String> {
 
     private CalculationContext context;
 
+    private ConversionCache cache;
+
+    private InfixTokenHandler handler;
+
     /**
      * Instantiates a new infix to postfix converter.
      *
      * @param context the calculation context on which to locate the meaning of
      *        functions, operators, constants and to obtain information about
      *        rounding modes and rounding decimal places
+     * @param cache the conversion cache or null for no caching
      */
-    private InfixConverter(final CalculationContext context) {
+    private InfixConverter(final CalculationContext context, final ConversionCache cache) {
         super();
         this.context = context;
+        this.cache = cache;
+        this.handler = InfixTokenHandler.newInstance(context);
     }
 
     /**
@@ -102,10 +111,27 @@ public final class InfixConverter implements Converter<CharSequence, String> {
      *        functions, operators, constants and to obtain information about
      *        rounding modes and rounding decimal places
      *
-     * @return new instance of {@code InfixConverter}
+     * @return new instance of {@code InfixConverter}, caching it's conversions
+     *         in the {@link ConversionCache#shared() shared} conversion cache
      */
     public static InfixConverter newInstance(CalculationContext context) {
-        return new InfixConverter(context);
+        return new InfixConverter(context, ConversionCache.shared());
+    }
+
+    /**
+     * a factory method for obtaining a new instance of this
+     * {@code InfixConverter} with it's own conversion cache.
+     *
+     * @param context the calculation context on which to locate the meaning of
+     *        functions, operators, constants and to obtain information about
+     *        rounding modes and rounding decimal places
+     * @param cache the conversion cache, or null to convert every expression
+     *        anew
+     *
+     * @return new instance of {@code InfixConverter}
+     */
+    public static InfixConverter newInstance(CalculationContext context, ConversionCache cache) {
+        return new InfixConverter(context, cache);
     }
 
     /**
@@ -116,7 +142,12 @@ public final class InfixConverter implements Converter<CharSequence, String> {
      *           infix expression must have each operand, operator, function,
      *           function argument separator and bracket separated by a space.
      *           The {@link InfixNormalizer} is responsible for making sure this
-     *           is the case with any input, space separated or not.
+     *           is the case with any input, space separated or not, and the
+     *           tokens it finds are handled directly, without joining and
+     *           splitting them again. Conversions are looked up in, and added
+     *           to, the {@link ConversionCache} of this converter, and the
+     *           {@link InfixTokenHandler} of this converter keeps the
+     *           classifications of the symbols it meets across conversions.
      *
      * @param expression the input {@code infix} expression
      * @return a space separated {@code postfix} expression
@@ -127,31 +158,63 @@ public final class InfixConverter implements Converter<CharSequence, String> {
      */
     @Override
     public String convert(final CharSequence expression) {
+        if (null == cache || null == expression) {
+            return convertUncached(expression);
+        }
+        return cache.get(context, expression, this::convertUncached);
+    }
+
+    /**
+     * Converts an {@code infix} expression to a {@code postfix} expression,
+     * bypassing the conversion cache.
+     *
+     * @param expression the input {@code infix} expression
+     * @return a space separated {@code postfix} expression
+     * @throws IllegalArgumentException if the infix expression is malformed
+     */
+    private String convertUncached(final CharSequence expression) {
         Queue<CharSequence> queue = new LinkedList<>();
         Stack<CharSequence> stack = new Stack<>();
-        CharSequence infix =
-            InfixNormalizer.newInstance(context).normalize(expression);
-        logger.trace("converting normalized infix: {}", infix);
-        InfixTokenHandler handler = InfixTokenHandler.newInstance(context);
-        try (Scanner scanner = new Scanner(infix.toString())) {
-            scanner.useDelimiter(" ");
-            while (scanner.hasNext()) {
-                handler.handle(scanner.next(), stack, queue);
-            }
-            // if there's opening ( on top of the stack the expression is malformed
-            if (!stack.isEmpty()) {
-                if (isOpener(stack.peek())) {
-                    throw new IllegalArgumentException(
-                            "Malformed expression! Unmatched opening bracket ( | [ | {");
-                }
-                // pop the rest of the operators on the stack to the output queue.
-                while (!stack.isEmpty()) {
-                    queue.offer(stack.pop());
-                }
-            }
+        CalculationMetrics metrics = context.getMetrics();
+        if (metrics.isEnabled()) {
+            // normalize eagerly, to time the phases apart
+            long start = System.nanoTime();
+            List<CharSequence> tokens = InfixNormalizer.newInstance(context).stream(expression)
+                    .collect(Collectors.toList());
+            long normalized = System.nanoTime();
+            metrics.recordPhase(Phase.NORMALIZE, normalized - start, tokens.size());
+            tokens.forEach(token -> handler.handle(token, stack, queue));
+            drain(stack, queue);
+            metrics.recordPhase(Phase.CONVERT, System.nanoTime() - normalized, tokens.size());
+        } else {
+            InfixNormalizer.newInstance(context).stream(expression)
+                    .forEach(token -> handler.handle(token, stack, queue));
+            drain(stack, queue);
         }
         String result = queue.stream().collect(Collectors.joining(" "));
-        logger.debug("converted infix '{}' to postfix '{}'", infix, result);
+        logger.debug("converted infix '{}' to postfix '{}'", expression, result);
         return result;
     }
+
+    /**
+     * pops the operators left on the stack to the output queue.
+     *
+     * @param stack the operators stack
+     * @param queue the output queue
+     * @throws IllegalArgumentException if an opening bracket is left on the
+     *         stack
+     */
+    private static void drain(Stack<CharSequence> stack, Queue<CharSequence> queue) {
+        // if there's opening ( on top of the stack the expression is malformed
+        if (!stack.isEmpty()) {
+            if (isOpener(stack.peek())) {
+                throw new IllegalArgumentException(
+                        "Malformed expression! Unmatched opening bracket ( | [ | {");
+            }
+            // pop the rest of the operators on the stack to the output queue.
+            while (!stack.isEmpty()) {
+                queue.offer(stack.pop());
+            }
+        }
+    }
 }
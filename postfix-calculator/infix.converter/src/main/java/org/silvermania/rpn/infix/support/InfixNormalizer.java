@@ -21,13 +21,7 @@
  */
 package org.silvermania.rpn.infix.support;
 
-import static org.silvermania.rpn.support.TokenUtil.isArithmeticToken;
-import static org.silvermania.rpn.support.TokenUtil.isOperand;
-import static org.silvermania.rpn.support.TokenUtil.isToken;
-
 import java.io.Serializable;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -38,6 +32,7 @@ import org.slf4j.LoggerFactory;
 /**
  * The Class InfixNormalizer normalizes a given {@code infix} expression by
  * separating the operands and operators into a space separated char sequence.
+ * The tokens are found by an {@link InfixTokenizer}.
  *
  * @author T.N.Silverman
  */
@@ -46,10 +41,6 @@ public final class InfixNormalizer implements Serializable {
     private static final Logger logger =
         LoggerFactory.getLogger(InfixNormalizer.class);
 
-    /**
-     * the list of tokens in an infix expression
-     */
-    private final List<CharSequence> tokens = new LinkedList<CharSequence>();
     private CalculationContext context;
 
     /**
@@ -78,61 +69,6 @@ public final class InfixNormalizer implements Serializable {
         return new InfixNormalizer(context);
     }
 
-    /**
-     * Stores the first longest token in a given {@code infix} expression, and
-     * return the suffix of the original infix expression less the token, for
-     * recursive processing.
-     *
-     * @param infix the infix expression to extract the first longest token from
-     * @return the suffix of the original {@code infix} expression less the
-     *         token found
-     * @throws IllegalArgumentException if a token is found that cannot be
-     *         evaluated to an operand (numeric or constant) or an operator,
-     *         function, function argument separator, or any opening or closing
-     *         parentheses, square or curly brackets.
-     */
-    private CharSequence storeAndNormalize(CharSequence infix)
-            throws IllegalArgumentException {
-        logger.trace("infix: {}", infix);
-        StringBuilder chars = new StringBuilder(infix);
-        CharSequence current = null;
-        CharSequence token = null;
-        int endIdx = 1;
-        while (endIdx <= chars.length()) {
-            current = chars.substring(0, endIdx); // look at first char
-            if (isToken(current, context)) { // if token, temporarily save it
-                logger.info(context.print());
-                token = current;
-                logger.trace("is-token: {}", current);
-                if (!tokens.isEmpty()
-                        && isOperand(tokens.get(tokens.size() - 1), context)
-                        && isArithmeticToken(token, context)) {
-                    // it it's a minus sign, and the previous token was an operand, our current
-                    // minus sign is not an operand but an operator, so we're done
-                    break;
-                }
-            } else {
-                logger.trace("no-token: {}", current);
-                if (null != token && isToken(token, context)) {
-                    break; // we already have the largest token, so done
-                }
-            }
-            endIdx++; // keep looking for a larger token
-        }
-        if (token != null) {
-            tokens.add(token);
-            CharSequence result = chars.substring(token.length());
-            return storeAndNormalize(result);
-        } else {
-            if (infix.length() > 0 && current != null) {
-                throw new IllegalArgumentException(
-                        "unrecognized token '" + infix.charAt(0)
-                            + "' in infix expression");
-            }
-            return "";
-        }
-    }
-
     /**
      * Normalizes a given {@code infix} expression to a space separated
      * {@code CharSequence} expression for later conversion to {@code postfix}
@@ -163,14 +99,7 @@ public final class InfixNormalizer implements Serializable {
      */
     public Stream<CharSequence> stream(CharSequence infix)
             throws IllegalArgumentException {
-        if (null == infix || infix.toString().isBlank()) {
-            throw new IllegalArgumentException("offending infix expression."
-                + " input expression cannot be null or blank");
-        }
-        infix = infix.toString().replaceAll(" ", "").replaceAll("\t", "");
-        logger.trace("infix: {}", infix);
-        storeAndNormalize(infix);
-        return tokens.stream();
+        return InfixTokenizer.newInstance(context).tokenize(infix).stream();
     }
 
 }
@@ -21,13 +21,15 @@
  */
 package org.silvermania.rpn.infix.support;
 
+import static org.silvermania.rpn.support.TokenUtil.getArity;
 import static org.silvermania.rpn.support.TokenUtil.getOperator;
 import static org.silvermania.rpn.support.TokenUtil.isClosingBracket;
 import static org.silvermania.rpn.support.TokenUtil.isClosingCurlyBracket;
 import static org.silvermania.rpn.support.TokenUtil.isClosingParentheses;
 import static org.silvermania.rpn.support.TokenUtil.isFunction;
 import static org.silvermania.rpn.support.TokenUtil.isFunctionArgSeparator;
-import static org.silvermania.rpn.support.TokenUtil.isOpener;
+import static org.silvermania.rpn.support.TokenUtil.isMultiArgArithmeticToken;
+import static org.silvermania.rpn.support.TokenUtil.isNumericConstant;
 import static org.silvermania.rpn.support.TokenUtil.isOpeningBracket;
 import static org.silvermania.rpn.support.TokenUtil.isOpeningCurlyBracket;
 import static org.silvermania.rpn.support.TokenUtil.isOpeningParentheses;
@@ -37,6 +39,8 @@ import static org.silvermania.rpn.support.TokenUtil.isPostfixBinaryOperator;
 import static org.silvermania.rpn.support.TokenUtil.isPostfixUnaryOperator;
 import static org.silvermania.rpn.support.TokenUtil.isPrefixBinaryOperator;
 import static org.silvermania.rpn.support.TokenUtil.isPrefixUnaryOperator;
+import static org.silvermania.rpn.support.TokenUtil.isUnaryArithmeticToken;
+import static org.silvermania.rpn.support.TokenUtil.markArity;
 
 import java.io.Serializable;
 import java.util.LinkedHashMap;
@@ -44,13 +48,14 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.silvermania.rpn.support.CalculationContext;
-import org.silvermania.rpn.support.OperatorToken;
+import org.silvermania.rpn.support.FunctionToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -95,20 +100,23 @@ import org.slf4j.LoggerFactory;
  * </li>
  * </ul>
  * <br>
- * This class follows the {@code State} design pattern, where the state is
- * encapsulated in a lambda expression to handle a {@code token} read from the
- * input expression and manipulate an operator stack and an output queue, to
- * represent the converted infix expression at the end of the queue.
+ * Each {@code token} is classified once into a {@link Kind} (operand, prefix
+ * or postfix unary operator, prefix or postfix binary operator, function,
+ * function argument separator or one of the opening and closing brackets)
+ * together with the integer precedence of it's operator, and the handler
+ * switches on the kind. The classification of every symbol that is not a
+ * numeric literal is kept by the handler, so the operators and functions met
+ * again on top of the operator stack are never resolved against the
+ * {@link CalculationContext} again. The kept classifications are discarded
+ * whenever the {@link CalculationContext#getVersion() version} of the context
+ * changes.
  * <p>
- * The handler knows if it can handle the {@code token} by calling the
- * {@link #accept(Predicate, CharSequence)} method, which returns true if the
- * token can be represented by one of the
- * {@link org.silvermania.rpn.support.Token} hierarchy classes and the handler
- * lambda is designed to handle the token type. The first argument to accept
- * method is the test predicate while the {@link CharSequence} argument is the
- * token.
- * <p>
- * A typical accept {@link Predicate} looks like this:
+ * Tokens of no known kind are handed to the handlers registered with
+ * {@link #registerHandling(Predicate, Function)}. A registered handler knows if
+ * it can handle the {@code token} by calling the
+ * {@link #accept(Predicate, CharSequence)} method, which returns the accepted
+ * token if the acceptor {@link Predicate} answers true. A typical accept
+ * {@link Predicate} looks like this:
  *
  * <pre>
  * <b>Predicate&lt;CharSequence&gt; NAME_OF_PRED = token -&gt; isSomeTypeOfOperator(token);</b>
@@ -127,22 +135,21 @@ import org.slf4j.LoggerFactory;
  *      value -&gt; (stack, queue) -&gt; { do stuff with stack and queue }</b>
  * </pre>
  *
- * The {@code value} argument to the function expression is this handler
- * {@link Optional} value, that is only none empty, if the
- * {@link InfixTokenHandler#accept(Predicate, CharSequence)} method returns
- * true. Trying to operate on the handler without acceptance leads to an
- * {@link UnsupportedOperationException}.
+ * The {@code value} argument to the function expression is the
+ * {@link Optional} value returned by the
+ * {@link InfixTokenHandler#accept(Predicate, CharSequence)} method, that is only
+ * none empty if the token was accepted. Trying to operate on the handler
+ * without acceptance leads to an {@link UnsupportedOperationException}.
  * <p>
- * To manage the different states, this class contains a handler registry with
- * default {@link Predicate} to pass to the
- * {@link #accept(Predicate, CharSequence)} method and a handler lambda to
- * handle the {@code token}. This class simply calls the accept method for each
- * registered handler and deals with the first that answers true. In this
- * mechanism the {@code token} is actually the state changer.
+ * The handler keeps no state between handling tokens other than the
+ * classifications of the symbols, so the same instance may convert several
+ * expressions concurrently, each with it's own stack and queue, as long as no
+ * handling is registered meanwhile.
  * <p>
- * Care must be taken to ensure there's only one single handler per token type,
- * otherwise a token may be handled twice or more and the operator stack and
- * output queue ruined.
+ * Registered handlers are asked in order of registration, and the first that
+ * accepts the token handles it. Care must be taken to ensure there's only one
+ * single handler per token type, otherwise the operator stack and output queue
+ * may be ruined.
  *
  * @author T.N.Silverman
  */
@@ -154,6 +161,9 @@ public final class InfixTokenHandler implements Serializable {
     /** The log trace level function. */
     private final Function<String, BiConsumer<Stack<CharSequence>, Queue<CharSequence>>> traceFunction =
         message -> (stack, queue) -> {
+            if (!logger.isTraceEnabled()) {
+                return; // joining the stack and queue is linear in their size
+            }
             String stackContent =
                 new StringBuilder(stack.stream().collect(Collectors.joining(" "))).reverse().toString();
             String queueContent = queue.stream().collect(Collectors.joining(" "));
@@ -163,6 +173,17 @@ public final class InfixTokenHandler implements Serializable {
     /** The context. */
     private CalculationContext context;
 
+    /** The classifications of the symbols by symbol. */
+    private final Map<String, Classification> classifications = new ConcurrentHashMap<>();
+
+    /** The version of the context the classifications were made against. */
+    private volatile long version;
+
+    /** The handlers registry. */
+    private final Map<Predicate<CharSequence>,
+            Function<Optional<CharSequence>, BiConsumer<Stack<CharSequence>, Queue<CharSequence>>>> handlersRegistry =
+                new LinkedHashMap<>();
+
     /**
      * hidden constructor.
      *
@@ -173,20 +194,7 @@ public final class InfixTokenHandler implements Serializable {
     private InfixTokenHandler(final CalculationContext context) {
         super();
         this.context = context;
-        handlersRegistry.put(operandPredicate, operandHandler);
-        handlersRegistry.put(postfixUniOperatorPredicate, postfixUniOperatorHandler);
-        handlersRegistry.put(prefixUniOperatorPredicate, prefixUniOperatorHandler);
-        handlersRegistry.put(functionPredicate, functionHandler);
-        handlersRegistry.put(functionArgSeparatorPredicate, functionArgSeparatorHandler);
-        handlersRegistry.put(prefixBiOperatorPredicate, prefixBiOperatorHandler);
-        handlersRegistry.put(postfixBiOperatorPredicate, postfixBiOperatorHandler);
-        // brackets
-        handlersRegistry.put(openCurlyPredicate, openCurlyHandler);
-        handlersRegistry.put(openBracketPredicate, openBracketHandler);
-        handlersRegistry.put(openParenthesesPredicate, openParenthesesHandler);
-        handlersRegistry.put(closeParenthesesPredicate, closeParenthesesHandler);
-        handlersRegistry.put(closeBracketPredicate, closeBracketHandler);
-        handlersRegistry.put(closeCurlyPredicate, closeCurlyHandler);
+        this.version = context.getVersion();
     }
 
     /**
@@ -202,246 +210,156 @@ public final class InfixTokenHandler implements Serializable {
         return new InfixTokenHandler(context);
     }
 
-    // private final Predicate<CharSequence> BI_OPER_PRED = token ->
-    // isBinaryOperator(token, context);
-
-    /** The postfix bi operator predicate. */
-    private final Predicate<CharSequence> postfixBiOperatorPredicate = token -> isPostfixBinaryOperator(token, context);
-
-    /** The prefix bi operator predicate. */
-    private final Predicate<CharSequence> prefixBiOperatorPredicate = token -> isPrefixBinaryOperator(token, context);
-
-    /** The postfix uni operator predicate. */
-    private final Predicate<CharSequence> postfixUniOperatorPredicate = token -> isPostfixUnaryOperator(token, context);
-
-    /** The prefix uni operator predicate. */
-    private final Predicate<CharSequence> prefixUniOperatorPredicate = token -> isPrefixUnaryOperator(token, context);
-
-    /** The function arg separator predicate. */
-    private final Predicate<CharSequence> functionArgSeparatorPredicate = token -> isFunctionArgSeparator(token);
-
-    /** The function predicate. */
-    private final Predicate<CharSequence> functionPredicate = token -> isFunction(token, context);
-
-    /** The open parentheses predicate. */
-    private final Predicate<CharSequence> openParenthesesPredicate = token -> isOpeningParentheses(token);
-
-    /** The close parentheses predicate. */
-    private final Predicate<CharSequence> closeParenthesesPredicate = token -> isClosingParentheses(token);
-
-    /** The open bracket predicate. */
-    private final Predicate<CharSequence> openBracketPredicate = token -> isOpeningBracket(token);
-
-    /** The close bracket predicate. */
-    private final Predicate<CharSequence> closeBracketPredicate = token -> isClosingBracket(token);
-
-    /** The open curly predicate. */
-    private final Predicate<CharSequence> openCurlyPredicate = token -> isOpeningCurlyBracket(token);
-
-    /** The close curly predicate. */
-    private final Predicate<CharSequence> closeCurlyPredicate = token -> isClosingCurlyBracket(token);
-
-    /** The operand predicate. */
-    private final Predicate<CharSequence> operandPredicate = token -> isOperand(token, context);
-
-    /** The handlers registry. */
-    private final Map<Predicate<CharSequence>,
-            Function<Optional<CharSequence>, BiConsumer<Stack<CharSequence>, Queue<CharSequence>>>> handlersRegistry =
-                new LinkedHashMap<>();
-
-    /** The prefix bi operator function. */
-    /*
-     * If the token is a binary operator A then: If A is prefix, while there is an
-     * operator B of higher or equal precedence than A at the top of the stack, pop
-     * B off the stack and append it to the output. If A is postfix, while there is
-     * an operator B of higher precedence than A at the top of the stack, pop B off
-     * the stack and append it to the output. Push A onto the stack.
-     */
-    private Function<Optional<CharSequence>,
-            BiConsumer<Stack<CharSequence>, Queue<CharSequence>>> prefixBiOperatorHandler = value -> (stack, queue) -> {
-                OperatorToken operatorToken = getOperator(value.get(), context);
-                while (!stack.isEmpty() && isOperator(stack.peek(), context) && getOperator(stack.peek(), context)
-                        .getPrecedence().compareTo(operatorToken.getPrecedence()) >= 0) {
-                    traceFunction.apply("prefixBiOperatorHandler (pop " + stack.peek() + ")").accept(stack, queue);
-                    queue.offer(stack.pop());
-                }
-                stack.push(value.get());
-                traceFunction.apply("prefixBiOperatorHandler (pushed " + value.get() + ")").accept(stack, queue);
-            };
-
-    /** The postfix bi operator function. */
-    private final Function<Optional<CharSequence>,
-            BiConsumer<Stack<CharSequence>, Queue<CharSequence>>> postfixBiOperatorHandler =
-                value -> (stack, queue) -> {
-                    OperatorToken operatorToken = getOperator(value.get(), context);
-                    while (!stack.isEmpty() && isOperator(stack.peek(), context) && getOperator(stack.peek(), context)
-                            .getPrecedence().compareTo(operatorToken.getPrecedence()) > 0) {
-                        traceFunction.apply("postfixBiOperatorHandler (pop " + stack.peek() + ")").accept(stack, queue);
-                        queue.offer(stack.pop());
-                    }
-                    stack.push(value.get());
-                    traceFunction.apply("postfixBiOperatorHandler (pushed " + value.get() + ")").accept(stack, queue);
-                };
-
-    /** The postfix uni operator function. */
-    /*
-     * If the token is a unary postfix operator, append it to the output.
-     */
-    private final Function<Optional<CharSequence>,
-            BiConsumer<Stack<CharSequence>, Queue<CharSequence>>> postfixUniOperatorHandler =
-                value -> (stack, queue) -> {
-                    queue.offer(value.get());
-                    traceFunction.apply("postfixUniOperatorHandler").accept(stack, queue);
-                };
-
-    /** The prefix uni operator function. */
-    /*
-     * If the token is a unary prefix operator, push it on to the stack.
+    /**
+     * classifies the given {@code token}. The classification of a symbol is
+     * kept, the classification of a numeric literal is not, as there's no end
+     * to them.
+     *
+     * @param token the token
+     * @return the classification of the token
+     * @throws IllegalArgumentException if the token is null
      */
-    private final Function<Optional<CharSequence>,
-            BiConsumer<Stack<CharSequence>, Queue<CharSequence>>> prefixUniOperatorHandler =
-                value -> (stack, queue) -> {
-                    stack.push(value.get());
-                    traceFunction.apply("prefixUniOperatorHandler").accept(stack, queue);
-                };
-
-    /** The function arg separator function. */
-    /*
-     * If the token is a function argument separator, pop the top element off the
-     * stack and append it to the output, until the top element of the stack is an
-     * opening bracket
+    private Classification classify(CharSequence token) {
+        if (null == token) {
+            throw new IllegalArgumentException("argument 'token' cannot be null");
+        }
+        Classification classification = classifications.get(token.toString());
+        if (null != classification) {
+            return classification;
+        }
+        classification = Classification.of(token, context);
+        if (classification.kind != Kind.UNKNOWN
+                && (classification.kind != Kind.OPERAND || isNumericConstant(token, context))) {
+            classifications.put(token.toString(), classification);
+        }
+        return classification;
+    }
+
+    /**
+     * strips the arity marker off a function token on the stack (e.g. min#2
+     * to min).
+     *
+     * @param token the token
+     * @return the token without it's arity marker
      */
-    private final Function<Optional<CharSequence>,
-            BiConsumer<Stack<CharSequence>, Queue<CharSequence>>> functionArgSeparatorHandler =
-                value -> (stack, queue) -> {
-                    while (!stack.isEmpty() && !isOpeningParentheses(stack.peek())) {
-                        queue.offer(stack.pop());
-                    }
-                    traceFunction.apply("functionArgSeparatorHandler").accept(stack, queue);
-                };
-
-    /** The function handler function. */
-    /*
-     * If the token is a function token, push it on to the stack.
+    private static CharSequence unmarked(CharSequence token) {
+        if (getArity(token) < 0) {
+            return token;
+        }
+        return token.subSequence(0, token.toString().lastIndexOf(FunctionToken.ARITY_MARKER.toString()));
+    }
+
+    /**
+     * If the token is a binary operator A then: If A is prefix, while there is
+     * an operator B of higher or equal precedence than A at the top of the
+     * stack, pop B off the stack and append it to the output. If A is postfix,
+     * while there is an operator B of higher precedence than A at the top of
+     * the stack, pop B off the stack and append it to the output. Push A onto
+     * the stack.
+     *
+     * @param token the binary operator
+     * @param precedence the precedence of the binary operator
+     * @param prefix true if the operator is prefix (left associative)
+     * @param stack the stack
+     * @param queue the queue
      */
-    private final Function<Optional<CharSequence>,
-            BiConsumer<Stack<CharSequence>, Queue<CharSequence>>> functionHandler = value -> (stack, queue) -> {
-                stack.push(value.get());
-                traceFunction.apply("functionHandler").accept(stack, queue);
-            };
-
-    /** The open parentheses function. */
-    /*
-     * If the token is an opening bracket, then push it onto the stack.
+    private void handleBinaryOperator(CharSequence token, int precedence, boolean prefix,
+            Stack<CharSequence> stack, Queue<CharSequence> queue) {
+        while (!stack.isEmpty()) {
+            int top = classify(stack.peek()).precedence;
+            if (top < 0 || top < precedence || !prefix && top == precedence) {
+                break;
+            }
+            if (logger.isTraceEnabled()) {
+                traceFunction.apply("binaryOperatorHandler (pop " + stack.peek() + ")").accept(stack, queue);
+            }
+            queue.offer(stack.pop());
+        }
+        stack.push(token);
+        if (logger.isTraceEnabled()) {
+            traceFunction.apply("binaryOperatorHandler (pushed " + token + ")").accept(stack, queue);
+        }
+    }
+
+    /**
+     * If the token is a function argument separator, pop the top element off
+     * the stack and append it to the output, until the top element of the
+     * stack is an opening bracket. If a function precedes the opening
+     * bracket, count one more argument by marking the function on the stack
+     * with it's arity (e.g. sum, sum#2, sum#3)
+     *
+     * @param stack the stack
+     * @param queue the queue
      */
-    private final Function<Optional<CharSequence>,
-            BiConsumer<Stack<CharSequence>, Queue<CharSequence>>> openParenthesesHandler = value -> (stack, queue) -> {
-                stack.push(value.get());
-                traceFunction.apply("openParenthesesHandler").accept(stack, queue);
-            };
-
-    /** The open bracket function. */
-    private final Function<Optional<CharSequence>,
-            BiConsumer<Stack<CharSequence>, Queue<CharSequence>>> openBracketHandler = value -> (stack, queue) -> {
-                stack.push(value.get());
-                traceFunction.apply("openBracketHandler").accept(stack, queue);
-            };
-
-    /** The open curly function. */
-    private final Function<Optional<CharSequence>,
-            BiConsumer<Stack<CharSequence>, Queue<CharSequence>>> openCurlyHandler = value -> (stack, queue) -> {
-                stack.push(value.get());
-                traceFunction.apply("openCurlyHandler").accept(stack, queue);
-            };
-
-    /** The close parentheses function. */
-    /*
+    private void handleFunctionArgSeparator(Stack<CharSequence> stack, Queue<CharSequence> queue) {
+        while (!stack.isEmpty() && !isOpeningParentheses(stack.peek())) {
+            queue.offer(stack.pop());
+        }
+        int function = stack.size() - 2;
+        if (function >= 0 && classify(unmarked(stack.get(function))).function) {
+            CharSequence symbol = stack.get(function);
+            stack.set(function, markArity(symbol, Math.max(getArity(symbol), 1) + 1));
+        }
+        traceFunction.apply("functionArgSeparatorHandler").accept(stack, queue);
+    }
+
+    /**
      * If the token is a closing bracket: Pop OPERATORS off the stack and append
-     * them to the output, until the operator at the top of the stack is an opening
-     * bracket. Pop the opening bracket off the stack. If the token at the top of
-     * the stack is a function token, pop it and append it to the output.
+     * them to the output, until the operator at the top of the stack is an
+     * opening bracket. Pop the opening bracket off the stack, or throw if it is
+     * not the given {@code opener}. If the token at the top of the stack is a
+     * function token, pop it and append it to the output, marked with it's
+     * arity if it's a multiple arguments function.
+     *
+     * @param closing the closing bracket
+     * @param opener the kind of the matching opening bracket
+     * @param stack the stack
+     * @param queue the queue
+     * @throws IllegalArgumentException if the brackets are unmatched, or a
+     *         unary or binary function is given another number of arguments
      */
-    private final Function<Optional<CharSequence>,
-            BiConsumer<Stack<CharSequence>, Queue<CharSequence>>> closeParenthesesHandler = value -> (stack, queue) -> {
-                while (!stack.isEmpty() && !isOpener(stack.peek())) {
-                    if (isOperator(stack.peek(), context)) {
-                        queue.offer(stack.pop());
-                    }
-                    traceFunction.apply("closeParenthesesHandler (pop ops)").accept(stack, queue);
-                }
-                if (stack.isEmpty() || !isOpeningParentheses(stack.peek())) {
-                    traceFunction.apply("closeParenthesesHandler (malformed " + "expression)").accept(stack, queue);
-                    throw new IllegalArgumentException("Malformed expression! Unmatched ')'");
-                } else {
-                    stack.pop();
-                    traceFunction.apply("closeParenthesesHandler (pop last)").accept(stack, queue);
-                }
-                if (!stack.isEmpty() && isFunction(stack.peek(), context)) {
-                    queue.offer(stack.pop());
-                    traceFunction.apply("closeParenthesesHandler (pop " + "function)").accept(stack, queue);
-                }
-                traceFunction.apply("closeParenthesesHandler (done)").accept(stack, queue);
-            };
-
-    /** The close bracket function. */
-    private final Function<Optional<CharSequence>,
-            BiConsumer<Stack<CharSequence>, Queue<CharSequence>>> closeBracketHandler = value -> (stack, queue) -> {
-                while (!stack.isEmpty() && !isOpener(stack.peek())) {
-                    if (isOperator(stack.peek(), context)) {
-                        queue.offer(stack.pop());
-                    }
-                    traceFunction.apply("closeBracketHandler (popping " + "operators)").accept(stack, queue);
-                }
-                if (stack.isEmpty() || !isOpeningBracket(stack.peek())) {
-                    traceFunction.apply("closeBracketHandler (malformed " + "expression)").accept(stack, queue);
-                    throw new IllegalArgumentException("Malformed expression! Unmatched ']'");
-                } else {
-                    stack.pop();
-                    traceFunction.apply("closeBracketHandler (pop last)").accept(stack, queue);
-                }
-                if (!stack.isEmpty() && isFunction(stack.peek(), context)) {
-                    queue.offer(stack.pop());
-                    traceFunction.apply("closeBracketHandler (pop function)").accept(stack, queue);
-                }
-                traceFunction.apply("closeBracketHandler (done)").accept(stack, queue);
-            };
-
-    /** The close curly function. */
-    private final Function<Optional<CharSequence>,
-            BiConsumer<Stack<CharSequence>, Queue<CharSequence>>> closeCurlyHandler = value -> (stack, queue) -> {
-                while (!stack.isEmpty() && !isOpener(stack.peek())) {
-                    if (isOperator(stack.peek(), context)) {
-                        traceFunction.apply("closeCurlyHandler (popping " + "operators)").accept(stack, queue);
-                        queue.offer(stack.pop());
-                    }
-                }
-                if (stack.isEmpty() || !isOpeningCurlyBracket(stack.peek())) {
-                    traceFunction.apply("closeCurlyHandler (malformed " + "expression)").accept(stack, queue);
-                    throw new IllegalArgumentException("Malformed expression! Unmatched '}'");
+    private void handleClosing(CharSequence closing, Kind opener, Stack<CharSequence> stack,
+            Queue<CharSequence> queue) {
+        Kind top = Kind.UNKNOWN;
+        while (!stack.isEmpty() && !(top = classify(stack.peek()).kind).isOpener()) {
+            if (logger.isTraceEnabled()) {
+                traceFunction.apply("closingHandler (pop " + stack.peek() + ")").accept(stack, queue);
+            }
+            queue.offer(stack.pop());
+        }
+        if (stack.isEmpty() || top != opener) {
+            traceFunction.apply("closingHandler (malformed expression)").accept(stack, queue);
+            throw new IllegalArgumentException("Malformed expression! Unmatched '" + closing + "'");
+        }
+        stack.pop();
+        traceFunction.apply("closingHandler (pop last)").accept(stack, queue);
+        if (!stack.isEmpty()) {
+            CharSequence symbol = unmarked(stack.peek());
+            Classification function = classify(symbol);
+            if (function.function) {
+                int arity = Math.max(getArity(stack.pop()), 1);
+                if (function.multiArg) {
+                    queue.offer(markArity(symbol, arity));
+                } else if (arity != function.arguments) {
+                    traceFunction.apply("closingHandler (wrong number of arguments)").accept(stack, queue);
+                    throw new IllegalArgumentException(String.format(
+                            "Malformed expression! '%s' takes %d arguments but got %d", symbol, function.arguments,
+                            arity));
                 } else {
-                    stack.pop();
-                    traceFunction.apply("closeCurlyHandler (pop last)").accept(stack, queue);
+                    queue.offer(symbol);
                 }
-                if (!stack.isEmpty() && isFunction(stack.peek(), context)) {
-                    queue.offer(stack.pop());
-                    traceFunction.apply("closeCurlyHandler (pop function)").accept(stack, queue);
-                }
-                traceFunction.apply("closeCurlyHandler (done)").accept(stack, queue);
-            };
-
-    /** The operand function. */
-    // If the token is an operand, append it to the postfix output.
-    private Function<Optional<CharSequence>, BiConsumer<Stack<CharSequence>, Queue<CharSequence>>> operandHandler =
-        value -> (stack, queue) -> {
-            queue.offer(value.get());
-            traceFunction.apply("operandHandler (" + value.get() + ")").accept(stack, queue);
-        };
+                traceFunction.apply("closingHandler (pop function)").accept(stack, queue);
+            }
+        }
+        traceFunction.apply("closingHandler (done)").accept(stack, queue);
+    }
 
     /**
      * Augment the handlers registry with a new way to handle a {@code token} found
      * in an {@code infix} expression. The method accepts a {@code acceptor}
      * {@link Predicate} to decide if the token is to be handled, and a
-     * {@code handler function} to handle the {@code token}.
+     * {@code handler function} to handle the {@code token}. Registered handlers
+     * are only asked to handle tokens that are none of the known kinds.
      *
      * @apiNote The {@code handler} function handles the {@code token} by either
      *          pusing or poping operands and operators from it's {@code stack} and
@@ -455,39 +373,32 @@ public final class InfixTokenHandler implements Serializable {
         handlersRegistry.put(acceptor, handler);
     }
 
-    /** The value. */
-    // handling
-    private Optional<CharSequence> value = Optional.empty();
-
     /**
      * Accept.
      *
      * @param predicate the predicate
      * @param token the token
-     * @return true, if successful
+     * @return the accepted token, or an empty optional if the predicate does
+     *         not accept the token
      */
-    private boolean accept(Predicate<CharSequence> predicate, CharSequence token) {
-        if (predicate.test(token)) {
-            value = Optional.of(token);
-            return true;
-        }
-        return false;
+    private Optional<CharSequence> accept(Predicate<CharSequence> predicate, CharSequence token) {
+        return predicate.test(token) ? Optional.of(token) : Optional.empty();
     }
 
     /**
      * Handle.
      *
      * @param function the function
+     * @param value the accepted token
      * @param stack the stack
      * @param queue the queue
      */
     private void handle(Function<Optional<CharSequence>, BiConsumer<Stack<CharSequence>, Queue<CharSequence>>> function,
-            Stack<CharSequence> stack, Queue<CharSequence> queue) {
+            Optional<CharSequence> value, Stack<CharSequence> stack, Queue<CharSequence> queue) {
         if (value.isEmpty()) {
             throw new UnsupportedOperationException("Cannot handle empty token! Did 'accept()' return true?");
         }
         function.apply(value).accept(stack, queue);
-        value = Optional.empty(); // reset the value
     };
 
     /**
@@ -498,15 +409,210 @@ public final class InfixTokenHandler implements Serializable {
      * @param queue the queue
      */
     public void handle(CharSequence token, Stack<CharSequence> stack, Queue<CharSequence> queue) {
-        handlersRegistry.entrySet().stream().filter(e -> accept(e.getKey(), token)).map(e -> {
-            handle(e.getValue(), stack, queue);
-            return true;
-        }).findAny()
-                .orElseThrow(() -> new IllegalArgumentException(String
-                        .format("No matching token handler registered for accepting and " + "handling value '%s'%n"
-                            + "The error cause is an unknown opernad, operator, "
-                            + "function or missing space.%n"
-                            + "Please register an approproate type and handler or "
-                            + "fix the input infix expression.", token)));
+        long current = context.getVersion();
+        if (current != version) {
+            classifications.clear();
+            version = current;
+        }
+        Classification classification = classify(token);
+        switch (classification.kind) {
+            case OPERAND:
+            case POSTFIX_UNARY_OPERATOR:
+                queue.offer(token);
+                if (logger.isTraceEnabled()) {
+                    traceFunction.apply("operandHandler (" + token + ")").accept(stack, queue);
+                }
+                break;
+            case PREFIX_UNARY_OPERATOR:
+            case FUNCTION:
+            case OPENING_PARENTHESES:
+            case OPENING_BRACKET:
+            case OPENING_CURLY_BRACKET:
+                stack.push(token);
+                if (logger.isTraceEnabled()) {
+                    traceFunction.apply("pushHandler (" + token + ")").accept(stack, queue);
+                }
+                break;
+            case PREFIX_BINARY_OPERATOR:
+                handleBinaryOperator(token, classification.precedence, true, stack, queue);
+                break;
+            case POSTFIX_BINARY_OPERATOR:
+                handleBinaryOperator(token, classification.precedence, false, stack, queue);
+                break;
+            case FUNCTION_ARG_SEPARATOR:
+                handleFunctionArgSeparator(stack, queue);
+                break;
+            case CLOSING_PARENTHESES:
+                handleClosing(token, Kind.OPENING_PARENTHESES, stack, queue);
+                break;
+            case CLOSING_BRACKET:
+                handleClosing(token, Kind.OPENING_BRACKET, stack, queue);
+                break;
+            case CLOSING_CURLY_BRACKET:
+                handleClosing(token, Kind.OPENING_CURLY_BRACKET, stack, queue);
+                break;
+            default:
+                handleRegistered(token, stack, queue);
+        }
+    }
+
+    /**
+     * hands the given {@code token}, which is none of the known kinds, to the
+     * first registered handler accepting it.
+     *
+     * @param token the token
+     * @param stack the stack
+     * @param queue the queue
+     * @throws IllegalArgumentException if no registered handler accepts the
+     *         token
+     */
+    private void handleRegistered(CharSequence token, Stack<CharSequence> stack, Queue<CharSequence> queue) {
+        for (Map.Entry<Predicate<CharSequence>,
+                Function<Optional<CharSequence>, BiConsumer<Stack<CharSequence>, Queue<CharSequence>>>> entry
+                    : handlersRegistry.entrySet()) {
+            Optional<CharSequence> value = accept(entry.getKey(), token);
+            if (value.isPresent()) {
+                handle(entry.getValue(), value, stack, queue);
+                return;
+            }
+        }
+        throw new IllegalArgumentException(String
+                .format("No matching token handler registered for accepting and " + "handling value '%s'%n"
+                    + "The error cause is an unknown opernad, operator, "
+                    + "function or missing space.%n"
+                    + "Please register an approproate type and handler or "
+                    + "fix the input infix expression.", token));
+    }
+
+    /**
+     * The Enum Kind is the kind of a token, as far as the conversion is
+     * concerned.
+     */
+    private enum Kind {
+        OPERAND,
+        POSTFIX_UNARY_OPERATOR,
+        PREFIX_UNARY_OPERATOR,
+        FUNCTION,
+        FUNCTION_ARG_SEPARATOR,
+        PREFIX_BINARY_OPERATOR,
+        POSTFIX_BINARY_OPERATOR,
+        OPENING_PARENTHESES,
+        OPENING_BRACKET,
+        OPENING_CURLY_BRACKET,
+        CLOSING_PARENTHESES,
+        CLOSING_BRACKET,
+        CLOSING_CURLY_BRACKET,
+        UNKNOWN;
+
+        /**
+         * returns true if this is the kind of an opening bracket.
+         *
+         * @return true if this is an opening parentheses, square bracket or
+         *         curly bracket kind
+         */
+        boolean isOpener() {
+            return this == OPENING_PARENTHESES || this == OPENING_BRACKET || this == OPENING_CURLY_BRACKET;
+        }
+    }
+
+    /**
+     * The Class Classification is the kind of a token together with the
+     * integer precedence of it's operator and the function flags queried when
+     * it's on top of the operator stack.
+     */
+    private static final class Classification implements Serializable {
+
+        /** The kind of the token. */
+        private final Kind kind;
+
+        /** The precedence ordinal of the operator, or -1 if not an operator. */
+        private final int precedence;
+
+        /** true if the token is a function. */
+        private final boolean function;
+
+        /** true if the token is a multiple arguments function. */
+        private final boolean multiArg;
+
+        /** The number of arguments of a unary or binary function, or -1. */
+        private final int arguments;
+
+        /**
+         * hidden constructor.
+         *
+         * @param kind the kind of the token
+         * @param precedence the precedence ordinal of the operator or -1
+         * @param function true if the token is a function
+         * @param multiArg true if the token is a multiple arguments function
+         * @param arguments the number of arguments of a unary or binary
+         *        function, or -1
+         */
+        private Classification(final Kind kind, final int precedence, final boolean function,
+                final boolean multiArg, final int arguments) {
+            super();
+            this.kind = kind;
+            this.precedence = precedence;
+            this.function = function;
+            this.multiArg = multiArg;
+            this.arguments = arguments;
+        }
+
+        /**
+         * classifies the given {@code token} against the given
+         * {@code context}. A token matching several kinds gets the first of
+         * the kinds in the order of {@link Kind}.
+         *
+         * @param token the token
+         * @param context the calculation context
+         * @return the classification of the token
+         * @throws IllegalArgumentException if the token is null
+         */
+        private static Classification of(CharSequence token, CalculationContext context) {
+            if (isOperand(token, context)) {
+                return new Classification(Kind.OPERAND, -1, false, false, -1);
+            }
+            boolean function = isFunction(token, context);
+            boolean multiArg = isMultiArgArithmeticToken(token, context);
+            return new Classification(kindOf(token, context, function),
+                    isOperator(token, context) ? getOperator(token, context).getPrecedence().ordinal() : -1,
+                    function, multiArg, !function || multiArg ? -1 : isUnaryArithmeticToken(token, context) ? 1 : 2);
+        }
+
+        /**
+         * gets the kind of a token that is not an operand.
+         *
+         * @param token the token
+         * @param context the calculation context
+         * @param function true if the token is a function
+         * @return the kind of the token
+         */
+        private static Kind kindOf(CharSequence token, CalculationContext context, boolean function) {
+            if (isPostfixUnaryOperator(token, context)) {
+                return Kind.POSTFIX_UNARY_OPERATOR;
+            } else if (isPrefixUnaryOperator(token, context)) {
+                return Kind.PREFIX_UNARY_OPERATOR;
+            } else if (function) {
+                return Kind.FUNCTION;
+            } else if (isFunctionArgSeparator(token)) {
+                return Kind.FUNCTION_ARG_SEPARATOR;
+            } else if (isPrefixBinaryOperator(token, context)) {
+                return Kind.PREFIX_BINARY_OPERATOR;
+            } else if (isPostfixBinaryOperator(token, context)) {
+                return Kind.POSTFIX_BINARY_OPERATOR;
+            } else if (isOpeningParentheses(token)) {
+                return Kind.OPENING_PARENTHESES;
+            } else if (isOpeningBracket(token)) {
+                return Kind.OPENING_BRACKET;
+            } else if (isOpeningCurlyBracket(token)) {
+                return Kind.OPENING_CURLY_BRACKET;
+            } else if (isClosingParentheses(token)) {
+                return Kind.CLOSING_PARENTHESES;
+            } else if (isClosingBracket(token)) {
+                return Kind.CLOSING_BRACKET;
+            } else if (isClosingCurlyBracket(token)) {
+                return Kind.CLOSING_CURLY_BRACKET;
+            }
+            return Kind.UNKNOWN;
+        }
     }
 }
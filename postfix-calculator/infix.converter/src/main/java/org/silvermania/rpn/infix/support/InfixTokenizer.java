@@ -0,0 +1,242 @@
+/*
+ * File: InfixTokenizer.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.infix.support;
+
+import static org.silvermania.rpn.support.TokenUtil.CLOSING_CURLY_BRACKET;
+import static org.silvermania.rpn.support.TokenUtil.CLOSING_PARENTHESES;
+import static org.silvermania.rpn.support.TokenUtil.CLOSING_SQUARE_BRACKET;
+import static org.silvermania.rpn.support.TokenUtil.OPENING_CURLY_BRACKET;
+import static org.silvermania.rpn.support.TokenUtil.OPENING_PARENTHESES;
+import static org.silvermania.rpn.support.TokenUtil.OPENING_SQUARE_BRACKET;
+
+import java.io.Serializable;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.silvermania.rpn.support.CalculationContext;
+import org.silvermania.rpn.support.FunctionToken;
+import org.silvermania.rpn.support.SymbolTrie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class InfixTokenizer splits an {@code infix} expression to it's tokens in
+ * a single left to right pass.
+ * <p>
+ * At each position the tokenizer reads characters while they may still be
+ * part of a token. Registered operator, function, constant and variable
+ * symbols are recognized by walking the {@link SymbolTrie} of the
+ * {@link CalculationContext}, and numeric literals by a small state machine
+ * following the rules of
+ * {@link org.silvermania.rpn.support.TokenUtil#isOperand(CharSequence, CalculationContext)}.
+ * Reading stops as soon as no longer symbol or literal can start with the
+ * characters read, and the longest valid token found is taken. Each character
+ * is therefore read a bounded number of times (the length of the longest
+ * symbol or of the literal it belongs to) and the whole expression is
+ * tokenized in linear time.
+ * <p>
+ * A minus sign directly following an operand is always an operator, so that
+ * {@code 2-5} is read as {@code 2 - 5} while {@code (-5} is read as
+ * {@code ( -5}.
+ *
+ * @author T.N.Silverman
+ */
+public final class InfixTokenizer implements Serializable {
+
+    private static final Logger logger = LoggerFactory.getLogger(InfixTokenizer.class);
+
+    /** numeric state: no character read. */
+    private static final int START = 0;
+
+    /** numeric state: a leading minus sign was read. */
+    private static final int SIGN = 1;
+
+    /** numeric state: digits with no decimal separator were read. */
+    private static final int INTEGER = 2;
+
+    /** numeric state: a decimal separator was read. */
+    private static final int FRACTION = 3;
+
+    /** numeric state: the characters read are not a numeric literal. */
+    private static final int DEAD = 4;
+
+    /** numeric state: a leading minus sign and a decimal separator were read. */
+    private static final int SIGNED_SEPARATOR = 5;
+
+    private CalculationContext context;
+
+    /**
+     * hidden constructor
+     *
+     * @param context the calculation context on which to locate the meaning of
+     *        functions, operators, constants and to obtain information about
+     *        rounding modes and rounding decimal places
+     */
+    private InfixTokenizer(final CalculationContext context) {
+        super();
+        this.context = context;
+    }
+
+    /**
+     * a factory method for obtaining a new instance of this
+     * {@code InfixTokenizer}
+     *
+     * @param context the calculation context on which to locate the meaning of
+     *        functions, operators, constants and to obtain information about
+     *        rounding modes and rounding decimal places
+     *
+     * @return new instance of {@code InfixTokenizer}
+     */
+    public static InfixTokenizer newInstance(CalculationContext context) {
+        return new InfixTokenizer(context);
+    }
+
+    /**
+     * Splits a given {@code infix} expression to it's tokens. Spaces and tabs
+     * are ignored.
+     *
+     * @param infix the input infix expression
+     * @return the list of tokens of the {@code infix} expression, in order
+     * @throws IllegalArgumentException if the given {@code infix} expression is
+     *         null or blank, or if it contains characters that cannot be
+     *         evaluated to an operand (numeric or constant), an operator,
+     *         function, function argument separator, or any opening or closing
+     *         parentheses, square or curly brackets.
+     */
+    public List<CharSequence> tokenize(CharSequence infix) throws IllegalArgumentException {
+        if (null == infix || infix.toString().isBlank()) {
+            throw new IllegalArgumentException("offending infix expression."
+                + " input expression cannot be null or blank");
+        }
+        String chars = strip(infix);
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance();
+        char minusSign = symbols.getMinusSign();
+        char decimalSeparator = symbols.getDecimalSeparator();
+        SymbolTrie trie = context.getSymbolTrie();
+        List<CharSequence> tokens = new ArrayList<>();
+        boolean previousOperand = false;
+        int start = 0;
+        while (start < chars.length()) {
+            SymbolTrie.Node node = trie.root();
+            int state = START;
+            int end = -1;
+            boolean operand = false;
+            for (int idx = start; idx < chars.length(); idx++) {
+                char c = chars.charAt(idx);
+                node = null == node ? null : node.next(c);
+                state = next(state, c, minusSign, decimalSeparator);
+                boolean numeric = state == INTEGER || state == FRACTION;
+                boolean symbol = null != node && node.isSymbol();
+                if (numeric || symbol || (idx == start && isPunctuation(c))) {
+                    end = idx + 1;
+                    operand = numeric || symbol && node.isConstant();
+                    if (previousOperand && symbol && node.isArithmetic()) {
+                        // an operator or function following an operand ends the token
+                        break;
+                    }
+                } else if (null == node && state == DEAD) {
+                    // no longer token can start with the characters read
+                    break;
+                }
+            }
+            if (end < 0) {
+                throw new IllegalArgumentException(
+                        "unrecognized token '" + chars.charAt(start) + "' in infix expression");
+            }
+            tokens.add(chars.substring(start, end));
+            previousOperand = operand;
+            start = end;
+        }
+        logger.trace("tokenized '{}' to {} tokens", infix, tokens.size());
+        return tokens;
+    }
+
+    /**
+     * removes spaces and tabs from the given {@code infix} expression.
+     *
+     * @param infix the infix expression
+     * @return the infix expression without spaces and tabs
+     */
+    private static String strip(CharSequence infix) {
+        StringBuilder builder = new StringBuilder(infix.length());
+        for (int idx = 0; idx < infix.length(); idx++) {
+            char c = infix.charAt(idx);
+            if (c != ' ' && c != '\t') {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * advances the numeric literal state machine by one character.
+     *
+     * @param state the current state
+     * @param c the next character
+     * @param minusSign the locale minus sign
+     * @param decimalSeparator the locale decimal separator
+     * @return the next state
+     */
+    private static int next(int state, char c, char minusSign, char decimalSeparator) {
+        switch (state) {
+            case START:
+                if (Character.isDigit(c)) {
+                    return INTEGER;
+                }
+                // a lone minus sign is an operator, but may start a negative literal
+                return c == minusSign ? SIGN : DEAD;
+            case SIGN:
+                if (Character.isDigit(c)) {
+                    return INTEGER;
+                }
+                // a sign followed by a bare separator is not a literal until a digit follows
+                return c == decimalSeparator ? SIGNED_SEPARATOR : DEAD;
+            case INTEGER:
+                if (Character.isDigit(c)) {
+                    return INTEGER;
+                }
+                return c == decimalSeparator ? FRACTION : DEAD;
+            case SIGNED_SEPARATOR:
+            case FRACTION:
+                return Character.isDigit(c) ? FRACTION : DEAD;
+            default:
+                return DEAD;
+        }
+    }
+
+    /**
+     * returns true if the given character is a bracket, a parentheses or a
+     * function argument separator.
+     *
+     * @param c the character
+     * @return true if the given character is a bracket, a parentheses or a
+     *         function argument separator, otherwise false
+     */
+    private static boolean isPunctuation(char c) {
+        String token = String.valueOf(c);
+        return OPENING_PARENTHESES.equals(token) || CLOSING_PARENTHESES.equals(token)
+                || OPENING_SQUARE_BRACKET.equals(token) || CLOSING_SQUARE_BRACKET.equals(token)
+                || OPENING_CURLY_BRACKET.equals(token) || CLOSING_CURLY_BRACKET.equals(token)
+                || FunctionToken.FUNC_ARG_SEPARATOR.equals(token);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * File: ConversionCacheTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.infix.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.silvermania.rpn.support.CalculationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class ConversionCacheTest is a unit test to assert the functionality of
+ * the {@link ConversionCache} class
+ *
+ * @author T.N.Silverman
+ */
+class ConversionCacheTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversionCacheTest.class);
+    private CalculationContext context;
+    private ConversionCache cache;
+    private InfixConverter converter;
+
+    @BeforeEach
+    public void beforeEach(TestInfo info) throws Exception {
+        context = CalculationContext.newInstance();
+        cache = ConversionCache.newInstance(2);
+        converter = InfixConverter.newInstance(context, cache);
+        logger.debug("entering {} {}", info.getTestMethod().orElseThrow().getName(), info.getDisplayName());
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test hits, misses and eviction")
+    public void testHitsMissesAndEviction() {
+        assertEquals("1 2 +", converter.convert("1+2"));
+        assertEquals("1 2 +", converter.convert("1+2"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        converter.convert("2*3");
+        converter.convert("1+2");
+        converter.convert("4-1");
+        assertEquals(2, cache.size());
+        converter.convert("1+2");
+        converter.convert("2*3");
+        assertEquals(3, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test registration invalidates cached conversions")
+    public void testInvalidation() {
+        assertThrows(IllegalArgumentException.class, () -> converter.convert("r*2"));
+        long version = context.getVersion();
+        context.addVariable("r", BigDecimal.ONE);
+        assertEquals(version + 1, context.getVersion());
+        assertEquals("r 2 *", converter.convert("r*2"));
+        assertEquals("1 2 +", InfixConverter.newInstance(context.freeze(), cache).convert("1+2"));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test child contexts share conversions")
+    public void testChildContexts() {
+        context.addVariable("r", BigDecimal.ONE);
+        for (int idx = 0; idx < 100; idx++) {
+            CalculationContext child = context.withVariables(Map.of("h", BigDecimal.valueOf(idx)));
+            assertEquals("π r 2 ^ * h *", InfixConverter.newInstance(child, cache).convert("π*r^2*h"));
+        }
+        assertEquals(99, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertThrows(IllegalArgumentException.class, () -> InfixConverter
+                .newInstance(context.withVariables(Map.of("w", BigDecimal.ONE)), cache).convert("π*r^2*h"));
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test concurrent conversions")
+    public void testConcurrentConversions() {
+        ConversionCache shared = ConversionCache.newInstance(16);
+        InfixConverter sharedConverter = InfixConverter.newInstance(context.freeze(), shared);
+        List<String> results = IntStream.range(0, 10_000).parallel()
+                .mapToObj(idx -> sharedConverter.convert((idx % 32) + "+1")).collect(Collectors.toList());
+        for (int idx = 0; idx < results.size(); idx++) {
+            assertEquals((idx % 32) + " 1 +", results.get(idx));
+        }
+        assertEquals(10_000, shared.getHitCount() + shared.getMissCount());
+        assertEquals(16, shared.size());
+        assertThrows(IllegalArgumentException.class, () -> ConversionCache.newInstance(0));
+    }
+
+}
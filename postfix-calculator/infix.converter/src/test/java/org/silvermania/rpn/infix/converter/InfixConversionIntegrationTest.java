@@ -36,6 +36,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.silvermania.rpn.support.CalculationContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -85,7 +86,7 @@ class InfixConversionIntegrationTest {
     @DisplayName("sanity test shunting yard 2 wiki conversion")
     void testShuntingYard2WikiConversion() {
         String expression = "sin ( max ( 2 , 3 ) ÷ 3 × π )";
-        String expected = "2 3 max 3 ÷ π × sin";
+        String expected = "2 3 max#2 3 ÷ π × sin";
         String actual = InfixConverter.newInstance(context).convert(expression);
         assertEquals(expected, actual);
     }
@@ -103,7 +104,7 @@ class InfixConversionIntegrationTest {
                         "3 + 4 * 2@3 4 2 * +",
                         "3 + 4 * 2 / ( 1 - 5 ) ^ 2 ^ 3@3 4 2 * 1 5 - 2 3 ^ ^ / +",
                         "3 + 4 × 2 ÷ ( 1 − 5 ) ^ 2 ^ 3@3 4 2 × 1 5 − 2 3 ^ ^ ÷ +",
-                        "sin ( max ( 2 , 3 ) ÷ 3 × π )@2 3 max 3 ÷ π × sin"})
+                        "sin ( max ( 2 , 3 ) ÷ 3 × π )@2 3 max#2 3 ÷ π × sin"})
     void testConversion(String expression, String expected) {
         String actual = InfixConverter.newInstance(context).convert(expression);
         assertEquals(expected, actual);
@@ -157,17 +158,38 @@ class InfixConversionIntegrationTest {
     }
 
     @ParameterizedTest
-    @DisplayName("test quirk conversion")
+    @DisplayName("test aggregate functions conversion")
     //@Disabled
     @CsvSource(delimiter = '@',
-               value = {"min (1,2,3)@1 2 3 min"}) // quirk! too many arguments - but it works
-    /*
-     * FIXME: process multi-arg functions is to be added later
-     */
+               value = {"min (1,2,3)@1 2 3 min#3",
+                        "max(1,9,3,4)@1 9 3 4 max#4",
+                        "avg(1)@1 avg#1"})
     void testQuirks(String infix, String expected) {
         CharSequence actual =
             InfixConverter.newInstance(context).convert(infix);
         assertEquals(expected, actual);
     }
 
+    @ParameterizedTest
+    @DisplayName("test wrong number of arguments of unary and binary functions")
+    //@Disabled
+    @ValueSource(strings = {"sin(1,2)", "pct(1,2,3)", "pct(1)", "log(max(1,2),3)"})
+    void testWrongArgumentCount(String infix) {
+        InfixConverter converter = InfixConverter.newInstance(context);
+        assertThrows(IllegalArgumentException.class, () -> converter.convert(infix));
+    }
+
+    @ParameterizedTest
+    @DisplayName("test multi arg function conversion")
+    //@Disabled
+    @CsvSource(delimiter = '@',
+               value = {"sum(1,2,3)@1 2 3 sum#3",
+                        "sum(1)@1 sum#1",
+                        "sum(1,max(2,3),4)*2@1 2 3 max#2 4 sum#3 2 *",
+                        "sum(sum(1,2),(3+4),5,6)@1 2 sum#2 3 4 + 5 6 sum#4",
+                        "2*sum[5]@2 5 sum#1 *"})
+    void testMultiArgFunctionConversion(String infix, String expected) {
+        assertEquals(expected, InfixConverter.newInstance(context).convert(infix));
+    }
+
 }
@@ -30,6 +30,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.silvermania.rpn.support.TokenUtil.isOpener;
 
+import java.math.BigDecimal;
 import java.util.LinkedList;
 import java.util.Queue;
 import java.util.Scanner;
@@ -38,6 +39,7 @@ import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -82,7 +84,7 @@ class InfixTokenHandlerTest {
                         "3 + 4 * 2@3 4 2 * +",
                         "3 + 4 * 2 / ( 1 - 5 ) ^ 2 ^ 3@3 4 2 * 1 5 - 2 3 ^ ^ / +",
                         "3 + 4 × 2 ÷ ( 1 − 5 ) ^ 2 ^ 3@3 4 2 × 1 5 − 2 3 ^ ^ ÷ +",
-                        "sin ( max ( 2 , 3 ) ÷ 3 × π )@2 3 max 3 ÷ π × sin"})
+                        "sin ( max ( 2 , 3 ) ÷ 3 × π )@2 3 max#2 3 ÷ π × sin"})
     public void testHandlerConversion(String expression, String expected) {
         try (Scanner scanner = new Scanner(expression)) {
             scanner.useDelimiter(" ");
@@ -137,4 +139,34 @@ class InfixTokenHandlerTest {
         });
     }
 
+    @Test
+    //@Disabled
+    @DisplayName("test registered handling of unknown tokens")
+    void testRegisteredHandling() {
+        handler.registerHandling(token -> "answer".contentEquals(token), value -> (stack, queue) -> queue.offer("42"));
+        for (String token : "( answer + 1 ) * 2".split(" ")) {
+            handler.handle(token, stack, queue);
+        }
+        queue.offer(stack.pop());
+        assertEquals("42 1 + 2 *", queue.stream().collect(Collectors.joining(" ")));
+        assertThrows(IllegalArgumentException.class, () -> handler.handle("question", stack, queue));
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test handler follows symbols registered after it's creation")
+    void testRegisteredSymbols() {
+        CalculationContext context = CalculationContext.newInstance();
+        InfixTokenHandler symbolsHandler = InfixTokenHandler.newInstance(context);
+        for (String token : "2 * r".split(" ")) {
+            if (token.equals("r")) {
+                assertThrows(IllegalArgumentException.class, () -> symbolsHandler.handle(token, stack, queue));
+                context.addVariable("r", BigDecimal.ONE);
+            }
+            symbolsHandler.handle(token, stack, queue);
+        }
+        queue.offer(stack.pop());
+        assertEquals("2 r *", queue.stream().collect(Collectors.joining(" ")));
+    }
+
 }
@@ -0,0 +1,95 @@
+/*
+ * File: InfixTokenizerTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.infix.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.silvermania.rpn.support.CalculationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class InfixTokenizerTest is a unit test to assert the functionality of
+ * the {@link InfixTokenizer} class
+ *
+ * @author T.N.Silverman
+ */
+class InfixTokenizerTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(InfixTokenizerTest.class);
+    private InfixTokenizer tokenizer;
+    private CalculationContext context;
+
+    @BeforeEach
+    public void beforeEach(TestInfo info) throws Exception {
+        context = CalculationContext.newInstance();
+        tokenizer = InfixTokenizer.newInstance(context);
+        logger.debug("entering {} {}", info.getTestMethod().orElseThrow().getName(), info.getDisplayName());
+    }
+
+    @ParameterizedTest
+    //@Disabled
+    @DisplayName("test tokenize infix ok")
+    @CsvSource(delimiter = '@',
+               value = {"2-5@2 - 5",
+                        "2--5@2 - -5",
+                        "(-5)*2@( -5 ) * 2",
+                        "-2.5+-.5@-2.5 + -.5",
+                        "1 2+3@12 + 3",
+                        "4!−√16@4 ! − √ 16",
+                        "PI*π-e@PI * π - e",
+                        "sum(1,2)+max(3,4)@sum ( 1 , 2 ) + max ( 3 , 4 )",
+                        "{[1]}@{ [ 1 ] }"})
+    public void testTokenizeLegalInfix(String infix, String expected) {
+        assertEquals(expected, String.join(" ", tokenizer.tokenize(infix)));
+    }
+
+    @ParameterizedTest
+    //@Disabled
+    @DisplayName("test tokenize illegal infix throws")
+    @ValueSource(strings = {"", " \t ", "2s", "x+1", "1+?", "si(1)", "mix(1,2)", ".5", "2.5.1", "-.", "1+-.", "(-.)"})
+    public void testTokenizeIllegalInfix(String infix) {
+        assertThrows(IllegalArgumentException.class, () -> tokenizer.tokenize(infix));
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test tokenize registered symbols")
+    public void testTokenizeRegisteredSymbols() {
+        context.addVariable("radius", BigDecimal.ONE);
+        context.addVariable("r", BigDecimal.ONE);
+        context.registerConstant("φ", BigDecimal.ONE);
+        assertEquals(List.of("radius", "*", "r", "-", "φ"), tokenizer.tokenize("radius*r-φ"));
+    }
+
+}
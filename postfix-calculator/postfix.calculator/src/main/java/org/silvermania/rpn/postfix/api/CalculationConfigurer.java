@@ -23,10 +23,15 @@ package org.silvermania.rpn.postfix.api;
 
 import java.math.BigDecimal;
 
+import org.silvermania.rpn.postfix.calculator.Bindings;
+import org.silvermania.rpn.postfix.calculator.CompiledExpression;
+import org.silvermania.rpn.postfix.calculator.EvaluationStrategy;
+
 /**
  * The interface CalculationConfigurer contains a final method
  * {@link #thenCalculate()}, which triggers the RPNCalculator's calculation of the
- * previously supplied expression.
+ * previously supplied expression, and a final method {@link #thenCompile()},
+ * which compiles it for repeated evaluation.
  *
  * @author T.N.Silverman
  */
@@ -40,4 +45,30 @@ public interface CalculationConfigurer extends PrintingConfigurer {
      */
     BigDecimal thenCalculate();
 
+    /**
+     * Evaluate the previously supplied {@code infix} or {@code postfix}
+     * expressions with the given variable bindings and calculate the result.
+     *
+     * @param bindings the variable bindings
+     * @return the result of the calculation as a {@link java.math.BigDecimal}
+     */
+    BigDecimal thenCalculate(Bindings bindings);
+
+    /**
+     * Compile the previously supplied {@code infix} or {@code postfix}
+     * expressions for repeated evaluation.
+     *
+     * @return the compiled expression
+     */
+    CompiledExpression thenCompile();
+
+    /**
+     * Compile the previously supplied {@code infix} or {@code postfix}
+     * expressions for repeated evaluation with the given {@code strategy}.
+     *
+     * @param strategy the evaluation strategy
+     * @return the compiled expression
+     */
+    CompiledExpression thenCompile(EvaluationStrategy strategy);
+
 }
@@ -28,6 +28,9 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.silvermania.rpn.postfix.calculator.Bindings;
+import org.silvermania.rpn.postfix.calculator.CompiledExpression;
+import org.silvermania.rpn.postfix.calculator.EvaluationStrategy;
 import org.silvermania.rpn.postfix.calculator.RPNCalculator;
 import org.silvermania.rpn.support.CalculationContext;
 import org.slf4j.Logger;
@@ -213,6 +216,53 @@ public class CalculatorState implements Serializable {
         return result;
     }
 
+    /**
+     * Calculates this state's {@code postfix} expression with the given
+     * variable {@code bindings}, using this state's {@code calculator}.
+     * Possibly, the state may also have a {@code true} printing flag, in which
+     * case it will print it's properties to the console (INFO logging level)
+     * for debugging purposes.
+     *
+     * @param bindings the variable bindings
+     * @return the result of the calculation
+     */
+    public BigDecimal calculate(Bindings bindings) {
+        BigDecimal result = getCalculator().calculate(getPostfix(), bindings);
+        messageBuffer.put("BINDINGS", bindings.toString() + "\n");
+        messageBuffer.put("RESULT", result.toString() + "\n");
+        print();
+        return result;
+    }
+
+    /**
+     * Compiles this state's {@code postfix} expression using this state's
+     * {@code calculator}, so that it can be evaluated repeatedly. Possibly, the
+     * state may also have a {@code true} printing flag, in which case it will
+     * print it's properties to the console (INFO logging level) for debugging
+     * purposes.
+     *
+     * @return the compiled expression
+     */
+    public CompiledExpression compile() {
+        return compile(EvaluationStrategy.STACK);
+    }
+
+    /**
+     * Compiles this state's {@code postfix} expression using this state's
+     * {@code calculator}, so that it can be evaluated repeatedly with the
+     * given {@code strategy}.
+     *
+     * @param strategy the evaluation strategy
+     * @return the compiled expression
+     * @see #compile()
+     */
+    public CompiledExpression compile(EvaluationStrategy strategy) {
+        CompiledExpression expression = getCalculator().compile(getPostfix(), strategy);
+        messageBuffer.put("COMPILED", expression.print() + "\n");
+        print();
+        return expression;
+    }
+
     /**
      * Prints the state's properties to the console (INFO logging level).
      */
@@ -21,6 +21,10 @@
  */
 package org.silvermania.rpn.postfix.api;
 
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.channels.ReadableByteChannel;
+
 /**
  * The interface ExpressionConfigurer configures either an {@code infix}
  * expression or a {@code postfix} reversed polish notation expression for the
@@ -59,4 +63,29 @@ public interface ExpressionConfigurer extends Configurer {
      */
     CalculationConfigurer accept(CharSequence postfix);
 
+    /**
+     * Reads a {@code postfix} expression from the given {@code reader} and
+     * calculates it as it's read, without holding it in memory (see
+     * {@link org.silvermania.rpn.postfix.calculator.RPNCalculator#calculate(Reader)}).
+     *
+     * @apiNote {@code postfix} tokens may be separated by any white space,
+     *          including line breaks
+     *
+     * @param reader the reader of the {@code postfix} expression to calculate.
+     * @return the result of the calculation
+     */
+    BigDecimal calculate(Reader reader);
+
+    /**
+     * Reads a {@code UTF-8} encoded {@code postfix} expression from the given
+     * {@code channel} and calculates it as it's read, without holding it in
+     * memory (see
+     * {@link org.silvermania.rpn.postfix.calculator.RPNCalculator#calculate(ReadableByteChannel)}).
+     *
+     * @param channel the channel of the {@code postfix} expression to
+     *        calculate.
+     * @return the result of the calculation
+     */
+    BigDecimal calculate(ReadableByteChannel channel);
+
 }
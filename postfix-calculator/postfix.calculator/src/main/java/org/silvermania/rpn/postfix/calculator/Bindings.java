@@ -0,0 +1,204 @@
+/*
+ * File: Bindings.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.calculator;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The Class Bindings holds the values of the variables of a single
+ * evaluation, without modifying the {@link org.silvermania.rpn.support.CalculationContext
+ * CalculationContext} the evaluated expression was compiled against.
+ * <p>
+ * The values are stored by slot, in the order of the variable symbols the
+ * bindings were created with. Bindings obtained from
+ * {@link CompiledExpression#newBindings()} have the slots of the compiled
+ * expression, which are resolved when the expression is compiled, so that
+ * rebinding a variable costs an array store and evaluating reads the values
+ * array as is:
+ *
+ * <pre>
+ * CompiledExpression area = RPNCalculator.withContext(context).convert("π*r^2").thenCompile();
+ * Bindings bindings = area.newBindings();
+ * int r = bindings.slotOf("r");
+ * for (BigDecimal radius : radii) {
+ *     BigDecimal result = area.evaluate(bindings.bind(r, radius));
+ * }
+ * </pre>
+ *
+ * Bindings are mutable and must not be shared between threads.
+ *
+ * @author T.N.Silverman
+ */
+public final class Bindings {
+
+    /** The variable symbols, by slot. */
+    private final List<String> variables;
+
+    /** The variable values, by slot. Unbound slots are null. */
+    private final BigDecimal[] values;
+
+    /**
+     * hidden constructor.
+     *
+     * @param variables the variable symbols, by slot
+     * @param values the initial variable values, by slot
+     */
+    private Bindings(final List<String> variables, final BigDecimal[] values) {
+        super();
+        this.variables = variables;
+        this.values = values;
+    }
+
+    /**
+     * factory method creating bindings of the given variable {@code symbols},
+     * all unbound. Unbound variables evaluate to the value they had in the
+     * context when the expression was compiled.
+     *
+     * @param symbols the variable symbols
+     * @return new bindings
+     * @throws IllegalArgumentException if a symbol is null or blank, or if the
+     *         same symbol is given twice
+     */
+    public static Bindings newInstance(CharSequence... symbols) throws IllegalArgumentException {
+        List<String> variables = Stream.of(symbols).map(symbol -> {
+            if (null == symbol || symbol.toString().isBlank()) {
+                throw new IllegalArgumentException("variable symbol cannot be null or blank!");
+            }
+            return symbol.toString();
+        }).collect(Collectors.toUnmodifiableList());
+        if (variables.stream().distinct().count() != variables.size()) {
+            throw new IllegalArgumentException("duplicate variable symbols in " + variables);
+        }
+        return new Bindings(variables, new BigDecimal[variables.size()]);
+    }
+
+    /**
+     * factory method creating bindings with the given slots and values.
+     *
+     * @param variables the variable symbols by slot
+     * @param values the variable values by slot, which are not copied
+     * @return new bindings
+     */
+    static Bindings create(List<String> variables, BigDecimal[] values) {
+        return new Bindings(variables, values);
+    }
+
+    /**
+     * gets the variable symbols of these bindings, by slot.
+     *
+     * @return unmodifiable list of variable symbols
+     */
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * gets the slot of the given variable {@code symbol}.
+     *
+     * @param symbol the variable symbol
+     * @return the slot of the variable or -1 if these bindings have no such
+     *         variable
+     */
+    public int slotOf(CharSequence symbol) {
+        return null == symbol ? -1 : variables.indexOf(symbol.toString());
+    }
+
+    /**
+     * binds the variable of the given {@code symbol} to the given
+     * {@code value}.
+     *
+     * @param symbol the variable symbol
+     * @param value the value of the variable
+     * @return these bindings for chainability
+     * @throws IllegalArgumentException if these bindings have no such variable
+     * @throws NullPointerException if the value is null
+     */
+    public Bindings bind(CharSequence symbol, BigDecimal value) throws IllegalArgumentException {
+        int slot = slotOf(symbol);
+        if (slot < 0) {
+            throw new IllegalArgumentException(String.format("no variable '%s' in %s", symbol, variables));
+        }
+        return bind(slot, value);
+    }
+
+    /**
+     * binds the variable of the given {@code slot} to the given {@code value}.
+     *
+     * @param slot the slot of the variable (see {@link #slotOf(CharSequence)})
+     * @param value the value of the variable
+     * @return these bindings for chainability
+     * @throws IndexOutOfBoundsException if the slot is out of range
+     * @throws NullPointerException if the value is null
+     */
+    public Bindings bind(int slot, BigDecimal value) {
+        values[Objects.checkIndex(slot, values.length)] = Objects.requireNonNull(value,
+                "variable value cannot be null!");
+        return this;
+    }
+
+    /**
+     * gets the value bound to the given variable {@code symbol}.
+     *
+     * @param symbol the variable symbol
+     * @return the value of the variable or null if it's unbound or these
+     *         bindings have no such variable
+     */
+    public BigDecimal get(CharSequence symbol) {
+        int slot = slotOf(symbol);
+        return slot < 0 ? null : values[slot];
+    }
+
+    /**
+     * unbinds all the variables.
+     *
+     * @return these bindings for chainability
+     */
+    public Bindings clear() {
+        Arrays.fill(values, null);
+        return this;
+    }
+
+    /**
+     * gets the values array, by slot.
+     *
+     * @return the values array, which is not copied
+     */
+    BigDecimal[] values() {
+        return values;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "Bindings [variables=" + variables + ", values=" + Arrays.toString(values) + "]";
+    }
+
+}
@@ -0,0 +1,805 @@
+/*
+ * File: CompiledExpression.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.calculator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+import org.silvermania.rpn.postfix.support.PostfixProgram;
+import org.silvermania.rpn.support.CalculationContext;
+import org.silvermania.rpn.support.CalculationMetrics;
+import org.silvermania.rpn.support.CalculationMetrics.Phase;
+import org.silvermania.rpn.support.NumericMode;
+import org.silvermania.rpn.support.Printable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class CompiledExpression is a {@code postfix} expression that was parsed
+ * and resolved against a {@link CalculationContext} once, and can then be
+ * evaluated many times.
+ * <p>
+ * Variables added to the context with
+ * {@link CalculationContext#addVariable(CharSequence, BigDecimal)} are not
+ * baked into the compiled expression. Their values at compile time serve as
+ * defaults, and each evaluation may supply different values for them by name:
+ *
+ * <pre>
+ * CalculationContext context = CalculationContext.newInstance().addVariable("r", BigDecimal.ONE);
+ * CompiledExpression area = RPNCalculator.withContext(context).convert("π*r^2").thenCompile();
+ * BigDecimal result = area.evaluate(Map.of("r", new BigDecimal("2.5")));
+ * </pre>
+ *
+ * When the numeric mode of the context is {@link NumericMode#DOUBLE}, the
+ * expression is evaluated on a primitive {@code double} stack using the double
+ * precision operations registered with the context, and the result is
+ * converted to a {@link BigDecimal}. {@link #evaluateAsDouble(double[])}
+ * skips the conversion altogether and is the fastest way to evaluate an
+ * expression repeatedly.
+ * <p>
+ * Expressions compiled with {@link EvaluationStrategy#GRAPH} evaluate each
+ * distinct sub-expression once, however many times it appears in the postfix
+ * expression:
+ *
+ * <pre>
+ * CompiledExpression hypot = RPNCalculator.withContext(context).convert("√(a*a+b*b)*2/√(a*a+b*b)")
+ *         .thenCompile(EvaluationStrategy.GRAPH);
+ * </pre>
+ *
+ * Expressions compiled with {@link EvaluationStrategy#METHOD_HANDLES} are
+ * executed by a tree of method handles (see {@link PostfixProgram#link()}),
+ * cached by the root of the context (see {@link CalculationContext#getRoot()}),
+ * so that compiling the same expression again against the same context, or
+ * against another child context of the same frozen context, reuses it.
+ * Expressions compiled with {@link EvaluationStrategy#BYTECODE} also share
+ * their sub-expressions, and are executed by a class generated for the
+ * expression rather than by interpreting it's instructions (see
+ * {@link PostfixProgram#generate()}). Generating the class takes longer than
+ * compiling, so it pays off for expressions evaluated many times.
+ * <p>
+ * Expressions evaluated repeatedly while only some of their variables change
+ * can be evaluated incrementally, recomputing only the sub-expressions that
+ * depend on the changed variables (see {@link #newIncrementalEvaluation()}).
+ * <p>
+ * Instances are immutable and may be evaluated concurrently.
+ *
+ * @author T.N.Silverman
+ */
+public final class CompiledExpression implements Printable {
+
+    /** The Constant logger. */
+    private static final Logger logger = LoggerFactory.getLogger(CompiledExpression.class);
+
+    /** The minimal number of bindings evaluated by a single parallel task. */
+    static final int PARALLEL_THRESHOLD = 1024;
+
+    /** The compiled program, before it was folded if this expression is optimized. */
+    private final PostfixProgram program;
+
+    /** The evaluation strategy the program was compiled for. */
+    private final EvaluationStrategy strategy;
+
+    /** The folded program of an optimized expression, or null if it's not optimized. */
+    private volatile Folding folding;
+
+    /**
+     * hidden constructor.
+     *
+     * @param program the compiled program
+     * @param strategy the evaluation strategy the program was compiled for
+     */
+    private CompiledExpression(final PostfixProgram program, final EvaluationStrategy strategy) {
+        super();
+        this.program = program;
+        this.strategy = strategy;
+    }
+
+    /**
+     * hidden constructor of an optimized expression.
+     *
+     * @param program the compiled program, before it was folded
+     * @param strategy the evaluation strategy the program was compiled for
+     * @param folded the folded program, prepared for the evaluation strategy
+     */
+    private CompiledExpression(final PostfixProgram program, final EvaluationStrategy strategy,
+            final PostfixProgram folded) {
+        this(program, strategy);
+        this.folding = new Folding(program.getContext(), folded);
+    }
+
+    /**
+     * factory method compiling a space separated {@code postfix} expression
+     * against the given {@code context}.
+     *
+     * @param postfix the space separated postfix expression
+     * @param context the calculation context on which to locate the meaning of
+     *        functions, operators, constants and variables
+     * @return a new compiled expression
+     * @throws IllegalArgumentException if the {@code postfix} expression is null
+     *         or blank, contains an unknown token or is malformed
+     */
+    public static CompiledExpression compile(CharSequence postfix, CalculationContext context)
+            throws IllegalArgumentException {
+        return compile(postfix, context, EvaluationStrategy.STACK);
+    }
+
+    /**
+     * factory method compiling a space separated {@code postfix} expression
+     * against the given {@code context}, for the given evaluation
+     * {@code strategy}.
+     *
+     * @param postfix the space separated postfix expression
+     * @param context the calculation context on which to locate the meaning of
+     *        functions, operators, constants and variables
+     * @param strategy the evaluation strategy
+     * @return a new compiled expression
+     * @throws IllegalArgumentException if the {@code postfix} expression is null
+     *         or blank, contains an unknown token or is malformed
+     */
+    public static CompiledExpression compile(CharSequence postfix, CalculationContext context,
+            EvaluationStrategy strategy) throws IllegalArgumentException {
+        Objects.requireNonNull(context, "calculation context cannot be null!");
+        Objects.requireNonNull(strategy, "evaluation strategy cannot be null!");
+        if (strategy == EvaluationStrategy.METHOD_HANDLES && null != postfix) {
+            // one linked tree per expression and symbols, shared by the child
+            // contexts of a frozen context, lets the JIT compiler customize it
+            return new CompiledExpression(context.getCompiled(strategy, postfix,
+                    key -> PostfixProgram.compile(key, context).link()).rebind(context), strategy);
+        }
+        return new CompiledExpression(prepare(PostfixProgram.compile(postfix, context), strategy), strategy);
+    }
+
+    /**
+     * prepares a program for execution with the given {@code strategy}.
+     *
+     * @param program the compiled program
+     * @param strategy the evaluation strategy
+     * @return the program to execute
+     */
+    private static PostfixProgram prepare(PostfixProgram program, EvaluationStrategy strategy) {
+        switch (strategy) {
+            case GRAPH:
+                return program.share();
+            case METHOD_HANDLES:
+                return program.link();
+            case BYTECODE:
+                return program.share().generate();
+            default:
+                return program;
+        }
+    }
+
+    /**
+     * gets an equivalent expression whose constant sub-expressions of default
+     * operators and functions are evaluated once, now, rather than on each
+     * evaluation, and whose arithmetic identities such as {@code x*1} or
+     * {@code x+0} are reduced to a rounding of {@code x} (see
+     * {@link PostfixProgram#fold()}). The optimized expression returns exactly
+     * the same results as this expression, in both numeric modes. The
+     * constants are folded with the precision and rounding mode of the
+     * context, and folded again on the first evaluation after either of them
+     * changes.
+     *
+     * <pre>
+     * CompiledExpression area = RPNCalculator.withContext(context).convert("2*π*r*1").thenCompile().optimize();
+     * </pre>
+     *
+     * @return a new optimized expression, with the same postfix expression and
+     *         variables as this expression
+     */
+    public CompiledExpression optimize() {
+        PostfixProgram folded = program.fold();
+        // folding may make sub-expressions equal, to be shared again
+        return new CompiledExpression(program, strategy, prepare(folded, strategy));
+    }
+
+    /**
+     * gets the evaluation strategy this expression was compiled for.
+     *
+     * @return the evaluation strategy
+     */
+    public EvaluationStrategy getEvaluationStrategy() {
+        return strategy;
+    }
+
+    /**
+     * gets the program to execute, folding the program of an optimized
+     * expression again if the precision or rounding mode of the context
+     * changed since it was folded.
+     *
+     * @return the program to execute
+     */
+    private PostfixProgram program() {
+        Folding current = folding;
+        if (null == current) {
+            return program;
+        }
+        CalculationContext context = program.getContext();
+        if (current.precision != context.getPrecision() || current.roundingMode != context.getRoundingMode()) {
+            current = new Folding(context, prepare(program.fold(), strategy));
+            folding = current;
+            logger.debug("folded postfix '{}' again with precision {} and rounding mode {}", getPostfix(),
+                    current.precision, current.roundingMode);
+        }
+        return current.program;
+    }
+
+    /**
+     * gets the compiled program.
+     *
+     * @return the compiled program
+     */
+    PostfixProgram getProgram() {
+        return program();
+    }
+
+    /**
+     * gets the postfix expression this expression was compiled from.
+     *
+     * @return the postfix expression
+     */
+    public String getPostfix() {
+        return program.getPostfix();
+    }
+
+    /**
+     * gets the context this expression was compiled against.
+     *
+     * @return the calculation context
+     */
+    public CalculationContext getContext() {
+        return program.getContext();
+    }
+
+    /**
+     * gets the symbols of the variables this expression refers to, in order of
+     * their first appearance in the expression.
+     *
+     * @return unmodifiable list of variable symbols
+     */
+    public List<String> getVariables() {
+        return program.getVariables();
+    }
+
+    /**
+     * evaluates this expression with the values the variables had when it was
+     * compiled.
+     *
+     * @return the result of the evaluation
+     */
+    public BigDecimal evaluate() {
+        long start = startTiming();
+        PostfixProgram executed = program();
+        BigDecimal result = isDoubleMode() ? toBigDecimal(executed.executeDouble()) : executed.execute();
+        stopTiming(start);
+        logger.debug("evaluated compiled postfix '{}' to '{}'", getPostfix(), result);
+        return result;
+    }
+
+    /**
+     * evaluates this expression with the given variable {@code values}.
+     * Variables missing from the given map keep the value they had when this
+     * expression was compiled. Entries that are not variables of this
+     * expression are ignored.
+     *
+     * @param values the variable values by variable symbol
+     * @return the result of the evaluation
+     * @throws NullPointerException if the given map is null or has a null value
+     *         for one of the variables of this expression
+     */
+    public BigDecimal evaluate(Map<? extends CharSequence, ? extends BigDecimal> values) {
+        long start = startTiming();
+        BigDecimal result = evaluateBinding(values);
+        stopTiming(start);
+        logger.debug("evaluated compiled postfix '{}' with {} to '{}'", getPostfix(), values, result);
+        return result;
+    }
+
+    /**
+     * creates bindings of the variables of this expression, with the slots of
+     * this expression and the values the variables had when it was compiled.
+     *
+     * @return new bindings for evaluating this expression
+     */
+    public Bindings newBindings() {
+        return Bindings.create(getVariables(), program.getDefaults());
+    }
+
+    /**
+     * creates an incremental evaluation of this expression, which keeps the
+     * value of each sub-expression between evaluations and recomputes only
+     * those depending on the variables rebound since the last evaluation (see
+     * {@link IncrementalEvaluation}).
+     *
+     * @return a new incremental evaluation, with the values the variables had
+     *         when this expression was compiled
+     */
+    public IncrementalEvaluation newIncrementalEvaluation() {
+        return IncrementalEvaluation.create(this, program().incremental());
+    }
+
+    /**
+     * evaluates this expression with the given variable {@code bindings}.
+     * Unbound variables, and variables missing from the bindings, keep the
+     * value they had when this expression was compiled. Bindings obtained from
+     * {@link #newBindings()} are read as is, while any other bindings are
+     * matched to the variables of this expression by symbol.
+     *
+     * @param bindings the variable bindings
+     * @return the result of the evaluation
+     * @throws NullPointerException if the bindings are null
+     */
+    public BigDecimal evaluate(Bindings bindings) {
+        long start = startTiming();
+        BigDecimal[] slots = slotsOf(bindings);
+        PostfixProgram executed = program();
+        BigDecimal result = isDoubleMode() ? toBigDecimal(executed.executeDouble(toDoubles(slots)))
+                : executed.execute(slots);
+        stopTiming(start);
+        logger.debug("evaluated compiled postfix '{}' with {} to '{}'", getPostfix(), bindings, result);
+        return result;
+    }
+
+    /**
+     * gets the values of the variables of this expression from the given
+     * bindings, by slot.
+     *
+     * @param bindings the variable bindings
+     * @return the variable values by slot
+     */
+    private BigDecimal[] slotsOf(Bindings bindings) {
+        BigDecimal[] values = bindings.values();
+        if (bindings.getVariables() == getVariables()) {
+            // the slots of the bindings are those of this expression
+            for (int slot = 0; slot < values.length; slot++) {
+                if (null == values[slot]) {
+                    BigDecimal[] slots = program.getDefaults();
+                    for (int idx = 0; idx < values.length; idx++) {
+                        slots[idx] = null == values[idx] ? slots[idx] : values[idx];
+                    }
+                    return slots;
+                }
+            }
+            return values;
+        }
+        BigDecimal[] slots = program.getDefaults();
+        List<String> variables = bindings.getVariables();
+        for (int idx = 0; idx < values.length; idx++) {
+            int slot = program.slotOf(variables.get(idx));
+            if (slot >= 0 && null != values[idx]) {
+                slots[slot] = values[idx];
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * evaluates this expression once for each of the given variable
+     * {@code bindings}, in parallel on the common {@link ForkJoinPool}.
+     *
+     * @param bindings the variable values of each evaluation, by variable
+     *        symbol, as in {@link #evaluate(Map)}
+     * @return the results of the evaluations, in the order of the bindings
+     * @throws NullPointerException if the bindings or one of them is null
+     * @see #evaluateAll(List, Executor)
+     */
+    public List<BigDecimal> evaluateAll(List<? extends Map<? extends CharSequence, ? extends BigDecimal>> bindings) {
+        return evaluateAll(bindings, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * evaluates this expression once for each of the given variable
+     * {@code bindings}, in parallel on the given {@code executor}. The bindings
+     * are split into contiguous ranges of at least {@value #PARALLEL_THRESHOLD}
+     * rows, each evaluated on a single thread into it's own part of the result,
+     * so the results are always in the order of the bindings and no state is
+     * shared between threads. A {@link ForkJoinPool} splits the ranges
+     * recursively and balances them by work stealing, any other executor gets
+     * one range per available processor.
+     *
+     * @param bindings the variable values of each evaluation, by variable
+     *        symbol, as in {@link #evaluate(Map)}
+     * @param executor the executor to evaluate the ranges on
+     * @return the results of the evaluations, in the order of the bindings
+     * @throws NullPointerException if the bindings, one of them or the executor
+     *         is null
+     */
+    public List<BigDecimal> evaluateAll(List<? extends Map<? extends CharSequence, ? extends BigDecimal>> bindings,
+            Executor executor) {
+        Objects.requireNonNull(executor, "executor cannot be null!");
+        BigDecimal[] results = new BigDecimal[bindings.size()];
+        if (executor instanceof ForkJoinPool) {
+            ((ForkJoinPool) executor).invoke(new RangeTask(this, bindings, results, 0, results.length));
+        } else {
+            int ranges = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                    results.length / PARALLEL_THRESHOLD));
+            int size = (results.length + ranges - 1) / ranges;
+            List<CompletableFuture<Void>> futures = new ArrayList<>(ranges);
+            for (int from = 0; from < results.length; from += size) {
+                int start = from;
+                int end = Math.min(results.length, from + size);
+                futures.add(CompletableFuture.runAsync(() -> evaluateRange(bindings, results, start, end), executor));
+            }
+            try {
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw ex;
+            }
+        }
+        logger.debug("evaluated compiled postfix '{}' with {} bindings", getPostfix(), results.length);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * evaluates a range of bindings sequentially.
+     *
+     * @param bindings all the bindings
+     * @param results the results of all the bindings
+     * @param from the first binding of the range, inclusive
+     * @param to the last binding of the range, exclusive
+     */
+    private void evaluateRange(List<? extends Map<? extends CharSequence, ? extends BigDecimal>> bindings,
+            BigDecimal[] results, int from, int to) {
+        for (int row = from; row < to; row++) {
+            results[row] = evaluateBinding(bindings.get(row));
+        }
+    }
+
+    /**
+     * evaluates this expression with the given variable {@code values}, without
+     * logging.
+     *
+     * @param values the variable values by variable symbol
+     * @return the result of the evaluation
+     */
+    private BigDecimal evaluateBinding(Map<? extends CharSequence, ? extends BigDecimal> values) {
+        BigDecimal[] slots = program.getDefaults();
+        for (Map.Entry<? extends CharSequence, ? extends BigDecimal> entry : values.entrySet()) {
+            int slot = program.slotOf(entry.getKey());
+            if (slot >= 0) {
+                slots[slot] = Objects.requireNonNull(entry.getValue(),
+                        () -> String.format("value of variable '%s' cannot be null!", entry.getKey()));
+            }
+        }
+        PostfixProgram executed = program();
+        return isDoubleMode() ? toBigDecimal(executed.executeDouble(toDoubles(slots))) : executed.execute(slots);
+    }
+
+    /**
+     * evaluates this expression with the values the variables had when it was
+     * compiled, and returns the result as a {@code double}.
+     *
+     * @return the result of the evaluation
+     */
+    public double evaluateAsDouble() {
+        PostfixProgram executed = program();
+        return isDoubleMode() ? executed.executeDouble() : executed.execute().doubleValue();
+    }
+
+    /**
+     * evaluates this expression with the given variable {@code values}, in the
+     * order of {@link #getVariables()}, and returns the result as a
+     * {@code double}. In {@link NumericMode#DOUBLE} mode no objects are
+     * allocated per evaluation other than the operand stack.
+     *
+     * @param values the variable values, in the order of {@link #getVariables()}
+     * @return the result of the evaluation
+     * @throws IllegalArgumentException if the number of values does not match
+     *         the number of variables
+     */
+    public double evaluateAsDouble(double[] values) throws IllegalArgumentException {
+        if (isDoubleMode()) {
+            return program().executeDouble(values);
+        }
+        if (values.length != getVariables().size()) {
+            throw new IllegalArgumentException(String.format("expected %d variable values but got %d",
+                    getVariables().size(), values.length));
+        }
+        BigDecimal[] slots = new BigDecimal[values.length];
+        for (int slot = 0; slot < values.length; slot++) {
+            slots[slot] = BigDecimal.valueOf(values[slot]);
+        }
+        return program().execute(slots).doubleValue();
+    }
+
+    /**
+     * evaluates this expression once per row of the given variable
+     * {@code columns}. The expression is executed one operator at a time
+     * across whole columns (see
+     * {@link PostfixProgram#executeColumns(double[][], int)}), which is much
+     * faster than evaluating it row by row. In {@link NumericMode#BIG_DECIMAL}
+     * mode the values are converted and evaluated as {@link BigDecimal}s, as in
+     * {@link #evaluateAsDouble(double[])}.
+     *
+     * @param columns the columns of variable values by variable symbol. Every
+     *        variable of this expression must have a column and all columns
+     *        must have the same length. Entries that are not variables of this
+     *        expression are ignored.
+     * @return a new array with the result of each row
+     * @throws IllegalArgumentException if this expression has no variables, if
+     *         a variable has no column or if the columns differ in length
+     */
+    public double[] evaluateColumns(Map<? extends CharSequence, double[]> columns)
+            throws IllegalArgumentException {
+        double[][] slots = new double[getVariables().size()][];
+        for (Map.Entry<? extends CharSequence, double[]> entry : columns.entrySet()) {
+            int slot = program.slotOf(entry.getKey());
+            if (slot >= 0) {
+                slots[slot] = entry.getValue();
+            }
+        }
+        for (int slot = 0; slot < slots.length; slot++) {
+            if (null == slots[slot]) {
+                throw new IllegalArgumentException(
+                        String.format("missing column of variable '%s'", getVariables().get(slot)));
+            }
+        }
+        return evaluateColumns(slots);
+    }
+
+    /**
+     * evaluates this expression once per row of the given variable
+     * {@code columns}, in the order of {@link #getVariables()}.
+     *
+     * @param columns the columns of variable values, in the order of
+     *        {@link #getVariables()}, all of the same length
+     * @return a new array with the result of each row
+     * @throws IllegalArgumentException if this expression has no variables, if
+     *         the number of columns does not match the number of variables or
+     *         if the columns differ in length
+     * @see #evaluateColumns(Map)
+     */
+    public double[] evaluateColumns(double[][] columns) throws IllegalArgumentException {
+        int rows = rows(columns.length, () -> columns[0].length);
+        if (isDoubleMode()) {
+            return program().executeColumns(columns, rows);
+        }
+        BigDecimal[][] decimals = new BigDecimal[columns.length][];
+        for (int slot = 0; slot < columns.length; slot++) {
+            decimals[slot] = new BigDecimal[columns[slot].length];
+            for (int row = 0; row < decimals[slot].length; row++) {
+                decimals[slot][row] = BigDecimal.valueOf(columns[slot][row]);
+            }
+        }
+        BigDecimal[] results = program().executeColumns(decimals, rows);
+        double[] doubles = new double[rows];
+        for (int row = 0; row < rows; row++) {
+            doubles[row] = results[row].doubleValue();
+        }
+        return doubles;
+    }
+
+    /**
+     * evaluates this expression once per row of the given variable
+     * {@code columns}, in the order of {@link #getVariables()}. In
+     * {@link NumericMode#DOUBLE} mode the values are converted and evaluated as
+     * doubles.
+     *
+     * @param columns the columns of variable values, in the order of
+     *        {@link #getVariables()}, all of the same length
+     * @return a new array with the result of each row
+     * @throws IllegalArgumentException if this expression has no variables, if
+     *         the number of columns does not match the number of variables or
+     *         if the columns differ in length
+     * @throws ArithmeticException in {@link NumericMode#DOUBLE} mode, if the
+     *         result of a row is infinite or not a number
+     */
+    public BigDecimal[] evaluateColumns(BigDecimal[][] columns)
+            throws IllegalArgumentException, ArithmeticException {
+        int rows = rows(columns.length, () -> columns[0].length);
+        if (!isDoubleMode()) {
+            return program().executeColumns(columns, rows);
+        }
+        double[][] doubles = new double[columns.length][];
+        for (int slot = 0; slot < columns.length; slot++) {
+            doubles[slot] = toDoubles(columns[slot]);
+        }
+        double[] results = program().executeColumns(doubles, rows);
+        BigDecimal[] decimals = new BigDecimal[rows];
+        for (int row = 0; row < rows; row++) {
+            decimals[row] = toBigDecimal(results[row]);
+        }
+        return decimals;
+    }
+
+    /**
+     * gets the number of rows of a batch evaluation.
+     *
+     * @param count the number of columns
+     * @param length supplies the length of the first column
+     * @return the number of rows
+     * @throws IllegalArgumentException if this expression has no variables or
+     *         the number of columns does not match the number of variables
+     */
+    private int rows(int count, IntSupplier length) throws IllegalArgumentException {
+        if (getVariables().isEmpty()) {
+            throw new IllegalArgumentException("cannot evaluate columns of an expression without variables!");
+        }
+        if (count != getVariables().size()) {
+            throw new IllegalArgumentException(
+                    String.format("expected %d variable columns but got %d", getVariables().size(), count));
+        }
+        return length.getAsInt();
+    }
+
+    /**
+     * returns true if the context of this expression is in
+     * {@link NumericMode#DOUBLE} mode.
+     *
+     * @return true if this expression is evaluated with doubles
+     */
+    private boolean isDoubleMode() {
+        return getContext().getNumericMode() == NumericMode.DOUBLE;
+    }
+
+    /**
+     * reads the clock at the start of an evaluation, if the metrics of the
+     * context of this expression are enabled.
+     *
+     * @return the start of the evaluation in nanoseconds, or zero if the
+     *         metrics are disabled
+     */
+    private long startTiming() {
+        return getContext().getMetrics().isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * records the duration of an evaluation and the number of instructions
+     * of this expression, if the metrics of the context of this expression are
+     * enabled.
+     *
+     * @param start the start of the evaluation in nanoseconds
+     */
+    private void stopTiming(long start) {
+        CalculationMetrics metrics = getContext().getMetrics();
+        if (metrics.isEnabled()) {
+            metrics.recordPhase(Phase.EVALUATE, System.nanoTime() - start, program().size());
+        }
+    }
+
+    /**
+     * The Class Folding is the folded program of an optimized expression and
+     * the precision and rounding mode of the context it was folded with.
+     */
+    private static final class Folding {
+
+        private final int precision;
+        private final RoundingMode roundingMode;
+        private final PostfixProgram program;
+
+        private Folding(final CalculationContext context, final PostfixProgram program) {
+            super();
+            this.precision = context.getPrecision();
+            this.roundingMode = context.getRoundingMode();
+            this.program = program;
+        }
+    }
+
+    /**
+     * The Class RangeTask evaluates a range of bindings, splitting it in halves
+     * while it is larger than {@link CompiledExpression#PARALLEL_THRESHOLD}.
+     */
+    private static final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final transient CompiledExpression expression;
+        private final transient List<? extends Map<? extends CharSequence, ? extends BigDecimal>> bindings;
+        private final BigDecimal[] results;
+        private final int from;
+        private final int to;
+
+        private RangeTask(final CompiledExpression expression,
+                final List<? extends Map<? extends CharSequence, ? extends BigDecimal>> bindings,
+                final BigDecimal[] results, final int from, final int to) {
+            super();
+            this.expression = expression;
+            this.bindings = bindings;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                expression.evaluateRange(bindings, results, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeTask(expression, bindings, results, from, middle),
+                        new RangeTask(expression, bindings, results, middle, to));
+            }
+        }
+    }
+
+    /**
+     * converts the double result of an evaluation to a {@link BigDecimal}.
+     *
+     * @param result the double result
+     * @return the result as a {@link BigDecimal}
+     * @throws ArithmeticException if the result is infinite or not a number
+     */
+    private static BigDecimal toBigDecimal(double result) throws ArithmeticException {
+        if (!Double.isFinite(result)) {
+            throw new ArithmeticException("evaluation result " + result + " is not a finite number");
+        }
+        return BigDecimal.valueOf(result);
+    }
+
+    /**
+     * converts variable values to doubles.
+     *
+     * @param values the variable values by slot
+     * @return the double variable values by slot
+     */
+    private static double[] toDoubles(BigDecimal[] values) {
+        double[] doubles = new double[values.length];
+        for (int slot = 0; slot < values.length; slot++) {
+            doubles[slot] = values[slot].doubleValue();
+        }
+        return doubles;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.silvermania.rpn.support.Printable#print()
+     */
+    @Override
+    public String print() {
+        Map<String, String> props = new LinkedHashMap<>();
+        props.put(indent() + "class", "org.silvermania.rpn.postfix.calculator.CompiledExpression");
+        props.put(indent() + "postfix", getPostfix());
+        props.put(indent() + "strategy", strategy.name());
+        props.put(indent() + "instructions", String.valueOf(program().size()));
+        props.put(indent() + "doubleCompatible", String.valueOf(program().isDoubleCompatible()));
+        props.put(indent() + "variables", getVariables().toString());
+        return props.entrySet().stream().map(e -> String.format("%n%-20s%s", e.getKey(), e.getValue()))
+                .collect(Collectors.joining());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "CompiledExpression [postfix=" + getPostfix() + ", variables=" + getVariables() + "]";
+    }
+
+}
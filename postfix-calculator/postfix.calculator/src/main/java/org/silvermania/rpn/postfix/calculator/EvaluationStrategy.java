@@ -0,0 +1,51 @@
+/*
+ * File: EvaluationStrategy.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.calculator;
+
+/**
+ * The Enum EvaluationStrategy represents the way a {@link CompiledExpression}
+ * evaluates the sub-expressions of it's {@code postfix} expression.
+ * {@code STACK} evaluates every token of the expression in order, so a
+ * sub-expression appearing several times is evaluated each time it appears.
+ * {@code GRAPH} evaluates the expression as a directed acyclic graph of it's
+ * distinct sub-expressions, so that each is evaluated once per evaluation and
+ * it's value reused wherever it appears again. {@code METHOD_HANDLES}
+ * evaluates every token by a tree of method handles linked once per
+ * expression and context. {@code BYTECODE} evaluates the graph by a class
+ * generated for the expression, in which the default operators are inlined
+ * and no instruction is interpreted.
+ *
+ * @author T.N.Silverman
+ */
+public enum EvaluationStrategy {
+    /** Evaluation of every token in order (the default). */
+    STACK,
+
+    /** Evaluation of each distinct sub-expression once. */
+    GRAPH,
+
+    /** Evaluation of every token by a tree of method handles. */
+    METHOD_HANDLES,
+
+    /** Evaluation of each distinct sub-expression once, by a generated class. */
+    BYTECODE;
+}
@@ -0,0 +1,624 @@
+/*
+ * File: FormulaSheet.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.calculator;
+
+import static org.silvermania.rpn.support.TokenUtil.isArithmeticToken;
+import static org.silvermania.rpn.support.TokenUtil.isOperand;
+import static org.silvermania.rpn.support.TokenUtil.isVariable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+
+import org.silvermania.rpn.infix.converter.InfixConverter;
+import org.silvermania.rpn.support.CalculationContext;
+import org.silvermania.rpn.support.NumericMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class FormulaSheet is a set of named {@code infix} formulas that refer
+ * to each other by name, evaluated together against a
+ * {@link CalculationContext}:
+ *
+ * <pre>
+ * FormulaSheet sheet = FormulaSheet.newInstance(context)
+ *         .define("margin", "price-cost")
+ *         .define("ratio", "pct(margin,price)")
+ *         .define("total", "margin*qty");
+ * Map&lt;String, BigDecimal&gt; results = sheet.evaluate(Map.of("price", price, "cost", cost, "qty", qty));
+ * </pre>
+ *
+ * The name of a formula is a variable of the other formulas, and hides a
+ * variable of the same symbol in the context. Every other variable a formula
+ * refers to is an input of the sheet, which must be a variable of the context
+ * and is either given to an evaluation or keeps it's value in the context.
+ * <p>
+ * On the first evaluation after the formulas, the symbols of the context (see
+ * {@link CalculationContext#getSymbolsVersion()}), it's precision, rounding
+ * mode or numeric mode changed, the formulas
+ * are converted and compiled against a child context of the sheet context
+ * (see {@link CalculationContext#withVariables(Map)}), and their
+ * dependency graph is sorted into layers: the first layer holds the formulas
+ * referring to inputs only, and every other layer the formulas referring to
+ * formulas of the preceding layers. Formulas referring to each other in a
+ * cycle are reported. Each evaluation then evaluates the layers in order, and
+ * the formulas of a layer, which never refer to each other, in parallel.
+ * Changing the value of an input in the context does not rebuild the plan,
+ * the evaluations read the values of the inputs they are not given from the
+ * context.
+ * <p>
+ * Defining and removing formulas is thread safe, and sheets may be evaluated
+ * concurrently.
+ *
+ * @author T.N.Silverman
+ */
+public final class FormulaSheet {
+
+    /** The Constant logger. */
+    private static final Logger logger = LoggerFactory.getLogger(FormulaSheet.class);
+
+    /** The minimal number of formulas evaluated by a single parallel task. */
+    static final int PARALLEL_THRESHOLD = 16;
+
+    /** The calculation context. */
+    private final CalculationContext context;
+
+    /** The infix formulas, by name, in order of definition. */
+    private final Map<String, String> formulas = new LinkedHashMap<>();
+
+    /** The evaluation plan, or null if it's to be built. */
+    private volatile Plan plan;
+
+    /**
+     * hidden constructor.
+     *
+     * @param context the calculation context
+     */
+    private FormulaSheet(final CalculationContext context) {
+        super();
+        this.context = context;
+    }
+
+    /**
+     * factory method obtaining a new empty sheet.
+     *
+     * @param context the calculation context on which to locate the meaning of
+     *        functions, operators, constants and the input variables
+     * @return a new formula sheet
+     */
+    public static FormulaSheet newInstance(CalculationContext context) {
+        return new FormulaSheet(Objects.requireNonNull(context, "calculation context cannot be null!"));
+    }
+
+    /**
+     * defines a formula, replacing any formula of the same name.
+     *
+     * @param name the name of the formula, by which other formulas refer to
+     *        it's result
+     * @param infix the infix expression of the formula
+     * @return this sheet for chainability
+     * @throws IllegalArgumentException if the name is null or blank, or is the
+     *         symbol of a number, constant, operator or function of the
+     *         context, or if the expression is null or blank
+     */
+    public synchronized FormulaSheet define(CharSequence name, CharSequence infix) throws IllegalArgumentException {
+        if (null == name || name.toString().isBlank()) {
+            throw new IllegalArgumentException("formula name cannot be null or blank!");
+        }
+        String symbol = name.toString();
+        if (isArithmeticToken(symbol, context) || (isOperand(symbol, context) && !isVariable(symbol, context))) {
+            throw new IllegalArgumentException(String.format("formula name '%s' is not a variable symbol!", name));
+        }
+        if (null == infix || infix.toString().isBlank()) {
+            throw new IllegalArgumentException(String.format("formula '%s' cannot be null or blank!", name));
+        }
+        formulas.put(symbol, infix.toString());
+        plan = null;
+        return this;
+    }
+
+    /**
+     * removes a formula.
+     *
+     * @param name the name of the formula
+     * @return this sheet for chainability
+     */
+    public synchronized FormulaSheet remove(CharSequence name) {
+        if (null != name && null != formulas.remove(name.toString())) {
+            plan = null;
+        }
+        return this;
+    }
+
+    /**
+     * gets the infix formulas, by name.
+     *
+     * @return unmodifiable copy of the formulas, in order of definition
+     */
+    public synchronized Map<String, String> getFormulas() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(formulas));
+    }
+
+    /**
+     * gets the names of the formulas each formula of the given {@code name}
+     * refers to.
+     *
+     * @param name the name of the formula
+     * @return unmodifiable set of the names of the formulas it refers to, or
+     *         an empty set if there is no such formula
+     * @throws IllegalArgumentException if a formula cannot be compiled
+     * @throws IllegalStateException if formulas refer to each other in a cycle
+     */
+    public Set<String> getDependencies(CharSequence name) throws IllegalArgumentException, IllegalStateException {
+        Plan current = plan();
+        int id = current.indexOf(name);
+        if (id < 0 || id >= current.names.size()) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(current.sources[id]).filter(source -> source >= 0 && source < current.names.size())
+                .mapToObj(current.names::get).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * gets the names of the formulas in layers of evaluation. The formulas of
+     * the first layer refer to inputs only, and the formulas of every other
+     * layer refer to formulas of the preceding layers.
+     *
+     * @return unmodifiable list of the layers, each an unmodifiable list of
+     *         formula names
+     * @throws IllegalArgumentException if a formula cannot be compiled
+     * @throws IllegalStateException if formulas refer to each other in a cycle
+     */
+    public List<List<String>> getLayers() throws IllegalArgumentException, IllegalStateException {
+        Plan current = plan();
+        List<List<String>> layers = new ArrayList<>(current.layers.length - 1);
+        for (int layer = 1; layer < current.layers.length; layer++) {
+            layers.add(current.names.subList(current.layers[layer - 1], current.layers[layer]));
+        }
+        return Collections.unmodifiableList(layers);
+    }
+
+    /**
+     * evaluates the formulas with the values the inputs have in the context.
+     *
+     * @return unmodifiable map of the results, by formula name, in order of
+     *         evaluation
+     * @throws IllegalArgumentException if a formula cannot be compiled
+     * @throws IllegalStateException if formulas refer to each other in a cycle
+     */
+    public Map<String, BigDecimal> evaluate() throws IllegalArgumentException, IllegalStateException {
+        return evaluate(Collections.emptyMap());
+    }
+
+    /**
+     * evaluates the formulas with the given input values, the layers in order
+     * and the formulas of each layer in parallel on the common
+     * {@link ForkJoinPool}.
+     *
+     * @param inputs the input values, by variable symbol. Inputs missing from
+     *        the map keep their value in the context, and entries that are not
+     *        inputs of the formulas are ignored
+     * @return unmodifiable map of the results, by formula name, in order of
+     *         evaluation
+     * @throws IllegalArgumentException if a formula cannot be compiled, or an
+     *         input is the name of a formula
+     * @throws IllegalStateException if formulas refer to each other in a cycle
+     * @see #evaluate(Map, Executor)
+     */
+    public Map<String, BigDecimal> evaluate(Map<? extends CharSequence, ? extends BigDecimal> inputs)
+            throws IllegalArgumentException, IllegalStateException {
+        return evaluate(inputs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * evaluates the formulas with the given input values, the layers in order
+     * and the formulas of each layer in parallel on the given
+     * {@code executor}. A layer is split into contiguous ranges of at least
+     * {@value #PARALLEL_THRESHOLD} formulas, each evaluated on a single thread.
+     * A {@link ForkJoinPool} splits the ranges recursively and balances them
+     * by work stealing, any other executor gets one range per available
+     * processor.
+     *
+     * @param inputs the input values, by variable symbol. Inputs missing from
+     *        the map keep their value in the context, and entries that are not
+     *        inputs of the formulas are ignored
+     * @param executor the executor to evaluate the formulas of each layer on
+     * @return unmodifiable map of the results, by formula name, in order of
+     *         evaluation
+     * @throws IllegalArgumentException if a formula cannot be compiled, or an
+     *         input is the name of a formula
+     * @throws IllegalStateException if formulas refer to each other in a cycle
+     */
+    public Map<String, BigDecimal> evaluate(Map<? extends CharSequence, ? extends BigDecimal> inputs,
+            Executor executor) throws IllegalArgumentException, IllegalStateException {
+        Objects.requireNonNull(executor, "executor cannot be null!");
+        Plan current = plan();
+        BigDecimal[] values = new BigDecimal[current.symbols.size()];
+        for (int id = current.names.size(); id < values.length; id++) {
+            values[id] = context.getVariable(current.symbols.get(id));
+        }
+        inputs.forEach((symbol, value) -> {
+            int id = current.indexOf(symbol);
+            if (id >= 0 && id < current.names.size()) {
+                throw new IllegalArgumentException(String.format("input '%s' is the name of a formula!", symbol));
+            }
+            if (id >= 0) {
+                values[id] = Objects.requireNonNull(value,
+                        () -> String.format("value of input '%s' cannot be null!", symbol));
+            }
+        });
+        for (int layer = 1; layer < current.layers.length; layer++) {
+            evaluateLayer(current, values, current.layers[layer - 1], current.layers[layer], executor);
+        }
+        Map<String, BigDecimal> results = new LinkedHashMap<>();
+        for (int id = 0; id < current.names.size(); id++) {
+            results.put(current.names.get(id), values[id]);
+        }
+        logger.debug("evaluated {} formulas in {} layers", results.size(), current.layers.length - 1);
+        return Collections.unmodifiableMap(results);
+    }
+
+    /**
+     * evaluates the formulas of a layer, in parallel if it's large enough.
+     *
+     * @param plan the evaluation plan
+     * @param values the values of the formulas and inputs, by id
+     * @param from the first formula of the layer, inclusive
+     * @param to the last formula of the layer, exclusive
+     * @param executor the executor to evaluate the formulas on
+     */
+    private static void evaluateLayer(Plan plan, BigDecimal[] values, int from, int to, Executor executor) {
+        if (to - from <= PARALLEL_THRESHOLD) {
+            plan.evaluateRange(values, from, to);
+        } else if (executor instanceof ForkJoinPool) {
+            ((ForkJoinPool) executor).invoke(new RangeTask(plan, values, from, to));
+        } else {
+            int ranges = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                    (to - from) / PARALLEL_THRESHOLD));
+            int size = (to - from + ranges - 1) / ranges;
+            List<CompletableFuture<Void>> futures = new ArrayList<>(ranges);
+            for (int start = from; start < to; start += size) {
+                int first = start;
+                int last = Math.min(to, start + size);
+                futures.add(CompletableFuture.runAsync(() -> plan.evaluateRange(values, first, last), executor));
+            }
+            try {
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * gets the evaluation plan, building it if the formulas, the symbols, the
+     * precision, the rounding mode or the numeric mode of the context changed
+     * since it was built.
+     *
+     * @return the evaluation plan
+     * @throws IllegalArgumentException if a formula cannot be compiled
+     * @throws IllegalStateException if formulas refer to each other in a cycle
+     */
+    private Plan plan() throws IllegalArgumentException, IllegalStateException {
+        Plan current = plan;
+        if (null != current && current.isBuiltFor(context)) {
+            return current;
+        }
+        synchronized (this) {
+            if (null == plan || !plan.isBuiltFor(context)) {
+                plan = Plan.build(formulas, context);
+            }
+            return plan;
+        }
+    }
+
+    /**
+     * The Class Plan holds the compiled formulas of a sheet in order of
+     * evaluation, and the ids of the values each of their variables is bound
+     * to. The formulas have the ids 0 to n-1, in order of evaluation, and the
+     * inputs the ids that follow.
+     */
+    private static final class Plan {
+
+        /** The symbols version of the context the plan was built against. */
+        private final long version;
+
+        /** The precision of the context the plan was built against. */
+        private final int precision;
+
+        /** The rounding mode of the context the plan was built against. */
+        private final RoundingMode roundingMode;
+
+        /** The numeric mode of the context the plan was built against. */
+        private final NumericMode numericMode;
+
+        /** The names of the formulas and then of the inputs, by id. */
+        private final List<String> symbols;
+
+        /** The names of the formulas, by id. */
+        private final List<String> names;
+
+        /** The ids of the symbols. */
+        private final Map<String, Integer> ids;
+
+        /** The compiled formulas, by id. */
+        private final CompiledExpression[] expressions;
+
+        /** The id of the value bound to each variable slot of each formula. */
+        private final int[][] sources;
+
+        /** The id of the first formula of each layer, followed by the number of formulas. */
+        private final int[] layers;
+
+        /**
+         * hidden constructor.
+         *
+         * @param version the symbols version of the context
+         * @param context the context the plan was built against
+         * @param symbols the names of the formulas and then of the inputs
+         * @param formulas the number of formulas
+         * @param ids the ids of the symbols
+         * @param expressions the compiled formulas
+         * @param sources the ids of the values bound to the variable slots
+         * @param layers the ids of the first formula of each layer
+         */
+        private Plan(final long version, final CalculationContext context, final List<String> symbols,
+                final int formulas, final Map<String, Integer> ids, final CompiledExpression[] expressions,
+                final int[][] sources, final int[] layers) {
+            super();
+            this.version = version;
+            this.precision = context.getPrecision();
+            this.roundingMode = context.getRoundingMode();
+            this.numericMode = context.getNumericMode();
+            this.symbols = Collections.unmodifiableList(symbols);
+            this.names = this.symbols.subList(0, formulas);
+            this.ids = ids;
+            this.expressions = expressions;
+            this.sources = sources;
+            this.layers = layers;
+        }
+
+        /**
+         * checks whether the plan was built against the symbols, the math
+         * context and the numeric mode the context has now, which the
+         * compiled formulas of the child context are bound to.
+         *
+         * @param context the calculation context
+         * @return true if the plan is current for the context
+         */
+        private boolean isBuiltFor(CalculationContext context) {
+            return version == context.getSymbolsVersion() && precision == context.getPrecision()
+                    && roundingMode == context.getRoundingMode() && numericMode == context.getNumericMode();
+        }
+
+        /**
+         * builds the evaluation plan of the given formulas.
+         *
+         * @param formulas the infix formulas, by name
+         * @param context the calculation context
+         * @return the evaluation plan
+         * @throws IllegalArgumentException if a formula cannot be compiled
+         * @throws IllegalStateException if formulas refer to each other in a
+         *         cycle
+         */
+        private static Plan build(Map<String, String> formulas, CalculationContext context)
+                throws IllegalArgumentException, IllegalStateException {
+            long version = context.getSymbolsVersion();
+            List<String> names = new ArrayList<>(formulas.keySet());
+            Map<String, BigDecimal> declared = new LinkedHashMap<>();
+            names.forEach(name -> declared.put(name, BigDecimal.ZERO));
+            CalculationContext child = context.withVariables(declared);
+            InfixConverter converter = InfixConverter.newInstance(child);
+            CompiledExpression[] compiled = new CompiledExpression[names.size()];
+            Map<String, Integer> order = new HashMap<>();
+            for (int idx = 0; idx < names.size(); idx++) {
+                String name = names.get(idx);
+                order.put(name, idx);
+                try {
+                    compiled[idx] = CompiledExpression.compile(converter.convert(formulas.get(name)), child);
+                } catch (IllegalArgumentException ex) {
+                    throw new IllegalArgumentException(String.format("cannot compile formula '%s' = '%s': %s", name,
+                            formulas.get(name), ex.getMessage()), ex);
+                }
+            }
+            // the formulas each formula refers to, and the formulas referring to each formula
+            List<List<Integer>> dependents = new ArrayList<>(names.size());
+            int[] pending = new int[names.size()];
+            names.forEach(name -> dependents.add(new ArrayList<>()));
+            for (int idx = 0; idx < names.size(); idx++) {
+                for (String variable : compiled[idx].getVariables()) {
+                    Integer dependency = order.get(variable);
+                    if (null != dependency) {
+                        dependents.get(dependency).add(idx);
+                        pending[idx]++;
+                    }
+                }
+            }
+            // Kahn's algorithm, one layer at a time
+            List<Integer> sorted = new ArrayList<>(names.size());
+            List<Integer> bounds = new ArrayList<>();
+            bounds.add(0);
+            List<Integer> layer = new ArrayList<>();
+            for (int idx = 0; idx < names.size(); idx++) {
+                if (pending[idx] == 0) {
+                    layer.add(idx);
+                }
+            }
+            while (!layer.isEmpty()) {
+                sorted.addAll(layer);
+                bounds.add(sorted.size());
+                List<Integer> next = new ArrayList<>();
+                for (int idx : layer) {
+                    for (int dependent : dependents.get(idx)) {
+                        if (--pending[dependent] == 0) {
+                            next.add(dependent);
+                        }
+                    }
+                }
+                layer = next;
+            }
+            if (sorted.size() < names.size()) {
+                throw new IllegalStateException("formulas refer to each other in a cycle: "
+                        + String.join(" -> ", cycle(names, compiled, order, pending)));
+            }
+            List<String> symbols = new ArrayList<>(names.size());
+            sorted.forEach(idx -> symbols.add(names.get(idx)));
+            Set<String> inputs = new LinkedHashSet<>();
+            for (int idx : sorted) {
+                compiled[idx].getVariables().stream().filter(variable -> !order.containsKey(variable))
+                        .forEach(inputs::add);
+            }
+            symbols.addAll(inputs);
+            Map<String, Integer> ids = new HashMap<>();
+            for (int id = 0; id < symbols.size(); id++) {
+                ids.put(symbols.get(id), id);
+            }
+            CompiledExpression[] expressions = new CompiledExpression[names.size()];
+            int[][] sources = new int[names.size()][];
+            for (int id = 0; id < sorted.size(); id++) {
+                expressions[id] = compiled[sorted.get(id)];
+                sources[id] = expressions[id].getVariables().stream().mapToInt(ids::get).toArray();
+            }
+            Plan plan = new Plan(version, context, symbols, names.size(), ids, expressions, sources,
+                    bounds.stream().mapToInt(Integer::intValue).toArray());
+            logger.debug("planned {} formulas with {} inputs in {} layers", names.size(), inputs.size(),
+                    plan.layers.length - 1);
+            return plan;
+        }
+
+        /**
+         * finds a cycle among the formulas that could not be sorted, all of
+         * which refer to at least one other such formula.
+         *
+         * @param names the names of the formulas
+         * @param compiled the compiled formulas
+         * @param order the index of each formula name
+         * @param pending the number of unsorted formulas each formula refers to
+         * @return the names of the formulas of the cycle, ending with the first
+         */
+        private static List<String> cycle(List<String> names, CompiledExpression[] compiled,
+                Map<String, Integer> order, int[] pending) {
+            int start = 0;
+            while (pending[start] == 0) {
+                start++;
+            }
+            // follow unsorted references until a formula repeats
+            Deque<Integer> path = new ArrayDeque<>();
+            Map<Integer, Integer> visited = new HashMap<>();
+            int current = start;
+            while (!visited.containsKey(current)) {
+                visited.put(current, path.size());
+                path.addLast(current);
+                current = compiled[current].getVariables().stream().map(order::get)
+                        .filter(idx -> null != idx && pending[idx] > 0).findFirst().orElseThrow();
+            }
+            List<String> cycle = path.stream().skip(visited.get(current)).map(names::get)
+                    .collect(Collectors.toCollection(ArrayList::new));
+            cycle.add(names.get(current));
+            return cycle;
+        }
+
+        /**
+         * gets the id of a symbol.
+         *
+         * @param symbol the symbol
+         * @return the id of the symbol, or -1 if it's neither a formula nor an
+         *         input
+         */
+        private int indexOf(CharSequence symbol) {
+            return null == symbol ? -1 : ids.getOrDefault(symbol.toString(), -1);
+        }
+
+        /**
+         * evaluates a range of formulas of a layer sequentially.
+         *
+         * @param values the values of the formulas and inputs, by id
+         * @param from the first formula of the range, inclusive
+         * @param to the last formula of the range, exclusive
+         */
+        private void evaluateRange(BigDecimal[] values, int from, int to) {
+            for (int id = from; id < to; id++) {
+                Bindings bindings = expressions[id].newBindings();
+                int[] slots = sources[id];
+                for (int slot = 0; slot < slots.length; slot++) {
+                    if (null != values[slots[slot]]) {
+                        bindings.bind(slot, values[slots[slot]]);
+                    }
+                }
+                values[id] = expressions[id].evaluate(bindings);
+            }
+        }
+    }
+
+    /**
+     * The Class RangeTask evaluates a range of formulas of a layer, splitting
+     * it in halves while it is larger than
+     * {@link FormulaSheet#PARALLEL_THRESHOLD}.
+     */
+    private static final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final transient Plan plan;
+        private final BigDecimal[] values;
+        private final int from;
+        private final int to;
+
+        private RangeTask(final Plan plan, final BigDecimal[] values, final int from, final int to) {
+            super();
+            this.plan = plan;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                plan.evaluateRange(values, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeTask(plan, values, from, middle), new RangeTask(plan, values, middle, to));
+            }
+        }
+    }
+}
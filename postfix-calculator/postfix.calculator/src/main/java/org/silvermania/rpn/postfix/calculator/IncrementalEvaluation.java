@@ -0,0 +1,263 @@
+/*
+ * File: IncrementalEvaluation.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.calculator;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.silvermania.rpn.postfix.support.IncrementalProgram;
+import org.silvermania.rpn.support.CalculationContext;
+import org.silvermania.rpn.support.OperandToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class IncrementalEvaluation evaluates a {@link CompiledExpression}
+ * repeatedly as it's variables change, recomputing only the sub-expressions
+ * that depend on the changed variables. Every distinct sub-expression records
+ * the variables it depends on and keeps it's value between evaluations, so a
+ * formula of many inputs, of which only one or two change between
+ * evaluations, recomputes only the path from those inputs to it's result:
+ *
+ * <pre>
+ * IncrementalEvaluation total = RPNCalculator.withContext(context).convert("price*qty*(1+tax)+fee*qty")
+ *         .thenCompile().newIncrementalEvaluation();
+ * BigDecimal first = total.evaluate();
+ * BigDecimal next = total.bind("price", newPrice).evaluate(); // fee*qty and 1+tax are reused
+ * </pre>
+ *
+ * An evaluation starts with the values the variables had when the expression
+ * was compiled. Variables are rebound by {@link #bind(CharSequence, BigDecimal)}
+ * or {@link #bind(Map)}, or to their current values in the context, after
+ * they were changed by
+ * {@link CalculationContext#addVariable(CharSequence, BigDecimal)}, by
+ * {@link #refresh()}. Rebinding a variable to an equal value recomputes
+ * nothing.
+ * <p>
+ * The sub-expressions are computed by the {@link BigDecimal} operations of
+ * the operators and functions in both numeric modes, and the results are
+ * those of {@link CompiledExpression#evaluate(Map)} in the
+ * {@link org.silvermania.rpn.support.NumericMode#BIG_DECIMAL BIG_DECIMAL}
+ * mode, as long as the registered operations return the same result whenever
+ * they are applied to the same operands.
+ * <p>
+ * Incremental evaluations are mutable and must not be shared between threads.
+ *
+ * @author T.N.Silverman
+ */
+public final class IncrementalEvaluation {
+
+    /** The Constant logger. */
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalEvaluation.class);
+
+    /** The evaluated expression. */
+    private final CompiledExpression expression;
+
+    /** The incremental program of the expression. */
+    private final IncrementalProgram program;
+
+    /**
+     * hidden constructor.
+     *
+     * @param expression the evaluated expression
+     * @param program the incremental program of the expression
+     */
+    private IncrementalEvaluation(final CompiledExpression expression, final IncrementalProgram program) {
+        super();
+        this.expression = expression;
+        this.program = program;
+    }
+
+    /**
+     * factory method creating an incremental evaluation of the given
+     * {@code expression}.
+     *
+     * @param expression the expression
+     * @param program the incremental program of the expression
+     * @return a new incremental evaluation
+     */
+    static IncrementalEvaluation create(CompiledExpression expression, IncrementalProgram program) {
+        return new IncrementalEvaluation(expression, program);
+    }
+
+    /**
+     * gets the evaluated expression.
+     *
+     * @return the compiled expression
+     */
+    public CompiledExpression getExpression() {
+        return expression;
+    }
+
+    /**
+     * gets the symbols of the variables of the expression, by slot.
+     *
+     * @return unmodifiable list of the variable symbols
+     */
+    public List<String> getVariables() {
+        return expression.getVariables();
+    }
+
+    /**
+     * gets the slot of the given variable {@code symbol}.
+     *
+     * @param symbol the variable symbol
+     * @return the slot of the variable or -1 if the expression has no such
+     *         variable
+     */
+    public int slotOf(CharSequence symbol) {
+        return null == symbol ? -1 : getVariables().indexOf(symbol.toString());
+    }
+
+    /**
+     * returns true if the result of the expression depends on the variable of
+     * the given {@code symbol}, that is if rebinding it to a different value
+     * recomputes anything.
+     *
+     * @param symbol the variable symbol
+     * @return true if the result depends on the variable, otherwise false
+     */
+    public boolean dependsOn(CharSequence symbol) {
+        return program.dependsOn(slotOf(symbol));
+    }
+
+    /**
+     * binds the variable of the given {@code symbol} to the given
+     * {@code value}, marking the sub-expressions depending on it for
+     * recomputation if the value changed.
+     *
+     * @param symbol the variable symbol
+     * @param value the value of the variable
+     * @return this evaluation for chainability
+     * @throws IllegalArgumentException if the expression has no such variable
+     * @throws NullPointerException if the value is null
+     */
+    public IncrementalEvaluation bind(CharSequence symbol, BigDecimal value) throws IllegalArgumentException {
+        int slot = slotOf(symbol);
+        if (slot < 0) {
+            throw new IllegalArgumentException(String.format("no variable '%s' in %s", symbol, getVariables()));
+        }
+        program.bind(slot, value);
+        return this;
+    }
+
+    /**
+     * binds the variables of the given {@code values}, marking the
+     * sub-expressions depending on the changed ones for recomputation. Entries
+     * that are not variables of the expression are ignored, so the same map of
+     * changed inputs may be bound to many expressions.
+     *
+     * @param values the variable values by variable symbol
+     * @return this evaluation for chainability
+     * @throws NullPointerException if the map is null or has a null value for
+     *         one of the variables of the expression
+     */
+    public IncrementalEvaluation bind(Map<? extends CharSequence, ? extends BigDecimal> values) {
+        values.forEach((symbol, value) -> {
+            int slot = slotOf(symbol);
+            if (slot >= 0) {
+                program.bind(slot, value);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * rebinds each variable of the expression to it's current value in the
+     * context the expression was compiled against, marking the
+     * sub-expressions depending on the changed ones for recomputation.
+     *
+     * @return this evaluation for chainability
+     */
+    public IncrementalEvaluation refresh() {
+        CalculationContext context = expression.getContext();
+        List<String> variables = getVariables();
+        for (int slot = 0; slot < variables.size(); slot++) {
+            program.bind(slot, OperandToken.create(variables.get(slot), context).getValue());
+        }
+        return this;
+    }
+
+    /**
+     * gets the value bound to the given variable {@code symbol}.
+     *
+     * @param symbol the variable symbol
+     * @return the value of the variable or null if the expression has no such
+     *         variable
+     */
+    public BigDecimal get(CharSequence symbol) {
+        int slot = slotOf(symbol);
+        return slot < 0 ? null : program.valueOf(slot);
+    }
+
+    /**
+     * evaluates the expression, recomputing only the sub-expressions depending
+     * on the variables that changed since the last evaluation.
+     *
+     * @return the result of the evaluation
+     */
+    public BigDecimal evaluate() {
+        BigDecimal result = program.execute();
+        logger.debug("evaluated compiled postfix '{}' recomputing {} of {} sub-expressions to '{}'",
+                expression.getPostfix(), program.getRecomputed(), program.size(), result);
+        return result;
+    }
+
+    /**
+     * gets the number of sub-expressions the last evaluation recomputed.
+     *
+     * @return the number of recomputed sub-expressions
+     */
+    public int getRecomputedCount() {
+        return program.getRecomputed();
+    }
+
+    /**
+     * gets the number of sub-expressions the next evaluation will recompute.
+     *
+     * @return the number of stale sub-expressions
+     */
+    public int getStaleCount() {
+        return program.getStale();
+    }
+
+    /**
+     * gets the number of distinct sub-expressions of the expression.
+     *
+     * @return the number of sub-expressions
+     */
+    public int size() {
+        return program.size();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "IncrementalEvaluation [postfix=" + expression.getPostfix() + ", variables=" + getVariables()
+                + ", stale=" + program.getStale() + "/" + program.size() + "]";
+    }
+}
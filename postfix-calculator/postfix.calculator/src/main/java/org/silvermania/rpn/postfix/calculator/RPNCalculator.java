@@ -21,11 +21,18 @@
  */
 package org.silvermania.rpn.postfix.calculator;
 
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
+import java.util.Objects;
 import java.util.Stack;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import org.silvermania.rpn.postfix.api.CalculationConfigurer;
@@ -33,7 +40,11 @@ import org.silvermania.rpn.postfix.api.CalculatorState;
 import org.silvermania.rpn.postfix.api.ExpressionConfigurer;
 import org.silvermania.rpn.postfix.support.ExpressionConfigurerImpl;
 import org.silvermania.rpn.postfix.support.PostfixTokenHandler;
+import org.silvermania.rpn.postfix.support.PostfixTokenReader;
 import org.silvermania.rpn.support.CalculationContext;
+import org.silvermania.rpn.support.CalculationMetrics;
+import org.silvermania.rpn.support.CalculationMetrics.Phase;
+import org.silvermania.rpn.support.NumericMode;
 import org.silvermania.rpn.support.Printable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,6 +80,9 @@ public final class RPNCalculator implements Printable {
     /** The context. */
     private CalculationContext context;
 
+    /** The token handler, which is stateless and reused by every calculation. */
+    private final PostfixTokenHandler handler;
+
     /**
      * hidden constructor Instantiates a new {@code RPNCalculator}.
      *
@@ -79,6 +93,7 @@ public final class RPNCalculator implements Printable {
     private RPNCalculator(final CalculationContext context) {
         super();
         this.context = context;
+        this.handler = PostfixTokenHandler.newInstance(context);
     }
 
     /**
@@ -115,6 +130,11 @@ public final class RPNCalculator implements Printable {
      * 3) When the postfix is ended, the number in the stack is the final answer
      * </pre>
      *
+     * When the numeric mode of the context is
+     * {@link org.silvermania.rpn.support.NumericMode#DOUBLE}, the postfix is
+     * compiled and evaluated with primitive doubles instead (see
+     * {@link CompiledExpression}).
+     *
      * @param postfix the postfix postfix
      * @return a {@link CharSequence} representing the evaluation of the postfix
      *         postfix
@@ -125,19 +145,172 @@ public final class RPNCalculator implements Printable {
         if (null == postfix || postfix.isBlank()) {
             throw new IllegalArgumentException("postfix postfix cannot be null or empty!");
         }
+        if (context.getNumericMode() == NumericMode.DOUBLE) {
+            return compile(postfix).evaluate();
+        }
+        CalculationMetrics metrics = context.getMetrics();
+        long began = metrics.isEnabled() ? System.nanoTime() : 0L;
         Stack<BigDecimal> stack = new Stack<>();
-        PostfixTokenHandler handler = PostfixTokenHandler.newInstance(context);
-        try (Scanner scanner = new Scanner(postfix)) {
-            scanner.useDelimiter(" ");
-            while (scanner.hasNext()) {
-                handler.handle(scanner.next(), stack);
-            }
+        int start = 0;
+        int count = 0;
+        while (start < postfix.length()) {
+            // tokens are separated by single spaces, as a scanner delimited by " " reads them
+            int end = postfix.indexOf(' ', start);
+            end = end < 0 ? postfix.length() : end;
+            handler.handle(postfix.substring(start, end), stack);
+            start = end + 1;
+            count++;
         }
         BigDecimal result = stack.pop();
+        if (metrics.isEnabled()) {
+            metrics.recordPhase(Phase.EVALUATE, System.nanoTime() - began, count);
+        }
         logger.debug("evaluated postfix '{}' to '{}'", postfix, result);
         return result;
     }
 
+    /**
+     * the method calculate reads a reversed polish notation postfix from the
+     * given {@code reader} and evaluates it's tokens as they are read, so that
+     * the memory it takes is bounded by the depth of the operand stack rather
+     * than by the length of the postfix. Any run of white space characters,
+     * including line breaks, separates two tokens.
+     * <p>
+     * The tokens are evaluated by the operations of the context, as
+     * {@link #calculate(String)} evaluates them in
+     * {@link org.silvermania.rpn.support.NumericMode#BIG_DECIMAL} mode, in both
+     * numeric modes, since compiling the postfix for
+     * {@link org.silvermania.rpn.support.NumericMode#DOUBLE} mode would hold it
+     * in memory. The reader is not closed.
+     *
+     * @param reader the reader of the postfix
+     * @return the result of the calculation
+     * @throws IllegalArgumentException if the postfix is empty, contains an
+     *         unknown token or is malformed
+     * @throws UncheckedIOException if the reader fails
+     */
+    public BigDecimal calculate(Reader reader) throws IllegalArgumentException, UncheckedIOException {
+        CalculationMetrics metrics = context.getMetrics();
+        long began = metrics.isEnabled() ? System.nanoTime() : 0L;
+        PostfixTokenReader tokens = PostfixTokenReader.newInstance(reader);
+        Stack<BigDecimal> stack = new Stack<>();
+        int maxDepth = 0;
+        for (String token = tokens.next(); null != token; token = tokens.next()) {
+            handler.handle(token, stack);
+            maxDepth = Math.max(maxDepth, stack.size());
+        }
+        if (stack.isEmpty()) {
+            throw new IllegalArgumentException("postfix postfix cannot be null or empty!");
+        }
+        BigDecimal result = stack.pop();
+        if (metrics.isEnabled()) {
+            metrics.recordPhase(Phase.EVALUATE, System.nanoTime() - began, (int) tokens.getCount());
+        }
+        logger.debug("evaluated {} streamed postfix tokens to '{}' with a maximal stack depth of {}",
+                tokens.getCount(), result, maxDepth);
+        return result;
+    }
+
+    /**
+     * the method calculate reads a {@code UTF-8} encoded reversed polish
+     * notation postfix from the given {@code channel} and evaluates it's tokens
+     * as they are read (see {@link #calculate(Reader)}). The channel is not
+     * closed.
+     *
+     * @param channel the channel of the postfix
+     * @return the result of the calculation
+     * @throws IllegalArgumentException if the postfix is empty, contains an
+     *         unknown token or is malformed
+     * @throws UncheckedIOException if the channel fails
+     */
+    public BigDecimal calculate(ReadableByteChannel channel) throws IllegalArgumentException, UncheckedIOException {
+        Objects.requireNonNull(channel, "channel cannot be null!");
+        return calculate(Channels.newReader(channel, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * the method calculate accepts a reversed polish notation postfix and
+     * evaluates it with the given variable {@code bindings}, without modifying
+     * the calculation context.
+     *
+     * @param postfix the space separated postfix expression
+     * @param bindings the variable bindings
+     * @return the result of the calculation
+     * @throws IllegalArgumentException if the {@code postfix} expression is null
+     *         or blank, contains an unknown token or is malformed
+     * @see CompiledExpression#evaluate(Bindings)
+     */
+    public BigDecimal calculate(String postfix, Bindings bindings) throws IllegalArgumentException {
+        return compile(postfix).evaluate(bindings);
+    }
+
+    /**
+     * the method compile accepts a reversed polish notation postfix and compiles
+     * it to a {@link CompiledExpression} which can be evaluated repeatedly
+     * without parsing the postfix or resolving it's tokens again.
+     *
+     * @param postfix the space separated postfix expression
+     * @return the compiled expression
+     * @throws IllegalArgumentException if the {@code postfix} expression is null
+     *         or blank, contains an unknown token or is malformed
+     */
+    public CompiledExpression compile(String postfix) throws IllegalArgumentException {
+        return CompiledExpression.compile(postfix, context);
+    }
+
+    /**
+     * the method compile accepts a reversed polish notation postfix and compiles
+     * it to a {@link CompiledExpression} evaluated with the given
+     * {@code strategy}.
+     *
+     * @param postfix the space separated postfix expression
+     * @param strategy the evaluation strategy
+     * @return the compiled expression
+     * @throws IllegalArgumentException if the {@code postfix} expression is null
+     *         or blank, contains an unknown token or is malformed
+     * @see EvaluationStrategy#GRAPH
+     */
+    public CompiledExpression compile(String postfix, EvaluationStrategy strategy) throws IllegalArgumentException {
+        return CompiledExpression.compile(postfix, context, strategy);
+    }
+
+    /**
+     * the method calculateAll compiles a reversed polish notation postfix once
+     * and evaluates it for each of the given variable {@code bindings} in
+     * parallel on the common {@link java.util.concurrent.ForkJoinPool}.
+     *
+     * @param postfix the space separated postfix expression
+     * @param bindings the variable values of each evaluation, by variable symbol
+     * @return the results of the evaluations, in the order of the bindings
+     * @throws IllegalArgumentException if the {@code postfix} expression is null
+     *         or blank, contains an unknown token or is malformed
+     * @see CompiledExpression#evaluateAll(List, Executor)
+     */
+    public List<BigDecimal> calculateAll(String postfix,
+            List<? extends Map<? extends CharSequence, ? extends BigDecimal>> bindings)
+            throws IllegalArgumentException {
+        return compile(postfix).evaluateAll(bindings);
+    }
+
+    /**
+     * the method calculateAll compiles a reversed polish notation postfix once
+     * and evaluates it for each of the given variable {@code bindings} in
+     * parallel on the given {@code executor}.
+     *
+     * @param postfix the space separated postfix expression
+     * @param bindings the variable values of each evaluation, by variable symbol
+     * @param executor the executor to evaluate on
+     * @return the results of the evaluations, in the order of the bindings
+     * @throws IllegalArgumentException if the {@code postfix} expression is null
+     *         or blank, contains an unknown token or is malformed
+     * @see CompiledExpression#evaluateAll(List, Executor)
+     */
+    public List<BigDecimal> calculateAll(String postfix,
+            List<? extends Map<? extends CharSequence, ? extends BigDecimal>> bindings, Executor executor)
+            throws IllegalArgumentException {
+        return compile(postfix).evaluateAll(bindings, executor);
+    }
+
     /* +++++++++++++++++ fluent +++++++++++++++++++ */
 
     /**
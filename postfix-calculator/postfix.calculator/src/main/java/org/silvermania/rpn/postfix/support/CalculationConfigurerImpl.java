@@ -25,6 +25,9 @@ import java.math.BigDecimal;
 
 import org.silvermania.rpn.postfix.api.CalculationConfigurer;
 import org.silvermania.rpn.postfix.api.CalculatorState;
+import org.silvermania.rpn.postfix.calculator.Bindings;
+import org.silvermania.rpn.postfix.calculator.CompiledExpression;
+import org.silvermania.rpn.postfix.calculator.EvaluationStrategy;
 
 /**
  * The Class CalculationConfigurer contains a final method
@@ -51,6 +54,44 @@ public class CalculationConfigurerImpl extends AbstractConfigurerImpl implements
         return getState().calculate();
     }
 
+    /**
+     * Evaluate the previously given {@code infix} or {@code postfix} expressions
+     * with the given variable bindings and calculate the result.
+     *
+     * @param bindings the variable bindings
+     * @return the result of the calculation as a {@link java.math.BigDecimal}
+     * @throws IllegalStateException the illegal state exception
+     */
+    @Override
+    public BigDecimal thenCalculate(Bindings bindings) throws IllegalStateException {
+        return getState().calculate(bindings);
+    }
+
+    /**
+     * Compile the previously given {@code infix} or {@code postfix} expressions
+     * for repeated evaluation.
+     *
+     * @return the compiled expression
+     * @throws IllegalStateException the illegal state exception
+     */
+    @Override
+    public CompiledExpression thenCompile() throws IllegalStateException {
+        return getState().compile();
+    }
+
+    /**
+     * Compile the previously given {@code infix} or {@code postfix} expressions
+     * for repeated evaluation with the given {@code strategy}.
+     *
+     * @param strategy the evaluation strategy
+     * @return the compiled expression
+     * @throws IllegalStateException the illegal state exception
+     */
+    @Override
+    public CompiledExpression thenCompile(EvaluationStrategy strategy) throws IllegalStateException {
+        return getState().compile(strategy);
+    }
+
     /**
      * Marks this configurer's state to print/debug the calculation parameters.
      *
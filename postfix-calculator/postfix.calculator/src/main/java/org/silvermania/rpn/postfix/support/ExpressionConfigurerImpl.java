@@ -21,6 +21,10 @@
  */
 package org.silvermania.rpn.postfix.support;
 
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.channels.ReadableByteChannel;
+
 import org.silvermania.rpn.infix.converter.InfixConverter;
 import org.silvermania.rpn.postfix.api.CalculationConfigurer;
 import org.silvermania.rpn.postfix.api.CalculatorState;
@@ -93,4 +97,28 @@ public class ExpressionConfigurerImpl extends AbstractConfigurerImpl implements
         return configurer;
     }
 
+    /**
+     * reads a {@code postfix} expression from the given {@code reader} and
+     * calculates it as it's read.
+     *
+     * @param reader the reader of the {@code postfix} expression
+     * @return the result of the calculation
+     */
+    @Override
+    public BigDecimal calculate(Reader reader) {
+        return getState().getCalculator().calculate(reader);
+    }
+
+    /**
+     * reads a {@code UTF-8} encoded {@code postfix} expression from the given
+     * {@code channel} and calculates it as it's read.
+     *
+     * @param channel the channel of the {@code postfix} expression
+     * @return the result of the calculation
+     */
+    @Override
+    public BigDecimal calculate(ReadableByteChannel channel) {
+        return getState().getCalculator().calculate(channel);
+    }
+
 }
@@ -0,0 +1,213 @@
+/*
+ * File: ExpressionGraph.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Class ExpressionGraph is the directed acyclic graph of a
+ * {@link PostfixProgram}. Each node of the graph is a distinct sub-expression
+ * of the program: an operand, a variable, or an operator or function applied
+ * to the nodes of it's operands. A sub-expression that appears several times
+ * in the {@code postfix} expression, such as {@code a a * b b * + √} in
+ * {@code √(a*a+b*b)/√(a*a+b*b)}, is a single node referenced by each of the
+ * nodes using it.
+ * <p>
+ * Nodes are listed in topological order: the operands of a node always
+ * precede it, and the last node is the root of the whole expression.
+ *
+ * @author T.N.Silverman
+ */
+public final class ExpressionGraph {
+
+    /** The nodes of the graph, in topological order. */
+    private final List<Node> nodes = new ArrayList<>();
+
+    /** The nodes of the graph by the key of their sub-expression. */
+    private final Map<List<Object>, Node> index = new HashMap<>();
+
+    /**
+     * hidden constructor.
+     */
+    ExpressionGraph() {
+        super();
+    }
+
+    /**
+     * gets the node of the sub-expression with the given {@code key}, adding a
+     * new node if the graph has none, and counts a reference from each of the
+     * operand nodes to it.
+     *
+     * @param key the key of the sub-expression, equal for equal sub-expressions
+     * @param pc the index of an instruction of the program computing the
+     *        sub-expression
+     * @param operands the operand nodes, in stack order
+     * @return the node of the sub-expression
+     */
+    Node add(List<Object> key, int pc, List<Node> operands) {
+        Node node = index.get(key);
+        if (null == node) {
+            node = new Node(nodes.size(), pc, new ArrayList<>(operands));
+            nodes.add(node);
+            index.put(key, node);
+            for (Node operand : operands) {
+                operand.references++;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * gets the number of distinct sub-expressions of the graph.
+     *
+     * @return the number of nodes
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * gets the nodes of the graph in topological order.
+     *
+     * @return unmodifiable list of the nodes
+     */
+    public List<Node> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * gets the root node of the whole expression.
+     *
+     * @return the root node
+     */
+    public Node getRoot() {
+        return nodes.get(nodes.size() - 1);
+    }
+
+    /**
+     * gets the number of operator and function nodes referenced more than
+     * once, that is the number of sub-expressions that are computed once and
+     * reused.
+     *
+     * @return the number of shared operator and function nodes
+     */
+    public int getSharedCount() {
+        return (int) nodes.stream().filter(node -> node.isShared() && !node.isLeaf()).count();
+    }
+
+    /**
+     * The Class Node is a distinct sub-expression of an expression graph.
+     */
+    public static final class Node {
+
+        /** The index of the node in the graph. */
+        private final int id;
+
+        /** The index of an instruction of the program computing the node. */
+        private final int pc;
+
+        /** The operand nodes, in stack order. */
+        private final List<Node> operands;
+
+        /** The number of references to the node. */
+        private int references;
+
+        /**
+         * hidden constructor.
+         *
+         * @param id the index of the node in the graph
+         * @param pc the index of an instruction of the program computing the
+         *        node
+         * @param operands the operand nodes, in stack order
+         */
+        private Node(final int id, final int pc, final List<Node> operands) {
+            super();
+            this.id = id;
+            this.pc = pc;
+            this.operands = Collections.unmodifiableList(operands);
+        }
+
+        /**
+         * gets the index of this node in the graph.
+         *
+         * @return the index of this node
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * gets the index of the program instruction computing this node.
+         *
+         * @return the index of the instruction
+         */
+        int getPc() {
+            return pc;
+        }
+
+        /**
+         * gets the operand nodes of this node, in stack order.
+         *
+         * @return unmodifiable list of the operand nodes
+         */
+        public List<Node> getOperands() {
+            return operands;
+        }
+
+        /**
+         * gets the number of references to this node from the nodes using it.
+         *
+         * @return the number of references to this node
+         */
+        public int getReferences() {
+            return references;
+        }
+
+        /**
+         * returns true if this node is referenced more than once.
+         *
+         * @return true if this node is referenced more than once, otherwise
+         *         false
+         */
+        public boolean isShared() {
+            return references > 1;
+        }
+
+        /**
+         * returns true if this node is an operand or a variable.
+         *
+         * @return true if this node has no operands, otherwise false
+         */
+        public boolean isLeaf() {
+            return operands.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Node [id=%d, operands=%d, references=%d]", id, operands.size(), references);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * File: IncrementalProgram.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.support;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+import org.silvermania.rpn.support.CalculationContext;
+
+/**
+ * The Class IncrementalProgram executes a {@link PostfixProgram} node by node
+ * over it's {@link ExpressionGraph}, keeping the value of every sub-expression
+ * between executions. Each node records the variable slots it depends on,
+ * directly or through it's operands, so that binding a new value to a
+ * variable marks only the nodes depending on it as stale, and the next
+ * execution recomputes only those nodes, reusing the kept values of all the
+ * others. Binding a value equal to the bound one marks nothing.
+ * <p>
+ * Nodes are recomputed in the topological order of the graph, so the operands
+ * of a node are always up to date when it's recomputed. A node whose
+ * operation fails stays stale, along with every node after it, and the next
+ * execution recomputes them again.
+ * <p>
+ * The nodes are computed by the {@link BigDecimal} operations of the
+ * arithmetic tokens, as {@link PostfixProgram#execute(BigDecimal[])} computes
+ * them, and the results are identical to it's results for the same variable
+ * values, as long as the operations of the operators and functions return
+ * the same result whenever they are applied to the same operands.
+ * <p>
+ * Instances are mutable and must not be shared between threads.
+ *
+ * @author T.N.Silverman
+ */
+public final class IncrementalProgram {
+
+    /** The executed program. */
+    private final PostfixProgram program;
+
+    /** The index of the program instruction computing each node. */
+    private final int[] pcs;
+
+    /** The operand node ids of each node, in stack order. */
+    private final int[][] operands;
+
+    /** The ids of the nodes depending on each variable slot. */
+    private final BitSet[] dependents;
+
+    /** The bound variable values, by slot. */
+    private final BigDecimal[] values;
+
+    /** The value of each node at the last execution. */
+    private final BigDecimal[] results;
+
+    /** The ids of the nodes to recompute on the next execution. */
+    private final BitSet stale = new BitSet();
+
+    /** The number of nodes recomputed by the last execution. */
+    private int recomputed;
+
+    /**
+     * Instantiates a new incremental program, with the values the variables had
+     * when the program was compiled. All of it's nodes are stale.
+     *
+     * @param program the program to execute
+     */
+    IncrementalProgram(final PostfixProgram program) {
+        super();
+        this.program = program;
+        List<ExpressionGraph.Node> nodes = program.toGraph().getNodes();
+        this.pcs = new int[nodes.size()];
+        this.operands = new int[nodes.size()][];
+        this.values = program.getDefaults();
+        this.results = new BigDecimal[nodes.size()];
+        this.dependents = new BitSet[values.length];
+        for (int slot = 0; slot < values.length; slot++) {
+            dependents[slot] = new BitSet(nodes.size());
+        }
+        // the slots each node depends on, through the operands preceding it
+        BitSet[] dependencies = new BitSet[nodes.size()];
+        for (ExpressionGraph.Node node : nodes) {
+            int id = node.getId();
+            pcs[id] = node.getPc();
+            operands[id] = node.getOperands().stream().mapToInt(ExpressionGraph.Node::getId).toArray();
+            dependencies[id] = new BitSet(values.length);
+            if (program.opcodeAt(pcs[id]) == PostfixProgram.LOAD) {
+                dependencies[id].set(program.slotAt(pcs[id]));
+            }
+            for (int operand : operands[id]) {
+                dependencies[id].or(dependencies[operand]);
+            }
+            dependencies[id].stream().forEach(slot -> dependents[slot].set(id));
+        }
+        stale.set(0, nodes.size());
+    }
+
+    /**
+     * binds a value to a variable, marking the nodes depending on it as stale
+     * if the value differs from the bound value.
+     *
+     * @param slot the slot of the variable
+     * @param value the value of the variable
+     * @return true if the value differs from the bound value, otherwise false
+     * @throws IndexOutOfBoundsException if the slot is not a variable slot of
+     *         the program
+     * @throws NullPointerException if the value is null
+     */
+    public boolean bind(int slot, BigDecimal value) {
+        Objects.requireNonNull(value, "variable value cannot be null!");
+        if (value.equals(values[slot])) {
+            return false;
+        }
+        values[slot] = value;
+        stale.or(dependents[slot]);
+        return true;
+    }
+
+    /**
+     * executes the program, recomputing the stale nodes only.
+     *
+     * @return the result of the execution
+     */
+    public BigDecimal execute() {
+        recomputed = 0;
+        for (int id = stale.nextSetBit(0); id >= 0; id = stale.nextSetBit(id + 1)) {
+            results[id] = compute(id);
+            stale.clear(id);
+            recomputed++;
+        }
+        return results[results.length - 1];
+    }
+
+    /**
+     * computes the value of a node from the values of it's operand nodes.
+     *
+     * @param id the id of the node
+     * @return the value of the node
+     */
+    private BigDecimal compute(int id) {
+        int pc = pcs[id];
+        int[] args = operands[id];
+        switch (program.opcodeAt(pc)) {
+            case PostfixProgram.PUSH:
+                return program.operandAt(pc);
+            case PostfixProgram.LOAD:
+                return values[program.slotAt(pc)];
+            case PostfixProgram.ROUND:
+                return getContext().round(results[args[0]]);
+            case PostfixProgram.APPLY_N:
+                BigDecimal[] all = new BigDecimal[args.length];
+                for (int idx = 0; idx < args.length; idx++) {
+                    all[idx] = results[args[idx]];
+                }
+                return program.tokenAt(pc).getOperation().apply(all);
+            default:
+                BigDecimal arg1 = results[args[0]];
+                BigDecimal arg2 = BigDecimal.ZERO;
+                if (args.length == 2) {
+                    arg2 = results[args[1]];
+                    if (program.isSwappedAt(pc)) {
+                        // the operand on top of the stack is popped first
+                        arg2 = arg1;
+                        arg1 = results[args[1]];
+                    }
+                }
+                return program.tokenAt(pc).getOperation().apply(new BigDecimal[] {arg1, arg2});
+        }
+    }
+
+    /**
+     * returns true if the result of the program depends on the variable of
+     * the given slot.
+     *
+     * @param slot the slot of the variable
+     * @return true if the result depends on the variable, otherwise false
+     */
+    public boolean dependsOn(int slot) {
+        return slot >= 0 && slot < dependents.length && dependents[slot].get(results.length - 1);
+    }
+
+    /**
+     * gets the number of nodes the last execution recomputed.
+     *
+     * @return the number of recomputed nodes
+     */
+    public int getRecomputed() {
+        return recomputed;
+    }
+
+    /**
+     * gets the number of stale nodes the next execution will recompute.
+     *
+     * @return the number of stale nodes
+     */
+    public int getStale() {
+        return stale.cardinality();
+    }
+
+    /**
+     * gets the number of nodes, that is the number of distinct sub-expressions
+     * of the program.
+     *
+     * @return the number of nodes
+     */
+    public int size() {
+        return results.length;
+    }
+
+    /**
+     * gets the bound value of a variable.
+     *
+     * @param slot the slot of the variable
+     * @return the bound value
+     */
+    public BigDecimal valueOf(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * gets the executed program.
+     *
+     * @return the program
+     */
+    public PostfixProgram getProgram() {
+        return program;
+    }
+
+    /**
+     * gets the context the program was compiled against.
+     *
+     * @return the calculation context
+     */
+    private CalculationContext getContext() {
+        return program.getContext();
+    }
+}
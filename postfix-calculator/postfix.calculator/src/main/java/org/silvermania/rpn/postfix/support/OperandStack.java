@@ -0,0 +1,176 @@
+/*
+ * File: OperandStack.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.support;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * The Class OperandStack holds the arrays a {@link PostfixProgram} executes on:
+ * an operand stack of {@link BigDecimal} values, an operand stack of primitive
+ * {@code double} values and the arguments arrays passed to the operations of
+ * arithmetic tokens, one per arity.
+ * <p>
+ * Each thread keeps one operand stack, which is {@link #acquire(int) acquired}
+ * for the duration of an execution and {@link #release() released} after it,
+ * so that executing a program repeatedly allocates nothing beyond the values
+ * it computes. An operation evaluating another program while the stack of
+ * it's thread is acquired gets a new operand stack of it's own.
+ * <p>
+ * The arguments arrays are reused by every operation applied during an
+ * execution. Operations must therefore not keep a reference to it after they
+ * return.
+ *
+ * @author T.N.Silverman
+ */
+final class OperandStack {
+
+    /** The initial depth of the stacks. */
+    private static final int INITIAL_DEPTH = 16;
+
+    /** The operand stack of each thread. */
+    private static final ThreadLocal<OperandStack> POOL = ThreadLocal.withInitial(OperandStack::new);
+
+    /** The values of the decimal operand stack. */
+    private BigDecimal[] values = new BigDecimal[INITIAL_DEPTH];
+
+    /** The values of the double operand stack. */
+    private double[] doubles = new double[INITIAL_DEPTH];
+
+    /** The arguments array, of the two arguments every operation receives. */
+    private final BigDecimal[] arguments = new BigDecimal[2];
+
+    /** The arguments arrays of multiple arguments functions, by arity. */
+    private BigDecimal[][] variadicArguments = new BigDecimal[0][];
+
+    /** true if a multiple arguments function was applied since acquired. */
+    private boolean variadic;
+
+    /** The depth the stack was acquired for. */
+    private int depth;
+
+    /** true while the stack is acquired. */
+    private boolean acquired;
+
+    /**
+     * hidden constructor.
+     */
+    private OperandStack() {
+        super();
+    }
+
+    /**
+     * acquires the operand stack of the current thread, making sure it can
+     * hold {@code depth} operands. If the stack of the current thread is
+     * already acquired, a new operand stack is returned instead.
+     *
+     * @param depth the maximal depth of the stack
+     * @return the acquired operand stack
+     */
+    static OperandStack acquire(int depth) {
+        OperandStack stack = POOL.get();
+        if (stack.acquired) {
+            // a nested execution, for example from within a custom function
+            stack = new OperandStack();
+        }
+        if (stack.values.length < depth) {
+            stack.values = new BigDecimal[depth];
+            stack.doubles = new double[depth];
+        }
+        stack.depth = depth;
+        stack.acquired = true;
+        return stack;
+    }
+
+    /**
+     * releases this operand stack, clearing the references it holds to the
+     * operands of the last execution.
+     */
+    void release() {
+        Arrays.fill(values, 0, depth, null);
+        arguments[0] = null;
+        arguments[1] = null;
+        if (variadic) {
+            for (BigDecimal[] args : variadicArguments) {
+                if (null != args) {
+                    Arrays.fill(args, null);
+                }
+            }
+            variadic = false;
+        }
+        acquired = false;
+    }
+
+    /**
+     * gets the values of the decimal operand stack, holding at least the
+     * acquired depth.
+     *
+     * @return the values array
+     */
+    BigDecimal[] values() {
+        return values;
+    }
+
+    /**
+     * gets the values of the double operand stack, holding at least the
+     * acquired depth.
+     *
+     * @return the doubles array
+     */
+    double[] doubles() {
+        return doubles;
+    }
+
+    /**
+     * sets the arguments array to the given arguments.
+     *
+     * @param arg1 the first argument
+     * @param arg2 the second argument
+     * @return the arguments array
+     */
+    BigDecimal[] arguments(BigDecimal arg1, BigDecimal arg2) {
+        arguments[0] = arg1;
+        arguments[1] = arg2;
+        return arguments;
+    }
+
+    /**
+     * gets the arguments array of a multiple arguments function applied to
+     * {@code arity} operands. The same array is returned for every call with
+     * the same arity.
+     *
+     * @param arity the number of arguments
+     * @return an arguments array of length {@code arity}
+     */
+    BigDecimal[] arguments(int arity) {
+        if (variadicArguments.length <= arity) {
+            variadicArguments = Arrays.copyOf(variadicArguments, arity + 1);
+        }
+        BigDecimal[] args = variadicArguments[arity];
+        if (null == args) {
+            args = new BigDecimal[arity];
+            variadicArguments[arity] = args;
+        }
+        variadic = true;
+        return args;
+    }
+}
@@ -0,0 +1,1743 @@
+/*
+ * File: PostfixProgram.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.support;
+
+import static org.silvermania.rpn.support.Associativity.RIGHT;
+import static org.silvermania.rpn.support.TokenUtil.getArithmeticToken;
+import static org.silvermania.rpn.support.TokenUtil.getArity;
+import static org.silvermania.rpn.support.TokenUtil.getBinaryDoubleOperation;
+import static org.silvermania.rpn.support.TokenUtil.getUnaryDoubleOperation;
+import static org.silvermania.rpn.support.TokenUtil.isArithmeticToken;
+import static org.silvermania.rpn.support.TokenUtil.isBinaryArithmeticToken;
+import static org.silvermania.rpn.support.TokenUtil.isDoubleArithmeticToken;
+import static org.silvermania.rpn.support.TokenUtil.isMultiArgArithmeticToken;
+import static org.silvermania.rpn.support.TokenUtil.isOperand;
+import static org.silvermania.rpn.support.TokenUtil.isVariable;
+
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToDoubleFunction;
+
+import org.silvermania.rpn.support.ArithmeticToken;
+import org.silvermania.rpn.support.CalculationContext;
+import org.silvermania.rpn.support.CalculationMetrics;
+import org.silvermania.rpn.support.CalculationMetrics.Engine;
+import org.silvermania.rpn.support.NumericMode;
+import org.silvermania.rpn.support.OperandToken;
+import org.silvermania.rpn.support.OperatorToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class PostfixProgram is the compiled form of a space separated
+ * {@code postfix} expression. Each token of the expression is resolved against
+ * the {@link CalculationContext} exactly once, when the program is compiled:
+ * <ul>
+ * <li>numeric operands and constants become {@code PUSH} instructions holding
+ * their {@link OperandToken} value</li>
+ * <li>variables become {@code LOAD} instructions holding an index (slot) into
+ * the values array passed to {@link #execute(BigDecimal[])}</li>
+ * <li>operators and functions become {@code APPLY} instructions holding the
+ * resolved {@link ArithmeticToken}, the number of operands to pop and the
+ * order in which they are popped</li>
+ * <li>multiple arguments functions marked with their arity (see
+ * {@link org.silvermania.rpn.support.FunctionToken#ARITY_MARKER}) become
+ * {@code APPLY_N} instructions, applying the function to an array of all of
+ * it's operands</li>
+ * </ul>
+ * {@link #fold()} rewrites a program into an equivalent one in which constant
+ * sub-expressions are already evaluated and arithmetic identities such as
+ * {@code x*1} are reduced to a {@code ROUND} of their variable operand.
+ * {@link #share()} rewrites a program so that a sub-expression appearing
+ * several times is computed once, {@code STORE}d in a register and
+ * {@code RECALL}ed wherever it appears again (see {@link ExpressionGraph}).
+ * {@link #link()} and {@link #generate()} execute a program by a tree of
+ * method handles and by a generated class, rather than by interpreting it's
+ * instructions.
+ * <p>
+ * Executing the program only runs these instructions on an operand stack, so
+ * there is no string parsing and no registry lookup per evaluation. The
+ * operand stack and the arguments array passed to the operations are those of
+ * the current thread's {@link OperandStack}, so repeated executions allocate
+ * nothing beyond the values they compute. The evaluation semantics are those
+ * of {@link PostfixTokenHandler}.
+ * <p>
+ * The program also keeps the {@code double} value of each operand and the
+ * double precision operation of each arithmetic token, if one is registered,
+ * so that {@link #executeDouble(double[])} can evaluate it on a primitive
+ * {@code double} stack without boxing (see {@link NumericMode#DOUBLE}).
+ *
+ * @author T.N.Silverman
+ */
+public final class PostfixProgram {
+
+    /** The Constant logger. */
+    private static final Logger logger = LoggerFactory.getLogger(PostfixProgram.class);
+
+    /** push a constant operand on to the stack. */
+    public static final byte PUSH = 0;
+
+    /** push the value of a variable slot on to the stack. */
+    public static final byte LOAD = 1;
+
+    /** pop the operands of an arithmetic token, apply it and push the result. */
+    public static final byte APPLY = 2;
+
+    /**
+     * pop the marked number of operands of a multiple arguments function, apply
+     * it to all of them at once and push the result.
+     */
+    public static final byte APPLY_N = 3;
+
+    /**
+     * round the top of the stack to the precision of the context, in place of
+     * an arithmetic identity (see {@link #fold()}).
+     */
+    public static final byte ROUND = 4;
+
+    /** copy the top of the stack to a register, leaving it on the stack. */
+    public static final byte STORE = 5;
+
+    /** push the value of a register on to the stack. */
+    public static final byte RECALL = 6;
+
+    /** The symbols of the binary operators whose right operand one is an identity. */
+    private static final List<String> RIGHT_ONE_IDENTITIES = List.of("*", "×", "/", "÷", "^");
+
+    /** The symbols of the binary operators whose left operand one is an identity. */
+    private static final List<String> LEFT_ONE_IDENTITIES = List.of("*", "×");
+
+    /** The symbols of the binary operators whose right operand zero is an identity. */
+    private static final List<String> RIGHT_ZERO_IDENTITIES = List.of("+", "-", "−");
+
+    /** The symbols of the binary operators whose left operand zero is an identity. */
+    private static final List<String> LEFT_ZERO_IDENTITIES = List.of("+");
+
+    /** The context the program was compiled against. */
+    private final CalculationContext context;
+
+    /** The postfix expression the program was compiled from. */
+    private final String postfix;
+
+    /** The instruction codes. */
+    private final byte[] opcodes;
+
+    /** The operand values of {@code PUSH} instructions. */
+    private final BigDecimal[] operands;
+
+    /** The variable slots of {@code LOAD} and registers of {@code STORE} and {@code RECALL} instructions. */
+    private final int[] slots;
+
+    /** The arithmetic tokens of {@code APPLY} instructions. */
+    private final ArithmeticToken[] tokens;
+
+    /** The number of operands {@code APPLY} instructions pop. */
+    private final int[] arities;
+
+    /**
+     * true for {@code APPLY} instructions whose first argument is the top of
+     * the stack (a {@code RIGHT} associativity binary token), and for
+     * {@code ROUND} instructions whose constant operand is the first argument.
+     */
+    private final boolean[] swapped;
+
+    /** The double values of {@code PUSH} and {@code ROUND} instructions. */
+    private final double[] doubleOperands;
+
+    /** The double operations of unary {@code APPLY} instructions. */
+    private final DoubleUnaryOperator[] unaryOperations;
+
+    /** The double operations of binary {@code APPLY} and {@code ROUND} instructions. */
+    private final DoubleBinaryOperator[] binaryOperations;
+
+    /** true if every {@code APPLY} instruction has a double operation. */
+    private final boolean doubleCompatible;
+
+    /** The variable symbols by slot. */
+    private final List<String> variables;
+
+    /** The values of the variables at compile time, by slot. */
+    private final BigDecimal[] defaults;
+
+    /** The double values of the variables at compile time, by slot. */
+    private final double[] doubleDefaults;
+
+    /** The maximal depth the operand stack reaches. */
+    private final int maxDepth;
+
+    /** The number of registers of {@code STORE} and {@code RECALL} instructions. */
+    private final int registers;
+
+    /** The generated class executing this program, or null if it's not generated. */
+    private final Function<BigDecimal[], BigDecimal> generated;
+
+    /** The generated class executing this program on doubles, or null if it's not generated. */
+    private final ToDoubleFunction<double[]> doubleGenerated;
+
+    /** The {@code (BigDecimal[])BigDecimal} tree executing this program, or null if it's not linked. */
+    private final MethodHandle handle;
+
+    /** The {@code (double[])double} tree executing this program, or null if it's not linked. */
+    private final MethodHandle doubleHandle;
+
+    /**
+     * hidden constructor.
+     *
+     * @param context the context the program was compiled against
+     * @param postfix the postfix expression
+     * @param builder the builder holding the compiled instructions
+     */
+    private PostfixProgram(final CalculationContext context, final String postfix, final Builder builder) {
+        super();
+        this.context = context;
+        this.postfix = postfix;
+        int size = builder.opcodes.size();
+        this.opcodes = new byte[size];
+        this.operands = new BigDecimal[size];
+        this.slots = new int[size];
+        this.tokens = new ArithmeticToken[size];
+        this.arities = new int[size];
+        this.swapped = new boolean[size];
+        this.doubleOperands = new double[size];
+        this.unaryOperations = new DoubleUnaryOperator[size];
+        this.binaryOperations = new DoubleBinaryOperator[size];
+        boolean compatible = builder.doubleCompatible;
+        for (int pc = 0; pc < size; pc++) {
+            opcodes[pc] = builder.opcodes.get(pc);
+            operands[pc] = builder.operands.get(pc);
+            slots[pc] = builder.slots.get(pc);
+            tokens[pc] = builder.tokens.get(pc);
+            arities[pc] = builder.arities.get(pc);
+            swapped[pc] = builder.swapped.get(pc);
+            doubleOperands[pc] = builder.doubleOperands.get(pc);
+            unaryOperations[pc] = builder.unaryOperations.get(pc);
+            binaryOperations[pc] = builder.binaryOperations.get(pc);
+            if (opcodes[pc] >= APPLY && opcodes[pc] <= ROUND && null == unaryOperations[pc]
+                    && null == binaryOperations[pc]) {
+                compatible = false;
+            }
+        }
+        this.doubleCompatible = compatible;
+        this.variables = Collections.unmodifiableList(new ArrayList<>(builder.variables.keySet()));
+        this.defaults = builder.defaults.toArray(new BigDecimal[0]);
+        this.doubleDefaults = new double[defaults.length];
+        for (int slot = 0; slot < defaults.length; slot++) {
+            doubleDefaults[slot] = defaults[slot].doubleValue();
+        }
+        this.maxDepth = builder.maxDepth;
+        this.registers = builder.registers;
+        this.generated = null;
+        this.doubleGenerated = null;
+        this.handle = null;
+        this.doubleHandle = null;
+    }
+
+    /**
+     * hidden constructor of a program executed by a generated class or by a
+     * tree of method handles.
+     *
+     * @param program the program the class was generated from or the tree
+     *        was linked from
+     * @param generated the instance of the generated class or null
+     * @param handle the {@code (BigDecimal[])BigDecimal} tree or null
+     * @param doubleHandle the {@code (double[])double} tree or null
+     */
+    @SuppressWarnings("unchecked")
+    private PostfixProgram(final PostfixProgram program, final Object generated, final MethodHandle handle,
+            final MethodHandle doubleHandle) {
+        super();
+        this.context = program.context;
+        this.postfix = program.postfix;
+        this.opcodes = program.opcodes;
+        this.operands = program.operands;
+        this.slots = program.slots;
+        this.tokens = program.tokens;
+        this.arities = program.arities;
+        this.swapped = program.swapped;
+        this.doubleOperands = program.doubleOperands;
+        this.unaryOperations = program.unaryOperations;
+        this.binaryOperations = program.binaryOperations;
+        this.doubleCompatible = program.doubleCompatible;
+        this.variables = program.variables;
+        this.defaults = program.defaults;
+        this.doubleDefaults = program.doubleDefaults;
+        this.maxDepth = program.maxDepth;
+        this.registers = program.registers;
+        this.generated = (Function<BigDecimal[], BigDecimal>) generated;
+        this.doubleGenerated = doubleCompatible ? (ToDoubleFunction<double[]>) generated : null;
+        this.handle = handle;
+        this.doubleHandle = doubleHandle;
+    }
+
+    /**
+     * hidden constructor of a program rebound to a context.
+     *
+     * @param program the program to rebind
+     * @param context the context holding the values of the variables
+     */
+    private PostfixProgram(final PostfixProgram program, final CalculationContext context) {
+        super();
+        this.context = context;
+        this.postfix = program.postfix;
+        this.opcodes = program.opcodes;
+        this.operands = program.operands;
+        this.slots = program.slots;
+        this.tokens = program.tokens;
+        this.arities = program.arities;
+        this.swapped = program.swapped;
+        this.doubleOperands = program.doubleOperands;
+        this.unaryOperations = program.unaryOperations;
+        this.binaryOperations = program.binaryOperations;
+        this.doubleCompatible = program.doubleCompatible;
+        this.variables = program.variables;
+        this.defaults = new BigDecimal[program.defaults.length];
+        this.doubleDefaults = new double[defaults.length];
+        for (int slot = 0; slot < defaults.length; slot++) {
+            BigDecimal value = context.getVariable(variables.get(slot));
+            if (null == value) {
+                throw new IllegalArgumentException(
+                        String.format("variable %s is not declared in the context", variables.get(slot)));
+            }
+            defaults[slot] = value;
+            doubleDefaults[slot] = value.doubleValue();
+        }
+        this.maxDepth = program.maxDepth;
+        this.registers = program.registers;
+        this.generated = program.generated;
+        this.doubleGenerated = program.doubleGenerated;
+        this.handle = program.handle;
+        this.doubleHandle = program.doubleHandle;
+    }
+
+    /**
+     * compiles a space separated {@code postfix} expression against the given
+     * {@code context}.
+     *
+     * @param postfix the space separated postfix expression
+     * @param context the calculation context on which to locate the meaning of
+     *        functions, operators, constants and variables
+     * @return the compiled program
+     * @throws IllegalArgumentException if the {@code postfix} expression is null
+     *         or blank, contains an unknown token or does not have enough
+     *         operands for one of it's operators or functions
+     */
+    public static PostfixProgram compile(CharSequence postfix, CalculationContext context)
+            throws IllegalArgumentException {
+        if (null == postfix || postfix.toString().isBlank()) {
+            throw new IllegalArgumentException("postfix expression cannot be null or empty!");
+        }
+        Builder builder = new Builder();
+        for (String token : split(postfix)) {
+            if (isOperand(token, context)) {
+                BigDecimal value = OperandToken.create(token, context).getValue();
+                if (isVariable(token, context)) {
+                    builder.load(token, value);
+                } else {
+                    builder.push(value);
+                }
+            } else if (isArithmeticToken(token, context)) {
+                ArithmeticToken operator = getArithmeticToken(token, context);
+                int marked = isMultiArgArithmeticToken(token, context) ? getArity(token) : -1;
+                if (marked > 0 && (marked != 2 || !isDoubleArithmeticToken(token, context))) {
+                    builder.applyAll(token, operator, marked);
+                    continue;
+                }
+                /*
+                 * an unmarked multiple arguments function takes two arguments, as in "1 4 max", and
+                 * one marked with two arguments keeps it's binary double operation, as in "1 4 max#2"
+                 */
+                int arity = isBinaryArithmeticToken(token, context) || isMultiArgArithmeticToken(token, context) ? 2
+                        : 1;
+                /*
+                 * the exponential operator behaves like RIGHT association in infix to RPN
+                 * conversion, but LEFT association in RPN evaluation (see PostfixTokenHandler)
+                 */
+                boolean swap = arity == 2 && operator.getAssociativity() == RIGHT && !token.equals("^");
+                DoubleUnaryOperator unary = null;
+                DoubleBinaryOperator binary = null;
+                if (isDoubleArithmeticToken(token, context)) {
+                    if (arity == 2) {
+                        binary = getBinaryDoubleOperation(token, context);
+                    } else {
+                        unary = getUnaryDoubleOperation(token, context);
+                    }
+                }
+                builder.apply(token, operator, arity, swap, unary, binary);
+            } else {
+                throw new IllegalArgumentException(String.format("Cannot compile token '%s' of postfix '%s'. "
+                    + "The error cause is an unknown opernad, operator, function or a missing space.", token,
+                        postfix));
+            }
+        }
+        PostfixProgram program = new PostfixProgram(context, postfix.toString(), builder);
+        logger.debug("compiled postfix '{}' to {} instructions", postfix, program.size());
+        return program;
+    }
+
+    /**
+     * folds this program into an equivalent program that does less work per
+     * execution:
+     * <ul>
+     * <li>a default operator or function whose operands are all constant is
+     * applied once, here, and replaced by a {@code PUSH} of it's result</li>
+     * <li>the identities {@code x*1}, {@code 1*x}, {@code x/1}, {@code x^1},
+     * {@code x+0}, {@code 0+x} and {@code x-0} of the default operators are
+     * replaced by a {@code ROUND} of {@code x}</li>
+     * </ul>
+     * Every default operator rounds the exact result of it's operation to the
+     * precision of the context, and the exact result of an identity is
+     * {@code x} itself, so a {@code ROUND} returns exactly what the operator
+     * would. In {@link NumericMode#DOUBLE} mode the folded constants are those
+     * computed by the double precision operations, and a {@code ROUND} still
+     * applies the operation to the constant, so that results are bit identical
+     * to those of this program in both numeric modes. Operations that fail on
+     * their constant operands are not folded, and fail on execution as before.
+     * <p>
+     * Only the default operators and functions of the context, with their
+     * default double precision operations, are folded (see
+     * {@link CalculationContext#isDefaultArithmeticToken(ArithmeticToken)}).
+     * They are told apart from registered tokens by identity, and always
+     * return the same result for the same operands, whereas registered
+     * operations may not. The folded operations are applied with the
+     * precision and rounding mode the context has when this method is called,
+     * so the folded program must be folded again when they change.
+     *
+     * @return a new folded program, with the same postfix expression and
+     *         variables as this program
+     */
+    public PostfixProgram fold() {
+        Builder builder = new Builder();
+        builder.doubleCompatible = doubleCompatible;
+        List<Folded> stack = new ArrayList<>(maxDepth);
+        Folded[] saved = new Folded[registers];
+        for (int pc = 0; pc < opcodes.length; pc++) {
+            switch (opcodes[pc]) {
+                case PUSH:
+                    stack.add(new Folded(builder.size(), operands[pc], doubleOperands[pc]));
+                    builder.push(operands[pc], doubleOperands[pc]);
+                    break;
+                case LOAD:
+                    stack.add(new Folded(builder.size(), null, 0));
+                    builder.load(variables.get(slots[pc]), defaults[slots[pc]]);
+                    break;
+                case ROUND:
+                    builder.round(operands[pc], doubleOperands[pc], swapped[pc], binaryOperations[pc]);
+                    break;
+                case STORE:
+                    saved[slots[pc]] = stack.get(stack.size() - 1);
+                    // a constant is pushed rather than recalled
+                    if (!saved[slots[pc]].isConstant()) {
+                        builder.store(slots[pc]);
+                    }
+                    break;
+                case RECALL:
+                    Folded recalled = saved[slots[pc]];
+                    if (recalled.isConstant()) {
+                        stack.add(new Folded(builder.size(), recalled.value, recalled.doubleValue));
+                        builder.push(recalled.value, recalled.doubleValue);
+                    } else {
+                        stack.add(new Folded(builder.size(), null, 0));
+                        builder.recall(slots[pc]);
+                    }
+                    break;
+                default:
+                    fold(pc, builder, stack);
+                    break;
+            }
+        }
+        builder.measure();
+        PostfixProgram program = new PostfixProgram(context, postfix, builder);
+        logger.debug("folded {} instructions of postfix '{}' to {} instructions", size(), postfix, program.size());
+        return program;
+    }
+
+    /**
+     * folds the {@code APPLY} or {@code APPLY_N} instruction at the given
+     * {@code pc} into the given {@code builder}.
+     *
+     * @param pc the index of the instruction
+     * @param builder the builder of the folded program
+     * @param stack the operands of the folded program so far
+     */
+    private void fold(int pc, Builder builder, List<Folded> stack) {
+        List<Folded> args = stack.subList(stack.size() - arities[pc], stack.size());
+        Folded first = args.get(0);
+        Folded folded = new Folded(first.start, null, 0);
+        if (!isDefault(pc)) {
+            emit(pc, builder);
+        } else if (args.stream().allMatch(Folded::isConstant)) {
+            Folded constant = evaluate(pc, args);
+            if (null != constant) {
+                builder.truncate(first.start);
+                builder.push(constant.value, constant.doubleValue);
+                folded = new Folded(first.start, constant.value, constant.doubleValue);
+            } else {
+                emit(pc, builder);
+            }
+        } else if (isIdentity(pc, args.get(args.size() - 1), RIGHT_ONE_IDENTITIES, RIGHT_ZERO_IDENTITIES)) {
+            Folded right = args.get(1);
+            builder.truncate(right.start);
+            builder.round(right.value, right.doubleValue, false, binaryOperations[pc]);
+        } else if (isIdentity(pc, first, LEFT_ONE_IDENTITIES, LEFT_ZERO_IDENTITIES)) {
+            builder.remove(first.start);
+            builder.round(first.value, first.doubleValue, true, binaryOperations[pc]);
+        } else {
+            emit(pc, builder);
+        }
+        args.clear();
+        stack.add(folded);
+    }
+
+    /**
+     * returns true if the {@code APPLY} or {@code APPLY_N} instruction at the
+     * given {@code pc} applies a default operator or function of the context,
+     * and it's default double precision operation if it has one.
+     *
+     * @param pc the index of the instruction
+     * @return true if the instruction may be folded, otherwise false
+     */
+    private boolean isDefault(int pc) {
+        return context.isDefaultArithmeticToken(tokens[pc])
+                && (null == unaryOperations[pc] && null == binaryOperations[pc]
+                        || context.isDefaultDoubleOperation(tokens[pc].getSymbol()));
+    }
+
+    /**
+     * returns true if the binary {@code APPLY} instruction at the given
+     * {@code pc} is an identity of a default operator for the given constant
+     * {@code operand}.
+     *
+     * @param pc the index of the instruction
+     * @param operand the left or right operand of the instruction
+     * @param ones the symbols of the operators for which one is an identity
+     *        operand
+     * @param zeros the symbols of the operators for which zero is an identity
+     *        operand
+     * @return true if the instruction may be replaced by a {@code ROUND} of
+     *         it's other operand, otherwise false
+     */
+    private boolean isIdentity(int pc, Folded operand, List<String> ones, List<String> zeros) {
+        // the instruction applies a default operator (see isDefault), so it's symbol identifies it's operation
+        if (opcodes[pc] != APPLY || arities[pc] != 2 || swapped[pc] || !operand.isConstant()
+                || !(tokens[pc] instanceof OperatorToken)) {
+            return false;
+        }
+        String symbol = tokens[pc].getSymbol().toString();
+        return operand.value.compareTo(BigDecimal.ONE) == 0 && ones.contains(symbol)
+                || operand.value.signum() == 0 && zeros.contains(symbol);
+    }
+
+    /**
+     * applies the operation of the instruction at the given {@code pc} to it's
+     * constant operands, in both numeric modes.
+     *
+     * @param pc the index of the instruction
+     * @param args the constant operands, in stack order
+     * @return the constant result or null if one of the operations failed
+     */
+    private Folded evaluate(int pc, List<Folded> args) {
+        // the same arguments as those of an execution (see run)
+        BigDecimal[] values = opcodes[pc] == APPLY_N ? new BigDecimal[args.size()]
+                : new BigDecimal[] {null, BigDecimal.ZERO};
+        double[] doubles = new double[2];
+        for (int idx = 0; idx < args.size(); idx++) {
+            Folded arg = args.get(swapped[pc] ? args.size() - 1 - idx : idx);
+            values[idx] = arg.value;
+            if (idx < doubles.length) {
+                doubles[idx] = arg.doubleValue;
+            }
+        }
+        try {
+            BigDecimal value = tokens[pc].getOperation().apply(values);
+            double doubleValue;
+            if (null != binaryOperations[pc]) {
+                doubleValue = binaryOperations[pc].applyAsDouble(doubles[0], doubles[1]);
+            } else if (null != unaryOperations[pc]) {
+                doubleValue = unaryOperations[pc].applyAsDouble(doubles[0]);
+            } else {
+                // the program is not executed on doubles
+                doubleValue = value.doubleValue();
+            }
+            return new Folded(-1, value, doubleValue);
+        } catch (RuntimeException e) {
+            logger.debug("cannot fold token '{}' of postfix '{}': {}", tokens[pc].getSymbol(), postfix,
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * copies the {@code PUSH}, {@code LOAD}, {@code ROUND}, {@code APPLY} or
+     * {@code APPLY_N} instruction at the given {@code pc} to the given
+     * {@code builder} as is.
+     *
+     * @param pc the index of the instruction
+     * @param builder the builder of the rewritten program
+     */
+    private void emit(int pc, Builder builder) {
+        switch (opcodes[pc]) {
+            case PUSH:
+                builder.push(operands[pc], doubleOperands[pc]);
+                break;
+            case LOAD:
+                builder.load(variables.get(slots[pc]), defaults[slots[pc]]);
+                break;
+            case ROUND:
+                builder.round(operands[pc], doubleOperands[pc], swapped[pc], binaryOperations[pc]);
+                break;
+            case APPLY_N:
+                builder.applyAll(tokens[pc].getSymbol().toString(), tokens[pc], arities[pc]);
+                break;
+            default:
+                builder.apply(tokens[pc].getSymbol().toString(), tokens[pc], arities[pc], swapped[pc],
+                        unaryOperations[pc], binaryOperations[pc]);
+                break;
+        }
+    }
+
+    /**
+     * builds the {@link ExpressionGraph} of this program, in which each
+     * distinct sub-expression is a single node.
+     *
+     * @return the expression graph of this program
+     */
+    public ExpressionGraph toGraph() {
+        ExpressionGraph graph = new ExpressionGraph();
+        List<ExpressionGraph.Node> stack = new ArrayList<>(maxDepth);
+        ExpressionGraph.Node[] saved = new ExpressionGraph.Node[registers];
+        for (int pc = 0; pc < opcodes.length; pc++) {
+            switch (opcodes[pc]) {
+                case STORE:
+                    saved[slots[pc]] = stack.get(stack.size() - 1);
+                    break;
+                case RECALL:
+                    stack.add(saved[slots[pc]]);
+                    break;
+                default:
+                    int arity = opcodes[pc] == PUSH || opcodes[pc] == LOAD ? 0 : arities[pc];
+                    List<ExpressionGraph.Node> args = stack.subList(stack.size() - arity, stack.size());
+                    // equal instructions applied to the same nodes compute the same sub-expression
+                    List<Object> key = new ArrayList<>(Arrays.asList(opcodes[pc], operands[pc],
+                            Double.doubleToLongBits(doubleOperands[pc]), slots[pc], tokens[pc], arities[pc],
+                            swapped[pc], binaryOperations[pc]));
+                    args.forEach(arg -> key.add(arg.getId()));
+                    ExpressionGraph.Node node = graph.add(key, pc, args);
+                    args.clear();
+                    stack.add(node);
+                    break;
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * creates an {@link IncrementalProgram} executing this program node by
+     * node over it's {@link ExpressionGraph}, recomputing only the
+     * sub-expressions depending on the variables rebound since the last
+     * execution.
+     *
+     * @return a new incremental program, with the values the variables had
+     *         when this program was compiled
+     */
+    public IncrementalProgram incremental() {
+        IncrementalProgram incremental = new IncrementalProgram(this);
+        logger.debug("tracking the dependencies of {} sub-expressions of postfix '{}'", incremental.size(), postfix);
+        return incremental;
+    }
+
+    /**
+     * rewrites this program into an equivalent program that computes each
+     * distinct sub-expression once per execution. The first occurrence of an
+     * operator or function sub-expression that appears more than once is
+     * followed by a {@code STORE} of it's value to a register, and every other
+     * occurrence is replaced by a single {@code RECALL} of that register, so
+     * that {@code √(a*a+b*b)/√(a*a+b*b)} computes {@code √(a*a+b*b)} once.
+     * Operands and variables are pushed rather than recalled, which costs the
+     * same.
+     * <p>
+     * A shared sub-expression returns the same value as each of it's
+     * occurrences would, so the results are identical to those of this program
+     * in both numeric modes, as long as the operations of the operators and
+     * functions return the same result whenever they are applied to the same
+     * operands.
+     *
+     * @return a new program, with the same postfix expression and variables as
+     *         this program
+     */
+    public PostfixProgram share() {
+        ExpressionGraph graph = toGraph();
+        List<ExpressionGraph.Node> nodes = graph.getNodes();
+        Builder builder = new Builder();
+        builder.doubleCompatible = doubleCompatible;
+        for (int slot = 0; slot < defaults.length; slot++) {
+            builder.declare(variables.get(slot), defaults[slot]);
+        }
+        int[] saved = new int[nodes.size()];
+        Arrays.fill(saved, -1);
+        // an iterative post order walk, as long expressions make deep graphs
+        Deque<int[]> frames = new ArrayDeque<>();
+        frames.push(new int[] {graph.getRoot().getId(), 0});
+        while (!frames.isEmpty()) {
+            int[] frame = frames.peek();
+            ExpressionGraph.Node node = nodes.get(frame[0]);
+            if (saved[node.getId()] >= 0) {
+                builder.recall(saved[node.getId()]);
+                frames.pop();
+            } else if (frame[1] < node.getOperands().size()) {
+                frames.push(new int[] {node.getOperands().get(frame[1]++).getId(), 0});
+            } else {
+                frames.pop();
+                emit(node.getPc(), builder);
+                if (node.isShared() && !node.isLeaf()) {
+                    saved[node.getId()] = builder.registers;
+                    builder.store(builder.registers);
+                }
+            }
+        }
+        builder.measure();
+        PostfixProgram program = new PostfixProgram(context, postfix, builder);
+        logger.debug("shared {} of {} sub-expressions of postfix '{}' in {} instructions", graph.getSharedCount(),
+                graph.size(), postfix, program.size());
+        return program;
+    }
+
+    /**
+     * generates a class executing this program as straight line bytecode, with
+     * no operand stack and no dispatch per instruction (see
+     * {@link ProgramGenerator}). The default arithmetic operators are inlined
+     * as the exact {@code BigDecimal} and {@code double} computations of their
+     * registered operations, and every other operator and function is called
+     * through a constant of the generated class, so the results are identical
+     * to those of this program in both numeric modes.
+     * <p>
+     * Executing the columns of variable values (see
+     * {@link #executeColumns(double[][], int)}) runs the instructions of the
+     * program, which are already executed as a loop over all rows.
+     *
+     * @return a new program executed by a generated class, or this program if
+     *         it's too long to be generated as a single method
+     */
+    public PostfixProgram generate() {
+        if (isGenerated()) {
+            return this;
+        }
+        Object instance = ProgramGenerator.generate(this);
+        return null == instance ? this : new PostfixProgram(this, instance, null, null);
+    }
+
+    /**
+     * returns true if this program is executed by a generated class (see
+     * {@link #generate()}).
+     *
+     * @return true if this program is executed by a generated class, otherwise
+     *         false
+     */
+    public boolean isGenerated() {
+        return null != generated;
+    }
+
+    /**
+     * links this program into a tree of {@link MethodHandle} combinators over
+     * the operations of it's operators and functions (see
+     * {@link ProgramHandles}), executed without interpreting the
+     * instructions and without defining a class per expression. This is a
+     * lighter alternative to {@link #generate()} for expressions that are
+     * evaluated too few times to pay for generating a class. The JIT compiler
+     * inlines the tree into the code executing this program when this program
+     * is a constant, such as a {@code static final} field, and otherwise
+     * compiles the shared lambda forms of the tree, customizing them for a
+     * tree once it's invoked often, so programs rebound from one linked
+     * program (see {@link #rebind(CalculationContext)}) reach that point
+     * together.
+     * <p>
+     * A recalled register is linked to the sub-tree that was stored to it, so
+     * a linked program evaluates shared sub-expressions wherever they appear,
+     * as an unshared program does. The results are identical to those of
+     * this program in both numeric modes.
+     *
+     * @return a new program executed by a tree of method handles, or this
+     *         program if it's linked, generated or longer than
+     *         {@value ProgramHandles#MAX_SIZE} instructions
+     */
+    public PostfixProgram link() {
+        if (isLinked() || isGenerated()) {
+            return this;
+        }
+        MethodHandle linked = ProgramHandles.link(this);
+        return null == linked ? this : new PostfixProgram(this, null, linked, ProgramHandles.linkDouble(this));
+    }
+
+    /**
+     * rebinds this program to the given {@code context}, which must have the
+     * same symbols as the context this program was compiled against, such as
+     * another child context of the same frozen context (see
+     * {@link CalculationContext#getCompiled(Object, CharSequence, Function)}).
+     * The rebound program shares the instructions and the linked or generated
+     * code of this program, takes the default values of it's variables from
+     * the given {@code context} and records it's metrics there.
+     *
+     * @param context the context to rebind to
+     * @return a new program bound to the given {@code context}, or this program
+     *         if it's bound to it and it's variables still have the same values
+     * @throws IllegalArgumentException if a variable of this program is not a
+     *         variable of the given {@code context}
+     */
+    public PostfixProgram rebind(CalculationContext context) throws IllegalArgumentException {
+        Objects.requireNonNull(context, "calculation context cannot be null!");
+        if (context != this.context) {
+            return new PostfixProgram(this, context);
+        }
+        for (int slot = 0; slot < defaults.length; slot++) {
+            if (!defaults[slot].equals(context.getVariable(variables.get(slot)))) {
+                return new PostfixProgram(this, context);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * returns true if this program is executed by a tree of method handles
+     * (see {@link #link()}).
+     *
+     * @return true if this program is executed by a tree of method handles,
+     *         otherwise false
+     */
+    public boolean isLinked() {
+        return null != handle;
+    }
+
+    /**
+     * splits a postfix expression to it's tokens. Any run of white space
+     * characters separates two tokens.
+     *
+     * @param postfix the postfix expression
+     * @return the list of tokens
+     */
+    private static List<String> split(CharSequence postfix) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int idx = 0; idx < postfix.length(); idx++) {
+            if (Character.isWhitespace(postfix.charAt(idx))) {
+                if (start >= 0) {
+                    tokens.add(postfix.subSequence(start, idx).toString());
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = idx;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(postfix.subSequence(start, postfix.length()).toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * executes this program with the values the variables had when it was
+     * compiled.
+     *
+     * @return the result of the evaluation
+     */
+    public BigDecimal execute() {
+        return run(defaults);
+    }
+
+    /**
+     * executes this program.
+     *
+     * @param values the values of the variables, by slot
+     * @return the result of the evaluation
+     * @throws IllegalArgumentException if the number of values does not match
+     *         the number of variables
+     */
+    public BigDecimal execute(BigDecimal[] values) throws IllegalArgumentException {
+        if (values.length != defaults.length) {
+            throw new IllegalArgumentException(
+                    String.format("expected %d variable values but got %d", defaults.length, values.length));
+        }
+        return run(values);
+    }
+
+    /**
+     * runs this program, timing the execution by it's engine if the metrics
+     * are enabled.
+     *
+     * @param values the values of the variables, by slot
+     * @return the result of the evaluation
+     */
+    private BigDecimal run(BigDecimal[] values) {
+        CalculationMetrics metrics = context.getMetrics();
+        if (!metrics.isEnabled()) {
+            return dispatch(values, metrics);
+        }
+        long start = System.nanoTime();
+        BigDecimal result = dispatch(values, metrics);
+        metrics.recordExecution(null != generated ? Engine.BYTECODE
+                : null != handle ? Engine.METHOD_HANDLES : Engine.INTERPRETER, NumericMode.BIG_DECIMAL,
+                System.nanoTime() - start, 1);
+        return result;
+    }
+
+    /**
+     * runs this program by it's generated class or tree of method handles, or
+     * otherwise interprets it's instructions on the operand stack of the
+     * current thread (see {@link OperandStack}).
+     *
+     * @param values the values of the variables, by slot
+     * @param metrics the metrics of the context
+     * @return the result of the evaluation
+     */
+    private BigDecimal dispatch(BigDecimal[] values, CalculationMetrics metrics) {
+        if (null != generated) {
+            return generated.apply(values);
+        }
+        if (null != handle) {
+            try {
+                return (BigDecimal) handle.invokeExact(values);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        // the registers follow the operand stack
+        OperandStack operandStack = OperandStack.acquire(maxDepth + registers);
+        try {
+            BigDecimal[] stack = operandStack.values();
+            int top = -1;
+            for (int pc = 0; pc < opcodes.length; pc++) {
+                switch (opcodes[pc]) {
+                    case PUSH:
+                        stack[++top] = operands[pc];
+                        break;
+                    case LOAD:
+                        stack[++top] = values[slots[pc]];
+                        break;
+                    case APPLY_N:
+                        BigDecimal[] args = operandStack.arguments(arities[pc]);
+                        top -= arities[pc];
+                        System.arraycopy(stack, top + 1, args, 0, arities[pc]);
+                        stack[++top] = invoke(pc, args, metrics);
+                        break;
+                    case ROUND:
+                        stack[top] = context.round(stack[top]);
+                        break;
+                    case STORE:
+                        stack[maxDepth + slots[pc]] = stack[top];
+                        break;
+                    case RECALL:
+                        stack[++top] = stack[maxDepth + slots[pc]];
+                        break;
+                    default:
+                        BigDecimal arg1;
+                        BigDecimal arg2 = BigDecimal.ZERO;
+                        if (arities[pc] == 2) {
+                            if (swapped[pc]) {
+                                arg1 = stack[top--];
+                                arg2 = stack[top--];
+                            } else {
+                                arg2 = stack[top--];
+                                arg1 = stack[top--];
+                            }
+                        } else {
+                            arg1 = stack[top--];
+                        }
+                        stack[++top] = invoke(pc, operandStack.arguments(arg1, arg2), metrics);
+                        break;
+                }
+            }
+            return stack[top];
+        } finally {
+            operandStack.release();
+        }
+    }
+
+    /**
+     * applies the operation of the {@code APPLY} or {@code APPLY_N} instruction
+     * at the given {@code pc}, timing it if the metrics are enabled.
+     *
+     * @param pc the index of the instruction
+     * @param args the arguments of the operation
+     * @param metrics the metrics of the context
+     * @return the result of the operation
+     */
+    private BigDecimal invoke(int pc, BigDecimal[] args, CalculationMetrics metrics) {
+        if (!metrics.isEnabled()) {
+            return tokens[pc].getOperation().apply(args);
+        }
+        long start = System.nanoTime();
+        BigDecimal result = tokens[pc].getOperation().apply(args);
+        metrics.recordOperation(tokens[pc].getSymbol(), System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * executes this program on a primitive {@code double} stack. If one of the
+     * arithmetic tokens of this program has no double precision operation, the
+     * program is executed by {@link #execute(BigDecimal[])} instead and the
+     * result is converted to {@code double}.
+     *
+     * @param values the values of the variables, by slot
+     * @return the result of the evaluation
+     * @throws IllegalArgumentException if the number of values does not match
+     *         the number of variables
+     */
+    public double executeDouble(double[] values) throws IllegalArgumentException {
+        if (values.length != defaults.length) {
+            throw new IllegalArgumentException(
+                    String.format("expected %d variable values but got %d", defaults.length, values.length));
+        }
+        if (!doubleCompatible) {
+            BigDecimal[] decimals = new BigDecimal[values.length];
+            for (int slot = 0; slot < values.length; slot++) {
+                decimals[slot] = BigDecimal.valueOf(values[slot]);
+            }
+            return run(decimals).doubleValue();
+        }
+        return runDouble(values);
+    }
+
+    /**
+     * executes this program on a primitive {@code double} stack with the
+     * values the variables had when it was compiled.
+     *
+     * @return the result of the evaluation
+     * @see #executeDouble(double[])
+     */
+    public double executeDouble() {
+        return doubleCompatible ? runDouble(doubleDefaults) : run(defaults).doubleValue();
+    }
+
+    /**
+     * runs this program on primitive doubles, timing the execution by it's
+     * engine if the metrics are enabled. The operators and functions are not
+     * timed one by one, as reading the clock would take longer than most of
+     * their double precision operations.
+     *
+     * @param values the values of the variables, by slot
+     * @return the result of the evaluation
+     */
+    private double runDouble(double[] values) {
+        CalculationMetrics metrics = context.getMetrics();
+        if (!metrics.isEnabled()) {
+            return dispatchDouble(values);
+        }
+        long start = System.nanoTime();
+        double result = dispatchDouble(values);
+        metrics.recordExecution(null != doubleGenerated ? Engine.BYTECODE
+                : null != doubleHandle ? Engine.METHOD_HANDLES : Engine.INTERPRETER, NumericMode.DOUBLE,
+                System.nanoTime() - start, 1);
+        return result;
+    }
+
+    /**
+     * runs this program by it's generated class or tree of method handles, or
+     * otherwise interprets it's instructions on the double operand stack of
+     * the current thread (see {@link OperandStack}).
+     *
+     * @param values the values of the variables, by slot
+     * @return the result of the evaluation
+     */
+    private double dispatchDouble(double[] values) {
+        if (null != doubleGenerated) {
+            return doubleGenerated.applyAsDouble(values);
+        }
+        if (null != doubleHandle) {
+            try {
+                return (double) doubleHandle.invokeExact(values);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        // the registers follow the operand stack
+        OperandStack operandStack = OperandStack.acquire(maxDepth + registers);
+        try {
+            double[] stack = operandStack.doubles();
+            int top = -1;
+            for (int pc = 0; pc < opcodes.length; pc++) {
+                switch (opcodes[pc]) {
+                    case PUSH:
+                        stack[++top] = doubleOperands[pc];
+                        break;
+                    case LOAD:
+                        stack[++top] = values[slots[pc]];
+                        break;
+                    case ROUND:
+                        stack[top] = swapped[pc] ? binaryOperations[pc].applyAsDouble(doubleOperands[pc], stack[top])
+                                : binaryOperations[pc].applyAsDouble(stack[top], doubleOperands[pc]);
+                        break;
+                    case STORE:
+                        stack[maxDepth + slots[pc]] = stack[top];
+                        break;
+                    case RECALL:
+                        stack[++top] = stack[maxDepth + slots[pc]];
+                        break;
+                    default:
+                        if (arities[pc] == 2) {
+                            double arg1;
+                            double arg2;
+                            if (swapped[pc]) {
+                                arg1 = stack[top--];
+                                arg2 = stack[top];
+                            } else {
+                                arg2 = stack[top--];
+                                arg1 = stack[top];
+                            }
+                            stack[top] = binaryOperations[pc].applyAsDouble(arg1, arg2);
+                        } else {
+                            stack[top] = unaryOperations[pc].applyAsDouble(stack[top]);
+                        }
+                        break;
+                }
+            }
+            return stack[top];
+        } finally {
+            operandStack.release();
+        }
+    }
+
+    /**
+     * executes this program over columns of variable values, one instruction
+     * at a time across all rows rather than one row at a time. Each
+     * instruction runs as a tight loop over primitive arrays, and the operand
+     * stack holds one column per level, so that a batch of {@code n} rows
+     * allocates {@code maxDepth} columns regardless of {@code n}. If one of the
+     * arithmetic tokens of this program has no double precision operation, the
+     * columns are executed by {@link #executeColumns(BigDecimal[][], int)}
+     * instead and the results are converted to {@code double}.
+     *
+     * @param columns the columns of variable values, by slot
+     * @param rows the number of rows in each column
+     * @return a new array with the result of each row
+     * @throws IllegalArgumentException if the number of columns does not match
+     *         the number of variables, or a column does not have {@code rows}
+     *         values
+     */
+    public double[] executeColumns(double[][] columns, int rows) throws IllegalArgumentException {
+        checkColumns(columns.length, rows, slot -> columns[slot].length);
+        if (!doubleCompatible) {
+            BigDecimal[][] decimals = new BigDecimal[columns.length][rows];
+            for (int slot = 0; slot < columns.length; slot++) {
+                for (int row = 0; row < rows; row++) {
+                    decimals[slot][row] = BigDecimal.valueOf(columns[slot][row]);
+                }
+            }
+            BigDecimal[] results = executeColumns(decimals, rows);
+            double[] doubles = new double[rows];
+            for (int row = 0; row < rows; row++) {
+                doubles[row] = results[row].doubleValue();
+            }
+            return doubles;
+        }
+        CalculationMetrics metrics = context.getMetrics();
+        if (!metrics.isEnabled()) {
+            return runColumns(columns, rows);
+        }
+        long start = System.nanoTime();
+        double[] results = runColumns(columns, rows);
+        metrics.recordExecution(Engine.COLUMNS, NumericMode.DOUBLE, System.nanoTime() - start, rows);
+        return results;
+    }
+
+    /**
+     * runs the instructions of this program over columns of variable values
+     * on primitive doubles.
+     *
+     * @param columns the columns of variable values, by slot
+     * @param rows the number of rows in each column
+     * @return a new array with the result of each row
+     */
+    private double[] runColumns(double[][] columns, int rows) {
+        double[][] buffers = new double[maxDepth][rows];
+        double[][] stack = new double[maxDepth][];
+        double[][] saved = new double[registers][rows];
+        int top = -1;
+        for (int pc = 0; pc < opcodes.length; pc++) {
+            switch (opcodes[pc]) {
+                case PUSH:
+                    Arrays.fill(buffers[++top], doubleOperands[pc]);
+                    stack[top] = buffers[top];
+                    break;
+                case LOAD:
+                    stack[++top] = columns[slots[pc]];
+                    break;
+                case ROUND:
+                    DoubleBinaryOperator identity = binaryOperations[pc];
+                    double constant = doubleOperands[pc];
+                    double[] column = stack[top];
+                    double[] rounded = buffers[top];
+                    for (int row = 0; row < rows; row++) {
+                        rounded[row] = swapped[pc] ? identity.applyAsDouble(constant, column[row])
+                                : identity.applyAsDouble(column[row], constant);
+                    }
+                    stack[top] = rounded;
+                    break;
+                case STORE:
+                    System.arraycopy(stack[top], 0, saved[slots[pc]], 0, rows);
+                    break;
+                case RECALL:
+                    stack[++top] = saved[slots[pc]];
+                    break;
+                default:
+                    if (arities[pc] == 2) {
+                        DoubleBinaryOperator operation = binaryOperations[pc];
+                        double[] right = stack[top--];
+                        double[] left = stack[top];
+                        double[] out = buffers[top];
+                        if (swapped[pc]) {
+                            for (int row = 0; row < rows; row++) {
+                                out[row] = operation.applyAsDouble(right[row], left[row]);
+                            }
+                        } else {
+                            for (int row = 0; row < rows; row++) {
+                                out[row] = operation.applyAsDouble(left[row], right[row]);
+                            }
+                        }
+                        stack[top] = out;
+                    } else {
+                        DoubleUnaryOperator operation = unaryOperations[pc];
+                        double[] in = stack[top];
+                        double[] out = buffers[top];
+                        for (int row = 0; row < rows; row++) {
+                            out[row] = operation.applyAsDouble(in[row]);
+                        }
+                        stack[top] = out;
+                    }
+                    break;
+            }
+        }
+        // the result may be a variable column when the program is a single LOAD
+        return stack[top] == buffers[top] ? buffers[top] : stack[top].clone();
+    }
+
+    /**
+     * executes this program over columns of variable values, one instruction
+     * at a time across all rows rather than one row at a time.
+     *
+     * @param columns the columns of variable values, by slot
+     * @param rows the number of rows in each column
+     * @return a new array with the result of each row
+     * @throws IllegalArgumentException if the number of columns does not match
+     *         the number of variables, or a column does not have {@code rows}
+     *         values
+     * @see #executeColumns(double[][], int)
+     */
+    public BigDecimal[] executeColumns(BigDecimal[][] columns, int rows) throws IllegalArgumentException {
+        checkColumns(columns.length, rows, slot -> columns[slot].length);
+        CalculationMetrics metrics = context.getMetrics();
+        if (!metrics.isEnabled()) {
+            return runColumns(columns, rows);
+        }
+        long start = System.nanoTime();
+        BigDecimal[] results = runColumns(columns, rows);
+        metrics.recordExecution(Engine.COLUMNS, NumericMode.BIG_DECIMAL, System.nanoTime() - start, rows);
+        return results;
+    }
+
+    /**
+     * runs the instructions of this program over columns of variable values.
+     *
+     * @param columns the columns of variable values, by slot
+     * @param rows the number of rows in each column
+     * @return a new array with the result of each row
+     */
+    private BigDecimal[] runColumns(BigDecimal[][] columns, int rows) {
+        BigDecimal[][] buffers = new BigDecimal[maxDepth][rows];
+        BigDecimal[][] stack = new BigDecimal[maxDepth][];
+        BigDecimal[][] saved = new BigDecimal[registers][rows];
+        OperandStack operandStack = OperandStack.acquire(0);
+        try {
+            int top = -1;
+            for (int pc = 0; pc < opcodes.length; pc++) {
+                switch (opcodes[pc]) {
+                    case PUSH:
+                        Arrays.fill(buffers[++top], operands[pc]);
+                        stack[top] = buffers[top];
+                        break;
+                    case LOAD:
+                        stack[++top] = columns[slots[pc]];
+                        break;
+                    case APPLY_N:
+                        BigDecimal[] args = operandStack.arguments(arities[pc]);
+                        top -= arities[pc] - 1;
+                        BigDecimal[] result = buffers[top];
+                        for (int row = 0; row < rows; row++) {
+                            for (int idx = 0; idx < args.length; idx++) {
+                                args[idx] = stack[top + idx][row];
+                            }
+                            result[row] = tokens[pc].getOperation().apply(args);
+                        }
+                        stack[top] = result;
+                        break;
+                    case ROUND:
+                        BigDecimal[] column = stack[top];
+                        BigDecimal[] rounded = buffers[top];
+                        for (int row = 0; row < rows; row++) {
+                            rounded[row] = context.round(column[row]);
+                        }
+                        stack[top] = rounded;
+                        break;
+                    case STORE:
+                        System.arraycopy(stack[top], 0, saved[slots[pc]], 0, rows);
+                        break;
+                    case RECALL:
+                        stack[++top] = saved[slots[pc]];
+                        break;
+                    default:
+                        Function<BigDecimal[], BigDecimal> operation = tokens[pc].getOperation();
+                        if (arities[pc] == 2) {
+                            BigDecimal[] right = stack[top--];
+                            BigDecimal[] left = stack[top];
+                            BigDecimal[] out = buffers[top];
+                            for (int row = 0; row < rows; row++) {
+                                out[row] = swapped[pc] ? operation.apply(operandStack.arguments(right[row], left[row]))
+                                        : operation.apply(operandStack.arguments(left[row], right[row]));
+                            }
+                            stack[top] = out;
+                        } else {
+                            BigDecimal[] in = stack[top];
+                            BigDecimal[] out = buffers[top];
+                            for (int row = 0; row < rows; row++) {
+                                out[row] = operation.apply(operandStack.arguments(in[row], BigDecimal.ZERO));
+                            }
+                            stack[top] = out;
+                        }
+                        break;
+                }
+            }
+            return stack[top] == buffers[top] ? buffers[top] : stack[top].clone();
+        } finally {
+            operandStack.release();
+        }
+    }
+
+    /**
+     * validates the shape of the columns passed to an
+     * {@code executeColumns} method.
+     *
+     * @param count the number of columns
+     * @param rows the expected number of rows
+     * @param lengths the length of each column by slot
+     * @throws IllegalArgumentException if the shape is invalid
+     */
+    private void checkColumns(int count, int rows, IntUnaryOperator lengths) throws IllegalArgumentException {
+        if (count != defaults.length) {
+            throw new IllegalArgumentException(
+                    String.format("expected %d variable columns but got %d", defaults.length, count));
+        }
+        if (rows < 0) {
+            throw new IllegalArgumentException("number of rows cannot be negative!");
+        }
+        for (int slot = 0; slot < count; slot++) {
+            if (lengths.applyAsInt(slot) != rows) {
+                throw new IllegalArgumentException(String.format("column of variable '%s' has %d rows but "
+                    + "expected %d", variables.get(slot), lengths.applyAsInt(slot), rows));
+            }
+        }
+    }
+
+    /**
+     * returns true if every arithmetic token of this program has a double
+     * precision operation, so that {@link #executeDouble(double[])} runs
+     * entirely on primitive doubles.
+     *
+     * @return true if this program is executed on a primitive stack in
+     *         {@link NumericMode#DOUBLE} mode, otherwise false
+     */
+    public boolean isDoubleCompatible() {
+        return doubleCompatible;
+    }
+
+    /**
+     * gets the context this program was compiled against.
+     *
+     * @return the calculation context
+     */
+    public CalculationContext getContext() {
+        return context;
+    }
+
+    /**
+     * gets the postfix expression this program was compiled from.
+     *
+     * @return the postfix expression
+     */
+    public String getPostfix() {
+        return postfix;
+    }
+
+    /**
+     * gets the number of instructions in this program.
+     *
+     * @return the number of instructions
+     */
+    public int size() {
+        return opcodes.length;
+    }
+
+    /**
+     * gets the variable symbols of this program, ordered by slot.
+     *
+     * @return unmodifiable list of variable symbols
+     */
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * gets the slot of the given variable {@code symbol}.
+     *
+     * @param symbol the variable symbol
+     * @return the slot of the variable or -1 if this program does not refer to
+     *         the variable
+     */
+    public int slotOf(CharSequence symbol) {
+        return null == symbol ? -1 : variables.indexOf(symbol.toString());
+    }
+
+    /**
+     * gets a copy of the values the variables had at compile time, by slot.
+     *
+     * @return a new array of the default variable values
+     */
+    public BigDecimal[] getDefaults() {
+        return defaults.clone();
+    }
+
+    /**
+     * gets the values the variables had at compile time as doubles, by slot.
+     *
+     * @return a new array of the default variable values
+     */
+    public double[] getDoubleDefaults() {
+        return doubleDefaults.clone();
+    }
+
+    /**
+     * gets the maximal depth the operand stack reaches while executing.
+     *
+     * @return the maximal depth of the operand stack
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * gets the number of registers holding shared sub-expressions while
+     * executing (see {@link #share()}).
+     *
+     * @return the number of registers
+     */
+    public int getRegisters() {
+        return registers;
+    }
+
+    /**
+     * gets the instruction code at the given {@code pc}.
+     *
+     * @param pc the index of the instruction
+     * @return the instruction code
+     */
+    byte opcodeAt(int pc) {
+        return opcodes[pc];
+    }
+
+    /**
+     * gets the operand value of the {@code PUSH} instruction at the given
+     * {@code pc}.
+     *
+     * @param pc the index of the instruction
+     * @return the operand value
+     */
+    BigDecimal operandAt(int pc) {
+        return operands[pc];
+    }
+
+    /**
+     * gets the double value of the {@code PUSH} or {@code ROUND} instruction at
+     * the given {@code pc}.
+     *
+     * @param pc the index of the instruction
+     * @return the double value
+     */
+    double doubleOperandAt(int pc) {
+        return doubleOperands[pc];
+    }
+
+    /**
+     * gets the variable slot or register of the instruction at the given
+     * {@code pc}.
+     *
+     * @param pc the index of the instruction
+     * @return the slot or register
+     */
+    int slotAt(int pc) {
+        return slots[pc];
+    }
+
+    /**
+     * gets the arithmetic token of the instruction at the given {@code pc}.
+     *
+     * @param pc the index of the instruction
+     * @return the arithmetic token
+     */
+    ArithmeticToken tokenAt(int pc) {
+        return tokens[pc];
+    }
+
+    /**
+     * gets the number of operands of the instruction at the given {@code pc}.
+     *
+     * @param pc the index of the instruction
+     * @return the number of operands
+     */
+    int arityAt(int pc) {
+        return arities[pc];
+    }
+
+    /**
+     * returns true if the instruction at the given {@code pc} is swapped.
+     *
+     * @param pc the index of the instruction
+     * @return true if the instruction is swapped, otherwise false
+     */
+    boolean isSwappedAt(int pc) {
+        return swapped[pc];
+    }
+
+    /**
+     * gets the double operation of the unary instruction at the given
+     * {@code pc}.
+     *
+     * @param pc the index of the instruction
+     * @return the double operation
+     */
+    DoubleUnaryOperator unaryOperationAt(int pc) {
+        return unaryOperations[pc];
+    }
+
+    /**
+     * gets the double operation of the binary instruction at the given
+     * {@code pc}.
+     *
+     * @param pc the index of the instruction
+     * @return the double operation
+     */
+    DoubleBinaryOperator binaryOperationAt(int pc) {
+        return binaryOperations[pc];
+    }
+
+    /**
+     * The Class Folded is an operand of the program being folded.
+     */
+    private static final class Folded {
+
+        /** The index of the first instruction computing the operand. */
+        private final int start;
+
+        /** The value of a constant operand, null if the operand is not constant. */
+        private final BigDecimal value;
+
+        /** The double value of a constant operand. */
+        private final double doubleValue;
+
+        private Folded(final int start, final BigDecimal value, final double doubleValue) {
+            this.start = start;
+            this.value = value;
+            this.doubleValue = doubleValue;
+        }
+
+        private boolean isConstant() {
+            return null != value;
+        }
+    }
+
+    /**
+     * The Class Builder accumulates instructions while the postfix expression
+     * is compiled and keeps track of the operand stack depth, so that malformed
+     * expressions are rejected at compile time rather than at execution time.
+     */
+    private static final class Builder {
+
+        private final List<Byte> opcodes = new ArrayList<>();
+        private final List<BigDecimal> operands = new ArrayList<>();
+        private final List<Double> doubleOperands = new ArrayList<>();
+        private final List<Integer> slots = new ArrayList<>();
+        private final List<ArithmeticToken> tokens = new ArrayList<>();
+        private final List<Integer> arities = new ArrayList<>();
+        private final List<Boolean> swapped = new ArrayList<>();
+        private final List<DoubleUnaryOperator> unaryOperations = new ArrayList<>();
+        private final List<DoubleBinaryOperator> binaryOperations = new ArrayList<>();
+        private final Map<String, Integer> variables = new LinkedHashMap<>();
+        private final List<BigDecimal> defaults = new ArrayList<>();
+        private int depth;
+        private int maxDepth;
+        private int registers;
+        private boolean doubleCompatible = true;
+
+        private int size() {
+            return opcodes.size();
+        }
+
+        private void push(BigDecimal value) {
+            push(value, value.doubleValue());
+        }
+
+        private void push(BigDecimal value, double doubleValue) {
+            add(PUSH, value, -1, null, 0, false);
+            doubleOperands.set(size() - 1, doubleValue);
+            unaryOperations.add(null);
+            binaryOperations.add(null);
+            grow();
+        }
+
+        private void round(BigDecimal constant, double doubleConstant, boolean constantFirst,
+                DoubleBinaryOperator binary) {
+            add(ROUND, constant, -1, null, 1, constantFirst);
+            doubleOperands.set(size() - 1, doubleConstant);
+            unaryOperations.add(null);
+            binaryOperations.add(binary);
+        }
+
+        private void store(int register) {
+            add(STORE, null, register, null, 0, false);
+            unaryOperations.add(null);
+            binaryOperations.add(null);
+            registers = Math.max(register + 1, registers);
+        }
+
+        private void recall(int register) {
+            add(RECALL, null, register, null, 0, false);
+            unaryOperations.add(null);
+            binaryOperations.add(null);
+            grow();
+        }
+
+        private void truncate(int size) {
+            while (size() > size) {
+                remove(size() - 1);
+            }
+        }
+
+        private void remove(int index) {
+            opcodes.remove(index);
+            operands.remove(index);
+            doubleOperands.remove(index);
+            slots.remove(index);
+            tokens.remove(index);
+            arities.remove(index);
+            swapped.remove(index);
+            unaryOperations.remove(index);
+            binaryOperations.remove(index);
+        }
+
+        /**
+         * recomputes the maximal depth of the operand stack after instructions
+         * were removed.
+         */
+        private void measure() {
+            depth = 0;
+            maxDepth = 0;
+            for (int pc = 0; pc < size(); pc++) {
+                if (opcodes.get(pc) == ROUND || opcodes.get(pc) == STORE) {
+                    continue;
+                }
+                if (opcodes.get(pc) >= APPLY && opcodes.get(pc) <= APPLY_N) {
+                    depth -= arities.get(pc);
+                }
+                grow();
+            }
+        }
+
+        private int declare(String symbol, BigDecimal value) {
+            Integer slot = variables.get(symbol);
+            if (null == slot) {
+                slot = variables.size();
+                variables.put(symbol, slot);
+                defaults.add(value);
+            }
+            return slot;
+        }
+
+        private void load(String symbol, BigDecimal value) {
+            add(LOAD, null, declare(symbol, value), null, 0, false);
+            unaryOperations.add(null);
+            binaryOperations.add(null);
+            grow();
+        }
+
+        private void apply(String symbol, ArithmeticToken token, int arity, boolean swap,
+                DoubleUnaryOperator unary, DoubleBinaryOperator binary) {
+            if (depth < arity) {
+                throw new IllegalArgumentException(String.format("Cannot compile token '%s'. Not enough operands "
+                    + "on the stack. Is the postfix expression malformed?", symbol));
+            }
+            add(APPLY, null, -1, token, arity, swap);
+            unaryOperations.add(unary);
+            binaryOperations.add(binary);
+            depth -= arity;
+            grow();
+        }
+
+        private void applyAll(String symbol, ArithmeticToken token, int arity) {
+            if (depth < arity) {
+                throw new IllegalArgumentException(String.format("Cannot compile token '%s'. Not enough operands "
+                    + "on the stack. Is the postfix expression malformed?", symbol));
+            }
+            add(APPLY_N, null, -1, token, arity, false);
+            unaryOperations.add(null);
+            binaryOperations.add(null);
+            depth -= arity;
+            grow();
+        }
+
+        private void add(byte opcode, BigDecimal operand, int slot, ArithmeticToken token, int arity, boolean swap) {
+            opcodes.add(opcode);
+            operands.add(operand);
+            doubleOperands.add(null == operand ? 0 : operand.doubleValue());
+            slots.add(slot);
+            tokens.add(token);
+            arities.add(arity);
+            swapped.add(swap);
+        }
+
+        private void grow() {
+            depth++;
+            maxDepth = Math.max(depth, maxDepth);
+        }
+    }
+}
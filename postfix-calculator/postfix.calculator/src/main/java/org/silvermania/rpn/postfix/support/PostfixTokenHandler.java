@@ -23,8 +23,10 @@ package org.silvermania.rpn.postfix.support;
 
 import static org.silvermania.rpn.support.Associativity.LEFT;
 import static org.silvermania.rpn.support.TokenUtil.getArithmeticToken;
+import static org.silvermania.rpn.support.TokenUtil.getArity;
 import static org.silvermania.rpn.support.TokenUtil.isArithmeticToken;
 import static org.silvermania.rpn.support.TokenUtil.isBinaryArithmeticToken;
+import static org.silvermania.rpn.support.TokenUtil.isMultiArgArithmeticToken;
 import static org.silvermania.rpn.support.TokenUtil.isOperand;
 
 import java.io.Serializable;
@@ -44,6 +46,7 @@ import java.util.stream.Collectors;
 import org.silvermania.rpn.support.ArithmeticToken;
 import org.silvermania.rpn.support.Associativity;
 import org.silvermania.rpn.support.CalculationContext;
+import org.silvermania.rpn.support.CalculationMetrics;
 import org.silvermania.rpn.support.OperandToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,6 +54,10 @@ import org.slf4j.LoggerFactory;
 /**
  * The Class PostfixTokenHandler is responsible for the logic of evaluating
  * {@code postfix} expressions.
+ * <p>
+ * The handler keeps no state between accepting and handling a token, so the
+ * same instance may evaluate several expressions concurrently, each with it's
+ * own stack, as long as no handling is registered meanwhile.
  *
  * @author T.N.Silverman
  */
@@ -66,7 +73,7 @@ public final class PostfixTokenHandler implements Serializable {
     private final Map<Predicate<CharSequence>,
             Function<Optional<CharSequence>, Consumer<Stack<BigDecimal>>>> handlersRegistry = new LinkedHashMap<>();
 
-    /** The log trace level function. */
+    /** The log trace level function, only to be applied if trace is enabled. */
     private final Function<String, Consumer<Stack<BigDecimal>>> traceFunction = message -> (stack) -> {
         String content = stack.stream().map(d -> d.toString()).collect(Collectors.joining(" "));
         logger.trace(String.format("%-50s %-2s %-20s", message, "->", content));
@@ -130,18 +137,31 @@ public final class PostfixTokenHandler implements Serializable {
         OperandToken operand = OperandToken.create(value.get(), context);
         logger.trace("pushing value: {}", operand.getValue());
         stack.push(operand.getValue());
-        traceFunction.apply("operandHandler (push " + value.get() + ")").accept(stack);
+        if (logger.isTraceEnabled()) {
+            traceFunction.apply("operandHandler (push " + value.get() + ")").accept(stack);
+        }
     };
 
     /** handles operators and function tokens. */
     private final Function<Optional<CharSequence>, Consumer<Stack<BigDecimal>>> operatorHandler = value -> (stack) -> {
         ArithmeticToken operator = getArithmeticToken(value.get(), context);
         CharSequence symbol = operator.getSymbol();
-        traceFunction.apply("OPERATOR_FUNCTION_FUNC (found " + symbol + ")").accept(stack);
+        if (logger.isTraceEnabled()) {
+            traceFunction.apply("OPERATOR_FUNCTION_FUNC (found " + symbol + ")").accept(stack);
+        }
         BigDecimal arg1 = BigDecimal.ZERO;
         BigDecimal arg2 = BigDecimal.ZERO;
+        BigDecimal[] args = null;
         try {
-            if (isBinaryArithmeticToken(symbol, context)) {
+            int arity = isMultiArgArithmeticToken(value.get(), context) ? getArity(value.get()) : -1;
+            if (arity > 0) {
+                // a multiple arguments function is applied to all it's arguments at once
+                args = new BigDecimal[arity];
+                for (int idx = arity - 1; idx >= 0; idx--) {
+                    args[idx] = stack.pop();
+                }
+            } else if (isBinaryArithmeticToken(symbol, context) || isMultiArgArithmeticToken(symbol, context)) {
+                // an unmarked multiple arguments function takes two arguments, as in "1 4 max"
                 /*
                  * Here is a special case for the exponential operator. Behaves like RIGHT
                  * association in infix to RPN conversion, but LEFT association in RPN
@@ -168,9 +188,20 @@ public final class PostfixTokenHandler implements Serializable {
         } catch (EmptyStackException ex) {
             throw errorCreator.apply(value.orElse("N/A"), ex).get();
         }
-        BigDecimal result = operator.getOperation().apply(new BigDecimal[]{arg1, arg2});
+        BigDecimal[] operands = null == args ? new BigDecimal[]{arg1, arg2} : args;
+        CalculationMetrics metrics = context.getMetrics();
+        BigDecimal result;
+        if (metrics.isEnabled()) {
+            long start = System.nanoTime();
+            result = operator.getOperation().apply(operands);
+            metrics.recordOperation(symbol, System.nanoTime() - start);
+        } else {
+            result = operator.getOperation().apply(operands);
+        }
         stack.push(result);
-        traceFunction.apply("OPERATOR_FUNCTION_FUNC (pushed " + result + ")").accept(stack);
+        if (logger.isTraceEnabled()) {
+            traceFunction.apply("OPERATOR_FUNCTION_FUNC (pushed " + result + ")").accept(stack);
+        }
     };
 
     /**
@@ -199,37 +230,30 @@ public final class PostfixTokenHandler implements Serializable {
         return handlersRegistry.containsKey(acceptor);
     }
 
-    /** The value. */
-    // handling
-    private Optional<CharSequence> value = Optional.empty();
-
     /**
      * Accept.
      *
      * @param predicate the predicate
      * @param token the token
-     * @return true, if successful
+     * @return the accepted token, or an empty optional if the predicate does
+     *         not accept the token
      */
-    private boolean accept(Predicate<CharSequence> predicate, CharSequence token) {
-        if (predicate.test(token)) {
-            value = Optional.of(token);
-            return true;
-        }
-        return false;
+    private Optional<CharSequence> accept(Predicate<CharSequence> predicate, CharSequence token) {
+        return predicate.test(token) ? Optional.of(token) : Optional.empty();
     }
 
     /**
      * handles the calculation operation by applying the given {@code function} on
-     * the current {@code value} and further process the given {@code stack} with
+     * the accepted {@code value} and further process the given {@code stack} with
      * the result.
      *
      * @param function the operation to apply
+     * @param value the accepted token
      * @param stack the operands stack
      */
     private void handle(Function<Optional<CharSequence>, Consumer<Stack<BigDecimal>>> function,
-            Stack<BigDecimal> stack) {
+            Optional<CharSequence> value, Stack<BigDecimal> stack) {
         function.apply(value).accept(stack);
-        value = Optional.empty(); // reset the value
     };
 
     /**
@@ -239,10 +263,15 @@ public final class PostfixTokenHandler implements Serializable {
      * @param stack the operator / operand stack
      */
     public void handle(CharSequence token, Stack<BigDecimal> stack) {
-        handlersRegistry.entrySet().stream().filter(e -> accept(e.getKey(), token)).map(e -> {
-            handle(e.getValue(), stack);
-            return true;
-        }).findAny().orElseThrow(errorCreator.apply(token,
-                new IllegalArgumentException(String.format("offending postfix postfix '%s'", token))));
+        for (Map.Entry<Predicate<CharSequence>,
+                Function<Optional<CharSequence>, Consumer<Stack<BigDecimal>>>> entry : handlersRegistry.entrySet()) {
+            Optional<CharSequence> value = accept(entry.getKey(), token);
+            if (value.isPresent()) {
+                handle(entry.getValue(), value, stack);
+                return;
+            }
+        }
+        throw errorCreator.apply(token,
+                new IllegalArgumentException(String.format("offending postfix postfix '%s'", token))).get();
     }
 }
@@ -0,0 +1,159 @@
+/*
+ * File: PostfixTokenReader.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.support;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+
+/**
+ * The Class PostfixTokenReader reads the tokens of a {@code postfix}
+ * expression from a {@link Reader} one at a time, through a fixed size buffer,
+ * so that an expression is evaluated as it's read and is never held in memory
+ * as a whole. Any run of white space characters, including line breaks,
+ * separates two tokens.
+ * <p>
+ * A reader is not thread safe, and does not close it's underlying
+ * {@code Reader}.
+ *
+ * @author T.N.Silverman
+ */
+public final class PostfixTokenReader {
+
+    /** The default size of the buffer, in characters. */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /** The underlying reader. */
+    private final Reader reader;
+
+    /** The buffer of characters read but not yet tokenized. */
+    private final char[] buffer;
+
+    /** The index of the next character to tokenize in the buffer. */
+    private int position;
+
+    /** The number of characters in the buffer. */
+    private int limit;
+
+    /** The characters of the token being read. */
+    private final StringBuilder token = new StringBuilder();
+
+    /** The number of tokens read. */
+    private long count;
+
+    /**
+     * hidden constructor.
+     *
+     * @param reader the underlying reader
+     * @param bufferSize the size of the buffer, in characters
+     */
+    private PostfixTokenReader(final Reader reader, final int bufferSize) {
+        super();
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * a factory method for obtaining a new instance of this
+     * {@code PostfixTokenReader} with a buffer of
+     * {@value #DEFAULT_BUFFER_SIZE} characters.
+     *
+     * @param reader the reader of the postfix expression
+     * @return new instance of {@code PostfixTokenReader}
+     */
+    public static PostfixTokenReader newInstance(Reader reader) {
+        return newInstance(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * a factory method for obtaining a new instance of this
+     * {@code PostfixTokenReader}.
+     *
+     * @param reader the reader of the postfix expression
+     * @param bufferSize the size of the buffer, in characters
+     * @return new instance of {@code PostfixTokenReader}
+     * @throws IllegalArgumentException if the buffer size is not positive
+     */
+    public static PostfixTokenReader newInstance(Reader reader, int bufferSize) throws IllegalArgumentException {
+        Objects.requireNonNull(reader, "reader cannot be null!");
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("buffer size must be positive!");
+        }
+        return new PostfixTokenReader(reader, bufferSize);
+    }
+
+    /**
+     * reads the next token.
+     *
+     * @return the next token or null if there are no more tokens
+     * @throws UncheckedIOException if the underlying reader fails
+     */
+    public String next() throws UncheckedIOException {
+        token.setLength(0);
+        while (true) {
+            if (position == limit && !fill()) {
+                break;
+            }
+            char ch = buffer[position++];
+            if (!Character.isWhitespace(ch)) {
+                token.append(ch);
+            } else if (token.length() > 0) {
+                break;
+            }
+        }
+        if (token.length() == 0) {
+            return null;
+        }
+        count++;
+        return token.toString();
+    }
+
+    /**
+     * gets the number of tokens read so far.
+     *
+     * @return the number of tokens read
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * fills the buffer from the underlying reader.
+     *
+     * @return true if characters were read, false at the end of the input
+     * @throws UncheckedIOException if the underlying reader fails
+     */
+    private boolean fill() throws UncheckedIOException {
+        try {
+            int read;
+            do {
+                read = reader.read(buffer, 0, buffer.length);
+            } while (read == 0);
+            position = 0;
+            limit = Math.max(read, 0);
+            return read > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot read postfix expression", e);
+        }
+    }
+}
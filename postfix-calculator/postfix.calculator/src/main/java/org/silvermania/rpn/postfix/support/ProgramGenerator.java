@@ -0,0 +1,834 @@
+/*
+ * File: ProgramGenerator.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.support;
+
+import static org.silvermania.rpn.postfix.support.PostfixProgram.APPLY_N;
+import static org.silvermania.rpn.postfix.support.PostfixProgram.LOAD;
+import static org.silvermania.rpn.postfix.support.PostfixProgram.PUSH;
+import static org.silvermania.rpn.postfix.support.PostfixProgram.RECALL;
+import static org.silvermania.rpn.postfix.support.PostfixProgram.ROUND;
+import static org.silvermania.rpn.postfix.support.PostfixProgram.STORE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import org.silvermania.rpn.support.ArithmeticToken;
+import org.silvermania.rpn.support.CalculationContext;
+import org.silvermania.rpn.support.OperatorToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class ProgramGenerator generates a hidden class executing the
+ * instructions of a {@link PostfixProgram} as straight line bytecode, with no
+ * operand stack and no dispatch per instruction. The generated class
+ * implements {@link Function} of the variable values array to the
+ * {@code BigDecimal} result, and, if the program is double compatible,
+ * {@link ToDoubleFunction} of the double variable values array to the
+ * {@code double} result.
+ * <p>
+ * The default arithmetic operators are inlined as direct {@link BigDecimal}
+ * calls rounded by the context, and as {@code double} arithmetic
+ * instructions, exactly as their registered operations compute them. They are
+ * told apart from registered operators by identity (see
+ * {@link CalculationContext#isDefaultArithmeticToken(ArithmeticToken)}). Every
+ * other operation, and every operand, is a {@code static final} field of the
+ * generated class initialized from it's class data (see
+ * {@link MethodHandles#classData(MethodHandles.Lookup, String, Class)}), so
+ * each call site has a single constant receiver the JIT can inline.
+ * <p>
+ * The generated code has no branches, so it's methods need no stack map
+ * frames and the class file is written directly rather than with a bytecode
+ * library.
+ *
+ * @author T.N.Silverman
+ */
+final class ProgramGenerator {
+
+    /** The Constant logger. */
+    private static final Logger logger = LoggerFactory.getLogger(ProgramGenerator.class);
+
+    /** The internal name of the generated class, in the package of the lookup. */
+    private static final String CLASS_NAME = "org/silvermania/rpn/postfix/support/GeneratedProgram";
+
+    /** The maximal length of the code of a method. */
+    private static final int MAX_CODE_LENGTH = 65535;
+
+    /** The maximal number of constant pool entries. */
+    private static final int MAX_CONSTANTS = 65535;
+
+    /** The symbols of the default operators inlined by the generated code. */
+    static final Set<String> INLINED = Set.of("+", "-", "−", "*", "×", "/", "÷", "%", "^");
+
+    private static final String BIG_DECIMAL = "java/math/BigDecimal";
+    private static final String BIG_DECIMAL_DESCRIPTOR = "Ljava/math/BigDecimal;";
+    private static final String CONTEXT = "org/silvermania/rpn/support/CalculationContext";
+    private static final String FUNCTION = "java/util/function/Function";
+    private static final String TO_DOUBLE_FUNCTION = "java/util/function/ToDoubleFunction";
+    private static final String UNARY_OPERATOR = "java/util/function/DoubleUnaryOperator";
+    private static final String BINARY_OPERATOR = "java/util/function/DoubleBinaryOperator";
+
+    // the opcodes of the instructions the generated code uses
+    private static final int ICONST_0 = 0x03;
+    private static final int DCONST_0 = 0x0e;
+    private static final int DCONST_1 = 0x0f;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int LDC2_W = 0x14;
+    private static final int ALOAD = 0x19;
+    private static final int DLOAD = 0x18;
+    private static final int DALOAD = 0x31;
+    private static final int AALOAD = 0x32;
+    private static final int ASTORE = 0x3a;
+    private static final int DSTORE = 0x39;
+    private static final int AASTORE = 0x53;
+    private static final int DUP = 0x59;
+    private static final int DUP2 = 0x5c;
+    private static final int SWAP = 0x5f;
+    private static final int DADD = 0x63;
+    private static final int DSUB = 0x67;
+    private static final int DMUL = 0x6b;
+    private static final int DDIV = 0x6f;
+    private static final int DREM = 0x73;
+    private static final int I2D = 0x87;
+    private static final int D2I = 0x8e;
+    private static final int DRETURN = 0xaf;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int GETSTATIC = 0xb2;
+    private static final int PUTSTATIC = 0xb3;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int INVOKEINTERFACE = 0xb9;
+    private static final int ANEWARRAY = 0xbd;
+    private static final int CHECKCAST = 0xc0;
+    private static final int WIDE = 0xc4;
+
+    /** The program to generate. */
+    private final PostfixProgram program;
+
+    /** The constant pool entries, each starting with it's tag. */
+    private final List<byte[]> constants = new ArrayList<>();
+
+    /** The indexes of the constant pool entries, by their content. */
+    private final Map<String, Integer> constantIndex = new HashMap<>();
+
+    /** The number of constant pool slots, starting at one. */
+    private int constantSlots = 1;
+
+    /** The values of the static fields, passed as class data. */
+    private final List<Object> fieldValues = new ArrayList<>();
+
+    /** The descriptors of the static fields. */
+    private final List<String> fieldDescriptors = new ArrayList<>();
+
+    /** The static fields by their value. */
+    private final Map<Object, Integer> fields = new IdentityHashMap<>();
+
+    /**
+     * hidden constructor.
+     *
+     * @param program the program to generate
+     */
+    private ProgramGenerator(final PostfixProgram program) {
+        super();
+        this.program = program;
+    }
+
+    /**
+     * generates and instantiates the hidden class of the given
+     * {@code program}.
+     *
+     * @param program the program
+     * @return the instance of the generated class, implementing
+     *         {@link Function} and, if the program is double compatible,
+     *         {@link ToDoubleFunction}, or null if the program is too long to
+     *         be generated as a single method
+     */
+    static Object generate(PostfixProgram program) {
+        ProgramGenerator generator = new ProgramGenerator(program);
+        byte[] bytes = generator.classFile();
+        if (null == bytes) {
+            logger.debug("postfix '{}' is too long to generate, it's program is executed instead",
+                    program.getPostfix());
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup()
+                    .defineHiddenClassWithClassData(bytes, generator.fieldValues.toArray(), true);
+            Object instance = lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+            logger.debug("generated {} bytes class of postfix '{}'", bytes.length, program.getPostfix());
+            return instance;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("cannot define the generated class of postfix '"
+                + program.getPostfix() + "'", e);
+        }
+    }
+
+    /**
+     * writes the class file of the generated class.
+     *
+     * @return the class file bytes or null if a method or the constant pool
+     *         exceed the limits of the class file format
+     */
+    private byte[] classFile() {
+        CalculationContext context = program.getContext();
+        field(context, "L" + CONTEXT + ";");
+        byte[] apply = decimalCode();
+        byte[] applyAsDouble = program.isDoubleCompatible() ? doubleCode() : null;
+        // fields are added while the code is generated, so the initializer is last
+        byte[] initializer = initializerCode();
+        byte[] constructor = constructorCode();
+        if (null == apply || program.isDoubleCompatible() && null == applyAsDouble || null == initializer
+                || constantSlots > MAX_CONSTANTS - 64) {
+            return null;
+        }
+        int thisClass = classRef(CLASS_NAME);
+        int superClass = classRef("java/lang/Object");
+        int function = classRef(FUNCTION);
+        int toDoubleFunction = program.isDoubleCompatible() ? classRef(TO_DOUBLE_FUNCTION) : 0;
+        int code = utf8("Code");
+        int[][] fieldNames = new int[fieldValues.size()][];
+        for (int idx = 0; idx < fieldNames.length; idx++) {
+            fieldNames[idx] = new int[] {utf8("f" + idx), utf8(fieldDescriptors.get(idx))};
+        }
+        int[][] methods = {
+            {utf8("<init>"), utf8("()V")},
+            {utf8("<clinit>"), utf8("()V")},
+            {utf8("apply"), utf8("(Ljava/lang/Object;)Ljava/lang/Object;")},
+            {utf8("applyAsDouble"), utf8("(Ljava/lang/Object;)D")}};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(60);
+            out.writeShort(constantSlots);
+            for (byte[] constant : constants) {
+                out.write(constant);
+            }
+            // public final super
+            out.writeShort(0x0031);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(program.isDoubleCompatible() ? 2 : 1);
+            out.writeShort(function);
+            if (program.isDoubleCompatible()) {
+                out.writeShort(toDoubleFunction);
+            }
+            out.writeShort(fieldNames.length);
+            for (int[] field : fieldNames) {
+                // private static final
+                out.writeShort(0x001A);
+                out.writeShort(field[0]);
+                out.writeShort(field[1]);
+                out.writeShort(0);
+            }
+            out.writeShort(program.isDoubleCompatible() ? 4 : 3);
+            writeMethod(out, 0x0001, methods[0], code, constructor);
+            writeMethod(out, 0x0008, methods[1], code, initializer);
+            writeMethod(out, 0x0001, methods[2], code, apply);
+            if (program.isDoubleCompatible()) {
+                writeMethod(out, 0x0001, methods[3], code, applyAsDouble);
+            }
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * writes a method with the given {@code Code} attribute.
+     *
+     * @param out the class file output
+     * @param access the method access flags
+     * @param method the name and descriptor indexes of the method
+     * @param code the index of the {@code Code} attribute name
+     * @param attribute the {@code Code} attribute, without it's name and
+     *        length
+     * @throws IOException never thrown by a byte array output
+     */
+    private static void writeMethod(DataOutputStream out, int access, int[] method, int code, byte[] attribute)
+            throws IOException {
+        out.writeShort(access);
+        out.writeShort(method[0]);
+        out.writeShort(method[1]);
+        out.writeShort(1);
+        out.writeShort(code);
+        out.writeInt(attribute.length);
+        out.write(attribute);
+    }
+
+    /**
+     * generates the constructor, calling the {@code Object} constructor.
+     *
+     * @return the {@code Code} attribute of the constructor
+     */
+    private byte[] constructorCode() {
+        Code code = new Code(1);
+        code.local(ALOAD, 0, 1);
+        code.op(INVOKESPECIAL, -1).u2(methodRef("java/lang/Object", "<init>", "()V"));
+        code.op(RETURN, 0);
+        return code.attribute();
+    }
+
+    /**
+     * generates the static initializer, copying the class data into the static
+     * fields.
+     *
+     * @return the {@code Code} attribute of the static initializer or null if
+     *         it's too long
+     */
+    private byte[] initializerCode() {
+        Code code = new Code(1);
+        code.op(INVOKESTATIC, 1).u2(methodRef("java/lang/invoke/MethodHandles", "lookup",
+                "()Ljava/lang/invoke/MethodHandles$Lookup;"));
+        code.op(LDC_W, 1).u2(string("_"));
+        code.op(LDC_W, 1).u2(classRef("[Ljava/lang/Object;"));
+        code.op(INVOKESTATIC, -2).u2(methodRef("java/lang/invoke/MethodHandles", "classData",
+                "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;"));
+        code.op(CHECKCAST, 0).u2(classRef("[Ljava/lang/Object;"));
+        code.local(ASTORE, 0, -1);
+        for (int idx = 0; idx < fieldValues.size(); idx++) {
+            String descriptor = fieldDescriptors.get(idx);
+            code.local(ALOAD, 0, 1);
+            code.integer(idx);
+            code.op(AALOAD, -1);
+            code.op(CHECKCAST, 0).u2(classRef(descriptor.substring(1, descriptor.length() - 1)));
+            code.op(PUTSTATIC, -1).u2(fieldRef(idx));
+        }
+        code.op(RETURN, 0);
+        return code.length() > MAX_CODE_LENGTH ? null : code.attribute();
+    }
+
+    /**
+     * generates {@code apply}, the {@code BigDecimal} execution of the program.
+     *
+     * @return the {@code Code} attribute of the method or null if it's too long
+     */
+    private byte[] decimalCode() {
+        int temps = 3;
+        int registers = temps + Math.max(2, maxArity());
+        Code code = new Code(registers + program.getRegisters());
+        code.local(ALOAD, 1, 1);
+        code.op(CHECKCAST, 0).u2(classRef("[" + BIG_DECIMAL_DESCRIPTOR));
+        code.local(ASTORE, 2, -1);
+        for (int pc = 0; pc < program.size(); pc++) {
+            switch (program.opcodeAt(pc)) {
+                case PUSH:
+                    code.op(GETSTATIC, 1).u2(fieldRef(field(program.operandAt(pc), BIG_DECIMAL_DESCRIPTOR)));
+                    break;
+                case LOAD:
+                    code.local(ALOAD, 2, 1);
+                    code.integer(program.slotAt(pc));
+                    code.op(AALOAD, -1);
+                    break;
+                case ROUND:
+                    round(code);
+                    break;
+                case STORE:
+                    code.op(DUP, 1);
+                    code.local(ASTORE, registers + program.slotAt(pc), -1);
+                    break;
+                case RECALL:
+                    code.local(ALOAD, registers + program.slotAt(pc), 1);
+                    break;
+                default:
+                    if (isInlined(pc)) {
+                        inlineDecimal(code, program.tokenAt(pc).getSymbol().toString());
+                    } else {
+                        applyDecimal(code, pc, temps);
+                    }
+                    break;
+            }
+            if (code.length() > MAX_CODE_LENGTH) {
+                return null;
+            }
+        }
+        code.op(ARETURN, -1);
+        return code.attribute();
+    }
+
+    /**
+     * generates a call of the operation of the {@code APPLY} or
+     * {@code APPLY_N} instruction at the given {@code pc} with the same
+     * arguments array the program passes it.
+     *
+     * @param code the code
+     * @param pc the index of the instruction
+     * @param temps the first local variable free for the arguments
+     */
+    private void applyDecimal(Code code, int pc, int temps) {
+        int arity = program.arityAt(pc);
+        for (int idx = arity - 1; idx >= 0; idx--) {
+            code.local(ASTORE, temps + idx, -1);
+        }
+        int length = program.opcodeAt(pc) == APPLY_N ? arity : 2;
+        code.integer(length);
+        code.op(ANEWARRAY, 0).u2(classRef(BIG_DECIMAL));
+        for (int idx = 0; idx < length; idx++) {
+            code.op(DUP, 1);
+            code.integer(idx);
+            if (idx >= arity) {
+                // the second argument of unary operations is zero
+                code.op(GETSTATIC, 1).u2(fieldRef(BIG_DECIMAL, "ZERO", BIG_DECIMAL_DESCRIPTOR));
+            } else if (program.isSwappedAt(pc)) {
+                code.local(ALOAD, temps + arity - 1 - idx, 1);
+            } else {
+                code.local(ALOAD, temps + idx, 1);
+            }
+            code.op(AASTORE, -3);
+        }
+        code.op(GETSTATIC, 1).u2(fieldRef(field(program.tokenAt(pc).getOperation(), "L" + FUNCTION + ";")));
+        code.op(SWAP, 0);
+        code.op(INVOKEINTERFACE, -1).u2(interfaceMethodRef(FUNCTION, "apply",
+                "(Ljava/lang/Object;)Ljava/lang/Object;")).u1(2).u1(0);
+        code.op(CHECKCAST, 0).u2(classRef(BIG_DECIMAL));
+    }
+
+    /**
+     * generates the {@code BigDecimal} operation of a default operator.
+     *
+     * @param code the code
+     * @param symbol the symbol of the operator
+     */
+    private void inlineDecimal(Code code, String symbol) {
+        String binary = "(" + BIG_DECIMAL_DESCRIPTOR + ")" + BIG_DECIMAL_DESCRIPTOR;
+        switch (symbol) {
+            case "+":
+                code.op(INVOKEVIRTUAL, -1).u2(methodRef(BIG_DECIMAL, "add", binary));
+                break;
+            case "-":
+            case "−":
+                code.op(INVOKEVIRTUAL, -1).u2(methodRef(BIG_DECIMAL, "subtract", binary));
+                break;
+            case "*":
+            case "×":
+                code.op(INVOKEVIRTUAL, -1).u2(methodRef(BIG_DECIMAL, "multiply", binary));
+                break;
+            case "%":
+                code.op(INVOKEVIRTUAL, -1).u2(methodRef(BIG_DECIMAL, "remainder", binary));
+                break;
+            case "^":
+                code.op(INVOKEVIRTUAL, 0).u2(methodRef(BIG_DECIMAL, "intValue", "()I"));
+                code.op(INVOKEVIRTUAL, -1).u2(methodRef(BIG_DECIMAL, "pow", "(I)" + BIG_DECIMAL_DESCRIPTOR));
+                break;
+            default:
+                // divide by the divisor to the precision of the context
+                code.op(GETSTATIC, 1).u2(fieldRef(0));
+                code.op(INVOKEVIRTUAL, 0).u2(methodRef(CONTEXT, "getPrecision", "()I"));
+                code.op(GETSTATIC, 1).u2(fieldRef(0));
+                code.op(INVOKEVIRTUAL, 0).u2(methodRef(CONTEXT, "getRoundingMode", "()Ljava/math/RoundingMode;"));
+                code.op(INVOKEVIRTUAL, -3).u2(methodRef(BIG_DECIMAL, "divide",
+                        "(" + BIG_DECIMAL_DESCRIPTOR + "ILjava/math/RoundingMode;)" + BIG_DECIMAL_DESCRIPTOR));
+                break;
+        }
+        round(code);
+    }
+
+    /**
+     * generates the rounding of the top of the stack by the context.
+     *
+     * @param code the code
+     */
+    private void round(Code code) {
+        code.op(GETSTATIC, 1).u2(fieldRef(0));
+        code.op(SWAP, 0);
+        code.op(INVOKEVIRTUAL, -1).u2(methodRef(CONTEXT, "round",
+                "(" + BIG_DECIMAL_DESCRIPTOR + ")" + BIG_DECIMAL_DESCRIPTOR));
+    }
+
+    /**
+     * generates {@code applyAsDouble}, the {@code double} execution of the
+     * program.
+     *
+     * @return the {@code Code} attribute of the method or null if it's too long
+     */
+    private byte[] doubleCode() {
+        int first = 3;
+        int second = 5;
+        int registers = 7;
+        Code code = new Code(registers + 2 * program.getRegisters());
+        code.local(ALOAD, 1, 1);
+        code.op(CHECKCAST, 0).u2(classRef("[D"));
+        code.local(ASTORE, 2, -1);
+        for (int pc = 0; pc < program.size(); pc++) {
+            switch (program.opcodeAt(pc)) {
+                case PUSH:
+                    constant(code, program.doubleOperandAt(pc));
+                    break;
+                case LOAD:
+                    code.local(ALOAD, 2, 1);
+                    code.integer(program.slotAt(pc));
+                    code.op(DALOAD, 0);
+                    break;
+                case ROUND:
+                    code.local(DSTORE, first, -2);
+                    code.op(GETSTATIC, 1).u2(fieldRef(field(program.binaryOperationAt(pc),
+                            "L" + BINARY_OPERATOR + ";")));
+                    // the constant is the first argument when it was the left operand
+                    if (program.isSwappedAt(pc)) {
+                        constant(code, program.doubleOperandAt(pc));
+                        code.local(DLOAD, first, 2);
+                    } else {
+                        code.local(DLOAD, first, 2);
+                        constant(code, program.doubleOperandAt(pc));
+                    }
+                    code.op(INVOKEINTERFACE, -3).u2(interfaceMethodRef(BINARY_OPERATOR, "applyAsDouble", "(DD)D"))
+                            .u1(5).u1(0);
+                    break;
+                case STORE:
+                    code.op(DUP2, 2);
+                    code.local(DSTORE, registers + 2 * program.slotAt(pc), -2);
+                    break;
+                case RECALL:
+                    code.local(DLOAD, registers + 2 * program.slotAt(pc), 2);
+                    break;
+                default:
+                    String symbol = program.tokenAt(pc).getSymbol().toString();
+                    if (isInlined(pc) && program.getContext().isDefaultDoubleOperation(symbol)) {
+                        inlineDouble(code, symbol);
+                    } else if (program.arityAt(pc) == 2) {
+                        code.local(DSTORE, second, -2);
+                        code.local(DSTORE, first, -2);
+                        code.op(GETSTATIC, 1).u2(fieldRef(field(program.binaryOperationAt(pc),
+                                "L" + BINARY_OPERATOR + ";")));
+                        code.local(DLOAD, program.isSwappedAt(pc) ? second : first, 2);
+                        code.local(DLOAD, program.isSwappedAt(pc) ? first : second, 2);
+                        code.op(INVOKEINTERFACE, -3).u2(interfaceMethodRef(BINARY_OPERATOR, "applyAsDouble",
+                                "(DD)D")).u1(5).u1(0);
+                    } else if ("√".equals(symbol) && program.getContext().isDefaultDoubleOperation(symbol)) {
+                        code.op(INVOKESTATIC, 0).u2(methodRef("java/lang/Math", "sqrt", "(D)D"));
+                    } else {
+                        code.local(DSTORE, first, -2);
+                        code.op(GETSTATIC, 1).u2(fieldRef(field(program.unaryOperationAt(pc),
+                                "L" + UNARY_OPERATOR + ";")));
+                        code.local(DLOAD, first, 2);
+                        code.op(INVOKEINTERFACE, -1).u2(interfaceMethodRef(UNARY_OPERATOR, "applyAsDouble",
+                                "(D)D")).u1(3).u1(0);
+                    }
+                    break;
+            }
+            if (code.length() > MAX_CODE_LENGTH) {
+                return null;
+            }
+        }
+        code.op(DRETURN, -2);
+        return code.attribute();
+    }
+
+    /**
+     * generates the {@code double} operation of a default operator.
+     *
+     * @param code the code
+     * @param symbol the symbol of the operator
+     */
+    private void inlineDouble(Code code, String symbol) {
+        switch (symbol) {
+            case "+":
+                code.op(DADD, -2);
+                break;
+            case "-":
+            case "−":
+                code.op(DSUB, -2);
+                break;
+            case "*":
+            case "×":
+                code.op(DMUL, -2);
+                break;
+            case "%":
+                code.op(DREM, -2);
+                break;
+            case "^":
+                // Math.pow(a, (int) b)
+                code.op(D2I, -1);
+                code.op(I2D, 1);
+                code.op(INVOKESTATIC, -2).u2(methodRef("java/lang/Math", "pow", "(DD)D"));
+                break;
+            default:
+                code.op(DDIV, -2);
+                break;
+        }
+    }
+
+    /**
+     * generates the push of a {@code double} constant.
+     *
+     * @param code the code
+     * @param value the constant
+     */
+    private void constant(Code code, double value) {
+        if (Double.doubleToRawLongBits(value) == 0L) {
+            code.op(DCONST_0, 2);
+        } else if (value == 1d) {
+            code.op(DCONST_1, 2);
+        } else {
+            code.op(LDC2_W, 2).u2(doubleConstant(value));
+        }
+    }
+
+    /**
+     * returns true if the instruction at the given {@code pc} applies a default
+     * operator that the generated code inlines.
+     *
+     * @param pc the index of the instruction
+     * @return true if the operator is inlined, otherwise false
+     */
+    private boolean isInlined(int pc) {
+        // the symbol of a default operator, checked by identity, identifies it's operation
+        ArithmeticToken token = program.tokenAt(pc);
+        return program.opcodeAt(pc) != APPLY_N && program.arityAt(pc) == 2 && !program.isSwappedAt(pc)
+                && token instanceof OperatorToken && INLINED.contains(token.getSymbol().toString())
+                && program.getContext().isDefaultArithmeticToken(token);
+    }
+
+    /**
+     * gets the largest number of operands of an instruction of the program.
+     *
+     * @return the largest arity
+     */
+    private int maxArity() {
+        int arity = 0;
+        for (int pc = 0; pc < program.size(); pc++) {
+            arity = Math.max(arity, program.arityAt(pc));
+        }
+        return arity;
+    }
+
+    /**
+     * gets the static field holding the given {@code value}, adding a new field
+     * if there is none.
+     *
+     * @param value the value of the field
+     * @param descriptor the descriptor of the field type
+     * @return the index of the field
+     */
+    private int field(Object value, String descriptor) {
+        Integer index = fields.get(value);
+        if (null == index) {
+            index = fieldValues.size();
+            fieldValues.add(value);
+            fieldDescriptors.add(descriptor);
+            fields.put(value, index);
+        }
+        return index;
+    }
+
+    private int fieldRef(int field) {
+        return fieldRef(CLASS_NAME, "f" + field, fieldDescriptors.get(field));
+    }
+
+    private int utf8(String value) {
+        return constant("U" + value, out -> {
+            out.writeByte(1);
+            out.writeUTF(value);
+        }, 1);
+    }
+
+    private int classRef(String name) {
+        int utf8 = utf8(name);
+        return constant("C" + name, out -> {
+            out.writeByte(7);
+            out.writeShort(utf8);
+        }, 1);
+    }
+
+    private int string(String value) {
+        int utf8 = utf8(value);
+        return constant("S" + value, out -> {
+            out.writeByte(8);
+            out.writeShort(utf8);
+        }, 1);
+    }
+
+    private int doubleConstant(double value) {
+        return constant("D" + Double.doubleToRawLongBits(value), out -> {
+            out.writeByte(6);
+            out.writeLong(Double.doubleToRawLongBits(value));
+        }, 2);
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        return constant("N" + name + ":" + descriptor, out -> {
+            out.writeByte(12);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+        }, 1);
+    }
+
+    private int fieldRef(String owner, String name, String descriptor) {
+        return memberRef(9, owner, name, descriptor);
+    }
+
+    private int methodRef(String owner, String name, String descriptor) {
+        return memberRef(10, owner, name, descriptor);
+    }
+
+    private int interfaceMethodRef(String owner, String name, String descriptor) {
+        return memberRef(11, owner, name, descriptor);
+    }
+
+    private int memberRef(int tag, String owner, String name, String descriptor) {
+        int classIndex = classRef(owner);
+        int nameAndTypeIndex = nameAndType(name, descriptor);
+        return constant(tag + owner + "." + name + ":" + descriptor, out -> {
+            out.writeByte(tag);
+            out.writeShort(classIndex);
+            out.writeShort(nameAndTypeIndex);
+        }, 1);
+    }
+
+    /**
+     * gets the index of a constant pool entry, adding the entry if the pool
+     * has none.
+     *
+     * @param key the content of the entry, unique across entry types
+     * @param writer the writer of the entry
+     * @param slots the number of slots the entry takes
+     * @return the index of the entry
+     */
+    private int constant(String key, ConstantWriter writer, int slots) {
+        Integer index = constantIndex.get(key);
+        if (null == index) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                writer.write(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            index = constantSlots;
+            constants.add(bytes.toByteArray());
+            constantIndex.put(key, index);
+            constantSlots += slots;
+        }
+        return index;
+    }
+
+    /**
+     * The Interface ConstantWriter writes a constant pool entry.
+     */
+    @FunctionalInterface
+    private interface ConstantWriter {
+
+        /**
+         * writes the entry.
+         *
+         * @param out the output
+         * @throws IOException never thrown by a byte array output
+         */
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * The Class Code accumulates the instructions of a method and keeps track
+     * of the depth of the operand stack.
+     */
+    private static final class Code {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final int maxLocals;
+        private int depth;
+        private int maxDepth;
+
+        private Code(final int maxLocals) {
+            this.maxLocals = maxLocals;
+        }
+
+        private Code op(int opcode, int delta) {
+            bytes.write(opcode);
+            depth += delta;
+            maxDepth = Math.max(depth, maxDepth);
+            return this;
+        }
+
+        private Code u1(int value) {
+            bytes.write(value);
+            return this;
+        }
+
+        private Code u2(int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+            return this;
+        }
+
+        private void local(int opcode, int index, int delta) {
+            if (index > 255) {
+                op(WIDE, 0).u1(opcode).u2(index);
+            } else {
+                op(opcode, 0).u1(index);
+            }
+            depth += delta;
+            maxDepth = Math.max(depth, maxDepth);
+        }
+
+        private void integer(int value) {
+            if (value >= -1 && value <= 5) {
+                op(ICONST_0 + value, 1);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                op(BIPUSH, 1).u1(value);
+            } else {
+                op(SIPUSH, 1).u2(value);
+            }
+        }
+
+        private int length() {
+            return bytes.size();
+        }
+
+        private byte[] attribute() {
+            ByteArrayOutputStream attribute = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(attribute)) {
+                out.writeShort(maxDepth);
+                out.writeShort(maxLocals);
+                out.writeInt(bytes.size());
+                bytes.writeTo(out);
+                // no exception table and no attributes
+                out.writeShort(0);
+                out.writeShort(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return attribute.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * File: ProgramHandles.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.support;
+
+import static org.silvermania.rpn.postfix.support.PostfixProgram.APPLY_N;
+import static org.silvermania.rpn.postfix.support.PostfixProgram.LOAD;
+import static org.silvermania.rpn.postfix.support.PostfixProgram.PUSH;
+import static org.silvermania.rpn.postfix.support.PostfixProgram.RECALL;
+import static org.silvermania.rpn.postfix.support.PostfixProgram.ROUND;
+import static org.silvermania.rpn.postfix.support.PostfixProgram.STORE;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+
+import org.silvermania.rpn.support.CalculationContext;
+
+/**
+ * The Class ProgramHandles links the instructions of a {@link PostfixProgram}
+ * into a tree of {@link MethodHandle} combinators, with a handle of type
+ * {@code (BigDecimal[])BigDecimal} at it's root and, if the program is double
+ * compatible, a handle of type {@code (double[])double}:
+ * <ul>
+ * <li>operands are constant handles and variables are array element getters
+ * of their slot</li>
+ * <li>an operator or function is the handle of it's operation, with it's
+ * arguments collected into an array, whose arguments are filtered by the
+ * handles of it's operand sub-trees
+ * ({@link MethodHandles#filterArguments(MethodHandle, int, MethodHandle...)})
+ * and whose first argument is folded from the values array
+ * ({@link MethodHandles#foldArguments(MethodHandle, MethodHandle)}), so that
+ * operands are evaluated in the order of the postfix expression</li>
+ * <li>a {@code ROUND} filters the return value of it's operand sub-tree</li>
+ * </ul>
+ * The tree is built from the standard {@code java.lang.invoke} combinators,
+ * whose lambda forms are shared between trees of the same shape, so no class
+ * is defined per expression. A recalled register is the sub-tree that was
+ * stored to it, evaluated again wherever it's recalled.
+ *
+ * @author T.N.Silverman
+ */
+final class ProgramHandles {
+
+    /** The largest program linked to a tree, as deeper trees nest deeper calls. */
+    static final int MAX_SIZE = 512;
+
+    /** {@code (Function, BigDecimal[])BigDecimal} applying an operation to it's arguments. */
+    private static final MethodHandle APPLY;
+
+    /** {@code (CalculationContext, BigDecimal)BigDecimal} rounding a value by a context. */
+    private static final MethodHandle ROUND_DECIMAL;
+
+    /** {@code (DoubleUnaryOperator, double)double} applying a unary double operation. */
+    private static final MethodHandle UNARY_DOUBLE;
+
+    /** {@code (DoubleBinaryOperator, double, double)double} applying a binary double operation. */
+    private static final MethodHandle BINARY_DOUBLE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            APPLY = lookup.findStatic(ProgramHandles.class, "apply",
+                    MethodType.methodType(BigDecimal.class, Function.class, BigDecimal[].class));
+            ROUND_DECIMAL = lookup.findVirtual(CalculationContext.class, "round",
+                    MethodType.methodType(BigDecimal.class, BigDecimal.class));
+            UNARY_DOUBLE = lookup.findVirtual(DoubleUnaryOperator.class, "applyAsDouble",
+                    MethodType.methodType(double.class, double.class));
+            BINARY_DOUBLE = lookup.findVirtual(DoubleBinaryOperator.class, "applyAsDouble",
+                    MethodType.methodType(double.class, double.class, double.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** The program to link. */
+    private final PostfixProgram program;
+
+    /** true to link the double operations of the program. */
+    private final boolean doubles;
+
+    /** The type of the values. */
+    private final Class<?> type;
+
+    /** The type of the values array. */
+    private final Class<?> arrayType;
+
+    /**
+     * hidden constructor.
+     *
+     * @param program the program to link
+     * @param doubles true to link the double operations of the program
+     */
+    private ProgramHandles(final PostfixProgram program, final boolean doubles) {
+        super();
+        this.program = program;
+        this.doubles = doubles;
+        this.type = doubles ? double.class : BigDecimal.class;
+        this.arrayType = doubles ? double[].class : BigDecimal[].class;
+    }
+
+    /**
+     * links the given {@code program} to a tree of method handles of type
+     * {@code (BigDecimal[])BigDecimal}.
+     *
+     * @param program the program
+     * @return the root handle of the tree or null if the program is longer
+     *         than {@value #MAX_SIZE} instructions
+     */
+    static MethodHandle link(PostfixProgram program) {
+        return program.size() > MAX_SIZE ? null : new ProgramHandles(program, false).link();
+    }
+
+    /**
+     * links the given double compatible {@code program} to a tree of method
+     * handles of type {@code (double[])double}.
+     *
+     * @param program the program
+     * @return the root handle of the tree or null if the program is longer
+     *         than {@value #MAX_SIZE} instructions or is not double compatible
+     */
+    static MethodHandle linkDouble(PostfixProgram program) {
+        return program.size() > MAX_SIZE || !program.isDoubleCompatible() ? null
+                : new ProgramHandles(program, true).link();
+    }
+
+    /**
+     * applies an operation to it's arguments.
+     *
+     * @param operation the operation
+     * @param args the arguments
+     * @return the result of the operation
+     */
+    private static BigDecimal apply(Function<BigDecimal[], BigDecimal> operation, BigDecimal[] args) {
+        return operation.apply(args);
+    }
+
+    /**
+     * links the instructions of the program, keeping the handle of each
+     * operand on a stack of sub-trees.
+     *
+     * @return the root handle of the tree
+     */
+    private MethodHandle link() {
+        List<MethodHandle> stack = new ArrayList<>(program.getMaxDepth());
+        MethodHandle[] registers = new MethodHandle[program.getRegisters()];
+        for (int pc = 0; pc < program.size(); pc++) {
+            switch (program.opcodeAt(pc)) {
+                case PUSH:
+                    Object value = doubles ? (Object) program.doubleOperandAt(pc) : program.operandAt(pc);
+                    stack.add(MethodHandles.dropArguments(MethodHandles.constant(type, value), 0, arrayType));
+                    break;
+                case LOAD:
+                    stack.add(MethodHandles.insertArguments(MethodHandles.arrayElementGetter(arrayType), 1,
+                            program.slotAt(pc)));
+                    break;
+                case ROUND:
+                    stack.add(MethodHandles.filterReturnValue(pop(stack), round(pc)));
+                    break;
+                case STORE:
+                    registers[program.slotAt(pc)] = stack.get(stack.size() - 1);
+                    break;
+                case RECALL:
+                    stack.add(registers[program.slotAt(pc)]);
+                    break;
+                default:
+                    int arity = program.arityAt(pc);
+                    List<MethodHandle> operands = stack.subList(stack.size() - arity, stack.size());
+                    MethodHandle node = combine(operation(pc), operands.toArray(new MethodHandle[0]));
+                    operands.clear();
+                    stack.add(node);
+                    break;
+            }
+        }
+        return pop(stack);
+    }
+
+    /**
+     * gets the handle of the operation of the {@code APPLY} or {@code APPLY_N}
+     * instruction at the given {@code pc}, taking it's operands in stack order.
+     *
+     * @param pc the index of the instruction
+     * @return the handle of the operation
+     */
+    private MethodHandle operation(int pc) {
+        int arity = program.arityAt(pc);
+        MethodHandle operation;
+        if (doubles) {
+            operation = arity == 2 ? BINARY_DOUBLE.bindTo(program.binaryOperationAt(pc))
+                    : UNARY_DOUBLE.bindTo(program.unaryOperationAt(pc));
+        } else if (program.opcodeAt(pc) == APPLY_N) {
+            return APPLY.bindTo(program.tokenAt(pc).getOperation()).asCollector(BigDecimal[].class, arity);
+        } else {
+            operation = APPLY.bindTo(program.tokenAt(pc).getOperation()).asCollector(BigDecimal[].class, 2);
+            if (arity == 1) {
+                // the second argument of unary operations is zero
+                operation = MethodHandles.insertArguments(operation, 1, BigDecimal.ZERO);
+            }
+        }
+        if (program.isSwappedAt(pc)) {
+            // the first argument is the top of the stack
+            operation = MethodHandles.permuteArguments(operation, operation.type(), 1, 0);
+        }
+        return operation;
+    }
+
+    /**
+     * gets the handle filtering the operand of the {@code ROUND} instruction at
+     * the given {@code pc}.
+     *
+     * @param pc the index of the instruction
+     * @return the rounding handle
+     */
+    private MethodHandle round(int pc) {
+        if (!doubles) {
+            // child contexts round with the math context of their root, which
+            // keeps the tree valid for every context it's program is rebound to
+            return ROUND_DECIMAL.bindTo(program.getContext().getRoot());
+        }
+        // the double operation applied to the constant, on the side it was on
+        return MethodHandles.insertArguments(BINARY_DOUBLE.bindTo(program.binaryOperationAt(pc)),
+                program.isSwappedAt(pc) ? 0 : 1, program.doubleOperandAt(pc));
+    }
+
+    /**
+     * combines the handle of an operation with the sub-trees of it's
+     * operands into a handle of the values array.
+     *
+     * @param operation the handle of the operation, taking it's operands in
+     *        stack order
+     * @param operands the sub-trees of the operands, in stack order
+     * @return the handle of the values array
+     */
+    private MethodHandle combine(MethodHandle operation, MethodHandle[] operands) {
+        if (operands.length == 1) {
+            return MethodHandles.filterArguments(operation, 0, operands[0]);
+        }
+        // (values, values...) with each operand filtered from it's own copy of the values array
+        MethodHandle filtered = MethodHandles.filterArguments(operation, 1,
+                Arrays.copyOfRange(operands, 1, operands.length));
+        // the first operand is folded from the values array first
+        MethodHandle merged = MethodHandles.permuteArguments(filtered, MethodType.methodType(type, type, arrayType),
+                permutation(operands.length));
+        return MethodHandles.foldArguments(merged, operands[0]);
+    }
+
+    /**
+     * gets the permutation of the arguments {@code (value, values)} to the
+     * arguments {@code (value, values, values...)} of an operation of the given
+     * {@code arity} whose operands after the first are filtered from the values
+     * array.
+     *
+     * @param arity the number of operands
+     * @return the permutation
+     */
+    private static int[] permutation(int arity) {
+        int[] reorder = new int[arity];
+        Arrays.fill(reorder, 1);
+        reorder[0] = 0;
+        return reorder;
+    }
+
+    /**
+     * pops the top sub-tree off the stack.
+     *
+     * @param stack the stack of sub-trees
+     * @return the top sub-tree
+     */
+    private static MethodHandle pop(List<MethodHandle> stack) {
+        return stack.remove(stack.size() - 1);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * File: BindingsTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.calculator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The Class BindingsTest is a unit test of evaluating postfix expressions with
+ * {@link Bindings}.
+ *
+ * @author T.N.Silverman
+ */
+public class BindingsTest extends BaseCalculatorTestCase {
+
+    @Test
+    @DisplayName("test rebinding does not modify the context")
+    public void rebinding() throws Exception {
+        context.declareVariable("r").declareVariable("h");
+        String before = context.print();
+        CompiledExpression expression = RPNCalculator.compile(infixConverter.convert("r*h+r"));
+        Bindings bindings = expression.newBindings();
+        assertEquals(0, BigDecimal.ZERO.compareTo(expression.evaluate(bindings)));
+        int r = bindings.slotOf("r");
+        for (int idx = 1; idx <= 10; idx++) {
+            bindings.bind(r, BigDecimal.valueOf(idx)).bind("h", BigDecimal.TEN);
+            assertEquals(0, BigDecimal.valueOf(idx * 11).compareTo(expression.evaluate(bindings)));
+        }
+        assertEquals(before, context.print());
+    }
+
+    @Test
+    @DisplayName("test bindings matched by symbol")
+    public void bindingsBySymbol() throws Exception {
+        context.addVariable("r", BigDecimal.ONE).declareVariable("h");
+        Bindings bindings = Bindings.newInstance("h", "x").bind("h", BigDecimal.valueOf(3));
+        String postfix = infixConverter.convert("r+h");
+        assertEquals(0, BigDecimal.valueOf(4).compareTo(RPNCalculator.calculate(postfix, bindings)));
+        assertEquals(0, BigDecimal.valueOf(4).compareTo(
+                RPNCalculator.withContext(context).convert("r+h").thenCalculate(bindings)));
+        assertEquals(0, BigDecimal.ONE.compareTo(RPNCalculator.calculate(postfix, bindings.clear())));
+        assertNull(bindings.get("h"));
+        assertEquals(List.of("h", "x"), bindings.getVariables());
+    }
+
+    @Test
+    @DisplayName("test illegal bindings throw")
+    public void illegalBindings() throws Exception {
+        Bindings bindings = Bindings.newInstance("r");
+        assertThrows(IllegalArgumentException.class, () -> bindings.bind("h", BigDecimal.ONE));
+        assertThrows(IndexOutOfBoundsException.class, () -> bindings.bind(1, BigDecimal.ONE));
+        assertThrows(NullPointerException.class, () -> bindings.bind("r", null));
+        assertThrows(IllegalArgumentException.class, () -> Bindings.newInstance("r", "r"));
+        assertThrows(IllegalArgumentException.class, () -> Bindings.newInstance(" "));
+    }
+
+}
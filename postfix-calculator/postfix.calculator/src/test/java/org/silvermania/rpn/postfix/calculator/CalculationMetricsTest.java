@@ -0,0 +1,155 @@
+/*
+ * File: CalculationMetricsTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.calculator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.silvermania.rpn.support.CalculationContext;
+import org.silvermania.rpn.support.CalculationMetrics.Engine;
+import org.silvermania.rpn.support.CalculationMetrics.Phase;
+import org.silvermania.rpn.support.HistogramMetrics;
+import org.silvermania.rpn.support.NumericMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class CalculationMetricsTest is a unit test to assert that conversions,
+ * calculations and compiled expression evaluations notify the
+ * {@link HistogramMetrics} of their context.
+ *
+ * @author T.N.Silverman
+ */
+class CalculationMetricsTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalculationMetricsTest.class);
+    private HistogramMetrics metrics;
+    private CalculationContext context;
+
+    @BeforeEach
+    public void beforeEach(TestInfo info) throws Exception {
+        logger.debug("entering {} {}", info.getTestMethod().orElseThrow().getName(), info.getDisplayName());
+        metrics = HistogramMetrics.newInstance();
+        context = CalculationContext.newInstance().setMetrics(metrics);
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test conversion and calculation phases and operations are recorded")
+    public void testCalculation() {
+        assertEquals(new BigDecimal("10.0000000"), RPNCalculator.withContext(context).convert("2*3+4").thenCalculate());
+        assertEquals(new BigDecimal("10.0000000"), RPNCalculator.withContext(context).convert("2*3+4").thenCalculate());
+        assertEquals(1, metrics.getPhase(Phase.NORMALIZE).getCount());
+        assertEquals(5, metrics.getPhase(Phase.NORMALIZE).getTokens());
+        assertEquals(1, metrics.getPhase(Phase.CONVERT).getCount());
+        assertEquals(2, metrics.getPhase(Phase.EVALUATE).getCount());
+        assertEquals(10, metrics.getPhase(Phase.EVALUATE).getTokens());
+        assertEquals(2, metrics.getOperation("*").getCount());
+        assertEquals(2, metrics.getOperation("+").getCount());
+        assertEquals(0.5d, metrics.getCacheHitRatio("conversion"));
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test streamed calculation is recorded")
+    public void testStreamedCalculation() {
+        RPNCalculator.withContext(context).calculate(new StringReader("1 2 +\n3 *"));
+        assertEquals(1, metrics.getPhase(Phase.EVALUATE).getCount());
+        assertEquals(5, metrics.getPhase(Phase.EVALUATE).getTokens());
+        assertEquals(1, metrics.getOperation("*").getCount());
+    }
+
+    @ParameterizedTest
+    //@Disabled
+    @DisplayName("test compiled expression evaluations are recorded")
+    @EnumSource(EvaluationStrategy.class)
+    public void testCompiledExpression(EvaluationStrategy strategy) {
+        context.addVariable("x", BigDecimal.ONE);
+        CompiledExpression expression = RPNCalculator.withContext(context).accept("x 2 * x +").thenCompile(strategy);
+        expression.evaluate();
+        expression.evaluate(expression.newBindings().bind("x", BigDecimal.TEN));
+        assertEquals(2, metrics.getPhase(Phase.EVALUATE).getCount());
+        assertEquals(2, metrics.getExecution(engineOf(strategy), NumericMode.BIG_DECIMAL).getCount());
+        if (strategy == EvaluationStrategy.STACK || strategy == EvaluationStrategy.GRAPH) {
+            assertEquals(2, metrics.getOperation("*").getCount());
+        } else {
+            // linked and generated programs apply their operations directly
+            assertNull(metrics.getOperation("*"));
+        }
+    }
+
+    @ParameterizedTest
+    //@Disabled
+    @DisplayName("test compiled expression executions in double mode are recorded by engine")
+    @EnumSource(EvaluationStrategy.class)
+    public void testCompiledExpressionDoubleMode(EvaluationStrategy strategy) {
+        context.addVariable("x", BigDecimal.ONE).setNumericMode(NumericMode.DOUBLE);
+        CompiledExpression expression = RPNCalculator.withContext(context).accept("x 2 * x +").thenCompile(strategy);
+        assertEquals(30d, expression.evaluateAsDouble(new double[] {10d}));
+        assertEquals(1, metrics.getExecution(engineOf(strategy), NumericMode.DOUBLE).getCount());
+        assertNull(metrics.getExecution(engineOf(strategy), NumericMode.BIG_DECIMAL));
+        expression.evaluateColumns(new double[][] {{1d, 2d, 3d}});
+        assertEquals(1, metrics.getExecution(Engine.COLUMNS, NumericMode.DOUBLE).getCount());
+        assertEquals(3, metrics.getExecution(Engine.COLUMNS, NumericMode.DOUBLE).getTokens());
+        assertEquals(Map.of("columns/double", 1L, engineOf(strategy).name().toLowerCase(Locale.ROOT) + "/double",
+                1L), metrics.getExecutionCounts());
+        assertNull(metrics.getOperation("*"));
+    }
+
+    /**
+     * gets the engine executing the expressions compiled with a strategy.
+     *
+     * @param strategy the evaluation strategy
+     * @return the engine
+     */
+    private static Engine engineOf(EvaluationStrategy strategy) {
+        switch (strategy) {
+            case METHOD_HANDLES:
+                return Engine.METHOD_HANDLES;
+            case BYTECODE:
+                return Engine.BYTECODE;
+            default:
+                return Engine.INTERPRETER;
+        }
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test double mode evaluations record phases only")
+    public void testDoubleMode() {
+        context.setNumericMode(NumericMode.DOUBLE);
+        RPNCalculator.withContext(context).accept("2 3 * 4 +").thenCalculate();
+        assertEquals(1, metrics.getPhase(Phase.EVALUATE).getCount());
+        assertNull(metrics.getOperation("*"));
+    }
+}
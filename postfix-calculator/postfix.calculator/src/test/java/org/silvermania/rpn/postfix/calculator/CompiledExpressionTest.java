@@ -0,0 +1,394 @@
+/*
+ * File: CompiledExpressionTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.calculator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.silvermania.rpn.support.CalculationContext;
+import org.silvermania.rpn.support.HistogramMetrics;
+import org.silvermania.rpn.support.Multiplicity;
+import org.silvermania.rpn.support.NumericMode;
+
+/**
+ * The Class CompiledExpressionTest is a unit test of compiling postfix
+ * expressions with {@link RPNCalculator#compile(String)} and evaluating the
+ * resulting {@link CompiledExpression}.
+ *
+ * @author T.N.Silverman
+ */
+public class CompiledExpressionTest extends BaseCalculatorTestCase {
+
+    @ParameterizedTest
+    @DisplayName("test compiled evaluation equals interpreted calculation")
+    @CsvSource(delimiter = '|',
+               value = {"1+2*3", "2^3^2", "(1-2)-3", "-5+3", "4!+√16", "sin(90)*cos(0)", "max(1,4)/min(2,8)",
+                        "avg(2,4)%3", "pct(2,4)", "π*2^2", "e*2", "log(10)+1", "((4+2)*3)/(5−2)"})
+    public void compiledEqualsInterpreted(String infix) throws Exception {
+        String postfix = infixConverter.convert(infix);
+        CompiledExpression expression = RPNCalculator.compile(postfix);
+        assertEquals(RPNCalculator.calculate(postfix), expression.evaluate());
+        assertEquals(expression.evaluate(), expression.evaluate());
+    }
+
+    @Test
+    @DisplayName("test compiled evaluation with variables")
+    public void compiledWithVariables() throws Exception {
+        context.addVariable("r", BigDecimal.ONE).addVariable("h", BigDecimal.TEN);
+        String postfix = infixConverter.convert("π*r^2*h+r");
+        CompiledExpression expression = RPNCalculator.compile(postfix);
+        assertEquals(List.of("r", "h"), expression.getVariables());
+        assertEquals(RPNCalculator.calculate(postfix), expression.evaluate());
+        BigDecimal actual = expression.evaluate(Map.of("r", BigDecimal.valueOf(2), "x", BigDecimal.ONE));
+        context.addVariable("r", BigDecimal.valueOf(2));
+        assertEquals(getCalulator(context).calculate(postfix), actual);
+    }
+
+    @Test
+    @DisplayName("test compiled evaluation through the fluent api")
+    public void compiledFluent() throws Exception {
+        context.addVariable("x", BigDecimal.valueOf(3));
+        CompiledExpression expression = RPNCalculator.withContext(context).convert("x^2+1").thenCompile();
+        assertEquals(new BigDecimal("10.0000000"), expression.evaluate());
+        assertEquals(new BigDecimal("17.0000000"), expression.evaluate(Map.of("x", BigDecimal.valueOf(4))));
+    }
+
+    @ParameterizedTest
+    @DisplayName("test double evaluation is close to big decimal evaluation")
+    @CsvSource(delimiter = '|',
+               value = {"1+2*3", "2^3^2", "(1-2)-3", "-5+3", "4!+√16", "sin(90)*cos(0)", "max(1,4)/min(2,8)",
+                        "avg(2,4)%3", "pct(2,4)", "π*2^2", "e*2", "log(10)+1", "((4+2)*3)/(5−2)", "sum(1,2,3)*2"})
+    public void doubleCloseToBigDecimal(String infix) throws Exception {
+        String postfix = infixConverter.convert(infix);
+        double expected = RPNCalculator.calculate(postfix).doubleValue();
+        context.setNumericMode(NumericMode.DOUBLE);
+        CompiledExpression expression = RPNCalculator.compile(postfix);
+        assertEquals(expected, expression.evaluateAsDouble(), 1e-6);
+        assertEquals(expected, RPNCalculator.calculate(postfix).doubleValue(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("test double evaluation with variables")
+    public void doubleWithVariables() throws Exception {
+        context.addVariable("r", BigDecimal.ONE).addVariable("h", BigDecimal.TEN);
+        context.setNumericMode(NumericMode.DOUBLE);
+        CompiledExpression expression = RPNCalculator.compile(infixConverter.convert("π*r^2*h"));
+        assertTrue(expression.getProgram().isDoubleCompatible());
+        assertEquals(Math.PI * 4 * 3, expression.evaluateAsDouble(new double[]{2, 3}), 1e-6);
+        assertEquals(Math.PI * 10, expression.evaluate().doubleValue(), 1e-6);
+        assertThrows(IllegalArgumentException.class, () -> expression.evaluateAsDouble(new double[]{2}));
+    }
+
+    @Test
+    @DisplayName("test double evaluation of custom and fallback operations")
+    public void doubleCustomOperations() throws Exception {
+        context.registerFunction("neg", Multiplicity.UNARY, arr -> arr[0].negate());
+        context.setNumericMode(NumericMode.DOUBLE);
+        CompiledExpression fallback = RPNCalculator.compile(infixConverter.convert("neg(2)+1"));
+        assertFalse(fallback.getProgram().isDoubleCompatible());
+        assertEquals(-1d, fallback.evaluateAsDouble(), 1e-9);
+        context.registerUnaryDoubleOperation("neg", a -> -a);
+        CompiledExpression primitive = RPNCalculator.compile(infixConverter.convert("neg(2)+1"));
+        assertTrue(primitive.getProgram().isDoubleCompatible());
+        assertEquals(-1d, primitive.evaluateAsDouble(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("test double evaluation to infinity throws")
+    public void doubleDivisionByZero() throws Exception {
+        context.setNumericMode(NumericMode.DOUBLE);
+        CompiledExpression expression = RPNCalculator.compile("1 0 /");
+        assertEquals(Double.POSITIVE_INFINITY, expression.evaluateAsDouble());
+        assertThrows(ArithmeticException.class, () -> expression.evaluate());
+    }
+
+    @ParameterizedTest
+    @DisplayName("test column evaluation equals row evaluation")
+    @CsvSource(delimiter = '|', value = {"BIG_DECIMAL|(π*r)^2-h/r", "DOUBLE|(π*r)^2-h/r", "DOUBLE|sum(r,h)*2",
+                                         "BIG_DECIMAL|r", "DOUBLE|max(r,h)^2"})
+    public void columnsEqualRows(NumericMode mode, String infix) throws Exception {
+        context.addVariable("r", BigDecimal.ONE).addVariable("h", BigDecimal.TEN);
+        context.setNumericMode(mode);
+        CompiledExpression expression = RPNCalculator.compile(infixConverter.convert(infix));
+        int rows = 1000;
+        double[] r = new double[rows];
+        double[] h = new double[rows];
+        BigDecimal[][] decimals = new BigDecimal[expression.getVariables().size()][rows];
+        for (int row = 0; row < rows; row++) {
+            r[row] = row + 1;
+            h[row] = (row % 7) * 0.5;
+            for (int slot = 0; slot < decimals.length; slot++) {
+                decimals[slot][row] = BigDecimal.valueOf(expression.getVariables().get(slot).equals("r") ? r[row]
+                        : h[row]);
+            }
+        }
+        double[] results = expression.evaluateColumns(Map.of("r", r, "h", h, "x", new double[0]));
+        BigDecimal[] decimalResults = expression.evaluateColumns(decimals);
+        for (int row = 0; row < rows; row++) {
+            BigDecimal expected = expression.evaluate(Map.of("r", decimals[0][row], "h",
+                    decimals[decimals.length - 1][row]));
+            assertEquals(expected.doubleValue(), results[row], 1e-6);
+            assertEquals(expected, decimalResults[row]);
+        }
+    }
+
+    @ParameterizedTest
+    @DisplayName("test optimized evaluation is identical to unoptimized evaluation")
+    @CsvSource(delimiter = '|',
+               value = {"BIG_DECIMAL|r*1+0", "DOUBLE|r*1+0", "BIG_DECIMAL|1*r/1-0+0*h^1",
+                        "DOUBLE|1*r/1-0+0*h^1", "BIG_DECIMAL|(2*π+e)*r^1/(4−1)", "DOUBLE|(2*π+e)*r^1/(4−1)",
+                        "BIG_DECIMAL|sum(1,2,r)*max(2,3)", "DOUBLE|sin(90)*r+cos(0)*h×1",
+                        "BIG_DECIMAL|r%1+h÷1", "DOUBLE|r−0+h%1", "BIG_DECIMAL|1/3*r"})
+    public void optimizedEqualsUnoptimized(NumericMode mode, String infix) throws Exception {
+        context.addVariable("r", BigDecimal.ONE).addVariable("h", BigDecimal.TEN);
+        context.setNumericMode(mode);
+        CompiledExpression expression = RPNCalculator.compile(infixConverter.convert(infix));
+        CompiledExpression optimized = expression.optimize();
+        assertEquals(expression.getVariables(), optimized.getVariables());
+        assertTrue(optimized.getProgram().size() < expression.getProgram().size());
+        assertEquals(expression.evaluate(), optimized.evaluate());
+        assertEquals(expression.evaluateAsDouble(), optimized.evaluateAsDouble());
+        double[][] columns = new double[expression.getVariables().size()][];
+        for (int slot = 0; slot < columns.length; slot++) {
+            columns[slot] = new double[]{-2.25, 0.1, 1e-9, 7, 123456.789};
+        }
+        assertTrue(Arrays.equals(expression.getProgram().executeColumns(columns, 5),
+                optimized.getProgram().executeColumns(columns, 5)));
+        for (double value : columns[0]) {
+            Map<String, BigDecimal> values = Map.of("r", BigDecimal.valueOf(value), "h", BigDecimal.valueOf(-value));
+            assertEquals(expression.evaluate(values), optimized.evaluate(values));
+        }
+    }
+
+    @Test
+    @DisplayName("test optimization folds constants and identities")
+    public void optimizedInstructions() throws Exception {
+        context.addVariable("x", BigDecimal.valueOf(3));
+        CompiledExpression expression = RPNCalculator.compile("2 3 * x 1 * + 0 x + -");
+        CompiledExpression optimized = expression.optimize();
+        // 6 x ROUND + x ROUND -
+        assertEquals(7, optimized.getProgram().size());
+        assertEquals(2, optimized.getProgram().getMaxDepth());
+        assertEquals(new BigDecimal("6.0000000"), optimized.evaluate());
+        assertEquals(optimized.getProgram().size(), optimized.optimize().getProgram().size());
+        assertEquals(1, RPNCalculator.compile("2 3 * 4 + 5 max").optimize().getProgram().size());
+    }
+
+    @ParameterizedTest
+    @DisplayName("test optimized evaluation follows precision and rounding mode changes")
+    @ValueSource(strings = {"STACK", "GRAPH", "METHOD_HANDLES", "BYTECODE"})
+    public void optimizedFollowsMathContext(EvaluationStrategy strategy) throws Exception {
+        context.addVariable("x", BigDecimal.ZERO);
+        CompiledExpression expression = RPNCalculator.compile(infixConverter.convert("2/3+x"), strategy);
+        CompiledExpression optimized = expression.optimize();
+        assertEquals(new BigDecimal("0.6666667"), optimized.evaluate());
+        context.setPrecision(3);
+        context.setRoundingMode(RoundingMode.DOWN);
+        assertEquals(new BigDecimal("0.666"), expression.evaluate());
+        assertEquals(expression.evaluate(), optimized.evaluate());
+        assertEquals(expression.evaluate(Map.of("x", BigDecimal.ONE)), optimized.evaluate(Map.of("x", BigDecimal.ONE)));
+    }
+
+    @Test
+    @DisplayName("test optimization folds default operators and functions only")
+    public void optimizedDefaultsOnly() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        context.registerFunction("next", Multiplicity.UNARY,
+                arr -> arr[0].add(BigDecimal.valueOf(calls.incrementAndGet())));
+        CompiledExpression optimized = RPNCalculator.compile("1 next 2 3 * +").optimize();
+        // 1 next 6 +
+        assertEquals(4, optimized.getProgram().size());
+        assertEquals(new BigDecimal("8.0000000"), optimized.evaluate());
+        assertEquals(new BigDecimal("9.0000000"), optimized.evaluate());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("test optimization keeps failing operations")
+    public void optimizedFailures() throws Exception {
+        context.addVariable("x", BigDecimal.valueOf(3));
+        CompiledExpression expression = RPNCalculator.compile("1 0 / x +").optimize();
+        assertEquals(5, expression.getProgram().size());
+        assertThrows(ArithmeticException.class, () -> expression.evaluate());
+        assertEquals(new BigDecimal("3.0000000"), RPNCalculator.compile("x 1 0 * +").optimize().evaluate());
+    }
+
+    @Test
+    @DisplayName("test graph evaluation through the fluent api")
+    public void graphFluent() throws Exception {
+        context.addVariable("a", BigDecimal.valueOf(3)).addVariable("b", BigDecimal.valueOf(4));
+        String infix = "√(a*a+b*b)*2/√(a*a+b*b)+(a*a+b*b)*1";
+        CompiledExpression stack = RPNCalculator.withContext(context).convert(infix).thenCompile();
+        CompiledExpression graph = RPNCalculator.withContext(context).convert(infix)
+                .thenCompile(EvaluationStrategy.GRAPH);
+        assertEquals(EvaluationStrategy.STACK, stack.getEvaluationStrategy());
+        assertEquals(EvaluationStrategy.GRAPH, graph.getEvaluationStrategy());
+        assertTrue(graph.getProgram().getRegisters() > 0);
+        assertEquals(stack.evaluate(), graph.evaluate());
+        assertEquals(stack.evaluate(), graph.optimize().evaluate());
+        assertEquals(EvaluationStrategy.GRAPH, graph.optimize().getEvaluationStrategy());
+        Map<String, BigDecimal> values = Map.of("a", new BigDecimal("0.3"), "b", new BigDecimal("-1.7"));
+        assertEquals(stack.evaluate(values), graph.optimize().evaluate(values));
+    }
+
+    @Test
+    @DisplayName("test method handles evaluation is cached by the context")
+    public void methodHandlesCached() throws Exception {
+        context.addVariable("a", BigDecimal.valueOf(3)).addVariable("b", BigDecimal.valueOf(4));
+        String postfix = infixConverter.convert("(a+b)*max(a,b)/2");
+        CompiledExpression stack = CompiledExpression.compile(postfix, context);
+        CompiledExpression linked = CompiledExpression.compile(postfix, context, EvaluationStrategy.METHOD_HANDLES);
+        assertTrue(linked.getProgram().isLinked());
+        assertSame(linked.getProgram(),
+                CompiledExpression.compile(postfix, context, EvaluationStrategy.METHOD_HANDLES).getProgram());
+        assertEquals(stack.evaluate(), linked.evaluate());
+        assertEquals(stack.evaluate(), linked.optimize().evaluate());
+        Map<String, BigDecimal> values = Map.of("a", new BigDecimal("0.3"), "b", new BigDecimal("-1.7"));
+        assertEquals(stack.evaluate(values), linked.evaluate(values));
+        context.addVariable("a", BigDecimal.valueOf(5));
+        assertEquals(CompiledExpression.compile(postfix, context).evaluate(),
+                CompiledExpression.compile(postfix, context, EvaluationStrategy.METHOD_HANDLES).evaluate());
+        context.addVariable("c", BigDecimal.ONE);
+        assertNotSame(linked.getProgram(),
+                CompiledExpression.compile(postfix, context, EvaluationStrategy.METHOD_HANDLES).getProgram());
+        assertThrows(IllegalArgumentException.class,
+                () -> CompiledExpression.compile(null, context, EvaluationStrategy.METHOD_HANDLES));
+    }
+
+    @Test
+    @DisplayName("test bytecode evaluation through the fluent api")
+    public void bytecodeFluent() throws Exception {
+        context.addVariable("a", BigDecimal.valueOf(3)).addVariable("b", BigDecimal.valueOf(4));
+        String infix = "√(a*a+b*b)*2/√(a*a+b*b)+(a*a+b*b)*1-max(a,b)";
+        CompiledExpression stack = RPNCalculator.withContext(context).convert(infix).thenCompile();
+        CompiledExpression bytecode = RPNCalculator.withContext(context).convert(infix)
+                .thenCompile(EvaluationStrategy.BYTECODE);
+        assertEquals(EvaluationStrategy.BYTECODE, bytecode.getEvaluationStrategy());
+        assertTrue(bytecode.getProgram().isGenerated());
+        assertTrue(bytecode.optimize().getProgram().isGenerated());
+        assertEquals(stack.evaluate(), bytecode.evaluate());
+        assertEquals(stack.evaluate(), bytecode.optimize().evaluate());
+        Map<String, BigDecimal> values = Map.of("a", new BigDecimal("0.3"), "b", new BigDecimal("-1.7"));
+        assertEquals(stack.evaluate(values), bytecode.optimize().evaluate(values));
+        double[] doubles = {0.3, -1.7};
+        assertEquals(stack.evaluateAsDouble(doubles), bytecode.evaluateAsDouble(doubles));
+    }
+
+    @Test
+    @DisplayName("test column evaluation with illegal columns throws")
+    public void illegalColumns() throws Exception {
+        context.addVariable("r", BigDecimal.ONE).addVariable("h", BigDecimal.TEN);
+        CompiledExpression expression = RPNCalculator.compile(infixConverter.convert("r*h"));
+        assertThrows(IllegalArgumentException.class, () -> expression.evaluateColumns(Map.of("r", new double[1])));
+        assertThrows(IllegalArgumentException.class,
+                () -> expression.evaluateColumns(new double[][]{new double[1], new double[2]}));
+        assertThrows(IllegalArgumentException.class, () -> RPNCalculator.compile("1 2 +")
+                .evaluateColumns(new double[0][]));
+    }
+
+    @Test
+    @DisplayName("test parallel evaluation keeps the order of the bindings")
+    public void parallelEvaluation() throws Exception {
+        context.addVariable("r", BigDecimal.ONE).addVariable("h", BigDecimal.TEN);
+        String postfix = infixConverter.convert("π*r^2*h");
+        List<Map<String, BigDecimal>> bindings = new ArrayList<>();
+        for (int row = 0; row < 10_000; row++) {
+            bindings.add(Map.of("r", BigDecimal.valueOf(row % 100), "h", BigDecimal.valueOf(row)));
+        }
+        CompiledExpression expression = RPNCalculator.compile(postfix);
+        List<BigDecimal> expected = bindings.stream().map(expression::evaluate).collect(Collectors.toList());
+        assertEquals(expected, RPNCalculator.calculateAll(postfix, bindings));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertEquals(expected, RPNCalculator.calculateAll(postfix, bindings, executor));
+            List<Map<String, BigDecimal>> illegal = new ArrayList<>(bindings);
+            illegal.set(5_000, Collections.singletonMap("r", null));
+            assertThrows(NullPointerException.class, () -> expression.evaluateAll(illegal, executor));
+            assertThrows(NullPointerException.class, () -> expression.evaluateAll(illegal));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("test calculation with child contexts of a shared frozen context")
+    public void childContexts() throws Exception {
+        CalculationContext shared = CalculationContext.builder().addVariable("r", BigDecimal.ONE).build();
+        List<BigDecimal> results = IntStream.range(0, 100).parallel()
+                .mapToObj(idx -> shared.withVariables(Map.of("r", BigDecimal.valueOf(idx))))
+                .map(child -> RPNCalculator.withContext(child).convert("r*2+1").thenCalculate())
+                .collect(Collectors.toList());
+        for (int idx = 0; idx < results.size(); idx++) {
+            assertEquals(0, BigDecimal.valueOf(idx * 2 + 1).compareTo(results.get(idx)));
+        }
+    }
+
+    @Test
+    @DisplayName("test child contexts share the linked program of an expression")
+    public void childContextsShareLinkedProgram() throws Exception {
+        HistogramMetrics metrics = HistogramMetrics.newInstance();
+        CalculationContext shared = CalculationContext.newInstance().setMetrics(metrics)
+                .addVariable("r", BigDecimal.ONE).freeze();
+        for (int idx = 0; idx < 100; idx++) {
+            CalculationContext child = shared.withVariables(Map.of("r", BigDecimal.valueOf(idx)));
+            CompiledExpression linked = CompiledExpression.compile("r 2 * 1 +", child,
+                    EvaluationStrategy.METHOD_HANDLES);
+            assertTrue(linked.getProgram().isLinked());
+            assertSame(child, linked.getProgram().getContext());
+            assertEquals(0, BigDecimal.valueOf(idx * 2 + 1).compareTo(linked.evaluate()));
+        }
+        assertEquals(0.99d, metrics.getCacheHitRatio("compiled"), 1e-9);
+        CompiledExpression linked = CompiledExpression.compile("r 2 * 1 +", shared, EvaluationStrategy.METHOD_HANDLES);
+        assertThrows(IllegalArgumentException.class,
+                () -> linked.getProgram().rebind(CalculationContext.newInstance()));
+    }
+
+    @ParameterizedTest
+    @DisplayName("test malformed postfix fails to compile")
+    @ValueSource(strings = {"", " ", "1 +", "+", "1 2 ?", "sin"})
+    public void malformedPostfix(String postfix) throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> RPNCalculator.compile(postfix));
+    }
+
+}
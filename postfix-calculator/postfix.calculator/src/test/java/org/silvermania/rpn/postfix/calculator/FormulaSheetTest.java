@@ -0,0 +1,177 @@
+/*
+ * File: FormulaSheetTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.calculator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.silvermania.rpn.support.CalculationContext;
+import org.silvermania.rpn.support.NumericMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class FormulaSheetTest is a unit test to assert that a
+ * {@link FormulaSheet} evaluates formulas referring to each other in
+ * topological order, and reports cycles.
+ *
+ * @author T.N.Silverman
+ */
+class FormulaSheetTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(FormulaSheetTest.class);
+    private CalculationContext context;
+    private FormulaSheet sheet;
+
+    @BeforeEach
+    public void beforeEach(TestInfo info) throws Exception {
+        logger.debug("entering {} {}", info.getTestMethod().orElseThrow().getName(), info.getDisplayName());
+        context = CalculationContext.newInstance().declareVariable("price").declareVariable("cost")
+                .addVariable("qty", BigDecimal.valueOf(3));
+        sheet = FormulaSheet.newInstance(context).define("total", "margin*qty").define("margin", "price-cost")
+                .define("ratio", "margin/price*100").define("half", "total/2");
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test formulas are evaluated in topological order")
+    public void testTopologicalOrder() {
+        assertEquals(List.of(List.of("margin"), List.of("total", "ratio"), List.of("half")), sheet.getLayers());
+        assertEquals(Set.of("margin"), sheet.getDependencies("total"));
+        assertEquals(Set.of(), sheet.getDependencies("margin"));
+        Map<String, BigDecimal> results = sheet.evaluate(Map.of("price", BigDecimal.TEN, "cost",
+                BigDecimal.valueOf(4), "other", BigDecimal.ONE));
+        assertEquals(List.of("margin", "total", "ratio", "half"), List.copyOf(results.keySet()));
+        assertEquals(new BigDecimal("6.0000000"), results.get("margin"));
+        assertEquals(new BigDecimal("18.0000000"), results.get("total"));
+        assertEquals(new BigDecimal("60.0000000"), results.get("ratio"));
+        assertEquals(new BigDecimal("9.0000000"), results.get("half"));
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test inputs missing from an evaluation keep their value in the context")
+    public void testContextInputs() {
+        context.addVariable("price", BigDecimal.valueOf(5)).addVariable("cost", BigDecimal.ONE);
+        assertEquals(new BigDecimal("12.0000000"), sheet.evaluate().get("total"));
+        assertEquals(new BigDecimal("24.0000000"), sheet.evaluate(Map.of("qty", BigDecimal.valueOf(6))).get("total"));
+        assertThrows(IllegalArgumentException.class, () -> sheet.evaluate(Map.of("margin", BigDecimal.ONE)));
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test new values of inputs in the context are evaluated without rebuilding the plan")
+    public void testContextInputValues() {
+        context.addVariable("price", BigDecimal.valueOf(5)).addVariable("cost", BigDecimal.ONE);
+        assertEquals(new BigDecimal("12.0000000"), sheet.evaluate().get("total"));
+        long version = context.getSymbolsVersion();
+        context.addVariable("qty", BigDecimal.valueOf(2));
+        assertEquals(version, context.getSymbolsVersion());
+        assertEquals(new BigDecimal("8.0000000"), sheet.evaluate().get("total"));
+        assertEquals(new BigDecimal("4.0000000"), sheet.evaluate(Map.of("qty", BigDecimal.ONE)).get("total"));
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test math context and numeric mode changes rebuild the plan")
+    public void testMathContextChanges() {
+        context.setPrecision(2);
+        FormulaSheet third = FormulaSheet.newInstance(context).define("third", "price/3");
+        Map<String, BigDecimal> inputs = Map.of("price", BigDecimal.ONE);
+        assertEquals(new BigDecimal("0.33"), third.evaluate(inputs).get("third"));
+        context.setRoundingMode(RoundingMode.UP);
+        assertEquals(new BigDecimal("0.34"), third.evaluate(inputs).get("third"));
+        assertEquals(CompiledExpression.compile("price 3 /", context).evaluate(inputs),
+                third.evaluate(inputs).get("third"));
+        context.setNumericMode(NumericMode.DOUBLE);
+        inputs = Map.of("price", new BigDecimal("0.1"));
+        assertEquals(CompiledExpression.compile("price 3 /", context).evaluate(inputs),
+                third.evaluate(inputs).get("third"));
+    }
+
+    @ParameterizedTest
+    //@Disabled
+    @DisplayName("test cycles are reported")
+    @CsvSource(delimiter = '|',
+               value = {"cost|half+1|total -> margin -> cost -> half -> total", "x|x+1|x -> x"})
+    public void testCycles(String name, String infix, String cycle) {
+        sheet.define(name, infix);
+        IllegalStateException ex = assertThrows(IllegalStateException.class, sheet::evaluate);
+        assertTrue(ex.getMessage().endsWith(cycle), ex.getMessage());
+        sheet.remove(name);
+        assertEquals(4, sheet.evaluate(Map.of("price", BigDecimal.ONE)).size());
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test illegal formulas are rejected")
+    public void testIllegalFormulas() {
+        assertThrows(IllegalArgumentException.class, () -> sheet.define("sin", "1"));
+        assertThrows(IllegalArgumentException.class, () -> sheet.define("π", "1"));
+        assertThrows(IllegalArgumentException.class, () -> sheet.define(" ", "1"));
+        assertThrows(IllegalArgumentException.class, () -> sheet.define("x", ""));
+        sheet.define("bad", "2+*3");
+        assertThrows(IllegalArgumentException.class, sheet::getLayers);
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test wide layers are evaluated in parallel")
+    public void testParallelLayers() {
+        FormulaSheet wide = FormulaSheet.newInstance(context);
+        StringBuilder total = new StringBuilder("w0");
+        for (int idx = 0; idx < 500; idx++) {
+            wide.define("w" + idx, "price*" + idx + "+cost");
+            if (idx > 0) {
+                total.append("+w").append(idx);
+            }
+        }
+        wide.define("total", total).define("next", "total+1");
+        assertEquals(3, wide.getLayers().size());
+        assertEquals(500, wide.getLayers().get(0).size());
+        Map<String, BigDecimal> inputs = Map.of("price", BigDecimal.ONE, "cost", BigDecimal.ONE);
+        Map<String, BigDecimal> results = wide.evaluate(inputs);
+        assertEquals(0, BigDecimal.valueOf(125250).compareTo(results.get("total")));
+        assertEquals(0, BigDecimal.valueOf(125251).compareTo(results.get("next")));
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            assertEquals(results, wide.evaluate(inputs, executor));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
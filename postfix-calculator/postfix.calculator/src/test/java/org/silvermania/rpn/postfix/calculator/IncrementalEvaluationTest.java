@@ -0,0 +1,143 @@
+/*
+ * File: IncrementalEvaluationTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.calculator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.silvermania.rpn.support.CalculationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class IncrementalEvaluationTest is a unit test to assert that an
+ * {@link IncrementalEvaluation} returns the results of a
+ * {@link CompiledExpression} while recomputing only the sub-expressions
+ * depending on the changed variables.
+ *
+ * @author T.N.Silverman
+ */
+class IncrementalEvaluationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalEvaluationTest.class);
+    private CalculationContext context;
+
+    @BeforeEach
+    public void beforeEach(TestInfo info) throws Exception {
+        logger.debug("entering {} {}", info.getTestMethod().orElseThrow().getName(), info.getDisplayName());
+        context = CalculationContext.newInstance();
+        context.addVariable("a", BigDecimal.valueOf(3)).addVariable("b", BigDecimal.valueOf(4))
+                .addVariable("c", BigDecimal.valueOf(5));
+    }
+
+    private CompiledExpression compile(String infix, EvaluationStrategy strategy) {
+        return RPNCalculator.withContext(context).convert(infix).thenCompile(strategy);
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test only the sub-expressions of changed variables are recomputed")
+    public void testRecomputesChangedSubExpressions() {
+        IncrementalEvaluation evaluation = compile("(a*a+b*b)*c", EvaluationStrategy.STACK).newIncrementalEvaluation();
+        // a, a*a, b, b*b, +, c and the root
+        assertEquals(7, evaluation.size());
+        assertEquals(7, evaluation.getStaleCount());
+        assertEquals(0, BigDecimal.valueOf(125).compareTo(evaluation.evaluate()));
+        assertEquals(7, evaluation.getRecomputedCount());
+        // nothing changed
+        evaluation.evaluate();
+        assertEquals(0, evaluation.getRecomputedCount());
+        // c and the root
+        assertEquals(0, BigDecimal.valueOf(50).compareTo(evaluation.bind("c", BigDecimal.valueOf(2)).evaluate()));
+        assertEquals(2, evaluation.getRecomputedCount());
+        // a, a*a, + and the root
+        assertEquals(0, BigDecimal.valueOf(82).compareTo(evaluation.bind("a", BigDecimal.valueOf(5)).evaluate()));
+        assertEquals(4, evaluation.getRecomputedCount());
+        // an equal value changes nothing
+        evaluation.bind(Map.of("a", BigDecimal.valueOf(5), "z", BigDecimal.ONE));
+        assertEquals(0, evaluation.getStaleCount());
+        assertEquals(BigDecimal.valueOf(5), evaluation.get("a"));
+    }
+
+    @ParameterizedTest
+    //@Disabled
+    @DisplayName("test incremental results are those of the compiled expression")
+    @CsvSource(delimiter = '|',
+               value = {"STACK|√(a*a+b*b)*2/√(a*a+b*b)", "GRAPH|√(a*a+b*b)*2/√(a*a+b*b)",
+                        "STACK|(a+b)*(a+b)-(a+b)^2^c", "METHOD_HANDLES|a^b^2-c/a",
+                        "GRAPH|sum(a,b,a*b)+max(a,c)", "BYTECODE|sin(a)*sin(a)+cos(a)*cos(a)-b",
+                        "STACK|a/b+1/3*(a/b+1/3)-c"})
+    public void testIncrementalEqualsCompiled(EvaluationStrategy strategy, String infix) {
+        CompiledExpression expression = compile(infix, strategy);
+        IncrementalEvaluation evaluation = expression.newIncrementalEvaluation();
+        assertEquals(expression.evaluate(), evaluation.evaluate());
+        Map<String, BigDecimal> values = new HashMap<>();
+        String[][] changes = {{"a", "-2.25"}, {"b", "0.1"}, {"c", "2"}, {"a", "7"}, {"b", "7"}};
+        for (String[] change : changes) {
+            values.put(change[0], new BigDecimal(change[1]));
+            evaluation.bind(values);
+            assertEquals(expression.evaluate(values), evaluation.evaluate());
+            assertTrue(evaluation.getRecomputedCount() < evaluation.size() || !evaluation.dependsOn(change[0]));
+        }
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test refresh rebinds the values of the context")
+    public void testRefresh() {
+        IncrementalEvaluation evaluation = compile("a*b+1", EvaluationStrategy.STACK).newIncrementalEvaluation();
+        assertEquals(0, BigDecimal.valueOf(13).compareTo(evaluation.evaluate()));
+        assertTrue(evaluation.dependsOn("a"));
+        assertFalse(evaluation.dependsOn("c"));
+        context.addVariable("b", BigDecimal.TEN);
+        assertEquals(3, evaluation.refresh().getStaleCount());
+        assertEquals(0, BigDecimal.valueOf(31).compareTo(evaluation.evaluate()));
+        context.addVariable("c", BigDecimal.ONE);
+        evaluation.refresh().evaluate();
+        assertEquals(0, evaluation.getRecomputedCount());
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test a failed evaluation is recomputed")
+    public void testFailedEvaluation() {
+        IncrementalEvaluation evaluation = compile("c/(a-b)", EvaluationStrategy.STACK).newIncrementalEvaluation();
+        evaluation.bind("a", BigDecimal.valueOf(4));
+        assertThrows(ArithmeticException.class, evaluation::evaluate);
+        assertTrue(evaluation.getStaleCount() > 0);
+        assertEquals(0, BigDecimal.valueOf(5).compareTo(evaluation.bind("a", BigDecimal.valueOf(5)).evaluate()));
+        assertThrows(IllegalArgumentException.class, () -> evaluation.bind("z", BigDecimal.ONE));
+        assertThrows(NullPointerException.class, () -> evaluation.bind("a", null));
+    }
+}
@@ -92,7 +92,7 @@ class PostfixCalculationFluentApiIntegrationTest {
                         "4−2@2.0000000",
                         "4−2−2@0.0000000",
                         "10!@3628800.0000000",
-                        "e*2@5.4365600",
+                        "e*2@5.4365637",
                         "π+π@6.2831853",
                         "π*2@6.2831853",
                         "π*π@9.8696044"})
@@ -107,7 +107,7 @@ class PostfixCalculationFluentApiIntegrationTest {
     @CsvSource(delimiter = '@',
                value = {"sin(90)@1.0000000000000000",
                         "cos(360)@1.0000000000000000",
-                        "tan(45)@0.9999999999999999",
+                        "tan(45)@1.0000000000000000",
                         "√9@3.0000000000000000",
                         "min(1,2)@1.0000000000000000",
                         "max(1,2)@2.0000000000000000",
@@ -125,10 +125,10 @@ class PostfixCalculationFluentApiIntegrationTest {
                         "4−2@2.0000000000000000",
                         "4−2−2@0.0000000000000000",
                         "10!@3628800.0000000000000000",
-                        "e*2@5.4365600000000001",
-                        "π+π@6.2831853071795862",
-                        "π*2@6.2831853071795862",
-                        "π*π@9.8696044010893578"})
+                        "e*2@5.4365636569180905",
+                        "π+π@6.2831853071795865",
+                        "π*2@6.2831853071795865",
+                        "π*π@9.8696044010893586"})
     void testInfixCalculationWithContext(String infix, BigDecimal expected) throws Exception {
         BigDecimal actual =
             RPNCalculator.withContext(CalculationContext.DECIMAL64_CONTEXT).convert(infix).thenCalculate();
@@ -24,15 +24,22 @@ package org.silvermania.rpn.postfix.calculator;
 import static java.math.BigDecimal.ONE;
 import static java.math.BigDecimal.valueOf;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.silvermania.rpn.support.Associativity.LEFT;
 import static org.silvermania.rpn.support.Multiplicity.UNARY;
 import static org.silvermania.rpn.support.Precedence.HIGH;
 
+import java.io.ByteArrayInputStream;
+import java.io.Reader;
+import java.io.StringReader;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -87,7 +94,7 @@ public class PostfixCalculatorIntegrationTest {
                         "1−2|-1.0000000", // − supported for subtract
                         "π*2|6.2831853", // pi constant mult
                         "PI*2|6.2831853", // pi constant mult
-                        "e*2|5.4365600", // Euler's number 2.71828D mult
+                        "e*2|5.4365637", // Euler's number mult
                         "sin(90)|1.0000000", // sin function
                         "cos(90)|0.0000000", // cosin function
                         "tan(45)|1.0000000", // tangent function
@@ -126,7 +133,7 @@ public class PostfixCalculatorIntegrationTest {
                         "1−2|-1.0000000", // − supported for subtract
                         "π*2|6.2831853", // pi constant mult
                         "PI*2|6.2831853", // pi constant mult
-                        "e*2|5.4365600", // Euler's number 2.71828D mult
+                        "e*2|5.4365637", // Euler's number mult
                         "sin(90)|1.0000000", // sin function
                         "cos(90)|0.0000000", // cosin function
                         "tan(45)|1.0000000", // tangent function
@@ -165,7 +172,7 @@ public class PostfixCalculatorIntegrationTest {
                         "1 2 −|-1.0000000", // − supported for subtract
                         "π 2 *|6.2831853", // pi constant mult
                         "PI 2 *|6.2831853", // pi constant mult
-                        "e 2 *|5.4365600", // Euler's number 2.71828D mult
+                        "e 2 *|5.4365637", // Euler's number mult
                         "90 sin|1.0000000", // sin function
                         "90 cos|0.0000000", // cosin function
                         "45 tan|1.0000000", // tangent function
@@ -205,7 +212,7 @@ public class PostfixCalculatorIntegrationTest {
                         "1 2 −|-1.0000000", // − supported for subtract
                         "π 2 *|6.2831853", // pi constant mult
                         "PI 2 *|6.2831853", // pi constant mult
-                        "e 2 *|5.4365600", // Euler's number 2.71828D mult
+                        "e 2 *|5.4365637", // Euler's number mult
                         "90 sin|1.0000000", // sin function
                         "90 cos|0.0000000", // cosin function
                         "45 tan|1.0000000", // tangent function
@@ -263,12 +270,12 @@ public class PostfixCalculatorIntegrationTest {
                         "1+2|3.0000000000000000", // add
                         "1-2|-1.0000000000000000", // subtract
                         "1−2|-1.0000000000000000", // − supported for subtract
-                        "π*2|6.2831853071795862", // pi constant mult
-                        "PI*2|6.2831853071795862", // pi constant mult
-                        "e*2|5.4365600000000001", // Euler's number 2.71828D mult
+                        "π*2|6.2831853071795865", // pi constant mult
+                        "PI*2|6.2831853071795865", // pi constant mult
+                        "e*2|5.4365636569180905", // Euler's number mult
                         "sin(90)|1.0000000000000000", // sin function
-                        "cos(90)|1E-16", // cosin function
-                        "tan(45)|0.9999999999999999", // tangent function
+                        "cos(90)|0.0000000000000000", // cosin function
+                        "tan(45)|1.0000000000000000", // tangent function
                         "√400|20.0000000000000000", // square root function
                         "min(1,4)|1.0000000000000000", // minimum of function
                         "max(1,4)|4.0000000000000000", // maximum of function
@@ -307,7 +314,7 @@ public class PostfixCalculatorIntegrationTest {
                         "1−2|-1.00", // − supported for subtract
                         "π*2|6.28", // pi constant mult
                         "PI*2|6.28", // pi constant mult
-                        "e*2|5.44", // Euler's number 2.71828D mult
+                        "e*2|5.44", // Euler's number mult
                         "sin(90)|1.00", // sin function
                         "cos(90)|0.00", // cosin function
                         "tan(45)|1.00", // tangent function
@@ -349,12 +356,12 @@ public class PostfixCalculatorIntegrationTest {
                         "1 2 +|3.0000000000000000", // add
                         "1 2 -|-1.0000000000000000", // subtract
                         "1 2 −|-1.0000000000000000", // − supported for subtract
-                        "π 2 *|6.2831853071795862", // pi constant mult
-                        "PI 2 *|6.2831853071795862", // pi constant mult
-                        "e 2 *|5.4365600000000001", // Euler's number 2.71828D mult
+                        "π 2 *|6.2831853071795865", // pi constant mult
+                        "PI 2 *|6.2831853071795865", // pi constant mult
+                        "e 2 *|5.4365636569180905", // Euler's number mult
                         "90 sin|1.0000000000000000", // sin function
-                        "90 cos|1E-16", // cosin function
-                        "45 tan|0.9999999999999999", // tangent function
+                        "90 cos|0.0000000000000000", // cosin function
+                        "45 tan|1.0000000000000000", // tangent function
                         "400 √|20.0000000000000000", // square root function
                         "1 4 min|1.0000000000000000", // minimum of function
                         "1 4 max|4.0000000000000000", // maximum of function
@@ -392,7 +399,7 @@ public class PostfixCalculatorIntegrationTest {
                         "1 2 −|-1.00", // − supported for subtract
                         "π 2 *|6.28", // pi constant mult
                         "PI 2 *|6.28", // pi constant mult
-                        "e 2 *|5.44", // Euler's number 2.71828D mult
+                        "e 2 *|5.44", // Euler's number mult
                         "90 sin|1.00", // sin function
                         "90 cos|0.00", // cosin function
                         "45 tan|1.00", // tangent function
@@ -472,4 +479,59 @@ public class PostfixCalculatorIntegrationTest {
         assertEquals(expected, actual);
     }
 
+    /**
+     * Streamed postfix calculation equals the calculation of the same postfix.
+     *
+     * @param postfix the postfix
+     * @throws Exception the exception
+     */
+    @ParameterizedTest
+    @DisplayName("test streamed postfix calculation")
+    @CsvSource(delimiter = '|',
+               value = {"2 2 ^", "1 2 3 * +", "2 3 max 3 ÷ π × sin", "4 ! √ 16 −", "1 2 3 sum#3 2 /"})
+    public void streamedPostfixCalculation(String postfix) throws Exception {
+        BigDecimal expected = RPNCalculator.withDefaults().accept(postfix).thenCalculate();
+        String separated = postfix.replace(" ", "\n\t ");
+        assertEquals(expected, RPNCalculator.withDefaults().calculate(new StringReader(separated)));
+        assertEquals(expected, RPNCalculator.withDefaults()
+                .calculate(Channels.newChannel(new ByteArrayInputStream(postfix.getBytes(StandardCharsets.UTF_8)))));
+    }
+
+    /**
+     * Streamed calculation of a postfix far longer than it's stack.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    @DisplayName("test streamed calculation of a long postfix")
+    public void streamedLongPostfixCalculation() throws Exception {
+        int terms = 1_000_000;
+        // generates "1 1 + 1 + ... 1 +" as it's read
+        Reader reader = new Reader() {
+            private long remaining = 4L * terms - 2;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int count = (int) Math.min(length, remaining);
+                for (int idx = 0; idx < count; idx++) {
+                    long position = 4L * terms - 2 - remaining--;
+                    buffer[offset + idx] = position < 2 ? "1 ".charAt((int) position) : "1 + ".charAt(
+                            (int) ((position - 2) % 4));
+                }
+                return count;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        assertEquals(new BigDecimal(terms).setScale(7), RPNCalculator.withDefaults().calculate(reader));
+        assertThrows(IllegalArgumentException.class,
+                () -> RPNCalculator.withDefaults().calculate(new StringReader(" \n ")));
+        assertThrows(IllegalArgumentException.class,
+                () -> RPNCalculator.withDefaults().calculate(new StringReader("1 +")));
+    }
 }
@@ -22,13 +22,19 @@
 package org.silvermania.rpn.postfix.calculator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.silvermania.rpn.infix.converter.InfixConverter;
+import org.silvermania.rpn.support.Multiplicity;
 
 /**
  * The Class PostfixFunctionCalculationIntegrationTest is a unit test to assert the
@@ -102,10 +108,12 @@ class PostfixFunctionCalculationIntegrationTest extends BaseCalculatorTestCase {
     // @Disabled
     @DisplayName("test function min")
     @CsvSource(delimiter = '@',
-               value = {"min ( 1 , 2 )@1 2 min@1.0",
-                        "min (1,2)@1 2 min@1.0",
-                        "min(1.12, 3.14)@1.12 3.14 min@1.12",
-                        "min(π,6.28)@π 6.28 min@3.1415927"})
+               value = {"min ( 1 , 2 )@1 2 min#2@1.0",
+                        "min (1,2)@1 2 min#2@1.0",
+                        "min(1.12, 3.14)@1.12 3.14 min#2@1.12",
+                        "min(π,6.28)@π 6.28 min#2@3.1415927",
+                        "min(5,2,7)@5 2 7 min#3@2.0",
+                        "min(5,2,7,1.5)@5 2 7 1.5 min#4@1.5"})
     void testFunctionMin(String infix, String postfix, BigDecimal expected) {
         String expression = infixConverter.convert(infix); // "3 4 2 × 1
                                                            // 5 − 2 3 ^
@@ -119,10 +127,12 @@ class PostfixFunctionCalculationIntegrationTest extends BaseCalculatorTestCase {
     // @Disabled
     @DisplayName("test function max")
     @CsvSource(delimiter = '@',
-               value = {"max ( 2 , 1 )@2 1 max@2.0",
-                        "max (2,1)@2 1 max@2.0",
-                        "max(3.14, 1.12)@3.14 1.12 max@3.14",
-                        "max (6.28, π)@6.28 π max@6.28"})
+               value = {"max ( 2 , 1 )@2 1 max#2@2.0",
+                        "max (2,1)@2 1 max#2@2.0",
+                        "max(3.14, 1.12)@3.14 1.12 max#2@3.14",
+                        "max (6.28, π)@6.28 π max#2@6.28",
+                        "max(1,9,3)@1 9 3 max#3@9.0",
+                        "max(1,9,3,4)@1 9 3 4 max#4@9.0"})
     void testFunctionMax(String infix, String postfix, BigDecimal expected) {
         String expression = infixConverter.convert(infix); // "3 4 2 × 1
                                                            // 5 − 2 3 ^
@@ -136,12 +146,14 @@ class PostfixFunctionCalculationIntegrationTest extends BaseCalculatorTestCase {
     // @Disabled
     @DisplayName("test function avg")
     @CsvSource(delimiter = '@',
-               value = {"avg ( 2 , 1 )@2 1 avg@1.5",
-                        "avg (2,1)@2 1 avg@1.5",
-                        "avg (1.6666,1.7565)@1.6666 1.7565 avg@1.71155",
-                        "avg (3.14,1.12)@3.14 1.12 avg@2.13",
-                        "avg (6.28,π)@6.28 π avg@4.7107963",
-                        "avg (π/3,π/2)@π 3 / π 2 / avg@1.308997"})
+               value = {"avg ( 2 , 1 )@2 1 avg#2@1.5",
+                        "avg (2,1)@2 1 avg#2@1.5",
+                        "avg (1.6666,1.7565)@1.6666 1.7565 avg#2@1.71155",
+                        "avg (3.14,1.12)@3.14 1.12 avg#2@2.13",
+                        "avg (6.28,π)@6.28 π avg#2@4.7107963",
+                        "avg (π/3,π/2)@π 3 / π 2 / avg#2@1.308997",
+                        "avg(1,2,3)@1 2 3 avg#3@2.0",
+                        "avg(1,2,3,4)@1 2 3 4 avg#4@2.5"})
     void testFunctionAvg(String infix, String postfix, BigDecimal expected) {
         String expression = infixConverter.convert(infix); // "3 4 2 × 1
                                                            // 5 − 2 3 ^
@@ -155,14 +167,14 @@ class PostfixFunctionCalculationIntegrationTest extends BaseCalculatorTestCase {
     // @Disabled
     @DisplayName("test nested functions")
     @CsvSource(delimiter = '@',
-               value = {"min(min(10,11),9)@10 11 min 9 min@9.0",
-                        "min(min(10,11),min(9,10))@10 11 min 9 10 min min@9.0",
-                        "min(√4,max(4,8))@4 √ 4 8 max min@2.0",
-                        "min(√16,max(4,8))@16 √ 4 8 max min@4.0",
-                        "1 + [min(√16,max(4,8))]@1 16 √ 4 8 max min +@5.0",
-                        "1 + [min(√16,max(π,8))]@1 16 √ π 8 max min +@5.0",
-                        "max(1 + [min(√16,max(π,8))],(2 * π))@1 16 √ π 8 max min + 2 π * max@6.2831853",
-                        "π * {1 + [max(min([max(√4,√16)],[avg(2,4)]),avg(2,√16))]}@π 1 4 √ 16 √ max 2 4 avg min 2 16 √ avg max + *@12.5663706"})
+               value = {"min(min(10,11),9)@10 11 min#2 9 min#2@9.0",
+                        "min(min(10,11),min(9,10))@10 11 min#2 9 10 min#2 min#2@9.0",
+                        "min(√4,max(4,8))@4 √ 4 8 max#2 min#2@2.0",
+                        "min(√16,max(4,8))@16 √ 4 8 max#2 min#2@4.0",
+                        "1 + [min(√16,max(4,8))]@1 16 √ 4 8 max#2 min#2 +@5.0",
+                        "1 + [min(√16,max(π,8))]@1 16 √ π 8 max#2 min#2 +@5.0",
+                        "max(1 + [min(√16,max(π,8))],(2 * π))@1 16 √ π 8 max#2 min#2 + 2 π * max#2@6.2831853",
+                        "π * {1 + [max(min([max(√4,√16)],[avg(2,4)]),avg(2,√16))]}@π 1 4 √ 16 √ max#2 2 4 avg#2 min#2 2 16 √ avg#2 max#2 + *@12.5663706"})
     void testNestedFunctions(String infix, String postfix,
             BigDecimal expected) {
         String expression = infixConverter.convert(infix); // "3 4 2 × 1
@@ -171,4 +183,40 @@ class PostfixFunctionCalculationIntegrationTest extends BaseCalculatorTestCase {
         assertEquals(expected.doubleValue(), actual.doubleValue());
     }
 
+    @ParameterizedTest
+    // @Disabled
+    @DisplayName("test multi arg function sum")
+    @CsvSource(delimiter = '@',
+               value = {"sum(1,2,3)@1 2 3 sum#3@6.0",
+                        "sum(4)@4 sum#1@4.0",
+                        "sum(1,2,3)*2@1 2 3 sum#3 2 *@12.0",
+                        "sum(sum(1,2),max(3,4),5)@1 2 sum#2 3 4 max#2 5 sum#3@12.0"})
+    void testFunctionSum(String infix, String postfix, BigDecimal expected) {
+        String expression = infixConverter.convert(infix);
+        assertEquals(postfix, expression);
+        assertEquals(expected.doubleValue(), RPNCalculator.calculate(postfix).doubleValue());
+        assertEquals(expected.doubleValue(), RPNCalculator.compile(postfix).evaluate().doubleValue());
+    }
+
+    @Test
+    // @Disabled
+    @DisplayName("test multi arg custom function of many arguments")
+    void testManyArgumentsFunction() {
+        context.registerFunction("mean", Multiplicity.MULTI,
+                arr -> Arrays.stream(arr).reduce(BigDecimal.ZERO, BigDecimal::add)
+                        .divide(BigDecimal.valueOf(arr.length), context.getPrecision(), context.getRoundingMode()));
+        context.addVariable("x", BigDecimal.ONE);
+        String infix = "mean(" + IntStream.rangeClosed(1, 59).mapToObj(String::valueOf)
+                .collect(Collectors.joining(",")) + ",x)";
+        String postfix = infixConverter.convert(infix);
+        assertTrue(postfix.endsWith("x mean#60"));
+        BigDecimal expected = new BigDecimal("29.5166667");
+        assertEquals(expected, RPNCalculator.calculate(postfix));
+        CompiledExpression expression = RPNCalculator.compile(postfix);
+        assertEquals(expected, expression.evaluate());
+        BigDecimal[] results = expression.evaluateColumns(new BigDecimal[][]{{BigDecimal.ONE, BigDecimal.valueOf(61)}});
+        assertEquals(expected, results[0]);
+        assertEquals(new BigDecimal("30.5166667"), results[1]);
+    }
+
 }
@@ -143,7 +143,7 @@ class PostfixOperatorCalculationIntegrationTest extends BaseCalculatorTestCase {
     @ParameterizedTest
     // @Disabled
     @DisplayName("test operator constants")
-    @CsvSource({"e * 2,e 2 *,5.436560",
+    @CsvSource({"e * 2,e 2 *,5.4365637",
                 "π + π,π π +,6.2831853",
                 "π * 2,π 2 *,6.2831853",
                 "π * π,π π *,9.8696044"})
@@ -0,0 +1,130 @@
+/*
+ * File: ExpressionGraphTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.silvermania.rpn.infix.converter.InfixConverter;
+import org.silvermania.rpn.support.CalculationContext;
+import org.silvermania.rpn.support.NumericMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class ExpressionGraphTest is a unit test to assert the common
+ * sub-expressions of a {@link PostfixProgram} are found by it's
+ * {@link ExpressionGraph} and evaluated once by the shared program.
+ *
+ * @author T.N.Silverman
+ */
+class ExpressionGraphTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpressionGraphTest.class);
+    private CalculationContext context;
+    private InfixConverter converter;
+
+    @BeforeEach
+    public void beforeEach(TestInfo info) throws Exception {
+        logger.debug("entering {} {}", info.getTestMethod().orElseThrow().getName(), info.getDisplayName());
+        context = CalculationContext.newInstance();
+        context.addVariable("a", BigDecimal.valueOf(3)).addVariable("b", BigDecimal.valueOf(4));
+        converter = InfixConverter.newInstance(context);
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test a repeated sub-expression is a single shared node")
+    public void testSharedSubExpression() {
+        PostfixProgram program = PostfixProgram.compile(
+                converter.convert("√(a*a+b*b)+√(a*a+b*b)*√(a*a+b*b)-√(a*a+b*b)"), context);
+        ExpressionGraph graph = program.toGraph();
+        // a, a*a, b, b*b, +, √, √*√, √+√*√ and the root
+        assertEquals(9, graph.size());
+        assertEquals(1, graph.getSharedCount());
+        assertEquals(4, graph.getNodes().get(5).getReferences());
+        assertEquals(graph.getNodes().get(8), graph.getRoot());
+        assertTrue(graph.getNodes().get(0).isLeaf());
+        PostfixProgram shared = program.share();
+        // a a * b b * + √ STORE RECALL RECALL * + RECALL -
+        assertEquals(15, shared.size());
+        assertEquals(1, shared.getRegisters());
+        assertEquals(program.getVariables(), shared.getVariables());
+        assertEquals(program.execute(), shared.execute());
+        assertEquals(shared.size(), shared.share().size());
+        assertEquals(graph.size(), shared.toGraph().size());
+    }
+
+    @ParameterizedTest
+    //@Disabled
+    @DisplayName("test shared programs are identical to unshared programs")
+    @CsvSource(delimiter = '|',
+               value = {"BIG_DECIMAL|√(a*a+b*b)*2/√(a*a+b*b)", "DOUBLE|√(a*a+b*b)*2/√(a*a+b*b)",
+                        "BIG_DECIMAL|(a+b)*(a+b)-(a+b)^2", "DOUBLE|(a+b)*(a+b)-(a+b)^2",
+                        "BIG_DECIMAL|sum(a,b,a*b)+a*b", "DOUBLE|sin(a)*sin(a)+cos(a)*cos(a)-max(a,b)",
+                        "BIG_DECIMAL|a/b+1/3*(a/b+1/3)", "DOUBLE|a/b+1/3*(a/b+1/3)"})
+    public void testSharedEqualsUnshared(NumericMode mode, String infix) {
+        context.setNumericMode(mode);
+        PostfixProgram program = PostfixProgram.compile(converter.convert(infix), context);
+        PostfixProgram shared = program.share();
+        assertTrue(shared.getRegisters() > 0);
+        assertTrue(shared.size() <= program.size());
+        assertEquals(program.isDoubleCompatible(), shared.isDoubleCompatible());
+        double[][] columns = {{-2.25, 0.1, 1e-9, 7, 123456.789}, {1, 2, 3, 4, 5}};
+        BigDecimal[][] decimals = new BigDecimal[2][columns[0].length];
+        for (int row = 0; row < columns[0].length; row++) {
+            decimals[0][row] = BigDecimal.valueOf(columns[0][row]);
+            decimals[1][row] = BigDecimal.valueOf(columns[1][row]);
+            BigDecimal[] values = {decimals[0][row], decimals[1][row]};
+            assertEquals(program.execute(values), shared.execute(values));
+            double[] doubles = {columns[0][row], columns[1][row]};
+            assertEquals(program.executeDouble(doubles), shared.executeDouble(doubles));
+        }
+        assertTrue(Arrays.equals(program.executeColumns(columns, 5), shared.executeColumns(columns, 5)));
+        assertTrue(Arrays.equals(program.executeColumns(decimals, 5), shared.executeColumns(decimals, 5)));
+        assertEquals(program.fold().execute(), shared.fold().execute());
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test sharing a long expression")
+    public void testLongExpression() {
+        StringBuilder postfix = new StringBuilder("a b +");
+        for (int idx = 0; idx < 10_000; idx++) {
+            postfix.append(idx % 2 == 0 ? " a b + +" : " a -");
+        }
+        PostfixProgram program = PostfixProgram.compile(postfix, context);
+        PostfixProgram shared = program.share();
+        assertEquals(1, shared.getRegisters());
+        assertEquals(program.execute(), shared.execute());
+    }
+
+}
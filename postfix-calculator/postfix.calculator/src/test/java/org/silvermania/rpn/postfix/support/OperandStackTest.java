@@ -0,0 +1,111 @@
+/*
+ * File: OperandStackTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.silvermania.rpn.support.Multiplicity.UNARY;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.silvermania.rpn.support.CalculationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class OperandStackTest is a unit test to assert the pooling of the
+ * {@link OperandStack} a {@link PostfixProgram} executes on.
+ *
+ * @author T.N.Silverman
+ */
+class OperandStackTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperandStackTest.class);
+    private CalculationContext context;
+
+    @BeforeEach
+    public void beforeEach(TestInfo info) throws Exception {
+        logger.debug("entering {} {}", info.getTestMethod().orElseThrow().getName(), info.getDisplayName());
+        context = CalculationContext.newInstance();
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test a released stack is reused by it's thread")
+    public void testReuse() {
+        OperandStack first = OperandStack.acquire(4);
+        first.values()[0] = BigDecimal.ONE;
+        first.release();
+        OperandStack second = OperandStack.acquire(4);
+        try {
+            assertSame(first, second);
+            assertNull(second.values()[0]);
+        } finally {
+            second.release();
+        }
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test an acquired stack is not shared")
+    public void testNestedAcquire() {
+        OperandStack outer = OperandStack.acquire(4);
+        try {
+            OperandStack inner = OperandStack.acquire(4);
+            assertNotSame(outer, inner);
+            inner.release();
+        } finally {
+            outer.release();
+        }
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test the stack grows to the acquired depth")
+    public void testGrow() {
+        OperandStack stack = OperandStack.acquire(1000);
+        try {
+            assertTrue(stack.values().length >= 1000);
+            assertTrue(stack.doubles().length >= 1000);
+        } finally {
+            stack.release();
+        }
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test a function executing another program")
+    public void testNestedExecution() {
+        PostfixProgram inner = PostfixProgram.compile("2 3 ×", context);
+        context.registerFunction("six", UNARY, arr -> arr[0].multiply(inner.execute()));
+        PostfixProgram outer = PostfixProgram.compile("1 2 + six 4 +", context);
+        assertEquals(0, new BigDecimal("22").compareTo(outer.execute()));
+        assertEquals(0, new BigDecimal("22").compareTo(outer.execute()));
+    }
+}
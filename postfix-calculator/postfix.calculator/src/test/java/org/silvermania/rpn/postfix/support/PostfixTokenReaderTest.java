@@ -0,0 +1,95 @@
+/*
+ * File: PostfixTokenReaderTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class PostfixTokenReaderTest is a unit test to assert the functionality
+ * of the {@link PostfixTokenReader} class
+ *
+ * @author T.N.Silverman
+ */
+class PostfixTokenReaderTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostfixTokenReaderTest.class);
+
+    @BeforeEach
+    public void beforeEach(TestInfo info) throws Exception {
+        logger.debug("entering {} {}", info.getTestMethod().orElseThrow().getName(), info.getDisplayName());
+    }
+
+    @ParameterizedTest
+    //@Disabled
+    @DisplayName("test read tokens across buffer boundaries")
+    @ValueSource(ints = {1, 2, 3, 7, PostfixTokenReader.DEFAULT_BUFFER_SIZE})
+    public void testReadTokens(int bufferSize) {
+        PostfixTokenReader reader = PostfixTokenReader.newInstance(
+                new StringReader("  12.5 √ \t\n 3.14159   sum#3\r\n+"), bufferSize);
+        List<String> tokens = new ArrayList<>();
+        for (String token = reader.next(); null != token; token = reader.next()) {
+            tokens.add(token);
+        }
+        assertEquals(List.of("12.5", "√", "3.14159", "sum#3", "+"), tokens);
+        assertEquals(5, reader.getCount());
+        assertNull(reader.next());
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test read fails")
+    public void testReadFails() {
+        assertNull(PostfixTokenReader.newInstance(new StringReader(" \n ")).next());
+        assertThrows(IllegalArgumentException.class, () -> PostfixTokenReader.newInstance(new StringReader(""), 0));
+        assertThrows(NullPointerException.class, () -> PostfixTokenReader.newInstance(null));
+        Reader failing = new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("failed");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        assertThrows(UncheckedIOException.class, () -> PostfixTokenReader.newInstance(failing).next());
+    }
+
+}
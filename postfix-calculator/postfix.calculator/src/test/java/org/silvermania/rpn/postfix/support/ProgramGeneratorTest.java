@@ -0,0 +1,176 @@
+/*
+ * File: ProgramGeneratorTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.silvermania.rpn.infix.converter.InfixConverter;
+import org.silvermania.rpn.support.Associativity;
+import org.silvermania.rpn.support.CalculationContext;
+import org.silvermania.rpn.support.Multiplicity;
+import org.silvermania.rpn.support.NumericMode;
+import org.silvermania.rpn.support.Precedence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class ProgramGeneratorTest is a unit test to assert a
+ * {@link PostfixProgram} executed by it's generated class (see
+ * {@link ProgramGenerator}) returns exactly what the program returns.
+ *
+ * @author T.N.Silverman
+ */
+class ProgramGeneratorTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProgramGeneratorTest.class);
+    private CalculationContext context;
+    private InfixConverter converter;
+
+    @BeforeEach
+    public void beforeEach(TestInfo info) throws Exception {
+        logger.debug("entering {} {}", info.getTestMethod().orElseThrow().getName(), info.getDisplayName());
+        context = CalculationContext.newInstance();
+        context.addVariable("a", BigDecimal.valueOf(3)).addVariable("b", BigDecimal.valueOf(4));
+        context.registerFunction("neg", Multiplicity.UNARY, arr -> arr[0].negate());
+        converter = InfixConverter.newInstance(context);
+    }
+
+    @ParameterizedTest
+    //@Disabled
+    @DisplayName("test generated programs are identical to interpreted programs")
+    @CsvSource(delimiter = '|',
+               value = {"BIG_DECIMAL|(a+b)*(a−b)/(a×b)÷2%a-a^2", "DOUBLE|(a+b)*(a−b)/(a×b)÷2%a-a^2",
+                        "BIG_DECIMAL|√(a*a+b*b)*2/√(a*a+b*b)", "DOUBLE|√(a*a+b*b)*2/√(a*a+b*b)",
+                        "BIG_DECIMAL|sum(a,b,a*b)+neg(a)*b", "DOUBLE|sin(a)*cos(b)-max(a,b)+pct(b,a)",
+                        "BIG_DECIMAL|pct(b,a)-min(a,b)+avg(a,b)", "DOUBLE|a/b+1/3*(a/b+1/3)",
+                        "BIG_DECIMAL|a*1+0+b/1", "DOUBLE|1*a+(0+b)^1-(a-0)"})
+    public void testGeneratedEqualsInterpreted(NumericMode mode, String infix) {
+        context.setNumericMode(mode);
+        PostfixProgram program = PostfixProgram.compile(converter.convert(infix), context);
+        for (PostfixProgram interpreted : new PostfixProgram[] {program, program.fold(), program.share()}) {
+            PostfixProgram generated = interpreted.generate();
+            assertTrue(generated.isGenerated());
+            assertFalse(interpreted.isGenerated());
+            assertSame(generated, generated.generate());
+            assertEquals(interpreted.isDoubleCompatible(), generated.isDoubleCompatible());
+            double[] as = {-2.25, 0.1, 0.5, 7, 123456.789};
+            double[] bs = {1, 2, 3, 4, 5};
+            for (int row = 0; row < as.length; row++) {
+                BigDecimal[] values = {BigDecimal.valueOf(as[row]), BigDecimal.valueOf(bs[row])};
+                assertEquals(interpreted.execute(values), generated.execute(values));
+                double[] doubles = {as[row], bs[row]};
+                assertEquals(interpreted.executeDouble(doubles), generated.executeDouble(doubles));
+            }
+            assertEquals(interpreted.execute(), generated.execute());
+        }
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test generated programs call replaced double operations")
+    public void testReplacedDoubleOperation() {
+        context.setNumericMode(NumericMode.DOUBLE);
+        PostfixProgram program = PostfixProgram.compile(converter.convert("a*b+√a"), context);
+        PostfixProgram generated = program.generate();
+        assertEquals(12 + Math.sqrt(3), generated.executeDouble(), 0);
+        context.registerBinaryDoubleOperation("*", (x, y) -> x * y * 2);
+        context.registerUnaryDoubleOperation("√", x -> -x);
+        program = PostfixProgram.compile(converter.convert("a*b+√a"), context);
+        generated = program.generate();
+        assertEquals(program.executeDouble(), generated.executeDouble());
+        assertEquals(21, generated.executeDouble());
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test inlined operators are default operators that cannot be registered again")
+    public void testInlinedOperatorsAreDefaults() {
+        for (String symbol : ProgramGenerator.INLINED) {
+            PostfixProgram program = PostfixProgram.compile("a b " + symbol, context);
+            assertTrue(context.isDefaultArithmeticToken(program.tokenAt(2)), symbol);
+            assertThrows(IllegalArgumentException.class, () -> context.registerOperator(symbol, Precedence.LOW,
+                    Associativity.LEFT, Multiplicity.BINARY, arr -> arr[0]), symbol);
+            assertThrows(IllegalArgumentException.class,
+                    () -> context.registerFunction(symbol, Multiplicity.BINARY, arr -> arr[0]), symbol);
+        }
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test symbols cannot be registered as the other kind to shadow a token")
+    public void testOtherKindRegistrationIsRejected() {
+        String[] infixes = {"+(a,b)", "a pct b", "pct(a,b)"};
+        BigDecimal[] expected = new BigDecimal[infixes.length];
+        for (int idx = 0; idx < infixes.length; idx++) {
+            expected[idx] = PostfixProgram.compile(converter.convert(infixes[idx]), context).execute();
+        }
+        assertEquals(0, BigDecimal.valueOf(7).compareTo(expected[0]));
+        // a function '+' would never be called, the operator being resolved and inlined instead
+        assertThrows(IllegalArgumentException.class,
+                () -> context.registerFunction("+", Multiplicity.BINARY, arr -> arr[0].subtract(arr[1])));
+        // an operator 'pct' would silently replace the function in every expression calling it
+        assertThrows(IllegalArgumentException.class, () -> context.registerOperator("pct", Precedence.LOW,
+                Associativity.LEFT, Multiplicity.BINARY, arr -> arr[0].subtract(arr[1])));
+        for (int idx = 0; idx < infixes.length; idx++) {
+            PostfixProgram program = PostfixProgram.compile(converter.convert(infixes[idx]), context);
+            assertEquals(expected[idx], program.execute(), infixes[idx]);
+            assertEquals(expected[idx], program.generate().execute(), infixes[idx]);
+        }
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test generated programs fail as interpreted programs do")
+    public void testGeneratedFailures() {
+        PostfixProgram generated = PostfixProgram.compile(converter.convert("a/(b-4)+log(b-4)"), context).generate();
+        assertThrows(ArithmeticException.class, () -> generated.execute());
+        assertThrows(IllegalArgumentException.class, () -> generated.execute(new BigDecimal[1]));
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test a long expression is interpreted rather than generated")
+    public void testLongExpression() {
+        StringBuilder postfix = new StringBuilder("a b +");
+        for (int idx = 0; idx < 10_000; idx++) {
+            postfix.append(idx % 2 == 0 ? " a b + +" : " a -");
+        }
+        PostfixProgram program = PostfixProgram.compile(postfix, context);
+        PostfixProgram generated = program.generate();
+        assertSame(program, generated);
+        assertFalse(generated.isGenerated());
+        assertEquals(program.execute(), generated.execute());
+    }
+
+}
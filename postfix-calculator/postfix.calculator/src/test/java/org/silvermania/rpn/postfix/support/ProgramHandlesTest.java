@@ -0,0 +1,121 @@
+/*
+ * File: ProgramHandlesTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.postfix.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.silvermania.rpn.infix.converter.InfixConverter;
+import org.silvermania.rpn.support.CalculationContext;
+import org.silvermania.rpn.support.Multiplicity;
+import org.silvermania.rpn.support.NumericMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class ProgramHandlesTest is a unit test to assert a
+ * {@link PostfixProgram} executed by it's tree of method handles (see
+ * {@link ProgramHandles}) returns exactly what the program returns.
+ *
+ * @author T.N.Silverman
+ */
+class ProgramHandlesTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProgramHandlesTest.class);
+    private CalculationContext context;
+    private InfixConverter converter;
+
+    @BeforeEach
+    public void beforeEach(TestInfo info) throws Exception {
+        logger.debug("entering {} {}", info.getTestMethod().orElseThrow().getName(), info.getDisplayName());
+        context = CalculationContext.newInstance();
+        context.addVariable("a", BigDecimal.valueOf(3)).addVariable("b", BigDecimal.valueOf(4));
+        context.registerFunction("neg", Multiplicity.UNARY, arr -> arr[0].negate());
+        converter = InfixConverter.newInstance(context);
+    }
+
+    @ParameterizedTest
+    //@Disabled
+    @DisplayName("test linked programs are identical to interpreted programs")
+    @CsvSource(delimiter = '|',
+               value = {"BIG_DECIMAL|(a+b)*(a−b)/(a×b)÷2%a-a^2", "DOUBLE|(a+b)*(a−b)/(a×b)÷2%a-a^2",
+                        "BIG_DECIMAL|√(a*a+b*b)*2/√(a*a+b*b)", "DOUBLE|√(a*a+b*b)*2/√(a*a+b*b)",
+                        "BIG_DECIMAL|sum(a,b,a*b)+neg(a)*b", "DOUBLE|sin(a)*cos(b)-max(a,b)+pct(b,a)",
+                        "BIG_DECIMAL|pct(b,a)-min(a,b)+avg(a,b)", "DOUBLE|a/b+1/3*(a/b+1/3)",
+                        "BIG_DECIMAL|a*1+0+b/1", "DOUBLE|1*a+(0+b)^1-(a-0)"})
+    public void testLinkedEqualsInterpreted(NumericMode mode, String infix) {
+        context.setNumericMode(mode);
+        PostfixProgram program = PostfixProgram.compile(converter.convert(infix), context);
+        for (PostfixProgram interpreted : new PostfixProgram[] {program, program.fold(), program.share()}) {
+            PostfixProgram linked = interpreted.link();
+            assertTrue(linked.isLinked());
+            assertFalse(interpreted.isLinked());
+            assertSame(linked, linked.link());
+            assertEquals(interpreted.isDoubleCompatible(), linked.isDoubleCompatible());
+            double[] as = {-2.25, 0.1, 0.5, 7, 123456.789};
+            double[] bs = {1, 2, 3, 4, 5};
+            for (int row = 0; row < as.length; row++) {
+                BigDecimal[] values = {BigDecimal.valueOf(as[row]), BigDecimal.valueOf(bs[row])};
+                assertEquals(interpreted.execute(values), linked.execute(values));
+                double[] doubles = {as[row], bs[row]};
+                assertEquals(interpreted.executeDouble(doubles), linked.executeDouble(doubles));
+            }
+            assertEquals(interpreted.execute(), linked.execute());
+        }
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test linked programs fail as interpreted programs do")
+    public void testLinkedFailures() {
+        PostfixProgram linked = PostfixProgram.compile(converter.convert("a/(b-4)+log(b-4)"), context).link();
+        assertThrows(ArithmeticException.class, () -> linked.execute());
+        assertThrows(IllegalArgumentException.class, () -> linked.execute(new BigDecimal[1]));
+        PostfixProgram generated = linked.generate();
+        assertSame(generated, generated.link());
+    }
+
+    @Test
+    //@Disabled
+    @DisplayName("test a long expression is interpreted rather than linked")
+    public void testLongExpression() {
+        StringBuilder postfix = new StringBuilder("a b +");
+        for (int idx = 0; idx < ProgramHandles.MAX_SIZE; idx++) {
+            postfix.append(" a -");
+        }
+        PostfixProgram program = PostfixProgram.compile(postfix, context);
+        assertSame(program, program.link());
+        assertEquals(0, BigDecimal.valueOf(7 - 3 * ProgramHandles.MAX_SIZE).compareTo(program.execute()));
+    }
+
+}
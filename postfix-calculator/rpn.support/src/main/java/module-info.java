@@ -44,6 +44,7 @@
 module rpn.support {
 
     requires transitive slf4j.api;
+    requires java.management;
 
     exports org.silvermania.rpn.support;
 }
@@ -0,0 +1,500 @@
+/*
+ * File: BigMath.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.support;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * The Class BigMath is a collection of arbitrary precision transcendental
+ * functions and constants on {@link BigDecimal} operands, that never round
+ * trip through {@code double}. Every method computes it's result with a few
+ * guard digits beyond the precision of the given {@link MathContext} and
+ * rounds it to that context:
+ * <ul>
+ * <li>{@link #pi(MathContext)} by the Gauss-Legendre iteration and
+ * {@link #e(MathContext)} by the series of {@code 1/n!}, both cached per
+ * precision</li>
+ * <li>{@link #exp(BigDecimal, MathContext)} by the Taylor series of an argument
+ * halved below {@code 1/2}, then squared back</li>
+ * <li>{@link #ln(BigDecimal, MathContext)} by Halley iterations over
+ * {@code exp}, started from the {@code double} logarithm of the argument
+ * mantissa</li>
+ * <li>{@link #sin(BigDecimal, MathContext)} and
+ * {@link #cos(BigDecimal, MathContext)} by the Taylor series of an argument
+ * reduced to {@code [-π, π]}</li>
+ * </ul>
+ * The trigonometric functions in degrees reduce the angle modulo 360 exactly,
+ * and return exact results on right angles.
+ *
+ * @author T.N.Silverman
+ */
+public final class BigMath {
+
+    /** The number of guard digits intermediate results are computed with. */
+    static final int GUARD_DIGITS = 10;
+
+    /** The maximal number of Halley iterations of the logarithm. */
+    private static final int MAX_ITERATIONS = 100;
+
+    /** The constant TWO. */
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    /** The constant HALF. */
+    private static final BigDecimal HALF = new BigDecimal("0.5");
+
+    /** The number of degrees in a right angle. */
+    private static final BigDecimal RIGHT_ANGLE = BigDecimal.valueOf(90);
+
+    /** The number of degrees in a straight angle. */
+    private static final BigDecimal STRAIGHT_ANGLE = BigDecimal.valueOf(180);
+
+    /** The number of degrees in a full angle. */
+    private static final BigDecimal FULL_ANGLE = BigDecimal.valueOf(360);
+
+    /** The cached values of π, by their precision. */
+    private static final Map<Integer, BigDecimal> PI_CACHE = new ConcurrentHashMap<>();
+
+    /** The cached values of e, by their precision. */
+    private static final Map<Integer, BigDecimal> E_CACHE = new ConcurrentHashMap<>();
+
+    /** The cached values of the natural logarithm of 10, by their precision. */
+    private static final Map<Integer, BigDecimal> LN10_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new big math.
+     */
+    private BigMath() {
+        super();
+    }
+
+    /**
+     * gets the ratio of a circle's circumference to it's diameter.
+     *
+     * @param mc the math context to round the result to
+     * @return π rounded to the given math context
+     */
+    public static BigDecimal pi(MathContext mc) {
+        return cached(PI_CACHE, mc, BigMath::computePi);
+    }
+
+    /**
+     * gets the base of the natural logarithm.
+     *
+     * @param mc the math context to round the result to
+     * @return e rounded to the given math context
+     */
+    public static BigDecimal e(MathContext mc) {
+        return cached(E_CACHE, mc, precision -> exp(BigDecimal.ONE, new MathContext(precision)));
+    }
+
+    /**
+     * computes the square root of {@code x}.
+     *
+     * @param x the argument
+     * @param mc the math context to round the result to
+     * @return the square root of x rounded to the given math context
+     * @throws IllegalArgumentException if x is negative
+     */
+    public static BigDecimal sqrt(BigDecimal x, MathContext mc) {
+        if (x.signum() < 0) {
+            throw new IllegalArgumentException("square root argument cannot be negative!");
+        }
+        // the Newton iteration of BigDecimal is exact for perfect squares
+        return x.sqrt(mc);
+    }
+
+    /**
+     * computes Euler's number raised to the power of {@code x}.
+     *
+     * @param x the exponent
+     * @param mc the math context to round the result to
+     * @return e to the power of x rounded to the given math context
+     */
+    public static BigDecimal exp(BigDecimal x, MathContext mc) {
+        if (x.signum() == 0) {
+            return BigDecimal.ONE.round(mc);
+        }
+        if (x.signum() < 0) {
+            MathContext work = work(mc, 0);
+            return BigDecimal.ONE.divide(exp(x.negate(), work), mc);
+        }
+        // halve the argument below 1/2 so the series converges fast, and
+        // compensate for the error amplified by squaring back with more digits
+        int halvings = 0;
+        BigDecimal reduced = x;
+        while (reduced.compareTo(HALF) > 0) {
+            reduced = reduced.multiply(HALF);
+            halvings++;
+        }
+        MathContext work = work(mc, halvings);
+        BigDecimal sum = BigDecimal.ONE;
+        BigDecimal term = BigDecimal.ONE;
+        for (int n = 1; ; n++) {
+            term = term.multiply(reduced, work).divide(BigDecimal.valueOf(n), work);
+            sum = sum.add(term, work);
+            if (negligible(term, sum, work)) {
+                break;
+            }
+        }
+        for (int idx = 0; idx < halvings; idx++) {
+            sum = sum.multiply(sum, work);
+        }
+        return sum.round(mc);
+    }
+
+    /**
+     * computes the natural logarithm of {@code x}.
+     *
+     * @param x the argument
+     * @param mc the math context to round the result to
+     * @return the natural logarithm of x rounded to the given math context
+     * @throws IllegalArgumentException if x is equal or less than 0
+     */
+    public static BigDecimal ln(BigDecimal x, MathContext mc) {
+        if (x.signum() <= 0) {
+            throw new IllegalArgumentException("natural logarithm argument cannot be equal or less than 0!");
+        }
+        if (x.compareTo(BigDecimal.ONE) == 0) {
+            return BigDecimal.ZERO;
+        }
+        // x = m * 10^exponent, where 1 <= m < 10
+        int exponent = x.precision() - x.scale() - 1;
+        BigDecimal mantissa = x.movePointLeft(exponent);
+        MathContext work = work(mc, String.valueOf(Math.abs(exponent)).length());
+        BigDecimal result = halley(mantissa, work);
+        if (exponent != 0) {
+            result = result.add(ln10(work).multiply(BigDecimal.valueOf(exponent)), work);
+        }
+        return result.round(mc);
+    }
+
+    /**
+     * computes the base 10 logarithm of {@code x}. Integral powers of 10 have
+     * exact logarithms.
+     *
+     * @param x the argument
+     * @param mc the math context to round the result to
+     * @return the base 10 logarithm of x rounded to the given math context
+     * @throws IllegalArgumentException if x is equal or less than 0
+     */
+    public static BigDecimal log10(BigDecimal x, MathContext mc) {
+        if (x.signum() <= 0) {
+            throw new IllegalArgumentException("log base 10 argument cannot be equal or less than 0!");
+        }
+        BigDecimal stripped = x.stripTrailingZeros();
+        if (BigInteger.ONE.equals(stripped.unscaledValue())) {
+            return BigDecimal.valueOf(-stripped.scale()).round(mc);
+        }
+        MathContext work = work(mc, 0);
+        return ln(x, work).divide(ln10(work), mc);
+    }
+
+    /**
+     * computes the trigonometric sine of an angle in radians.
+     *
+     * @param x the angle in radians
+     * @param mc the math context to round the result to
+     * @return the sine of x rounded to the given math context
+     */
+    public static BigDecimal sin(BigDecimal x, MathContext mc) {
+        MathContext work = work(mc, integerDigits(x));
+        BigDecimal reduced = reduce(x, work);
+        BigDecimal square = reduced.multiply(reduced, work);
+        BigDecimal sum = reduced;
+        BigDecimal term = reduced;
+        for (int n = 1; term.signum() != 0; n++) {
+            term = term.multiply(square, work).divide(BigDecimal.valueOf(-2L * n * (2L * n + 1)), work);
+            sum = sum.add(term, work);
+            if (negligible(term, sum, work)) {
+                break;
+            }
+        }
+        return sum.round(mc);
+    }
+
+    /**
+     * computes the trigonometric cosine of an angle in radians.
+     *
+     * @param x the angle in radians
+     * @param mc the math context to round the result to
+     * @return the cosine of x rounded to the given math context
+     */
+    public static BigDecimal cos(BigDecimal x, MathContext mc) {
+        MathContext work = work(mc, integerDigits(x));
+        BigDecimal reduced = reduce(x, work);
+        BigDecimal square = reduced.multiply(reduced, work);
+        BigDecimal sum = BigDecimal.ONE;
+        BigDecimal term = BigDecimal.ONE;
+        for (int n = 1; term.signum() != 0; n++) {
+            term = term.multiply(square, work).divide(BigDecimal.valueOf(-2L * n * (2L * n - 1)), work);
+            sum = sum.add(term, work);
+            if (negligible(term, sum, work)) {
+                break;
+            }
+        }
+        return sum.round(mc);
+    }
+
+    /**
+     * computes the trigonometric tangent of an angle in radians.
+     *
+     * @param x the angle in radians
+     * @param mc the math context to round the result to
+     * @return the tangent of x rounded to the given math context
+     */
+    public static BigDecimal tan(BigDecimal x, MathContext mc) {
+        MathContext work = work(mc, 0);
+        return sin(x, work).divide(cos(x, work), mc);
+    }
+
+    /**
+     * converts an angle in degrees to radians, reducing it modulo 360 degrees
+     * first.
+     *
+     * @param degrees the angle in degrees
+     * @param mc the math context to round the result to
+     * @return the angle in radians, in {@code (-2π, 2π)}, rounded to the given
+     *         math context
+     */
+    public static BigDecimal toRadians(BigDecimal degrees, MathContext mc) {
+        MathContext work = work(mc, 0);
+        return degrees.remainder(FULL_ANGLE).multiply(pi(work), work).divide(STRAIGHT_ANGLE, mc);
+    }
+
+    /**
+     * computes the trigonometric sine of an angle in degrees.
+     *
+     * @param degrees the angle in degrees
+     * @param mc the math context to round the result to
+     * @return the sine of the angle rounded to the given math context
+     */
+    public static BigDecimal sinDegrees(BigDecimal degrees, MathContext mc) {
+        BigDecimal angle = normalize(degrees);
+        BigDecimal quadrant = rightAngles(angle);
+        if (null != quadrant) {
+            // sine of 0, 90, 180 and 270 degrees
+            return BigDecimal.valueOf(new int[]{0, 1, 0, -1}[quadrant.intValue()]);
+        }
+        return sin(toRadians(angle, work(mc, 0)), mc);
+    }
+
+    /**
+     * computes the trigonometric cosine of an angle in degrees.
+     *
+     * @param degrees the angle in degrees
+     * @param mc the math context to round the result to
+     * @return the cosine of the angle rounded to the given math context
+     */
+    public static BigDecimal cosDegrees(BigDecimal degrees, MathContext mc) {
+        BigDecimal angle = normalize(degrees);
+        BigDecimal quadrant = rightAngles(angle);
+        if (null != quadrant) {
+            // cosine of 0, 90, 180 and 270 degrees
+            return BigDecimal.valueOf(new int[]{1, 0, -1, 0}[quadrant.intValue()]);
+        }
+        return cos(toRadians(angle, work(mc, 0)), mc);
+    }
+
+    /**
+     * computes the trigonometric tangent of an angle in degrees.
+     *
+     * @param degrees the angle in degrees
+     * @param mc the math context to round the result to
+     * @return the tangent of the angle rounded to the given math context
+     * @throws IllegalArgumentException if the angle is an odd multiple of 90
+     *         degrees
+     */
+    public static BigDecimal tanDegrees(BigDecimal degrees, MathContext mc) {
+        BigDecimal angle = normalize(degrees);
+        BigDecimal quadrant = rightAngles(angle);
+        if (null != quadrant) {
+            if (quadrant.intValue() % 2 == 1) {
+                throw new IllegalArgumentException("tangent of " + degrees + " degrees is undefined!");
+            }
+            return BigDecimal.ZERO;
+        }
+        return tan(toRadians(angle, work(mc, 0)), mc);
+    }
+
+    /**
+     * gets a cached constant, computing and caching it if it's absent.
+     *
+     * @param cache the cache of the constant values, by their precision
+     * @param mc the math context to round the constant to
+     * @param computation computes the constant to a given precision
+     * @return the constant rounded to the given math context
+     */
+    private static BigDecimal cached(Map<Integer, BigDecimal> cache, MathContext mc,
+            IntFunction<BigDecimal> computation) {
+        Objects.requireNonNull(mc, "math context cannot be null!");
+        BigDecimal value = cache.computeIfAbsent(mc.getPrecision() + GUARD_DIGITS, computation::apply);
+        return value.round(mc);
+    }
+
+    /**
+     * gets the natural logarithm of 10.
+     *
+     * @param mc the math context to round the result to
+     * @return the natural logarithm of 10 rounded to the given math context
+     */
+    private static BigDecimal ln10(MathContext mc) {
+        return cached(LN10_CACHE, mc, precision -> halley(BigDecimal.TEN, new MathContext(precision)));
+    }
+
+    /**
+     * computes π to a given precision with the Gauss-Legendre algorithm, which
+     * doubles the number of correct digits on each iteration.
+     *
+     * @param precision the number of digits of π
+     * @return π to the given precision
+     */
+    private static BigDecimal computePi(int precision) {
+        MathContext work = new MathContext(precision + GUARD_DIGITS);
+        BigDecimal a = BigDecimal.ONE;
+        BigDecimal b = BigDecimal.ONE.divide(TWO.sqrt(work), work);
+        BigDecimal t = new BigDecimal("0.25");
+        BigDecimal p = BigDecimal.ONE;
+        BigDecimal tolerance = BigDecimal.ONE.movePointLeft(precision + 1);
+        while (a.subtract(b).abs().compareTo(tolerance) > 0) {
+            BigDecimal next = a.add(b).multiply(HALF);
+            b = a.multiply(b, work).sqrt(work);
+            BigDecimal delta = a.subtract(next);
+            t = t.subtract(p.multiply(delta.multiply(delta, work)), work);
+            p = p.multiply(TWO);
+            a = next;
+        }
+        BigDecimal sum = a.add(b);
+        return sum.multiply(sum, work).divide(t.multiply(BigDecimal.valueOf(4)), new MathContext(precision));
+    }
+
+    /**
+     * computes the natural logarithm of a positive mantissa with Halley
+     * iterations {@code y += 2 (x - exp(y)) / (x + exp(y))}, which triple the
+     * number of correct digits of the {@code double} starting value on each
+     * iteration.
+     *
+     * @param x the mantissa, less than 10
+     * @param mc the math context to round the result to
+     * @return the natural logarithm of x
+     */
+    private static BigDecimal halley(BigDecimal x, MathContext mc) {
+        BigDecimal y = new BigDecimal(Math.log(x.doubleValue()));
+        for (int idx = 0; idx < MAX_ITERATIONS; idx++) {
+            BigDecimal exp = exp(y, mc);
+            BigDecimal delta = TWO.multiply(x.subtract(exp)).divide(x.add(exp), mc);
+            y = y.add(delta, mc);
+            if (negligible(delta, y, mc)) {
+                break;
+            }
+        }
+        return y.round(mc);
+    }
+
+    /**
+     * reduces an angle in radians to {@code [-π, π]}.
+     *
+     * @param x the angle in radians
+     * @param mc the math context to reduce the angle with
+     * @return the reduced angle
+     */
+    private static BigDecimal reduce(BigDecimal x, MathContext mc) {
+        BigDecimal pi = pi(mc);
+        if (x.abs().compareTo(pi) <= 0) {
+            return x;
+        }
+        BigDecimal fullCircle = pi.multiply(TWO);
+        BigDecimal reduced = x.remainder(fullCircle, mc);
+        if (reduced.compareTo(pi) > 0) {
+            reduced = reduced.subtract(fullCircle, mc);
+        } else if (reduced.compareTo(pi.negate()) < 0) {
+            reduced = reduced.add(fullCircle, mc);
+        }
+        return reduced;
+    }
+
+    /**
+     * reduces an angle in degrees to {@code [0, 360)}.
+     *
+     * @param degrees the angle in degrees
+     * @return the reduced angle
+     */
+    private static BigDecimal normalize(BigDecimal degrees) {
+        BigDecimal angle = degrees.remainder(FULL_ANGLE);
+        return angle.signum() < 0 ? angle.add(FULL_ANGLE) : angle;
+    }
+
+    /**
+     * gets the number of right angles in an angle in {@code [0, 360)} degrees,
+     * if it's a multiple of a right angle.
+     *
+     * @param angle the angle in degrees
+     * @return the number of right angles, from 0 to 3, or null if the angle is
+     *         not a multiple of a right angle
+     */
+    private static BigDecimal rightAngles(BigDecimal angle) {
+        BigDecimal[] division = angle.divideAndRemainder(RIGHT_ANGLE);
+        return division[1].signum() == 0 ? division[0] : null;
+    }
+
+    /**
+     * gets a math context of the guard digits and extra digits beyond the
+     * precision of a given context, with the IEEE 754R rounding mode.
+     *
+     * @param mc the math context
+     * @param extra the number of extra digits
+     * @return the working math context
+     */
+    private static MathContext work(MathContext mc, int extra) {
+        return new MathContext(mc.getPrecision() + GUARD_DIGITS + extra, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * gets the number of integer digits of a number.
+     *
+     * @param x the number
+     * @return the number of integer digits, or 0 if x is less than 1
+     */
+    private static int integerDigits(BigDecimal x) {
+        return Math.max(0, x.precision() - x.scale());
+    }
+
+    /**
+     * tells if a term of a series no longer changes the sum at a given
+     * precision.
+     *
+     * @param term the term
+     * @param sum the sum including the term
+     * @param mc the math context of the sum
+     * @return true if the term is below the precision of the sum
+     */
+    private static boolean negligible(BigDecimal term, BigDecimal sum, MathContext mc) {
+        return term.signum() == 0
+                || term.abs().compareTo(sum.abs().movePointLeft(mc.getPrecision())) < 0;
+    }
+}
@@ -37,6 +37,7 @@ import static org.silvermania.rpn.support.Precedence.LOW;
 import static org.silvermania.rpn.support.Precedence.LOWEST;
 import static org.silvermania.rpn.support.TokenUtil.getOperator;
 import static org.silvermania.rpn.support.TokenUtil.isFunction;
+import static org.silvermania.rpn.support.TokenUtil.isOperator;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
@@ -44,11 +45,15 @@ import java.math.RoundingMode;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
@@ -59,6 +64,19 @@ import org.slf4j.LoggerFactory;
 /**
  * The Class CalculationContext is a registry storage for RPN infix and postfix
  * calculations related parameters.
+ * <p>
+ * A context obtained from {@link #newInstance()} is mutable and must not be
+ * modified while it's shared between threads. {@link #freeze()} and
+ * {@link #builder()} produce immutable snapshots, that can be shared freely,
+ * and {@link #withVariables(Map)} derives an immutable child context that
+ * overlays per request variables on the registries of it's parent without
+ * copying them:
+ *
+ * <pre>
+ * CalculationContext shared = CalculationContext.builder().withPrecision(10)
+ *         .registerConstant("g", new BigDecimal("9.80665")).build();
+ * CalculationContext request = shared.withVariables(Map.of("t", BigDecimal.TEN));
+ * </pre>
  *
  * @author T.N.Silverman
  */
@@ -73,6 +91,53 @@ public final class CalculationContext implements Printable {
     /** The default precision. */
     public static final int DEFAULT_PRECISION = 7;
 
+    /** The maximal number of compiled forms of expressions a context caches. */
+    public static final int COMPILED_CACHE_SIZE = 256;
+
+    /** The Constant HUNDRED used in percentage calculation. */
+    public static final Double HUNDRED = Double.valueOf(100);
+
+    /**
+     * The default double precision operations of the unary operators and
+     * functions, used when evaluating in {@link NumericMode#DOUBLE} mode.
+     */
+    private static final Map<CharSequence, DoubleUnaryOperator> defaultUnaryDoubleOperationsRegistry = Map.ofEntries(
+            entry("sin", a -> Math.sin(Math.toRadians(a))),
+            entry("cos", a -> Math.cos(Math.toRadians(a))),
+            entry("tan", a -> Math.tan(Math.toRadians(a))),
+            entry("log", a -> {
+                if (a <= 0) {
+                    throw new IllegalArgumentException("log base 10 argument cannot be equal or less than 0!");
+                }
+                return Math.log10(a);
+            }),
+            entry("!", a -> {
+                if (a > 20 || a < 0) {
+                    throw new IllegalArgumentException(a + " is out of range!");
+                }
+                return LongStream.rangeClosed(1, (long) a).reduce(1, (x, y) -> x * y);
+            }),
+            entry("√", Math::sqrt));
+
+    /**
+     * The default double precision operations of the binary operators and
+     * functions, used when evaluating in {@link NumericMode#DOUBLE} mode.
+     */
+    private static final Map<CharSequence, DoubleBinaryOperator> defaultBinaryDoubleOperationsRegistry = Map.ofEntries(
+            entry("min", Math::min),
+            entry("max", Math::max),
+            entry("avg", (a, b) -> (a + b) / 2),
+            entry("pct", (a, b) -> HUNDRED / (a / b)),
+            entry("^", (a, b) -> Math.pow(a, (int) b)),
+            entry("*", (a, b) -> a * b),
+            entry("×", (a, b) -> a * b),
+            entry("/", (a, b) -> a / b),
+            entry("÷", (a, b) -> a / b),
+            entry("%", (a, b) -> a % b),
+            entry("+", (a, b) -> a + b),
+            entry("−", (a, b) -> a - b),
+            entry("-", (a, b) -> a - b));
+
     /**
      * the math context with which to apply division operations and functions on
      * {@code java.math.BigDecimal} operands
@@ -98,9 +163,6 @@ public final class CalculationContext implements Printable {
      */
     public static final CalculationContext DECIMAL128_CONTEXT = newInstance().withMathContext(DECIMAL128);
 
-    /** The Constant HUNDRED used in percentage calculation. */
-    public static final Double HUNDRED = Double.valueOf(100);
-
     /**
      * internal method to configure this instance {@code mathContext}.
      *
@@ -108,28 +170,82 @@ public final class CalculationContext implements Printable {
      * @return this configured instance;
      */
     private CalculationContext withMathContext(MathContext mathContext) {
-        this.mathContext = mathContext;
+        applyMathContext(mathContext);
         return this;
     }
 
+    /**
+     * internal method to apply a new {@code mathContext}, recomputing the
+     * default constants and re-indexing the symbols if it's precision changed.
+     *
+     * @param mathContext the new math context
+     */
+    private void applyMathContext(MathContext mathContext) {
+        boolean precisionChanged = mathContext.getPrecision() != this.mathContext.getPrecision();
+        if (!mathContext.equals(this.mathContext)) {
+            // memoized results were rounded to the previous math context
+            getFunctionCaches().values().forEach(FunctionCache::clear);
+        }
+        this.mathContext = mathContext;
+        if (precisionChanged) {
+            Map<CharSequence, BigDecimal> constants = defaultConstants(mathContext);
+            Map<CharSequence, BigDecimal> registry = new LinkedHashMap<>(constantsRegistry);
+            registry.putAll(constants);
+            defaultConstantsRegistry = constants;
+            constantsRegistry = Collections.unmodifiableMap(registry);
+            symbolIndex = indexSymbols();
+        }
+    }
+
+    /**
+     * computes the default constants to the precision of a math context, plus
+     * guard digits, so that arithmetic on them is accurate to the precision.
+     *
+     * @param mathContext the math context
+     * @return the default constants registry
+     */
+    private static Map<CharSequence, BigDecimal> defaultConstants(MathContext mathContext) {
+        MathContext working = new MathContext(mathContext.getPrecision() + BigMath.GUARD_DIGITS);
+        BigDecimal pi = BigMath.pi(working);
+        return Map.ofEntries(entry("π", pi), // PI
+                entry("PI", pi), // PI
+                entry("e", BigMath.e(working)) // base of the natural logarithm
+        );
+    }
+
+    /**
+     * gets the math context the transcendental functions are computed with,
+     * before being rounded to the precision of this context. Since the
+     * precision of this context is a number of decimal places, the working
+     * precision covers the integer digits of the argument as well.
+     *
+     * @param argument the argument of the function
+     * @return the working math context
+     */
+    private MathContext workingContext(BigDecimal argument) {
+        int integerDigits = Math.max(0, argument.precision() - argument.scale());
+        return new MathContext(getPrecision() + integerDigits + BigMath.GUARD_DIGITS, getRoundingMode());
+    }
+
     /**
      * The default registered functions that are recognized by the
      * {@code InfixTokenHandler}.
      */
     private final List<FunctionToken> defaultFunctionRegistry = List.of(
             /* trigonometric sine of an angle */
-            FunctionToken.create("sin", UNARY, (arr) -> round(Math.sin((Math.toRadians(arr[0].doubleValue()))))),
+            FunctionToken.create("sin", UNARY, (arr) -> round(BigMath.sinDegrees(arr[0], workingContext(arr[0])))),
             /* trigonometric cosine of an angle */
-            FunctionToken.create("cos", UNARY, (arr) -> round(Math.cos((Math.toRadians(arr[0].doubleValue()))))),
+            FunctionToken.create("cos", UNARY, (arr) -> round(BigMath.cosDegrees(arr[0], workingContext(arr[0])))),
             /* trigonometric tangent of an angle */
-            FunctionToken.create("tan", UNARY, (arr) -> round(Math.tan((Math.toRadians(arr[0].doubleValue()))))),
+            FunctionToken.create("tan", UNARY, (arr) -> round(BigMath.tanDegrees(arr[0], workingContext(arr[0])))),
             /* minimal value in the arguments array */
-            FunctionToken.create("min", BINARY, (arr) -> round(Math.min(arr[0].doubleValue(), arr[1].doubleValue()))),
+            FunctionToken.create("min", MULTI, (arr) -> round(Arrays.stream(arr).min(BigDecimal::compareTo).get())),
             /* maximal value in the arguments array */
-            FunctionToken.create("max", BINARY, (arr) -> round(Math.max(arr[0].doubleValue(), arr[1].doubleValue()))),
+            FunctionToken.create("max", MULTI, (arr) -> round(Arrays.stream(arr).max(BigDecimal::compareTo).get())),
             /* average value of the arguments array */
-            FunctionToken.create("avg", BINARY,
-                    (arr) -> round(arr[0].add(arr[1]).divide(new BigDecimal(2), getPrecision(), getRoundingMode()))),
+            FunctionToken.create("avg", MULTI,
+                    (arr) -> round(Arrays.stream(arr).reduce(BigDecimal.ZERO, BigDecimal::add)
+                            .divide(BigDecimal.valueOf(arr.length), getPrecision(), getRoundingMode()))),
             /* percent value of a in b */
             FunctionToken
                     .create("pct", BINARY, RIGHT,
@@ -140,12 +256,7 @@ public final class CalculationContext implements Printable {
             FunctionToken.create("sum", MULTI,
                     (arr) -> round(Arrays.stream(arr).reduce(BigDecimal.ZERO, (a, b) -> a.add(b)))),
             /* rounded base 10 logarithm of a */
-            FunctionToken.create("log", UNARY, (arr) -> {
-                if (arr[0].compareTo(BigDecimal.ZERO) <= 0) {
-                   throw new IllegalArgumentException("log base 10 argument cannot be equal or less than 0!");
-                }
-                return round(Math.log10(arr[0].doubleValue()));
-            })
+            FunctionToken.create("log", UNARY, (arr) -> round(BigMath.log10(arr[0], workingContext(arr[0]))))
 
     );
 
@@ -162,7 +273,8 @@ public final class CalculationContext implements Printable {
                         .setScale(mathContext.getPrecision());
             }),
             /* square root of a */
-            OperatorToken.create("√", HIGH, LEFT, Multiplicity.UNARY, (arr) -> round(Math.sqrt(arr[0].doubleValue()))),
+            OperatorToken.create("√", HIGH, LEFT, Multiplicity.UNARY,
+                    (arr) -> round(BigMath.sqrt(arr[0], workingContext(arr[0])))),
             /* a multiply by b */
             OperatorToken.create("*", LOW, (arr) -> round(arr[0].multiply(arr[1]))),
             /* a multiply by b */
@@ -182,12 +294,11 @@ public final class CalculationContext implements Printable {
             /* a minus b */
             OperatorToken.create("-", LOWEST, LEFT, (arr) -> round(arr[0].subtract(arr[1]))));
 
-    /** the registry of default constants and their values as big decimals. */
-    private final Map<CharSequence,
-            BigDecimal> defaultConstantsRegistry = Map.ofEntries(entry("π", new BigDecimal(Math.PI)), // PI
-                    entry("PI", new BigDecimal(Math.PI)), // PI
-                    entry("e", new BigDecimal(2.71828))// base of the natural logarithm
-    );
+    /**
+     * the registry of default constants and their values as big decimals, to
+     * the precision of the math context plus guard digits.
+     */
+    private Map<CharSequence, BigDecimal> defaultConstantsRegistry;
 
     /** The functions registry. */
     private List<FunctionToken> functionsRegistry;
@@ -198,15 +309,170 @@ public final class CalculationContext implements Printable {
     /** The constants registry. */
     private Map<CharSequence, BigDecimal> constantsRegistry;
 
+    /**
+     * The symbols of the constants registry entries that were added as
+     * variables rather than registered as constants.
+     */
+    private Set<CharSequence> variablesRegistry;
+
+    /** The double precision operations registry of unary tokens. */
+    private Map<CharSequence, DoubleUnaryOperator> unaryDoubleOperationsRegistry;
+
+    /** The double precision operations registry of binary tokens. */
+    private Map<CharSequence, DoubleBinaryOperator> binaryDoubleOperationsRegistry;
+
+    /** The numeric mode of compiled expressions evaluation. */
+    private NumericMode numericMode;
+
+    /** The hash index of all the registered symbols. */
+    private SymbolIndex symbolIndex;
+
+    /** true if this context is an immutable snapshot. */
+    private boolean frozen;
+
+    /** The number of times the symbols of this context were re-indexed. */
+    private volatile long version;
+
+    /**
+     * The number of times the symbols of this context were re-indexed for any
+     * other change than a new value of an existing variable.
+     */
+    private volatile long symbolsVersion;
+
+    /**
+     * The variables a child context overlays on the registries of it's
+     * parent, or null if this context is not a child context.
+     */
+    private Map<CharSequence, BigDecimal> overlay;
+
+    /**
+     * The frozen context whose registries a child context shares, or null if
+     * this context is not a child context.
+     */
+    private CalculationContext root;
+
+    /** The metrics calculations with this context are recorded to. */
+    private CalculationMetrics metrics = CalculationMetrics.NOOP;
+
+    /**
+     * The immutable snapshot of this mutable context, or null if it was not
+     * taken since this context was last modified.
+     */
+    private volatile CalculationContext snapshot;
+
+    /** The constants and variables of a child context, merged on first use. */
+    private volatile Map<CharSequence, BigDecimal> mergedConstants;
+
+    /** The variable symbols of a child context, merged on first use. */
+    private volatile Set<CharSequence> mergedVariables;
+
+    /**
+     * The compiled forms of expressions in access order, by their kind, the
+     * symbols version, the overlay symbols and the postfix expression, shared
+     * by the child contexts of this context and guarded by itself.
+     */
+    private final Map<List<Object>, Object> compiledCache = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, Object> eldest) {
+            return size() > COMPILED_CACHE_SIZE;
+        }
+    };
+
     /**
      * Instantiates a new calculation context.
      */
     private CalculationContext() {
         super();
         this.mathContext = new MathContext(DEFAULT_PRECISION, DEFAULT_ROUNDING_MODE);
+        this.defaultConstantsRegistry = defaultConstants(mathContext);
         this.functionsRegistry = defaultFunctionRegistry;
         this.operatorRegistry = defaultOperatorsRegistry;
         this.constantsRegistry = defaultConstantsRegistry;
+        this.variablesRegistry = Collections.emptySet();
+        this.unaryDoubleOperationsRegistry = defaultUnaryDoubleOperationsRegistry;
+        this.binaryDoubleOperationsRegistry = defaultBinaryDoubleOperationsRegistry;
+        this.numericMode = NumericMode.BIG_DECIMAL;
+        this.symbolIndex = indexSymbols();
+    }
+
+    /**
+     * Instantiates a new immutable snapshot of the given mutable
+     * {@code source} context, sharing it's registries rather than computing
+     * the default constants of a new context.
+     *
+     * @param source the mutable context
+     */
+    private CalculationContext(final CalculationContext source) {
+        super();
+        this.mathContext = source.mathContext;
+        this.defaultConstantsRegistry = source.defaultConstantsRegistry;
+        this.numericMode = source.numericMode;
+        // the default tokens round with the math context of the context they belong to
+        this.functionsRegistry = copyCaches(rebase(source.functionsRegistry, source.defaultFunctionRegistry,
+                defaultFunctionRegistry));
+        this.operatorRegistry = rebase(source.operatorRegistry, source.defaultOperatorsRegistry,
+                defaultOperatorsRegistry);
+        this.constantsRegistry = source.constantsRegistry;
+        this.variablesRegistry = source.variablesRegistry;
+        this.unaryDoubleOperationsRegistry = source.unaryDoubleOperationsRegistry;
+        this.binaryDoubleOperationsRegistry = source.binaryDoubleOperationsRegistry;
+        this.symbolIndex = indexSymbols();
+        this.metrics = source.metrics;
+        this.frozen = true;
+    }
+
+    /**
+     * Instantiates a new immutable child context sharing the registries of the
+     * given frozen {@code parent}.
+     *
+     * @param parent the frozen parent context
+     * @param overlay the variables of the child context, including those of
+     *        the parent if it's a child context itself
+     */
+    private CalculationContext(final CalculationContext parent, final Map<CharSequence, BigDecimal> overlay) {
+        super();
+        this.mathContext = parent.mathContext;
+        this.defaultConstantsRegistry = parent.defaultConstantsRegistry;
+        this.functionsRegistry = parent.functionsRegistry;
+        this.operatorRegistry = parent.operatorRegistry;
+        this.constantsRegistry = parent.constantsRegistry;
+        this.variablesRegistry = parent.variablesRegistry;
+        this.unaryDoubleOperationsRegistry = parent.unaryDoubleOperationsRegistry;
+        this.binaryDoubleOperationsRegistry = parent.binaryDoubleOperationsRegistry;
+        this.numericMode = parent.numericMode;
+        this.symbolIndex = parent.symbolIndex.overlay(overlay);
+        this.overlay = overlay;
+        this.root = null == parent.root ? parent : parent.root;
+        this.metrics = parent.metrics;
+        this.frozen = true;
+    }
+
+    /**
+     * builds a new index of the symbols in this context registries. Must be
+     * called whenever one of the registries changes.
+     *
+     * @return a new symbol index
+     */
+    private SymbolIndex indexSymbols() {
+        return indexSymbols(true);
+    }
+
+    /**
+     * builds a new index of the symbols in this context registries.
+     *
+     * @param symbolsChanged false if only the value of an existing variable
+     *        changed, which keeps the symbols version of this context
+     * @return a new symbol index
+     */
+    private SymbolIndex indexSymbols(boolean symbolsChanged) {
+        version++;
+        if (symbolsChanged) {
+            symbolsVersion++;
+        }
+        return SymbolIndex.create(operatorRegistry, functionsRegistry, constantsRegistry, variablesRegistry,
+                unaryDoubleOperationsRegistry, binaryDoubleOperationsRegistry);
     }
 
     /**
@@ -225,10 +491,145 @@ public final class CalculationContext implements Printable {
         return new CalculationContext();
     }
 
+    /**
+     * A factory method to obtain a {@link Builder} of an immutable
+     * {@code CalculationContext}, starting with the defaults of
+     * {@link #newInstance()}.
+     *
+     * @return a new calculation context builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * gets an immutable snapshot of this context. Later changes to this context
+     * are not reflected in the snapshot, and the snapshot may be shared between
+     * threads without synchronization. Every method modifying the snapshot
+     * throws an {@link UnsupportedOperationException}. The snapshot is taken
+     * once and returned again until this context is modified.
+     *
+     * @return an immutable snapshot of this context, or this context if it's
+     *         already immutable
+     */
+    public CalculationContext freeze() {
+        if (frozen) {
+            return this;
+        }
+        CalculationContext current = snapshot;
+        if (null == current) {
+            current = new CalculationContext(this);
+            snapshot = current;
+            logger.debug("froze calculation context");
+        }
+        return current;
+    }
+
+    /**
+     * replaces the default tokens of a registry with the default tokens of
+     * another context.
+     *
+     * @param <T> the type of the tokens
+     * @param registry the registry
+     * @param defaults the default tokens of the registry context
+     * @param newDefaults the default tokens of the other context
+     * @return unmodifiable list of the registry tokens, in order, where each
+     *         default token is replaced by the respective new default token
+     */
+    private static <T> List<T> rebase(List<T> registry, List<T> defaults, List<T> newDefaults) {
+        List<T> rebased = new LinkedList<>();
+        for (T token : registry) {
+            int idx = 0;
+            while (idx < defaults.size() && defaults.get(idx) != token) {
+                idx++;
+            }
+            rebased.add(idx < defaults.size() ? newDefaults.get(idx) : token);
+        }
+        return Collections.unmodifiableList(rebased);
+    }
+
+    /**
+     * replaces the pure functions of a registry with functions memoized by
+     * copies of their caches (see {@link FunctionCache#copy()}), so that a
+     * snapshot never shares results with the mutable context it was taken of,
+     * whose math context may change.
+     *
+     * @param registry the functions registry
+     * @return unmodifiable list of the registry functions, in order, where each
+     *         pure function is replaced by one with a copy of it's cache
+     */
+    private static List<FunctionToken> copyCaches(List<FunctionToken> registry) {
+        List<FunctionToken> copied = new LinkedList<>();
+        for (FunctionToken function : registry) {
+            copied.add(function.getOperation() instanceof FunctionCache
+                    ? FunctionToken.create(function.getSymbol(), function.getMultiplicity(),
+                            function.getAssociativity(), ((FunctionCache) function.getOperation()).copy())
+                    : function);
+        }
+        return Collections.unmodifiableList(copied);
+    }
+
+    /**
+     * derives an immutable child context with the given {@code variables}. The
+     * child shares the registries and the symbol index of an immutable snapshot
+     * of this context (see {@link #freeze()}, which takes the snapshot of a
+     * mutable context once until it's modified) and only indexes it's own
+     * variables, so deriving it costs time proportional to the number of
+     * variables only. Variables of the child hide variables of the same symbol
+     * in this context.
+     *
+     * @param variables the values of the child context variables, by symbol
+     * @return a new immutable child context
+     * @throws IllegalArgumentException if a variable symbol is null or blank,
+     *         collides with a default constant or function, or if a value is
+     *         null
+     */
+    public CalculationContext withVariables(Map<? extends CharSequence, ? extends BigDecimal> variables)
+            throws IllegalArgumentException {
+        CalculationContext parent = freeze();
+        Map<CharSequence, BigDecimal> merged = new LinkedHashMap<>();
+        if (null != parent.overlay) {
+            merged.putAll(parent.overlay);
+        }
+        variables.forEach((symbol, value) -> {
+            checkVariable(symbol, value);
+            merged.put(symbol.toString(), value);
+        });
+        return new CalculationContext(parent, Collections.unmodifiableMap(merged));
+    }
+
+    /**
+     * returns true if this context is an immutable snapshot.
+     *
+     * @return true if this context cannot be modified, otherwise false
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * verifies this context may be modified, and discards it's snapshot, which
+     * the modification that follows makes stale.
+     *
+     * @throws UnsupportedOperationException if this context is immutable
+     */
+    private void checkNotFrozen() throws UnsupportedOperationException {
+        if (frozen) {
+            throw new UnsupportedOperationException("calculation context is frozen and cannot be modified!");
+        }
+        snapshot = null;
+    }
+
     /**
      * This method allows users to register new functions that are not yet defined
      * in the default {@link #defaultFunctionRegistry}. Use of this method must be
      * done before the conversion begins.
+     * <p>
+     * The symbol of an operator cannot be registered as a function. Postfix
+     * expressions refer to their tokens by symbol only, and a symbol resolves
+     * to the operator, so such a function would never be called, and the
+     * compiled programs, which inline the default operators by identity, would
+     * silently keep applying the operator.
      *
      * @param symbol a unique symbol representing the operator
      * @param multiplicity the multiplicity of the function, which is {@code UNARY}
@@ -237,16 +638,21 @@ public final class CalculationContext implements Printable {
      *        this function has to apply to its operands
      * @return this calculation context for chainability
      * @throws IllegalArgumentException if the function identified by its
-     *         {@code symbol} is already in the registry
+     *         {@code symbol} is already in the registry, or is an operator
      */
     public CalculationContext registerFunction(CharSequence symbol, Multiplicity multiplicity,
             Function<BigDecimal[], BigDecimal> operation) throws IllegalArgumentException {
+        checkNotFrozen();
+        if (isOperator(symbol, this)) {
+            throw new IllegalArgumentException(String.format("operator %s already exists", symbol));
+        }
         if (!isFunction(symbol, this)) {
             List<FunctionToken> registry = new LinkedList<>();
             registry.addAll(defaultFunctionRegistry);
             registry.addAll(functionsRegistry);
             registry.add(FunctionToken.create(symbol, multiplicity, operation));
             functionsRegistry = Collections.unmodifiableList(registry);
+            symbolIndex = indexSymbols();
             logger.debug("registered function '" + symbol + "'");
             return this;
         } else {
@@ -254,10 +660,108 @@ public final class CalculationContext implements Printable {
         }
     }
 
+    /**
+     * registers a pure function, whose result depends on the numeric values of
+     * it's arguments only, with a {@link FunctionCache} of
+     * {@value FunctionCache#DEFAULT_CAPACITY} results evicted by the
+     * {@link EvictionPolicy#LRU} policy.
+     *
+     * @param symbol a unique symbol representing the function
+     * @param multiplicity the multiplicity of the function, which is {@code UNARY}
+     *        or {@code BINARY}
+     * @param operation the pure arithmetic operation of the function
+     * @return this calculation context for chainability
+     * @throws IllegalArgumentException if the function identified by its
+     *         {@code symbol} is already in the registry
+     * @see #registerPureFunction(CharSequence, Multiplicity, Function, int, EvictionPolicy)
+     */
+    public CalculationContext registerPureFunction(CharSequence symbol, Multiplicity multiplicity,
+            Function<BigDecimal[], BigDecimal> operation) throws IllegalArgumentException {
+        return registerPureFunction(symbol, multiplicity, operation, FunctionCache.DEFAULT_CAPACITY,
+                EvictionPolicy.LRU);
+    }
+
+    /**
+     * registers a pure function, whose result depends on the numeric values of
+     * it's arguments only, such as a table lookup or an iterative solver. The
+     * results of the function are memoized by a bounded {@link FunctionCache},
+     * keyed by it's arguments normalized by scale, and shared by every
+     * expression and evaluation using the function. The statistics of the cache
+     * are printed by {@link #print()} and available from
+     * {@link #getFunctionCaches()}.
+     *
+     * @param symbol a unique symbol representing the function
+     * @param multiplicity the multiplicity of the function, which is {@code UNARY}
+     *        or {@code BINARY}
+     * @param operation the pure arithmetic operation of the function
+     * @param capacity the maximal number of results to memoize
+     * @param policy the eviction policy of the memoized results
+     * @return this calculation context for chainability
+     * @throws IllegalArgumentException if the function identified by its
+     *         {@code symbol} is already in the registry, or if the capacity is
+     *         not positive
+     */
+    public CalculationContext registerPureFunction(CharSequence symbol, Multiplicity multiplicity,
+            Function<BigDecimal[], BigDecimal> operation, int capacity, EvictionPolicy policy)
+            throws IllegalArgumentException {
+        FunctionCache cache = FunctionCache.create(operation, capacity, policy);
+        registerFunction(symbol, multiplicity, cache);
+        cache.bind(symbol, metrics);
+        return this;
+    }
+
+    /**
+     * gets the caches of the pure functions of this context (see
+     * {@link #registerPureFunction(CharSequence, Multiplicity, Function, int, EvictionPolicy)}).
+     *
+     * @return unmodifiable map of the function caches, by function symbol
+     */
+    public Map<String, FunctionCache> getFunctionCaches() {
+        Map<String, FunctionCache> caches = new LinkedHashMap<>();
+        for (FunctionToken function : functionsRegistry) {
+            if (function.getOperation() instanceof FunctionCache) {
+                caches.put(function.getSymbol().toString(), (FunctionCache) function.getOperation());
+            }
+        }
+        return Collections.unmodifiableMap(caches);
+    }
+
+    /**
+     * sets the metrics calculations with this context are recorded to. The
+     * metrics are shared by the immutable snapshots and child contexts of this
+     * context, and record the hits and misses of it's function caches.
+     *
+     * @param metrics the metrics, or {@link CalculationMetrics#NOOP} to record
+     *        nothing
+     * @return this calculation context for chainability
+     * @throws NullPointerException if the metrics are null
+     * @throws UnsupportedOperationException if this context is immutable
+     */
+    public CalculationContext setMetrics(CalculationMetrics metrics) {
+        checkNotFrozen();
+        this.metrics = Objects.requireNonNull(metrics, "metrics cannot be null!");
+        getFunctionCaches().forEach((symbol, cache) -> cache.bind(symbol, metrics));
+        return this;
+    }
+
+    /**
+     * gets the metrics calculations with this context are recorded to.
+     *
+     * @return the metrics of this context, which are
+     *         {@link CalculationMetrics#NOOP} unless set
+     */
+    public CalculationMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * This method allows users to register new operators that are not yet defined
      * in the default {@link CalculationContext#defaultOperatorsRegistry}. Use of
      * this method must be done before the conversion begins.
+     * <p>
+     * The symbol of a function cannot be registered as an operator. Postfix
+     * expressions refer to their tokens by symbol only, so such an operator
+     * would silently replace the function in every expression calling it.
      *
      * @param symbol a unique symbol representing the operator
      * @param precedence the precedence of the operator
@@ -269,10 +773,14 @@ public final class CalculationContext implements Printable {
      *        to invoke on the operand/operands of this operator
      * @return this calculation context for chainability
      * @throws IllegalArgumentException if the operator identified by it
-     *         {@code symbol} is already in the registry
+     *         {@code symbol} is already in the registry, or is a function
      */
     public CalculationContext registerOperator(CharSequence symbol, Precedence precedence, Associativity associativity,
             Multiplicity multiplicity, Function<BigDecimal[], BigDecimal> operation) throws IllegalArgumentException {
+        checkNotFrozen();
+        if (isFunction(symbol, this)) {
+            throw new IllegalArgumentException(String.format("function %s is already registered", symbol));
+        }
         try {
             getOperator(symbol, this);
             throw new IllegalArgumentException(String.format("operator %s already exists", symbol));
@@ -282,10 +790,114 @@ public final class CalculationContext implements Printable {
             registry.addAll(operatorRegistry);
             registry.add(OperatorToken.create(symbol, precedence, associativity, multiplicity, operation));
             operatorRegistry = Collections.unmodifiableList(registry);
+            symbolIndex = indexSymbols();
             return this;
         }
     }
 
+    /**
+     * This method allows users to register the double precision operation of an
+     * already registered {@code UNARY} operator or function, to be used when
+     * evaluating in {@link NumericMode#DOUBLE} mode. Tokens without a double
+     * precision operation are evaluated with their {@code BigDecimal}
+     * operation in any mode.
+     *
+     * @param symbol the symbol of a registered unary operator or function
+     * @param operation the double precision operation
+     * @return this calculation context for chainability
+     * @throws IllegalArgumentException if the {@code symbol} is not a registered
+     *         unary operator or function
+     * @throws NullPointerException if the operation is null
+     */
+    public CalculationContext registerUnaryDoubleOperation(CharSequence symbol, DoubleUnaryOperator operation)
+            throws IllegalArgumentException {
+        checkNotFrozen();
+        if (!getSymbolIndex().get(symbol).isUnaryArithmetic()) {
+            throw new IllegalArgumentException(String.format("%s is not a registered unary operator or function",
+                    symbol));
+        }
+        Map<CharSequence, DoubleUnaryOperator> registry = new LinkedHashMap<>(unaryDoubleOperationsRegistry);
+        registry.put(symbol, Objects.requireNonNull(operation, "double operation cannot be null"));
+        unaryDoubleOperationsRegistry = Collections.unmodifiableMap(registry);
+        symbolIndex = indexSymbols();
+        logger.debug("registered unary double operation of '{}'", symbol);
+        return this;
+    }
+
+    /**
+     * This method allows users to register the double precision operation of an
+     * already registered {@code BINARY} operator or function, to be used when
+     * evaluating in {@link NumericMode#DOUBLE} mode. Tokens without a double
+     * precision operation are evaluated with their {@code BigDecimal}
+     * operation in any mode.
+     *
+     * @param symbol the symbol of a registered binary operator or function
+     * @param operation the double precision operation
+     * @return this calculation context for chainability
+     * @throws IllegalArgumentException if the {@code symbol} is not a registered
+     *         binary operator or function
+     * @throws NullPointerException if the operation is null
+     */
+    public CalculationContext registerBinaryDoubleOperation(CharSequence symbol, DoubleBinaryOperator operation)
+            throws IllegalArgumentException {
+        checkNotFrozen();
+        if (!getSymbolIndex().get(symbol).isBinaryArithmetic()) {
+            throw new IllegalArgumentException(String.format("%s is not a registered binary operator or function",
+                    symbol));
+        }
+        Map<CharSequence, DoubleBinaryOperator> registry = new LinkedHashMap<>(binaryDoubleOperationsRegistry);
+        registry.put(symbol, Objects.requireNonNull(operation, "double operation cannot be null"));
+        binaryDoubleOperationsRegistry = Collections.unmodifiableMap(registry);
+        symbolIndex = indexSymbols();
+        logger.debug("registered binary double operation of '{}'", symbol);
+        return this;
+    }
+
+    /**
+     * returns true if the given {@code token} is one of the default operators
+     * or functions of this context, rather than one registered with
+     * {@link #registerOperator(CharSequence, Precedence, Associativity,
+     * Multiplicity, Function)} or
+     * {@link #registerFunction(CharSequence, Multiplicity, Function)}. The
+     * default tokens cannot be replaced, and their operations return the same
+     * result whenever they are applied to the same operands with the same
+     * precision and rounding mode. The token is compared by identity, not by
+     * symbol.
+     *
+     * @param token an operator or function token
+     * @return true if the token is a default operator or function of this
+     *         context, otherwise false
+     */
+    public boolean isDefaultArithmeticToken(ArithmeticToken token) {
+        // a child context shares the default tokens of it's root
+        CalculationContext registries = getRoot();
+        return registries.defaultOperatorsRegistry.stream().anyMatch(operator -> operator == token)
+                || registries.defaultFunctionRegistry.stream().anyMatch(function -> function == token);
+    }
+
+    /**
+     * returns true if the double precision operation of the given operator or
+     * function {@code symbol} is it's default operation, rather than one
+     * registered with {@link #registerUnaryDoubleOperation(CharSequence,
+     * DoubleUnaryOperator)} or {@link #registerBinaryDoubleOperation(CharSequence,
+     * DoubleBinaryOperator)}.
+     *
+     * @param symbol the symbol of an operator or function
+     * @return true if the symbol has a default double precision operation that
+     *         was not replaced, otherwise false
+     */
+    public boolean isDefaultDoubleOperation(CharSequence symbol) {
+        if (null == symbol) {
+            return false;
+        }
+        String key = symbol.toString();
+        if (defaultBinaryDoubleOperationsRegistry.containsKey(key)) {
+            return defaultBinaryDoubleOperationsRegistry.get(key) == binaryDoubleOperationsRegistry.get(key);
+        }
+        return defaultUnaryDoubleOperationsRegistry.containsKey(key)
+                && defaultUnaryDoubleOperationsRegistry.get(key) == unaryDoubleOperationsRegistry.get(key);
+    }
+
     /**
      * A method allowing users to register new constants by providing the constant
      * {@code symbol} and it's {@code value} as a {@link Double}
@@ -303,6 +915,7 @@ public final class CalculationContext implements Printable {
      *          to perform the operation prior to any calculation operation
      */
     public CalculationContext registerConstant(CharSequence symbol, BigDecimal value) throws IllegalArgumentException {
+        checkNotFrozen();
         if (null != getConstantsRegistry().get(Objects.requireNonNull(symbol, "constant opernad symbol can't be null"))
                 || symbol.toString().isBlank()) {
             String message = "constants registry already contains constant '" + symbol + "'!";
@@ -314,6 +927,7 @@ public final class CalculationContext implements Printable {
         registry.putAll(constantsRegistry);
         registry.put(symbol, Objects.requireNonNull(value, "constant opernad value cannot be null"));
         constantsRegistry = Collections.unmodifiableMap(registry);
+        symbolIndex = indexSymbols();
         logger.debug("registered constant '{}' with value '{}'", symbol, value);
         return this;
     }
@@ -334,6 +948,53 @@ public final class CalculationContext implements Printable {
      *          to perform the operation prior to any calculation operation.
      */
     public CalculationContext addVariable(CharSequence symbol, BigDecimal value) throws IllegalArgumentException {
+        checkNotFrozen();
+        checkVariable(symbol, value);
+        boolean added = !variablesRegistry.contains(symbol);
+        Map<CharSequence, BigDecimal> registry = new LinkedHashMap<>();
+        registry.putAll(defaultConstantsRegistry);
+        registry.putAll(constantsRegistry);
+        registry.put(symbol, Objects.requireNonNull(value, "variable value cannot be null!"));
+        constantsRegistry = Collections.unmodifiableMap(registry);
+        Set<CharSequence> variables = new LinkedHashSet<>(variablesRegistry);
+        variables.add(symbol);
+        variablesRegistry = Collections.unmodifiableSet(variables);
+        symbolIndex = indexSymbols(added);
+        logger.debug("registered variable '{}' with value '{}'", symbol, value);
+        return this;
+    }
+
+    /**
+     * A method allowing users to declare a variable by it's {@code symbol} only,
+     * so that expressions referring to it can be converted and compiled, while
+     * it's value is supplied to each evaluation separately (see
+     * {@code org.silvermania.rpn.postfix.calculator.Bindings}). A declared
+     * variable evaluates to zero unless bound. Declaring a variable that was
+     * already added keeps it's value.
+     *
+     * @param symbol the unique symbol of the variable. This cannot collide with a
+     *        constant symbol.
+     * @return this calculation context for chainability
+     * @throws IllegalArgumentException if the symbol is null or blank, or
+     *         collides with a default constant or function
+     */
+    public CalculationContext declareVariable(CharSequence symbol) throws IllegalArgumentException {
+        checkNotFrozen();
+        if (getSymbolIndex().get(symbol).isVariable()) {
+            return this;
+        }
+        return addVariable(symbol, BigDecimal.ZERO);
+    }
+
+    /**
+     * validates the symbol and value of a variable.
+     *
+     * @param symbol the symbol of the variable
+     * @param value the value of the variable
+     * @throws IllegalArgumentException if the symbol is null, blank, collides
+     *         with a default constant or function, or if the value is null
+     */
+    private void checkVariable(CharSequence symbol, BigDecimal value) throws IllegalArgumentException {
         if (null == value) {
             String message = "variable value cannot be null!";
             logger.warn(message);
@@ -354,13 +1015,6 @@ public final class CalculationContext implements Printable {
             logger.warn(message);
             throw new IllegalArgumentException(message);
         }
-        Map<CharSequence, BigDecimal> registry = new LinkedHashMap<>();
-        registry.putAll(defaultConstantsRegistry);
-        registry.putAll(constantsRegistry);
-        registry.put(symbol, Objects.requireNonNull(value, "variable value cannot be null!"));
-        constantsRegistry = Collections.unmodifiableMap(registry);
-        logger.debug("registered variable '{}' with value '{}'", symbol, value);
-        return this;
     }
 
     /**
@@ -461,7 +1115,171 @@ public final class CalculationContext implements Printable {
      * @return unmodifiable map of the registered constants
      */
     protected Map<CharSequence, BigDecimal> getConstantsRegistry() {
-        return constantsRegistry;
+        if (null == overlay) {
+            return constantsRegistry;
+        }
+        Map<CharSequence, BigDecimal> merged = mergedConstants;
+        if (null == merged) {
+            Map<CharSequence, BigDecimal> registry = new LinkedHashMap<>(constantsRegistry);
+            registry.putAll(overlay);
+            merged = Collections.unmodifiableMap(registry);
+            mergedConstants = merged;
+        }
+        return merged;
+    }
+
+    /**
+     * gets this unmodifiable set of registered variable symbols. Variables are
+     * also present in the {@link #getConstantsRegistry() constants registry}
+     * with their current value.
+     *
+     * @return unmodifiable set of the registered variable symbols
+     */
+    protected Set<CharSequence> getVariablesRegistry() {
+        if (null == overlay) {
+            return variablesRegistry;
+        }
+        Set<CharSequence> merged = mergedVariables;
+        if (null == merged) {
+            Set<CharSequence> registry = new LinkedHashSet<>(variablesRegistry);
+            registry.addAll(overlay.keySet());
+            merged = Collections.unmodifiableSet(registry);
+            mergedVariables = merged;
+        }
+        return merged;
+    }
+
+    /**
+     * gets the hash index of all the symbols registered in this context.
+     *
+     * @return the symbol index
+     */
+    SymbolIndex getSymbolIndex() {
+        return symbolIndex;
+    }
+
+    /**
+     * gets the version of the symbols of this context, which changes whenever
+     * an operator, function, constant or variable is registered. Together with
+     * the identity of the context, the version identifies the symbols an
+     * expression was converted or compiled against, so that cached results can
+     * be invalidated.
+     *
+     * @return the symbols version of this context
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * gets the version of the symbols of this context, ignoring the values of
+     * it's variables. It changes with the {@link #getVersion() version},
+     * except when a variable that was already added is added again with a new
+     * value. Forms that read the values of the variables when they are used,
+     * rather than when they are built, such as converted expressions, may be
+     * cached by this version.
+     *
+     * @return the symbols version of this context, ignoring variable values
+     */
+    public long getSymbolsVersion() {
+        return symbolsVersion;
+    }
+
+    /**
+     * gets the context whose registries this context shares. A child context
+     * (see {@link #withVariables(Map)}) shares the registries of the frozen
+     * context it was derived from, and differs from it only by the variables
+     * it overlays (see {@link #getOverlaySymbols()}). Any other context is
+     * it's own root. Forms that depend on the symbols of a context but not on
+     * the values of it's variables may be cached by the root context, it's
+     * symbols version and the overlay symbols, so that child contexts share
+     * them.
+     *
+     * @return the root context of this context
+     */
+    public CalculationContext getRoot() {
+        return null == root ? this : root;
+    }
+
+    /**
+     * gets the symbols of the variables a child context overlays on the
+     * registries of it's {@link #getRoot() root} context.
+     *
+     * @return unmodifiable set of the overlaid variable symbols, empty if this
+     *         context is not a child context
+     */
+    public Set<CharSequence> getOverlaySymbols() {
+        return null == overlay ? Collections.emptySet() : overlay.keySet();
+    }
+
+    /**
+     * gets the value of a variable of this context.
+     *
+     * @param symbol the symbol of the variable
+     * @return the value of the variable, or null if this context has no
+     *         variable of the given {@code symbol}
+     */
+    public BigDecimal getVariable(CharSequence symbol) {
+        SymbolIndex.Entry entry = symbolIndex.get(symbol);
+        return entry.isVariable() ? entry.getValue() : null;
+    }
+
+    /**
+     * gets the cached compiled form of the given {@code postfix} expression,
+     * compiling and caching it if it's absent. Compiled forms are cached by
+     * the {@link #getRoot() root} context, it's symbols version and the
+     * symbols this context overlays, so every child context of a frozen
+     * context shares the forms compiled by any of them, and they are evicted
+     * least recently used first, beyond {@value #COMPILED_CACHE_SIZE} forms.
+     * Registering an operator, function, constant or variable, or changing
+     * the precision, changes the symbols version, so forms compiled before
+     * the registration are never returned after it. Changing the value of a
+     * variable keeps the symbols version, so a form holding the values of the
+     * variables, or the context it was compiled against, must be rebound to
+     * the requesting context by the caller. Failed compilations are not
+     * cached, and concurrent misses of the same expression may compile it
+     * more than once.
+     *
+     * @param <T> the type of the compiled form
+     * @param kind the kind of the compiled form, identifying the
+     *        {@code compiler} and the type of the form it compiles
+     * @param postfix the postfix expression
+     * @param compiler the compilation to apply on a cache miss
+     * @return the compiled form of the postfix expression
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getCompiled(Object kind, CharSequence postfix, Function<String, T> compiler) {
+        Objects.requireNonNull(kind, "kind cannot be null!");
+        Objects.requireNonNull(postfix, "postfix expression cannot be null!");
+        CalculationContext registries = getRoot();
+        List<Object> key = List.of(kind, registries.symbolsVersion, getOverlaySymbols(), postfix.toString());
+        Map<List<Object>, Object> cache = registries.compiledCache;
+        synchronized (cache) {
+            Object compiled = cache.get(key);
+            if (null != compiled) {
+                metrics.recordCache("compiled", true);
+                return (T) compiled;
+            }
+        }
+        metrics.recordCache("compiled", false);
+        T compiled = compiler.apply(postfix.toString());
+        synchronized (cache) {
+            cache.put(key, compiled);
+        }
+        logger.trace("cached {} form of postfix '{}'", kind, postfix);
+        return compiled;
+    }
+
+    /**
+     * gets the prefix tree of all the operator, function, constant and variable
+     * symbols registered in this context. The trie is rebuilt whenever a
+     * symbol is registered, so callers should not hold on to it across
+     * registrations.
+     *
+     * @return the symbol trie
+     */
+    public SymbolTrie getSymbolTrie() {
+        return symbolIndex.getTrie();
     }
 
     /**
@@ -470,7 +1288,8 @@ public final class CalculationContext implements Printable {
      * @param roundingMode the new rounding mode
      */
     public void setRoundingMode(RoundingMode roundingMode) {
-        this.mathContext = new MathContext(mathContext.getPrecision(), roundingMode);
+        checkNotFrozen();
+        applyMathContext(new MathContext(mathContext.getPrecision(), roundingMode));
     }
 
     /**
@@ -479,7 +1298,29 @@ public final class CalculationContext implements Printable {
      * @param precision the number of decimal places to round
      */
     public void setPrecision(int precision) {
-        this.mathContext = new MathContext(precision, mathContext.getRoundingMode());
+        checkNotFrozen();
+        applyMathContext(new MathContext(precision, mathContext.getRoundingMode()));
+    }
+
+    /**
+     * gets the numeric mode compiled expressions are evaluated with (the
+     * {@code default} is {@link NumericMode#BIG_DECIMAL}).
+     *
+     * @return the configured numeric mode
+     */
+    public NumericMode getNumericMode() {
+        return numericMode;
+    }
+
+    /**
+     * sets the numeric mode compiled expressions are evaluated with.
+     *
+     * @param numericMode the new numeric mode
+     * @throws NullPointerException if the numeric mode is null
+     */
+    public void setNumericMode(NumericMode numericMode) {
+        checkNotFrozen();
+        this.numericMode = Objects.requireNonNull(numericMode, "numeric mode cannot be null");
     }
 
     /**
@@ -513,7 +1354,7 @@ public final class CalculationContext implements Printable {
         final int prime = 31;
         int result = 1;
         result = prime * result + ((mathContext == null) ? 0 : mathContext.hashCode());
-        result = prime * result + print().hashCode();
+        result = prime * result + print(false).hashCode();
         return result;
     }
 
@@ -540,7 +1381,7 @@ public final class CalculationContext implements Printable {
             return false;
         }
         CalculationContext other = (CalculationContext) obj;
-        return this.print().equals(other.print());
+        return this.print(false).equals(other.print(false));
     }
 
     /**
@@ -555,12 +1396,29 @@ public final class CalculationContext implements Printable {
      */
     @Override
     public String print() {
+        return print(true);
+    }
+
+    /**
+     * prints this context, with or without the statistics of it's function
+     * caches, which change as expressions are evaluated.
+     *
+     * @param statistics true to print the statistics of the function caches
+     * @return the printed context
+     */
+    private String print(boolean statistics) {
         Map<String, String> props = new LinkedHashMap<>();
         props.put(indent() + "class", "org.silvermania.rpn.support.CalculationContext");
         props.put(indent() + "mathContext", getMathContextType() + mathContext);
-        props.put(indent() + "constants", constantsRegistry.keySet().stream().collect(joining(",")));
+        props.put(indent() + "numericMode", numericMode.toString());
+        props.put(indent() + "constants", getConstantsRegistry().keySet().stream().collect(joining(",")));
         props.put(indent() + "operators", operatorRegistry.stream().map(o -> o.getSymbol()).collect(joining(",")));
         props.put(indent() + "funtions", functionsRegistry.stream().map(f -> f.getSymbol()).collect(joining(",")));
+        Map<String, FunctionCache> caches = getFunctionCaches();
+        if (statistics && !caches.isEmpty()) {
+            props.put(indent() + "memoized", caches.entrySet().stream().map(e -> e.getKey() + e.getValue())
+                    .collect(joining(",")));
+        }
         return props.entrySet().stream().map(e -> String.format("%n%-20s%s", e.getKey(), e.getValue()))
                 .collect(Collectors.joining());
     }
@@ -580,4 +1438,228 @@ public final class CalculationContext implements Printable {
         return print();
     }
 
+    /**
+     * The Class Builder configures a {@link CalculationContext} and builds an
+     * immutable snapshot of it. A builder is not thread safe, but the contexts
+     * it builds are.
+     *
+     * @author T.N.Silverman
+     */
+    public static final class Builder {
+
+        /** The mutable context being configured. */
+        private final CalculationContext context = newInstance();
+
+        /**
+         * hidden constructor.
+         */
+        private Builder() {
+            super();
+        }
+
+        /**
+         * sets the number of decimal places to round to.
+         *
+         * @param precision the number of decimal places to round
+         * @return this builder for chainability
+         * @see CalculationContext#setPrecision(int)
+         */
+        public Builder withPrecision(int precision) {
+            context.setPrecision(precision);
+            return this;
+        }
+
+        /**
+         * sets the rounding mode.
+         *
+         * @param roundingMode the rounding mode
+         * @return this builder for chainability
+         * @see CalculationContext#setRoundingMode(RoundingMode)
+         */
+        public Builder withRoundingMode(RoundingMode roundingMode) {
+            context.setRoundingMode(roundingMode);
+            return this;
+        }
+
+        /**
+         * sets the math context.
+         *
+         * @param mathContext the math context
+         * @return this builder for chainability
+         * @throws NullPointerException if the math context is null
+         */
+        public Builder withMathContext(MathContext mathContext) {
+            context.withMathContext(Objects.requireNonNull(mathContext, "math context cannot be null"));
+            return this;
+        }
+
+        /**
+         * sets the numeric mode.
+         *
+         * @param numericMode the numeric mode
+         * @return this builder for chainability
+         * @see CalculationContext#setNumericMode(NumericMode)
+         */
+        public Builder withNumericMode(NumericMode numericMode) {
+            context.setNumericMode(numericMode);
+            return this;
+        }
+
+        /**
+         * registers a function.
+         *
+         * @param symbol a unique symbol representing the function
+         * @param multiplicity the multiplicity of the function
+         * @param operation the arithmetic operation of the function
+         * @return this builder for chainability
+         * @throws IllegalArgumentException if the function is already registered
+         * @see CalculationContext#registerFunction(CharSequence, Multiplicity, Function)
+         */
+        public Builder registerFunction(CharSequence symbol, Multiplicity multiplicity,
+                Function<BigDecimal[], BigDecimal> operation) throws IllegalArgumentException {
+            context.registerFunction(symbol, multiplicity, operation);
+            return this;
+        }
+
+        /**
+         * registers a pure function, whose results are memoized.
+         *
+         * @param symbol a unique symbol representing the function
+         * @param multiplicity the multiplicity of the function
+         * @param operation the pure arithmetic operation of the function
+         * @param capacity the maximal number of results to memoize
+         * @param policy the eviction policy of the memoized results
+         * @return this builder for chainability
+         * @throws IllegalArgumentException if the function is already registered,
+         *         or if the capacity is not positive
+         * @see CalculationContext#registerPureFunction(CharSequence, Multiplicity, Function, int, EvictionPolicy)
+         */
+        public Builder registerPureFunction(CharSequence symbol, Multiplicity multiplicity,
+                Function<BigDecimal[], BigDecimal> operation, int capacity, EvictionPolicy policy)
+                throws IllegalArgumentException {
+            context.registerPureFunction(symbol, multiplicity, operation, capacity, policy);
+            return this;
+        }
+
+        /**
+         * sets the metrics calculations with the built context are recorded to.
+         *
+         * @param metrics the metrics
+         * @return this builder for chainability
+         * @see CalculationContext#setMetrics(CalculationMetrics)
+         */
+        public Builder withMetrics(CalculationMetrics metrics) {
+            context.setMetrics(metrics);
+            return this;
+        }
+
+        /**
+         * registers an operator.
+         *
+         * @param symbol a unique symbol representing the operator
+         * @param precedence the precedence of the operator
+         * @param associativity the associativity of the operator
+         * @param multiplicity the multiplicity of the operator
+         * @param operation the arithmetic operation of the operator
+         * @return this builder for chainability
+         * @throws IllegalArgumentException if the operator is already registered
+         * @see CalculationContext#registerOperator(CharSequence, Precedence,
+         *      Associativity, Multiplicity, Function)
+         */
+        public Builder registerOperator(CharSequence symbol, Precedence precedence, Associativity associativity,
+                Multiplicity multiplicity, Function<BigDecimal[], BigDecimal> operation)
+                throws IllegalArgumentException {
+            context.registerOperator(symbol, precedence, associativity, multiplicity, operation);
+            return this;
+        }
+
+        /**
+         * registers the double precision operation of an unary operator or
+         * function.
+         *
+         * @param symbol the symbol of a registered unary operator or function
+         * @param operation the double precision operation
+         * @return this builder for chainability
+         * @throws IllegalArgumentException if the symbol is not a registered
+         *         unary operator or function
+         * @see CalculationContext#registerUnaryDoubleOperation(CharSequence,
+         *      DoubleUnaryOperator)
+         */
+        public Builder registerUnaryDoubleOperation(CharSequence symbol, DoubleUnaryOperator operation)
+                throws IllegalArgumentException {
+            context.registerUnaryDoubleOperation(symbol, operation);
+            return this;
+        }
+
+        /**
+         * registers the double precision operation of a binary operator or
+         * function.
+         *
+         * @param symbol the symbol of a registered binary operator or function
+         * @param operation the double precision operation
+         * @return this builder for chainability
+         * @throws IllegalArgumentException if the symbol is not a registered
+         *         binary operator or function
+         * @see CalculationContext#registerBinaryDoubleOperation(CharSequence,
+         *      DoubleBinaryOperator)
+         */
+        public Builder registerBinaryDoubleOperation(CharSequence symbol, DoubleBinaryOperator operation)
+                throws IllegalArgumentException {
+            context.registerBinaryDoubleOperation(symbol, operation);
+            return this;
+        }
+
+        /**
+         * registers a constant.
+         *
+         * @param symbol the unique symbol of the constant
+         * @param value the value of the constant
+         * @return this builder for chainability
+         * @throws IllegalArgumentException if the constant is already registered
+         * @see CalculationContext#registerConstant(CharSequence, BigDecimal)
+         */
+        public Builder registerConstant(CharSequence symbol, BigDecimal value) throws IllegalArgumentException {
+            context.registerConstant(symbol, value);
+            return this;
+        }
+
+        /**
+         * adds a variable.
+         *
+         * @param symbol the symbol of the variable
+         * @param value the value of the variable
+         * @return this builder for chainability
+         * @throws IllegalArgumentException if the symbol or value are illegal
+         * @see CalculationContext#addVariable(CharSequence, BigDecimal)
+         */
+        public Builder addVariable(CharSequence symbol, BigDecimal value) throws IllegalArgumentException {
+            context.addVariable(symbol, value);
+            return this;
+        }
+
+        /**
+         * declares a variable.
+         *
+         * @param symbol the symbol of the variable
+         * @return this builder for chainability
+         * @throws IllegalArgumentException if the symbol is illegal
+         * @see CalculationContext#declareVariable(CharSequence)
+         */
+        public Builder declareVariable(CharSequence symbol) throws IllegalArgumentException {
+            context.declareVariable(symbol);
+            return this;
+        }
+
+        /**
+         * builds an immutable calculation context. The builder may be used to
+         * build further contexts, which do not share state with the ones already
+         * built.
+         *
+         * @return a new immutable calculation context
+         */
+        public CalculationContext build() {
+            return context.freeze();
+        }
+    }
+
 }
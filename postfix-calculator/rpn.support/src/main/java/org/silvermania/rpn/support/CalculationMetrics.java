@@ -0,0 +1,139 @@
+/*
+ * File: CalculationMetrics.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.support;
+
+/**
+ * The interface CalculationMetrics is notified of where the time of the
+ * calculator goes: the duration and number of tokens of each phase of a
+ * calculation, the invocations and durations of each operator and function,
+ * and the hits and misses of it's caches. Metrics are set on a
+ * {@link CalculationContext} by
+ * {@link CalculationContext#setMetrics(CalculationMetrics)}, and the context
+ * notifies {@link #NOOP}, which records nothing, unless they are set.
+ * <p>
+ * Instrumented code only reads the clock when {@link #isEnabled()} is true, so
+ * the {@link #NOOP} metrics cost a single call per phase and per operation.
+ * Operators and functions are timed where the calculator interprets them, by
+ * {@code RPNCalculator} and by expressions compiled with the {@code STACK} and
+ * {@code GRAPH} evaluation strategies in {@link NumericMode#BIG_DECIMAL} mode.
+ * Every execution of a compiled expression is also timed whole, by the
+ * {@link Engine} and the {@link NumericMode} that executed it, so the
+ * expressions executed by method handles, by generated classes or on
+ * primitive doubles, whose operators and functions are not timed, are
+ * measured too, and the operation timings can be told apart from them.
+ * Implementations are notified concurrently and must be thread safe.
+ *
+ * @author T.N.Silverman
+ * @see HistogramMetrics
+ */
+public interface CalculationMetrics {
+
+    /** The metrics recording nothing. */
+    CalculationMetrics NOOP = new CalculationMetrics() {
+    };
+
+    /**
+     * The Enum Phase of a calculation.
+     *
+     * @author T.N.Silverman
+     */
+    enum Phase {
+        /** Splitting an infix expression to it's space separated tokens. */
+        NORMALIZE,
+
+        /** Converting the normalized infix tokens to a postfix expression. */
+        CONVERT,
+
+        /** Evaluating a postfix expression or compiled expression. */
+        EVALUATE;
+    }
+
+    /**
+     * The Enum Engine executing a compiled expression.
+     *
+     * @author T.N.Silverman
+     */
+    enum Engine {
+        /** Interpreting the instructions of the expression, one row at a time. */
+        INTERPRETER,
+
+        /** Interpreting the instructions of the expression across columns of rows. */
+        COLUMNS,
+
+        /** Invoking a tree of method handles linked from the instructions. */
+        METHOD_HANDLES,
+
+        /** Calling a class generated from the instructions. */
+        BYTECODE;
+    }
+
+    /**
+     * returns true if these metrics record anything, so that instrumented code
+     * may skip reading the clock otherwise.
+     *
+     * @return true if these metrics are enabled, otherwise false
+     */
+    default boolean isEnabled() {
+        return false;
+    }
+
+    /**
+     * records a phase of a calculation.
+     *
+     * @param phase the phase
+     * @param nanos the duration of the phase, in nanoseconds
+     * @param tokens the number of tokens or instructions the phase processed
+     */
+    default void recordPhase(Phase phase, long nanos, int tokens) {
+    }
+
+    /**
+     * records an invocation of an operator or function.
+     *
+     * @param symbol the symbol of the operator or function
+     * @param nanos the duration of the invocation, in nanoseconds
+     */
+    default void recordOperation(CharSequence symbol, long nanos) {
+    }
+
+    /**
+     * records an execution of a compiled expression.
+     *
+     * @param engine the engine that executed the expression
+     * @param mode the numeric mode the expression was executed in
+     * @param nanos the duration of the execution, in nanoseconds
+     * @param rows the number of rows of variable values the execution
+     *        evaluated, one unless the engine is {@link Engine#COLUMNS}
+     */
+    default void recordExecution(Engine engine, NumericMode mode, long nanos, int rows) {
+    }
+
+    /**
+     * records a lookup in a cache.
+     *
+     * @param cache the name of the cache
+     * @param hit true if the lookup found the value in the cache, otherwise
+     *        false
+     */
+    default void recordCache(String cache, boolean hit) {
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * File: CalculationMetricsMXBean.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.support;
+
+import java.util.Map;
+
+/**
+ * The interface CalculationMetricsMXBean exposes the metrics recorded by
+ * {@link HistogramMetrics} over JMX (see {@link HistogramMetrics#register()}).
+ * Phases are keyed by their lower case name, operations by the symbol of their
+ * operator or function, executions by the lower case names of their engine and
+ * numeric mode separated by a slash, such as {@code "method_handles/double"},
+ * and caches by their name. Durations are in nanoseconds.
+ *
+ * @author T.N.Silverman
+ */
+public interface CalculationMetricsMXBean {
+
+    /**
+     * gets the number of times each phase was recorded.
+     *
+     * @return the counts, by phase
+     */
+    Map<String, Long> getPhaseCounts();
+
+    /**
+     * gets the mean duration of each phase.
+     *
+     * @return the mean durations, by phase
+     */
+    Map<String, Double> getPhaseMeanNanos();
+
+    /**
+     * gets the 99th percentile of the durations of each phase.
+     *
+     * @return the 99th percentile durations, by phase
+     */
+    Map<String, Long> getPhaseP99Nanos();
+
+    /**
+     * gets the number of tokens each phase processed.
+     *
+     * @return the token counts, by phase
+     */
+    Map<String, Long> getPhaseTokens();
+
+    /**
+     * gets the number of invocations of each operator and function.
+     *
+     * @return the invocation counts, by symbol
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * gets the mean duration of the invocations of each operator and function.
+     *
+     * @return the mean durations, by symbol
+     */
+    Map<String, Double> getOperationMeanNanos();
+
+    /**
+     * gets the 99th percentile of the durations of the invocations of each
+     * operator and function.
+     *
+     * @return the 99th percentile durations, by symbol
+     */
+    Map<String, Long> getOperationP99Nanos();
+
+    /**
+     * gets the number of executions of compiled expressions by each engine and
+     * numeric mode.
+     *
+     * @return the execution counts, by engine and numeric mode
+     */
+    Map<String, Long> getExecutionCounts();
+
+    /**
+     * gets the mean duration of the executions of compiled expressions by each
+     * engine and numeric mode.
+     *
+     * @return the mean durations, by engine and numeric mode
+     */
+    Map<String, Double> getExecutionMeanNanos();
+
+    /**
+     * gets the 99th percentile of the durations of the executions of compiled
+     * expressions by each engine and numeric mode.
+     *
+     * @return the 99th percentile durations, by engine and numeric mode
+     */
+    Map<String, Long> getExecutionP99Nanos();
+
+    /**
+     * gets the number of rows of variable values each engine evaluated in each
+     * numeric mode.
+     *
+     * @return the row counts, by engine and numeric mode
+     */
+    Map<String, Long> getExecutionRows();
+
+    /**
+     * gets the ratio of hits to lookups of each cache.
+     *
+     * @return the hit ratios, by cache
+     */
+    Map<String, Double> getCacheHitRatios();
+
+    /**
+     * removes all the recorded metrics.
+     */
+    void reset();
+}
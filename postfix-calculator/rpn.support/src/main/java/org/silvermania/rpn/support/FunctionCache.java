@@ -0,0 +1,331 @@
+/*
+ * File: FunctionCache.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.support;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * The Class FunctionCache memoizes the results of a pure function, whose
+ * result depends on the numeric values of it's arguments only, such as a
+ * table lookup or an iterative solver. Results are kept by their arguments,
+ * normalized by scale, so that {@code f(2.0)} and {@code f(2.00)} share the
+ * result of the first of them to be computed. A cache holds at most it's
+ * capacity of results and evicts them by it's {@link EvictionPolicy}.
+ * <p>
+ * A function cache is the operation of a function registered with
+ * {@link CalculationContext#registerPureFunction(CharSequence, Multiplicity, Function, int, EvictionPolicy)},
+ * so it's shared by every expression, evaluation strategy and thread using the
+ * function, and is cleared when the precision or rounding mode of the context
+ * changes. An immutable snapshot of the context memoizes the function with a
+ * copy of the cache, shared by it's child contexts, so that results computed
+ * with different math contexts are never mixed. Concurrent misses of the same
+ * arguments may compute the result more than once.
+ *
+ * @author T.N.Silverman
+ */
+public final class FunctionCache implements Function<BigDecimal[], BigDecimal> {
+
+    /** The default number of results a cache holds. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /** The memoized operation. */
+    private final Function<BigDecimal[], BigDecimal> operation;
+
+    /** The maximal number of results. */
+    private final int capacity;
+
+    /** The eviction policy. */
+    private final EvictionPolicy policy;
+
+    /** The results by normalized arguments, guarded by itself. */
+    private final Map<Key, BigDecimal> results;
+
+    /** The number of results found in the cache. */
+    private final LongAdder hits = new LongAdder();
+
+    /** The number of results computed. */
+    private final LongAdder misses = new LongAdder();
+
+    /** The number of results evicted. */
+    private final LongAdder evictions = new LongAdder();
+
+    /** The metrics the hits and misses are recorded to. */
+    private volatile CalculationMetrics metrics = CalculationMetrics.NOOP;
+
+    /** The name of the cache in the metrics. */
+    private volatile String name = "function";
+
+    /**
+     * hidden constructor.
+     *
+     * @param operation the memoized operation
+     * @param capacity the maximal number of results
+     * @param policy the eviction policy
+     */
+    private FunctionCache(final Function<BigDecimal[], BigDecimal> operation, final int capacity,
+            final EvictionPolicy policy) {
+        super();
+        this.operation = operation;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.results = new LinkedHashMap<>(16, 0.75f, policy == EvictionPolicy.LRU) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, BigDecimal> eldest) {
+                if (size() > FunctionCache.this.capacity) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * factory method creating a cache of the results of the given
+     * {@code operation}.
+     *
+     * @param operation the pure operation to memoize
+     * @param capacity the maximal number of results the cache holds
+     * @param policy the eviction policy of the cache
+     * @return a new function cache
+     * @throws IllegalArgumentException if the capacity is not positive
+     * @throws NullPointerException if the operation or policy is null
+     */
+    public static FunctionCache create(Function<BigDecimal[], BigDecimal> operation, int capacity,
+            EvictionPolicy policy) throws IllegalArgumentException {
+        Objects.requireNonNull(operation, "operation cannot be null!");
+        Objects.requireNonNull(policy, "eviction policy cannot be null!");
+        if (capacity < 1) {
+            throw new IllegalArgumentException("function cache capacity must be positive!");
+        }
+        return new FunctionCache(operation, capacity, policy);
+    }
+
+    /**
+     * applies the operation to the given arguments, or gets the result it
+     * returned for arguments of the same numeric values.
+     *
+     * @param args the arguments
+     * @return the result of the operation
+     */
+    @Override
+    public BigDecimal apply(BigDecimal[] args) {
+        Key key = new Key(args);
+        BigDecimal result;
+        synchronized (results) {
+            result = results.get(key);
+        }
+        if (null != result) {
+            hits.increment();
+            metrics.recordCache(name, true);
+            return result;
+        }
+        misses.increment();
+        metrics.recordCache(name, false);
+        result = operation.apply(args);
+        synchronized (results) {
+            results.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * copies this cache for an immutable snapshot of the context it's
+     * registered with. The copy holds the results computed so far, with the
+     * math context of the snapshot, but none of the statistics.
+     *
+     * @return a new cache of the same operation, capacity, policy and results
+     */
+    FunctionCache copy() {
+        FunctionCache copy = new FunctionCache(operation, capacity, policy);
+        synchronized (results) {
+            copy.results.putAll(results);
+        }
+        copy.name = name;
+        copy.metrics = metrics;
+        return copy;
+    }
+
+    /**
+     * binds this cache to the metrics of the context it's registered with.
+     *
+     * @param symbol the symbol of the memoized function
+     * @param metrics the metrics to record the hits and misses to
+     */
+    void bind(CharSequence symbol, CalculationMetrics metrics) {
+        this.name = "function " + symbol;
+        this.metrics = metrics;
+    }
+
+    /**
+     * removes all the results, keeping the statistics.
+     */
+    public void clear() {
+        synchronized (results) {
+            results.clear();
+        }
+    }
+
+    /**
+     * gets the memoized operation.
+     *
+     * @return the operation
+     */
+    public Function<BigDecimal[], BigDecimal> getOperation() {
+        return operation;
+    }
+
+    /**
+     * gets the maximal number of results the cache holds.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * gets the eviction policy.
+     *
+     * @return the eviction policy
+     */
+    public EvictionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * gets the number of results the cache holds.
+     *
+     * @return the number of results
+     */
+    public int size() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    /**
+     * gets the number of results found in the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * gets the number of results computed because they were not in the cache.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * gets the number of results evicted to make room for others.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * gets the ratio of hits to all applications of the function.
+     *
+     * @return the hit ratio, or zero if the function was never applied
+     */
+    public double getHitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0d : (double) hit / total;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return String.format("[hits=%d, misses=%d, evictions=%d, size=%d/%d, policy=%s]", getHits(), getMisses(),
+                getEvictions(), size(), capacity, policy);
+    }
+
+    /**
+     * The Class Key is the arguments of an application, normalized by scale.
+     */
+    private static final class Key {
+
+        /** The normalized arguments. */
+        private final BigDecimal[] args;
+
+        /** The hash code. */
+        private final int hash;
+
+        /**
+         * Instantiates a new key, copying the given arguments.
+         *
+         * @param args the arguments
+         */
+        private Key(final BigDecimal[] args) {
+            super();
+            this.args = new BigDecimal[args.length];
+            for (int idx = 0; idx < args.length; idx++) {
+                this.args[idx] = normalize(args[idx]);
+            }
+            this.hash = Arrays.hashCode(this.args);
+        }
+
+        /**
+         * normalizes an argument to the smallest scale of it's numeric value.
+         *
+         * @param arg the argument
+         * @return the normalized argument
+         */
+        private static BigDecimal normalize(BigDecimal arg) {
+            if (null == arg) {
+                return null;
+            }
+            return arg.signum() == 0 ? BigDecimal.ZERO : arg.stripTrailingZeros();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj || (obj instanceof Key && Arrays.equals(args, ((Key) obj).args));
+        }
+    }
+}
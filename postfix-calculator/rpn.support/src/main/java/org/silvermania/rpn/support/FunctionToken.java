@@ -41,6 +41,14 @@ public final class FunctionToken extends ArithmeticToken {
      */
     public static final CharSequence FUNC_ARG_SEPARATOR = ",";
 
+    /**
+     * constant for the arity marker of multiple arguments functions in postfix
+     * expressions. For example, the infix {@code sum(1,2,3)} is converted to
+     * the postfix {@code 1 2 3 sum#3}, applying the function {@code sum} to the
+     * 3 operands on top of the stack in a single call.
+     */
+    public static final CharSequence ARITY_MARKER = "#";
+
     /**
      * Instantiates a new function token.
      *
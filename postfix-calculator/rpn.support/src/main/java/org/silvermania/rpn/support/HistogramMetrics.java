@@ -0,0 +1,333 @@
+/*
+ * File: HistogramMetrics.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.support;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The Class HistogramMetrics records {@link CalculationMetrics} in memory, in
+ * a {@link LatencyHistogram} per phase, per operator or function and per
+ * engine and numeric mode executing compiled expressions, and in a pair of hit
+ * and miss counters per cache:
+ *
+ * <pre>
+ * HistogramMetrics metrics = HistogramMetrics.newInstance();
+ * CalculationContext context = CalculationContext.newInstance().setMetrics(metrics);
+ * RPNCalculator.withContext(context).convert("√(a*a+b*b)").thenCalculate();
+ * metrics.getPhase(Phase.CONVERT).getPercentileNanos(99);
+ * </pre>
+ *
+ * The metrics are also a {@link CalculationMetricsMXBean}, which
+ * {@link #register()} exposes on the platform MBean server for scraping.
+ *
+ * @author T.N.Silverman
+ */
+public final class HistogramMetrics implements CalculationMetrics, CalculationMetricsMXBean {
+
+    /** The default JMX object name of the metrics. */
+    public static final String OBJECT_NAME = "org.silvermania.rpn:type=CalculationMetrics";
+
+    /** The histograms of the phases. */
+    private final Map<Phase, LatencyHistogram> phases = new EnumMap<>(Phase.class);
+
+    /** The histograms of the operators and functions, by symbol. */
+    private final ConcurrentMap<String, LatencyHistogram> operations = new ConcurrentHashMap<>();
+
+    /** The histograms of the executions, by engine and numeric mode. */
+    private final ConcurrentMap<String, LatencyHistogram> executions = new ConcurrentHashMap<>();
+
+    /** The hit and miss counters of the caches, by name. */
+    private final ConcurrentMap<String, LongAdder[]> caches = new ConcurrentHashMap<>();
+
+    /**
+     * hidden constructor.
+     */
+    private HistogramMetrics() {
+        super();
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * factory method obtaining new empty metrics.
+     *
+     * @return new histogram metrics
+     */
+    public static HistogramMetrics newInstance() {
+        return new HistogramMetrics();
+    }
+
+    /**
+     * registers these metrics on the platform MBean server, with the
+     * {@value #OBJECT_NAME} object name.
+     *
+     * @return the object name of the registered MBean
+     * @throws IllegalStateException if the MBean cannot be registered, for
+     *         example if other metrics are registered with the same name
+     */
+    public ObjectName register() throws IllegalStateException {
+        return register(OBJECT_NAME);
+    }
+
+    /**
+     * registers these metrics on the platform MBean server.
+     *
+     * @param name the object name of the MBean
+     * @return the object name of the registered MBean
+     * @throws IllegalStateException if the MBean cannot be registered, for
+     *         example if other metrics are registered with the same name
+     */
+    public ObjectName register(String name) throws IllegalStateException {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            return server.registerMBean(this, new ObjectName(name)).getObjectName();
+        } catch (JMException ex) {
+            throw new IllegalStateException("cannot register calculation metrics as '" + name + "'", ex);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void recordPhase(Phase phase, long nanos, int tokens) {
+        phases.get(phase).record(nanos, tokens);
+    }
+
+    @Override
+    public void recordOperation(CharSequence symbol, long nanos) {
+        operations.computeIfAbsent(symbol.toString(), key -> new LatencyHistogram()).record(nanos);
+    }
+
+    @Override
+    public void recordExecution(Engine engine, NumericMode mode, long nanos, int rows) {
+        executions.computeIfAbsent(executionKey(engine, mode), key -> new LatencyHistogram()).record(nanos, rows);
+    }
+
+    @Override
+    public void recordCache(String cache, boolean hit) {
+        caches.computeIfAbsent(cache, key -> new LongAdder[] {new LongAdder(), new LongAdder()})[hit ? 0 : 1]
+                .increment();
+    }
+
+    /**
+     * gets the histogram of a phase.
+     *
+     * @param phase the phase
+     * @return the histogram of the phase
+     */
+    public LatencyHistogram getPhase(Phase phase) {
+        return phases.get(phase);
+    }
+
+    /**
+     * gets the histogram of an operator or function.
+     *
+     * @param symbol the symbol of the operator or function
+     * @return the histogram of the operator or function, or null if it was
+     *         never invoked
+     */
+    public LatencyHistogram getOperation(CharSequence symbol) {
+        return operations.get(symbol.toString());
+    }
+
+    /**
+     * gets the histogram of the executions of compiled expressions by an
+     * engine in a numeric mode.
+     *
+     * @param engine the engine
+     * @param mode the numeric mode
+     * @return the histogram of the executions, or null if the engine never
+     *         executed an expression in the given mode
+     */
+    public LatencyHistogram getExecution(Engine engine, NumericMode mode) {
+        return executions.get(executionKey(engine, mode));
+    }
+
+    /**
+     * gets the ratio of hits to lookups of a cache.
+     *
+     * @param cache the name of the cache
+     * @return the hit ratio, or zero if the cache was never looked up
+     */
+    public double getCacheHitRatio(String cache) {
+        LongAdder[] counters = caches.get(cache);
+        if (null == counters) {
+            return 0d;
+        }
+        long hits = counters[0].sum();
+        long total = hits + counters[1].sum();
+        return total == 0 ? 0d : (double) hits / total;
+    }
+
+    @Override
+    public Map<String, Long> getPhaseCounts() {
+        return byPhase(LatencyHistogram::getCount);
+    }
+
+    @Override
+    public Map<String, Double> getPhaseMeanNanos() {
+        return byPhase(LatencyHistogram::getMeanNanos);
+    }
+
+    @Override
+    public Map<String, Long> getPhaseP99Nanos() {
+        return byPhase(histogram -> histogram.getPercentileNanos(99));
+    }
+
+    @Override
+    public Map<String, Long> getPhaseTokens() {
+        return byPhase(LatencyHistogram::getTokens);
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        return byOperation(LatencyHistogram::getCount);
+    }
+
+    @Override
+    public Map<String, Double> getOperationMeanNanos() {
+        return byOperation(LatencyHistogram::getMeanNanos);
+    }
+
+    @Override
+    public Map<String, Long> getOperationP99Nanos() {
+        return byOperation(histogram -> histogram.getPercentileNanos(99));
+    }
+
+    @Override
+    public Map<String, Long> getExecutionCounts() {
+        return byExecution(LatencyHistogram::getCount);
+    }
+
+    @Override
+    public Map<String, Double> getExecutionMeanNanos() {
+        return byExecution(LatencyHistogram::getMeanNanos);
+    }
+
+    @Override
+    public Map<String, Long> getExecutionP99Nanos() {
+        return byExecution(histogram -> histogram.getPercentileNanos(99));
+    }
+
+    @Override
+    public Map<String, Long> getExecutionRows() {
+        return byExecution(LatencyHistogram::getTokens);
+    }
+
+    @Override
+    public Map<String, Double> getCacheHitRatios() {
+        Map<String, Double> ratios = new TreeMap<>();
+        caches.keySet().forEach(cache -> ratios.put(cache, getCacheHitRatio(cache)));
+        return Collections.unmodifiableMap(ratios);
+    }
+
+    @Override
+    public void reset() {
+        phases.values().forEach(LatencyHistogram::reset);
+        operations.clear();
+        executions.clear();
+        caches.clear();
+    }
+
+    /**
+     * maps a statistic of the histogram of each phase by the lower case name
+     * of the phase.
+     *
+     * @param <T> the type of the statistic
+     * @param statistic the statistic of a histogram
+     * @return unmodifiable map of the statistic, by phase
+     */
+    private <T> Map<String, T> byPhase(Function<LatencyHistogram, T> statistic) {
+        Map<String, T> values = new TreeMap<>();
+        phases.forEach((phase, histogram) -> values.put(phase.name().toLowerCase(Locale.ROOT),
+                statistic.apply(histogram)));
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * maps a statistic of the histogram of each operator and function by it's
+     * symbol.
+     *
+     * @param <T> the type of the statistic
+     * @param statistic the statistic of a histogram
+     * @return unmodifiable map of the statistic, by symbol
+     */
+    private <T> Map<String, T> byOperation(Function<LatencyHistogram, T> statistic) {
+        Map<String, T> values = new TreeMap<>();
+        operations.forEach((symbol, histogram) -> values.put(symbol, statistic.apply(histogram)));
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * maps a statistic of the histogram of each engine and numeric mode by
+     * their key (see {@link CalculationMetricsMXBean}).
+     *
+     * @param <T> the type of the statistic
+     * @param statistic the statistic of a histogram
+     * @return unmodifiable map of the statistic, by engine and numeric mode
+     */
+    private <T> Map<String, T> byExecution(Function<LatencyHistogram, T> statistic) {
+        Map<String, T> values = new TreeMap<>();
+        executions.forEach((key, histogram) -> values.put(key, statistic.apply(histogram)));
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * gets the key of the executions of an engine in a numeric mode, the lower
+     * case names of both separated by a slash.
+     *
+     * @param engine the engine
+     * @param mode the numeric mode
+     * @return the key of the executions
+     */
+    private static String executionKey(Engine engine, NumericMode mode) {
+        return engine.name().toLowerCase(Locale.ROOT) + "/" + mode.name().toLowerCase(Locale.ROOT);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "HistogramMetrics [phases=" + phases + ", operations=" + new TreeMap<>(operations)
+                + ", executions=" + new TreeMap<>(executions) + ", cacheHitRatios=" + getCacheHitRatios() + "]";
+    }
+}
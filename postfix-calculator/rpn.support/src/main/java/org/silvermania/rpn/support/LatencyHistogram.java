@@ -0,0 +1,178 @@
+/*
+ * File: LatencyHistogram.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.support;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The Class LatencyHistogram counts durations in buckets of powers of two
+ * nanoseconds, so that recording a duration is a few atomic increments, with
+ * no allocation and no lock, and percentiles are accurate to a factor of two.
+ * Histograms may be recorded concurrently.
+ *
+ * @author T.N.Silverman
+ */
+public final class LatencyHistogram {
+
+    /** The number of buckets, one for each bit of a long duration. */
+    private static final int BUCKETS = Long.SIZE;
+
+    /** The number of durations in each bucket, by the number of significant bits of the durations. */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    /** The number of durations. */
+    private final LongAdder count = new LongAdder();
+
+    /** The sum of the durations. */
+    private final LongAdder total = new LongAdder();
+
+    /** The number of tokens the recorded phases processed. */
+    private final LongAdder tokens = new LongAdder();
+
+    /** The maximal duration. */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * records a duration.
+     *
+     * @param nanos the duration, in nanoseconds. Negative durations are
+     *        recorded as zero
+     */
+    public void record(long nanos) {
+        long duration = Math.max(0L, nanos);
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(duration));
+        count.increment();
+        total.add(duration);
+        max.accumulate(duration);
+    }
+
+    /**
+     * records a duration of a phase that processed the given number of tokens.
+     *
+     * @param nanos the duration, in nanoseconds
+     * @param processed the number of tokens processed
+     */
+    public void record(long nanos, int processed) {
+        record(nanos);
+        tokens.add(processed);
+    }
+
+    /**
+     * gets the number of recorded durations.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * gets the sum of the recorded durations.
+     *
+     * @return the total duration, in nanoseconds
+     */
+    public long getTotalNanos() {
+        return total.sum();
+    }
+
+    /**
+     * gets the number of tokens the recorded phases processed.
+     *
+     * @return the number of tokens
+     */
+    public long getTokens() {
+        return tokens.sum();
+    }
+
+    /**
+     * gets the mean of the recorded durations.
+     *
+     * @return the mean duration, in nanoseconds, or zero if none was recorded
+     */
+    public double getMeanNanos() {
+        long recorded = count.sum();
+        return recorded == 0 ? 0d : (double) total.sum() / recorded;
+    }
+
+    /**
+     * gets the maximal recorded duration.
+     *
+     * @return the maximal duration, in nanoseconds
+     */
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    /**
+     * gets an upper bound of the given percentile of the recorded durations,
+     * which is the upper bound of the bucket holding it.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the upper bound of the percentile, in nanoseconds, or zero if no
+     *         duration was recorded
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    public long getPercentileNanos(double percentile) throws IllegalArgumentException {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100!");
+        }
+        long recorded = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            recorded += buckets.get(bucket);
+        }
+        long rank = (long) Math.ceil(recorded * percentile / 100d);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += buckets.get(bucket);
+            if (seen >= rank && seen > 0) {
+                return Math.min(max.get(), (1L << bucket) - 1);
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * removes all the recorded durations.
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            buckets.set(bucket, 0L);
+        }
+        count.reset();
+        total.reset();
+        tokens.reset();
+        max.reset();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return String.format("[count=%d, mean=%.0fns, p50=%dns, p99=%dns, max=%dns]", getCount(), getMeanNanos(),
+                getPercentileNanos(50), getPercentileNanos(99), getMaxNanos());
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * File: NumericMode.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.support;
+
+/**
+ * The Enum NumericMode represents the number representation compiled
+ * expressions are evaluated with. {@code BIG_DECIMAL} evaluates every operator
+ * and function on {@link java.math.BigDecimal} operands, rounded to the
+ * precision of the {@link CalculationContext}. {@code DOUBLE} evaluates on
+ * primitive IEEE 754 {@code double} operands, with no rounding, using the double
+ * operations registered in the context.
+ *
+ * @author T.N.Silverman
+ */
+public enum NumericMode {
+    /** Evaluation on rounded {@code BigDecimal} operands (the default). */
+    BIG_DECIMAL,
+
+    /** Evaluation on primitive {@code double} operands. */
+    DOUBLE;
+}
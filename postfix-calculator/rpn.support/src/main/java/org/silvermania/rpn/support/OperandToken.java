@@ -76,10 +76,10 @@ public final class OperandToken implements Serializable {
      */
     public static OperandToken create(CharSequence numstr,
             CalculationContext context) throws IllegalArgumentException {
-        if (context.getConstantsRegistry().containsKey(Objects
-                .requireNonNull(numstr, "operand token cannot be null"))) {
-            OperandToken token = new OperandToken(
-                    context.getConstantsRegistry().get(numstr).toString());
+        BigDecimal constant = context.getSymbolIndex().get(Objects
+                .requireNonNull(numstr, "operand token cannot be null")).getValue();
+        if (null != constant) {
+            OperandToken token = new OperandToken(constant.toString());
             return token;
         } else {
             logger.trace("constant '{}' is not rgistered", numstr);
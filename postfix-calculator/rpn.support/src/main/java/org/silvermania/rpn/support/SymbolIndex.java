@@ -0,0 +1,400 @@
+/*
+ * File: SymbolIndex.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.support;
+
+import static org.silvermania.rpn.support.Associativity.LEFT;
+import static org.silvermania.rpn.support.Associativity.RIGHT;
+import static org.silvermania.rpn.support.Multiplicity.BINARY;
+import static org.silvermania.rpn.support.Multiplicity.MULTI;
+import static org.silvermania.rpn.support.Multiplicity.UNARY;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * The Class SymbolIndex is an immutable hash index of all the symbols known to
+ * a {@link CalculationContext}. Each symbol maps to an {@link Entry} holding the
+ * operator and/or function it represents, whether it's a constant or a variable,
+ * and the multiplicity and associativity flags queried by {@link TokenUtil}, so
+ * that every such query costs a single hash lookup regardless of the number of
+ * registered tokens.
+ * <p>
+ * The context builds a new index whenever one of it's registries changes. A
+ * child context {@link #overlay(Map) overlays} it's variables on the index of
+ * it's parent instead, without copying it.
+ *
+ * @author T.N.Silverman
+ */
+final class SymbolIndex {
+
+    /** The entry of symbols that are not in the index. */
+    static final Entry NONE = new Entry(null, null, null, false, null, null);
+
+    /** The entries by symbol. */
+    private final Map<String, Entry> entries;
+
+    /** The index the entries are overlaid on, or null. */
+    private final SymbolIndex parent;
+
+    /** The prefix tree of the indexed symbols, built on first use. */
+    private volatile SymbolTrie trie;
+
+    /**
+     * hidden constructor.
+     *
+     * @param parent the index the entries are overlaid on, or null
+     * @param entries the entries by symbol
+     */
+    private SymbolIndex(final SymbolIndex parent, final Map<String, Entry> entries) {
+        super();
+        this.parent = parent;
+        this.entries = entries;
+    }
+
+    /**
+     * factory method building an index of the given registries. When a symbol
+     * occurs more than once in the same registry, the first occurrence wins, as
+     * it does when the registry is scanned.
+     *
+     * @param operators the operators registry
+     * @param functions the functions registry
+     * @param constants the constants registry
+     * @param variables the symbols of the variables registry
+     * @param unaryDoubleOperations the double operations of unary tokens
+     * @param binaryDoubleOperations the double operations of binary tokens
+     * @return a new symbol index
+     */
+    static SymbolIndex create(List<OperatorToken> operators, List<FunctionToken> functions,
+            Map<CharSequence, BigDecimal> constants, Collection<CharSequence> variables,
+            Map<CharSequence, DoubleUnaryOperator> unaryDoubleOperations,
+            Map<CharSequence, DoubleBinaryOperator> binaryDoubleOperations) {
+        Map<String, OperatorToken> operatorsBySymbol = new HashMap<>();
+        operators.forEach(o -> operatorsBySymbol.putIfAbsent(o.getSymbol().toString(), o));
+        Map<String, FunctionToken> functionsBySymbol = new HashMap<>();
+        functions.forEach(f -> functionsBySymbol.putIfAbsent(f.getSymbol().toString(), f));
+        Map<String, BigDecimal> constantsBySymbol = new HashMap<>();
+        constants.forEach((symbol, value) -> constantsBySymbol.put(symbol.toString(), value));
+        Set<String> variableSymbols = variables.stream().map(CharSequence::toString).collect(Collectors.toSet());
+        Set<String> symbols = new HashSet<>(operatorsBySymbol.keySet());
+        symbols.addAll(functionsBySymbol.keySet());
+        symbols.addAll(constantsBySymbol.keySet());
+        symbols.addAll(variableSymbols);
+        Map<String, DoubleUnaryOperator> unaryBySymbol = new HashMap<>();
+        unaryDoubleOperations.forEach((symbol, operation) -> unaryBySymbol.put(symbol.toString(), operation));
+        Map<String, DoubleBinaryOperator> binaryBySymbol = new HashMap<>();
+        binaryDoubleOperations.forEach((symbol, operation) -> binaryBySymbol.put(symbol.toString(), operation));
+        Map<String, Entry> entries = new HashMap<>();
+        symbols.forEach(symbol -> entries.put(symbol, new Entry(operatorsBySymbol.get(symbol),
+                functionsBySymbol.get(symbol), constantsBySymbol.get(symbol), variableSymbols.contains(symbol),
+                unaryBySymbol.get(symbol), binaryBySymbol.get(symbol))));
+        return new SymbolIndex(null, entries);
+    }
+
+    /**
+     * creates an index of the given {@code variables} overlaid on this index.
+     * Lookups of other symbols fall through to this index, so the cost of the
+     * overlay is proportional to the number of variables only. An overlay of an
+     * overlay is flattened, so lookups never fall through more than once.
+     *
+     * @param variables the variable values by symbol
+     * @return a new symbol index
+     */
+    SymbolIndex overlay(Map<CharSequence, BigDecimal> variables) {
+        SymbolIndex base = null == parent ? this : parent;
+        Map<String, Entry> overlaid = new HashMap<>(null == parent ? Map.of() : entries);
+        variables.forEach((symbol, value) -> {
+            Entry entry = base.get(symbol);
+            overlaid.put(symbol.toString(), new Entry(entry.operator, entry.function, value, true,
+                    entry.unaryDoubleOperation, entry.binaryDoubleOperation));
+        });
+        return new SymbolIndex(base, overlaid);
+    }
+
+    /**
+     * gets the entry of the given {@code token}.
+     *
+     * @param token the token to look up
+     * @return the entry of the given {@code token} or {@link #NONE} if the
+     *         token is null or not a known symbol. A multiple arguments
+     *         function symbol marked with it's arity (see
+     *         {@link FunctionToken#ARITY_MARKER}) gets the entry of the function
+     */
+    Entry get(CharSequence token) {
+        if (null == token) {
+            return NONE;
+        }
+        String symbol = token.toString();
+        Entry entry = lookup(symbol);
+        if (entry == NONE && TokenUtil.getArity(symbol) > 0) {
+            // a multiple arguments function marked with it's arity, such as sum#3
+            Entry function = lookup(symbol.substring(0, symbol.lastIndexOf(FunctionToken.ARITY_MARKER.toString())));
+            return function.isMultiArgFunction() ? function : NONE;
+        }
+        return entry;
+    }
+
+    /**
+     * looks up the entry of the given {@code symbol} in this index and then in
+     * the index it's entries are overlaid on.
+     *
+     * @param symbol the symbol to look up
+     * @return the entry of the symbol or {@link #NONE}
+     */
+    private Entry lookup(String symbol) {
+        Entry entry = entries.get(symbol);
+        if (null == entry) {
+            return null == parent ? NONE : parent.lookup(symbol);
+        }
+        return entry;
+    }
+
+    /**
+     * performs the given {@code action} for each indexed symbol and it's entry.
+     *
+     * @param action the action to perform
+     */
+    void forEach(BiConsumer<String, Entry> action) {
+        if (null != parent) {
+            parent.forEach((symbol, entry) -> {
+                if (!entries.containsKey(symbol)) {
+                    action.accept(symbol, entry);
+                }
+            });
+        }
+        entries.forEach(action);
+    }
+
+    /**
+     * gets the prefix tree of the indexed symbols.
+     *
+     * @return the symbol trie
+     */
+    SymbolTrie getTrie() {
+        SymbolTrie result = trie;
+        if (null == result) {
+            // racing threads build equal tries
+            result = SymbolTrie.create(this);
+            trie = result;
+        }
+        return result;
+    }
+
+    /**
+     * gets the number of indexed symbols.
+     *
+     * @return the number of indexed symbols
+     */
+    int size() {
+        if (null == parent) {
+            return entries.size();
+        }
+        int[] size = {0};
+        forEach((symbol, entry) -> size[0]++);
+        return size[0];
+    }
+
+    /**
+     * The Class Entry holds everything known about a single symbol.
+     */
+    static final class Entry {
+
+        /** The operator of the symbol, if any. */
+        private final OperatorToken operator;
+
+        /** The function of the symbol, if any. */
+        private final FunctionToken function;
+
+        /** The value of the symbol if it's a constant or a variable. */
+        private final BigDecimal value;
+
+        /** true if the symbol is a variable. */
+        private final boolean variable;
+
+        /** true if the symbol is a binary operator or a binary function. */
+        private final boolean binaryArithmetic;
+
+        /** true if the symbol is an unary operator or an unary function. */
+        private final boolean unaryArithmetic;
+
+        /** The double operation of an unary arithmetic token, if any. */
+        private final DoubleUnaryOperator unaryDoubleOperation;
+
+        /** The double operation of a binary arithmetic token, if any. */
+        private final DoubleBinaryOperator binaryDoubleOperation;
+
+        /**
+         * Instantiates a new entry and precomputes it's flags.
+         *
+         * @param operator the operator of the symbol or null
+         * @param function the function of the symbol or null
+         * @param value the value of the symbol if it's a constant, or null
+         * @param variable true if the symbol is a variable
+         * @param unaryDoubleOperation the double operation of the symbol or null
+         * @param binaryDoubleOperation the double operation of the symbol or null
+         */
+        private Entry(final OperatorToken operator, final FunctionToken function, final BigDecimal value,
+                final boolean variable, final DoubleUnaryOperator unaryDoubleOperation,
+                final DoubleBinaryOperator binaryDoubleOperation) {
+            super();
+            this.operator = operator;
+            this.function = function;
+            this.value = value;
+            this.variable = variable;
+            this.binaryArithmetic = is(operator, BINARY) || is(function, BINARY);
+            this.unaryArithmetic = is(operator, UNARY) || is(function, UNARY);
+            // a double operation is only kept if it fits the resolved token
+            ArithmeticToken token = getArithmeticToken();
+            this.unaryDoubleOperation = is(token, UNARY) ? unaryDoubleOperation : null;
+            this.binaryDoubleOperation = is(token, BINARY) ? binaryDoubleOperation : null;
+        }
+
+        /**
+         * checks the multiplicity of a nullable token.
+         *
+         * @param token the token or null
+         * @param multiplicity the multiplicity
+         * @return true if the token is not null and has the given multiplicity
+         */
+        private static boolean is(ArithmeticToken token, Multiplicity multiplicity) {
+            return null != token && token.getMultiplicity() == multiplicity;
+        }
+
+        /**
+         * checks the multiplicity and associativity of the operator.
+         *
+         * @param multiplicity the multiplicity
+         * @param associativity the associativity
+         * @return true if the symbol is an operator with the given multiplicity
+         *         and associativity
+         */
+        private boolean isOperator(Multiplicity multiplicity, Associativity associativity) {
+            return is(operator, multiplicity) && operator.getAssociativity() == associativity;
+        }
+
+        OperatorToken getOperator() {
+            return operator;
+        }
+
+        FunctionToken getFunction() {
+            return function;
+        }
+
+        /**
+         * gets the arithmetic token of the symbol. Operators take precedence
+         * over functions with the same symbol.
+         *
+         * @return the operator or function of the symbol, or null
+         */
+        ArithmeticToken getArithmeticToken() {
+            return null != operator ? operator : function;
+        }
+
+        DoubleUnaryOperator getUnaryDoubleOperation() {
+            return unaryDoubleOperation;
+        }
+
+        DoubleBinaryOperator getBinaryDoubleOperation() {
+            return binaryDoubleOperation;
+        }
+
+        boolean isOperator() {
+            return null != operator;
+        }
+
+        boolean isFunction() {
+            return null != function;
+        }
+
+        boolean isArithmetic() {
+            return null != operator || null != function;
+        }
+
+        BigDecimal getValue() {
+            return value;
+        }
+
+        boolean isConstant() {
+            return null != value;
+        }
+
+        boolean isVariable() {
+            return variable;
+        }
+
+        boolean isBinaryArithmetic() {
+            return binaryArithmetic;
+        }
+
+        boolean isUnaryArithmetic() {
+            return unaryArithmetic;
+        }
+
+        boolean isMultiArgFunction() {
+            return is(function, MULTI);
+        }
+
+        boolean isBinaryOperator() {
+            return is(operator, BINARY);
+        }
+
+        boolean isMultiOperator() {
+            return is(operator, MULTI);
+        }
+
+        boolean isUnaryOperator() {
+            return is(operator, UNARY);
+        }
+
+        boolean isPostfixUnaryOperator() {
+            return isOperator(UNARY, RIGHT);
+        }
+
+        boolean isPrefixUnaryOperator() {
+            return isOperator(UNARY, LEFT);
+        }
+
+        boolean isPrefixBinaryOperator() {
+            return isOperator(BINARY, LEFT);
+        }
+
+        boolean isPrefixMultiOperator() {
+            return isOperator(MULTI, LEFT);
+        }
+
+        boolean isPostfixBinaryOperator() {
+            return isOperator(BINARY, RIGHT);
+        }
+
+        boolean isPostfixMultiOperator() {
+            return isOperator(MULTI, RIGHT);
+        }
+    }
+}
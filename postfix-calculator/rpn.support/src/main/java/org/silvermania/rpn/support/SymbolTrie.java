@@ -0,0 +1,171 @@
+/*
+ * File: SymbolTrie.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.support;
+
+import java.util.Arrays;
+
+/**
+ * The Class SymbolTrie is an immutable prefix tree of all the operator,
+ * function, constant and variable symbols registered in a
+ * {@link CalculationContext}. Tokenizers walk it one character at a time to
+ * find out whether the characters read so far spell a registered symbol, and
+ * whether any longer symbol may still follow, without allocating a
+ * {@link CharSequence} per candidate prefix.
+ *
+ * @author T.N.Silverman
+ */
+public final class SymbolTrie {
+
+    /** The root node, representing the empty prefix. */
+    private final Node root = new Node();
+
+    /**
+     * hidden constructor.
+     */
+    private SymbolTrie() {
+        super();
+    }
+
+    /**
+     * factory method building a trie of the symbols in the given index.
+     *
+     * @param index the symbol index of a calculation context
+     * @return a new trie
+     */
+    static SymbolTrie create(SymbolIndex index) {
+        SymbolTrie trie = new SymbolTrie();
+        index.forEach((symbol, entry) -> {
+            Node node = trie.root;
+            for (int idx = 0; idx < symbol.length(); idx++) {
+                node = node.add(symbol.charAt(idx));
+            }
+            node.symbol = true;
+            node.arithmetic = entry.isArithmetic();
+            node.constant = entry.isConstant();
+        });
+        return trie;
+    }
+
+    /**
+     * gets the root node of this trie, representing the empty prefix.
+     *
+     * @return the root node
+     */
+    public Node root() {
+        return root;
+    }
+
+    /**
+     * The Class Node is a prefix of one or more registered symbols.
+     */
+    public static final class Node {
+
+        /** The characters leading to the child nodes, sorted. */
+        private char[] keys = new char[0];
+
+        /** The child nodes, in the order of their keys. */
+        private Node[] children = new Node[0];
+
+        /** true if this prefix is a registered symbol. */
+        private boolean symbol;
+
+        /** true if this prefix is an operator or function symbol. */
+        private boolean arithmetic;
+
+        /** true if this prefix is a constant or variable symbol. */
+        private boolean constant;
+
+        /**
+         * hidden constructor.
+         */
+        private Node() {
+            super();
+        }
+
+        /**
+         * gets or creates the child node of the given character.
+         *
+         * @param key the character
+         * @return the child node
+         */
+        private Node add(char key) {
+            int idx = Arrays.binarySearch(keys, key);
+            if (idx >= 0) {
+                return children[idx];
+            }
+            int insertion = -idx - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertion);
+            System.arraycopy(children, 0, newChildren, 0, insertion);
+            newKeys[insertion] = key;
+            newChildren[insertion] = new Node();
+            System.arraycopy(keys, insertion, newKeys, insertion + 1, keys.length - insertion);
+            System.arraycopy(children, insertion, newChildren, insertion + 1, children.length - insertion);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[insertion];
+        }
+
+        /**
+         * gets the node of this prefix followed by the given character.
+         *
+         * @param key the next character
+         * @return the node of the longer prefix or null if no registered symbol
+         *         starts with it
+         */
+        public Node next(char key) {
+            int idx = Arrays.binarySearch(keys, key);
+            return idx >= 0 ? children[idx] : null;
+        }
+
+        /**
+         * returns true if this prefix is a registered symbol.
+         *
+         * @return true if this prefix is a registered operator, function,
+         *         constant or variable symbol, otherwise false
+         */
+        public boolean isSymbol() {
+            return symbol;
+        }
+
+        /**
+         * returns true if this prefix is an operator or function symbol.
+         *
+         * @return true if this prefix is a registered operator or function
+         *         symbol, otherwise false
+         */
+        public boolean isArithmetic() {
+            return arithmetic;
+        }
+
+        /**
+         * returns true if this prefix is a constant or variable symbol.
+         *
+         * @return true if this prefix is a registered constant or variable
+         *         symbol, otherwise false
+         */
+        public boolean isConstant() {
+            return constant;
+        }
+    }
+}
@@ -21,17 +21,16 @@
  */
 package org.silvermania.rpn.support;
 
+import static org.silvermania.rpn.support.FunctionToken.ARITY_MARKER;
 import static org.silvermania.rpn.support.FunctionToken.FUNC_ARG_SEPARATOR;
-import static org.silvermania.rpn.support.Multiplicity.BINARY;
-import static org.silvermania.rpn.support.Multiplicity.MULTI;
-import static org.silvermania.rpn.support.Multiplicity.UNARY;
 
 import java.text.DecimalFormatSymbols;
 import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.function.Function;
+import java.util.Optional;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
 
 
 /**
@@ -63,52 +62,6 @@ public final class TokenUtil {
     /** The closing curly bracket constant. */
     public static final CharSequence CLOSING_CURLY_BRACKET = "}";
 
-    /*
-     * Predicate creation functions (parameterized lambda expressions) to help
-     * keep consistency with {@link Predicate} evaluations
-     */
-
-    private static Function<CharSequence, Predicate<OperatorToken>> equality =
-        token -> operator -> operator.getSymbol().equals(token);
-
-    private static Function<CharSequence, Predicate<OperatorToken>> binarity =
-        token -> operator -> operator.getMultiplicity() == BINARY;
-
-    private static Function<CharSequence,
-            Predicate<OperatorToken>> multiplicity =
-                token -> operator -> operator
-                        .getMultiplicity() == MULTI;
-
-    /** The unarity. */
-    private static Function<CharSequence, Predicate<OperatorToken>> unarity =
-        token -> operator -> operator.getMultiplicity() == UNARY;
-
-    /** The left associativity. */
-    private static Function<CharSequence,
-            Predicate<OperatorToken>> leftAssociativity =
-                token -> operator -> operator
-                        .getAssociativity() == Associativity.LEFT;
-
-    /** The right associativity. */
-    private static Function<CharSequence,
-            Predicate<OperatorToken>> rightAssociativity =
-                token -> operator -> operator
-                        .getAssociativity() == Associativity.RIGHT;
-
-    /** The left right associativity. */
-    /*
-     * private static Function<CharSequence, Predicate<OperatorToken>>
-     * leftRightAssociativity = token -> operator -> operator
-     * .getAssociativity() == Associativity.LEFT_RIGHT;
-     */
-
-    /** The right left associativity. */
-    /*
-     * private static Function<CharSequence, Predicate<OperatorToken>>
-     * rightLeftAssociativity = token -> operator -> operator
-     * .getAssociativity() == Associativity.RIGHT_LEFT;
-     */
-
     /**
      * Instantiates a new token util.
      */
@@ -130,10 +83,9 @@ public final class TokenUtil {
      */
     public static OperandToken getConstant(CharSequence token,
             CalculationContext context) {
-        return context.getConstantsRegistry().entrySet().stream()
-                .filter(e -> e.getKey().equals(token))
-                .map(e -> OperandToken.create(e.getValue().toString(), context))
-                .findAny().orElseThrow();
+        return Optional.ofNullable(context.getSymbolIndex().get(token).getValue())
+                .map(value -> OperandToken.create(value.toString(), context))
+                .orElseThrow();
     }
 
     /**
@@ -147,8 +99,24 @@ public final class TokenUtil {
      */
     public static boolean isNumericConstant(CharSequence token,
             CalculationContext context) {
-        return context.getConstantsRegistry().keySet().stream()
-                .anyMatch(k -> k.equals(token));
+        return context.getSymbolIndex().get(token).isConstant();
+    }
+
+    /**
+     * returns true if the given {@code token} is a variable added to the
+     * context with
+     * {@link CalculationContext#addVariable(CharSequence, java.math.BigDecimal)}.
+     * Variables are operands too, so every variable is also a numeric constant
+     * in terms of {@link #isNumericConstant(CharSequence, CalculationContext)}.
+     *
+     * @param token the given token
+     * @param context the calculation context on which to look for the variable
+     * @return true if the given {@code token} is a registered variable,
+     *         otherwise false
+     */
+    public static boolean isVariable(CharSequence token,
+            CalculationContext context) {
+        return context.getSymbolIndex().get(token).isVariable();
     }
 
     /**
@@ -288,8 +256,7 @@ public final class TokenUtil {
      */
     public static boolean isFunction(CharSequence token,
             CalculationContext context) {
-        return context.getFunctionsRegistry().stream()
-                .anyMatch(f -> f.getSymbol().equals(token));
+        return context.getSymbolIndex().get(token).isFunction();
     }
 
     /**
@@ -305,8 +272,7 @@ public final class TokenUtil {
      */
     public static boolean isOperator(CharSequence token,
             CalculationContext context) {
-        return context.getOperatorRegistry().stream()
-                .anyMatch(equality.apply(token));
+        return context.getSymbolIndex().get(token).isOperator();
     }
 
     /**
@@ -322,13 +288,66 @@ public final class TokenUtil {
      */
     public static ArithmeticToken getArithmeticToken(CharSequence token,
             CalculationContext context) {
-        return Stream
-                .concat(context.getOperatorRegistry().stream(),
-                        context.getFunctionsRegistry().stream())
-                .filter(t -> t.getSymbol().equals(token)).findAny()
+        return Optional.ofNullable(
+                context.getSymbolIndex().get(token).getArithmeticToken())
                 .orElseThrow();
     }
 
+    /**
+     * returns the double precision operation of the unary operator or function
+     * matching the token.
+     *
+     * @param token the token representing the symbol of the operator or
+     *        function
+     * @param context the calculation context on which to look for the
+     *        operation
+     * @return the double precision operation of the token
+     * @throws NoSuchElementException if the token does not match an unary
+     *         operator or function with a registered double operation
+     */
+    public static DoubleUnaryOperator getUnaryDoubleOperation(CharSequence token,
+            CalculationContext context) throws NoSuchElementException {
+        return Optional.ofNullable(
+                context.getSymbolIndex().get(token).getUnaryDoubleOperation())
+                .orElseThrow();
+    }
+
+    /**
+     * returns the double precision operation of the binary operator or
+     * function matching the token.
+     *
+     * @param token the token representing the symbol of the operator or
+     *        function
+     * @param context the calculation context on which to look for the
+     *        operation
+     * @return the double precision operation of the token
+     * @throws NoSuchElementException if the token does not match a binary
+     *         operator or function with a registered double operation
+     */
+    public static DoubleBinaryOperator getBinaryDoubleOperation(CharSequence token,
+            CalculationContext context) throws NoSuchElementException {
+        return Optional.ofNullable(
+                context.getSymbolIndex().get(token).getBinaryDoubleOperation())
+                .orElseThrow();
+    }
+
+    /**
+     * returns true if the token matches an unary or binary operator or
+     * function with a registered double precision operation, otherwise false.
+     *
+     * @param token the token matching operator or function
+     * @param context the calculation context on which to look for the
+     *        operation
+     * @return true if the token can be evaluated in
+     *         {@link NumericMode#DOUBLE} mode, otherwise false
+     */
+    public static boolean isDoubleArithmeticToken(CharSequence token,
+            CalculationContext context) {
+        SymbolIndex.Entry entry = context.getSymbolIndex().get(token);
+        return null != entry.getUnaryDoubleOperation()
+                || null != entry.getBinaryDoubleOperation();
+    }
+
     /**
      * returns true if the token matches an operator or a function or else
      * false.
@@ -341,10 +360,7 @@ public final class TokenUtil {
      */
     public static boolean isArithmeticToken(CharSequence token,
             CalculationContext context) {
-        return Stream
-                .concat(context.getOperatorRegistry().stream(),
-                        context.getFunctionsRegistry().stream())
-                .anyMatch(t -> t.getSymbol().equals(token));
+        return context.getSymbolIndex().get(token).isArithmetic();
     }
 
     /**
@@ -359,11 +375,7 @@ public final class TokenUtil {
      */
     public static boolean isBinaryArithmeticToken(CharSequence token,
             CalculationContext context) {
-        return Stream
-                .concat(context.getOperatorRegistry().stream(),
-                        context.getFunctionsRegistry().stream())
-                .anyMatch(t -> t.getSymbol().equals(token)
-                        && t.getMultiplicity() == BINARY);
+        return context.getSymbolIndex().get(token).isBinaryArithmetic();
     }
 
     /**
@@ -378,9 +390,54 @@ public final class TokenUtil {
      */
     public static boolean isMultiArgArithmeticToken(CharSequence token,
             CalculationContext context) {
-        return context.getFunctionsRegistry().stream()
-                .anyMatch(t -> t.getSymbol().equals(token)
-                        && t.getMultiplicity() == MULTI);
+        return context.getSymbolIndex().get(token).isMultiArgFunction();
+    }
+
+    /**
+     * gets the number of arguments marked on a multiple arguments function
+     * token with the {@link FunctionToken#ARITY_MARKER}, for example 3 for the
+     * token {@code sum#3}.
+     *
+     * @param token the token
+     * @return the marked number of arguments, or -1 if the token is null or is
+     *         not marked with a positive number of arguments
+     */
+    public static int getArity(CharSequence token) {
+        if (null == token) {
+            return -1;
+        }
+        String value = token.toString();
+        int marker = value.lastIndexOf(ARITY_MARKER.toString());
+        int digits = value.length() - marker - 1;
+        if (marker < 1 || digits < 1 || digits > 9) {
+            return -1;
+        }
+        int arity = 0;
+        for (int idx = marker + 1; idx < value.length(); idx++) {
+            char c = value.charAt(idx);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            arity = arity * 10 + (c - '0');
+        }
+        return arity > 0 ? arity : -1;
+    }
+
+    /**
+     * marks the given multiple arguments function symbol with the number of
+     * arguments it is applied to (e.g. {@code sum#3}). A symbol that is
+     * already marked is marked anew.
+     *
+     * @param symbol the function symbol, marked or not
+     * @param arity the number of arguments
+     * @return the marked symbol
+     */
+    public static CharSequence markArity(CharSequence symbol, int arity) {
+        String value = symbol.toString();
+        if (getArity(value) > 0) {
+            value = value.substring(0, value.lastIndexOf(ARITY_MARKER.toString()));
+        }
+        return value + ARITY_MARKER + arity;
     }
 
     /**
@@ -395,11 +452,7 @@ public final class TokenUtil {
      */
     public static boolean isUnaryArithmeticToken(CharSequence token,
             CalculationContext context) {
-        return Stream
-                .concat(context.getOperatorRegistry().stream(),
-                        context.getFunctionsRegistry().stream())
-                .anyMatch(t -> t.getSymbol().equals(token)
-                        && t.getMultiplicity() == UNARY);
+        return context.getSymbolIndex().get(token).isUnaryArithmetic();
     }
 
     /**
@@ -414,8 +467,7 @@ public final class TokenUtil {
      */
     public static boolean isBinaryOperator(CharSequence token,
             CalculationContext context) {
-        return context.getOperatorRegistry().stream()
-                .anyMatch(equality.apply(token).and(binarity.apply(token)));
+        return context.getSymbolIndex().get(token).isBinaryOperator();
     }
 
     /**
@@ -430,8 +482,7 @@ public final class TokenUtil {
      */
     public static boolean isMultiOperator(CharSequence token,
             CalculationContext context) {
-        return context.getOperatorRegistry().stream()
-                .anyMatch(equality.apply(token).and(multiplicity.apply(token)));
+        return context.getSymbolIndex().get(token).isMultiOperator();
     }
 
     /**
@@ -446,8 +497,7 @@ public final class TokenUtil {
      */
     public static boolean isUnaryOperator(CharSequence token,
             CalculationContext context) {
-        return context.getOperatorRegistry().stream()
-                .anyMatch(equality.apply(token).and(unarity.apply(token)));
+        return context.getSymbolIndex().get(token).isUnaryOperator();
     }
 
     /**
@@ -463,9 +513,7 @@ public final class TokenUtil {
      */
     public static boolean isPostfixUnaryOperator(CharSequence token,
             CalculationContext context) {
-        return context.getOperatorRegistry().stream()
-                .anyMatch(equality.apply(token).and(unarity.apply(token))
-                        .and(rightAssociativity.apply(token)));
+        return context.getSymbolIndex().get(token).isPostfixUnaryOperator();
     }
 
     /**
@@ -481,9 +529,7 @@ public final class TokenUtil {
      */
     public static boolean isPrefixUnaryOperator(CharSequence token,
             CalculationContext context) {
-        return context.getOperatorRegistry().stream()
-                .anyMatch(equality.apply(token).and(unarity.apply(token))
-                        .and(leftAssociativity.apply(token)));
+        return context.getSymbolIndex().get(token).isPrefixUnaryOperator();
     }
 
     /**
@@ -498,10 +544,7 @@ public final class TokenUtil {
      */
     public static boolean isPrefixBinaryOperator(CharSequence token,
             CalculationContext context) {
-        return context.getOperatorRegistry().stream()
-                .anyMatch(equality.apply(token).and(binarity.apply(token))
-                        .and(leftAssociativity.apply(token)
-                        /* .or(leftRightAssociativity.apply(token)) */));
+        return context.getSymbolIndex().get(token).isPrefixBinaryOperator();
     }
 
     /**
@@ -517,10 +560,7 @@ public final class TokenUtil {
      */
     public static boolean isPrefixMultiOperator(CharSequence token,
             CalculationContext context) {
-        return context.getOperatorRegistry().stream()
-                .anyMatch(equality.apply(token).and(multiplicity.apply(token))
-                        .and(leftAssociativity.apply(token)
-                        /* .or(leftRightAssociativity.apply(token)) */));
+        return context.getSymbolIndex().get(token).isPrefixMultiOperator();
     }
 
     /**
@@ -535,10 +575,7 @@ public final class TokenUtil {
      */
     public static boolean isPostfixBinaryOperator(CharSequence token,
             CalculationContext context) {
-        return context.getOperatorRegistry().stream()
-                .anyMatch(equality.apply(token).and(binarity.apply(token))
-                        .and(rightAssociativity.apply(token)
-                        /* .or(rightLeftAssociativity.apply(token)) */));
+        return context.getSymbolIndex().get(token).isPostfixBinaryOperator();
     }
 
     /**
@@ -554,10 +591,7 @@ public final class TokenUtil {
      */
     public static boolean isPostfixMultiOperator(CharSequence token,
             CalculationContext context) {
-        return context.getOperatorRegistry().stream()
-                .anyMatch(equality.apply(token).and(multiplicity.apply(token))
-                        .and(rightAssociativity.apply(token)
-                        /* .or(rightLeftAssociativity.apply(token)) */));
+        return context.getSymbolIndex().get(token).isPostfixMultiOperator();
     }
 
     /**
@@ -574,9 +608,7 @@ public final class TokenUtil {
      */
     public static Precedence getOperatorPrecedence(CharSequence token,
             CalculationContext context) throws NoSuchElementException {
-        return context.getOperatorRegistry().stream()
-                .filter(equality.apply(token)).map(OperatorToken::getPrecedence)
-                .findFirst().orElseThrow();
+        return getOperator(token, context).getPrecedence();
     }
 
     /**
@@ -591,8 +623,9 @@ public final class TokenUtil {
      */
     public static OperatorToken getOperator(CharSequence token,
             CalculationContext context) throws NoSuchElementException {
-        return context.getOperatorRegistry().stream()
-                .filter(equality.apply(token)).findAny().orElseThrow();
+        return Optional
+                .ofNullable(context.getSymbolIndex().get(token).getOperator())
+                .orElseThrow();
     }
 
     /**
@@ -609,9 +642,7 @@ public final class TokenUtil {
      */
     public static Associativity getOperatorAssociativity(CharSequence token,
             CalculationContext context) throws NoSuchElementException {
-        return context.getOperatorRegistry().stream()
-                .filter(equality.apply(token))
-                .map(OperatorToken::getAssociativity).findAny().orElseThrow();
+        return getOperator(token, context).getAssociativity();
     }
 
     /**
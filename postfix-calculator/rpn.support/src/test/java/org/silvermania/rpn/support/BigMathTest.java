@@ -0,0 +1,147 @@
+/*
+ * File: BigMathTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.support;
+
+import static java.math.MathContext.DECIMAL128;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class BigMathTest is a unit test case to assert that the
+ * {@link BigMath} functions and constants are correct to the precision they
+ * are computed to, and that the default functions and constants of a
+ * {@link CalculationContext} deliver it's precision.
+ *
+ * @author T.N.Silverman
+ */
+class BigMathTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BigMathTest.class);
+    private static final MathContext MC50 = new MathContext(50);
+
+    @BeforeEach
+    public void beforeEach(TestInfo info) throws Exception {
+        logger.debug("entering {} {}", info.getTestMethod().orElseThrow().getName(), info.getDisplayName());
+    }
+
+    @Test
+    @DisplayName("test constants to 50 digits")
+    public void testConstants() {
+        assertEquals(new BigDecimal("3.1415926535897932384626433832795028841971693993751"), BigMath.pi(MC50));
+        assertEquals(new BigDecimal("2.7182818284590452353602874713526624977572470937000"), BigMath.e(MC50));
+        assertEquals(new BigDecimal("3.141592653589793238462643383279503"), BigMath.pi(DECIMAL128));
+    }
+
+    @ParameterizedTest
+    @DisplayName("test exp, ln and log10 to 50 digits")
+    @CsvSource({"exp,-3.7,0.024723526470339391202757382983402629344505070337871",
+                "ln,12345.678,9.4210613212918319765267839910714460489418336300805",
+                "ln,0.00042,-7.7752558466868601141721271715979390356454320213790",
+                "log10,2,0.30102999566398119521373889472449302676818988146211",
+                "log10,1000,3"})
+    public void testExponentialFunctions(String function, BigDecimal x, BigDecimal expected) {
+        switch (function) {
+            case "exp":
+                assertEquals(expected, BigMath.exp(x, MC50));
+                break;
+            case "ln":
+                assertEquals(expected, BigMath.ln(x, MC50));
+                break;
+            default:
+                assertEquals(expected, BigMath.log10(x, MC50));
+        }
+    }
+
+    @ParameterizedTest
+    @DisplayName("test trigonometric functions to 50 digits")
+    @CsvSource({"sin,100,-0.50636564110975879365655761045978543206503272129066",
+                "cos,1,0.54030230586813971740093660744297660373231042061792",
+                "tan,1,1.5574077246549022305069748074583601730872507723815"})
+    public void testTrigonometricFunctions(String function, BigDecimal x, BigDecimal expected) {
+        switch (function) {
+            case "sin":
+                assertEquals(expected, BigMath.sin(x, MC50));
+                break;
+            case "cos":
+                assertEquals(expected, BigMath.cos(x, MC50));
+                break;
+            default:
+                assertEquals(expected, BigMath.tan(x, MC50));
+        }
+    }
+
+    @ParameterizedTest
+    @DisplayName("test trigonometric functions of right angles are exact")
+    @CsvSource({"0,0,1,0", "90,1,0,", "180,0,-1,0", "-90,-1,0,", "720,0,1,0"})
+    public void testRightAngles(BigDecimal degrees, BigDecimal sin, BigDecimal cos, BigDecimal tan) {
+        assertEquals(sin, BigMath.sinDegrees(degrees, MC50));
+        assertEquals(cos, BigMath.cosDegrees(degrees, MC50));
+        if (null == tan) {
+            assertThrows(IllegalArgumentException.class, () -> BigMath.tanDegrees(degrees, MC50));
+        } else {
+            assertEquals(tan, BigMath.tanDegrees(degrees, MC50));
+        }
+    }
+
+    @Test
+    @DisplayName("test illegal arguments throw")
+    public void testIllegalArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> BigMath.sqrt(BigDecimal.ONE.negate(), MC50));
+        assertThrows(IllegalArgumentException.class, () -> BigMath.ln(BigDecimal.ZERO, MC50));
+        assertThrows(IllegalArgumentException.class, () -> BigMath.log10(BigDecimal.ONE.negate(), MC50));
+    }
+
+    @Test
+    @DisplayName("test default functions and constants deliver decimal 128 precision")
+    public void testDecimal128Context() {
+        CalculationContext context = CalculationContext.DECIMAL128_CONTEXT;
+        BigDecimal[] args = {BigDecimal.ONE};
+        assertEquals(new BigDecimal("0.0174524064372835128194189785163162"),
+                TokenUtil.getArithmeticToken("sin", context).getOperation().apply(args));
+        assertEquals(new BigDecimal("3.1415926535897932384626433832795029"),
+                context.round(context.getSymbolIndex().get("π").getValue()));
+        assertEquals(new BigDecimal("2.7182818284590452353602874713526625"),
+                context.round(context.getSymbolIndex().get("e").getValue()));
+    }
+
+    @Test
+    @DisplayName("test default constants follow the precision of the context")
+    public void testConstantsFollowPrecision() {
+        CalculationContext context = CalculationContext.newInstance();
+        long version = context.getVersion();
+        context.setPrecision(40);
+        assertEquals(version + 1, context.getVersion());
+        assertEquals(BigMath.pi(new MathContext(50)), context.getSymbolIndex().get("PI").getValue());
+    }
+}
@@ -30,11 +30,18 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.silvermania.rpn.support.TokenUtil.getConstant;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -236,6 +243,224 @@ class CalculationContextTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("test not equals when other is in double mode")
+    public void testNotEqualsWhenOtherIsDoubleMode() throws Exception {
+        CalculationContext context = CalculationContext.newInstance();
+        CalculationContext other = CalculationContext.newInstance();
+        other.setNumericMode(NumericMode.DOUBLE);
+        assertEquals(NumericMode.BIG_DECIMAL, context.getNumericMode());
+        assertFalse(context.equals(other));
+    }
+
+    @Test
+    @DisplayName("test register double operations")
+    public void testRegisterDoubleOperations() throws Exception {
+        CalculationContext context = CalculationContext.newInstance();
+        context.registerFunction("neg", Multiplicity.UNARY, arr -> arr[0].negate());
+        assertFalse(TokenUtil.isDoubleArithmeticToken("neg", context));
+        context.registerUnaryDoubleOperation("neg", a -> -a);
+        assertEquals(-2d, TokenUtil.getUnaryDoubleOperation("neg", context).applyAsDouble(2d));
+        assertTrue(TokenUtil.isDoubleArithmeticToken("+", context));
+        assertFalse(TokenUtil.isDoubleArithmeticToken("sum", context));
+        assertThrows(IllegalArgumentException.class, () -> context.registerBinaryDoubleOperation("neg", Math::max));
+        assertThrows(IllegalArgumentException.class, () -> context.registerUnaryDoubleOperation("x", a -> a));
+        assertTrue(context.isDefaultDoubleOperation("*"));
+        assertTrue(context.isDefaultDoubleOperation("√"));
+        assertFalse(context.isDefaultDoubleOperation("neg"));
+        assertFalse(context.isDefaultDoubleOperation(null));
+        context.registerBinaryDoubleOperation("*", (a, b) -> a * b);
+        assertFalse(context.isDefaultDoubleOperation("*"));
+        assertTrue(context.freeze().isDefaultDoubleOperation("+"));
+    }
+
+    @Test
+    @DisplayName("test frozen snapshot is independent and immutable")
+    public void testFreeze() throws Exception {
+        CalculationContext context = CalculationContext.newInstance();
+        context.registerFunction("neg", Multiplicity.UNARY, arr -> arr[0].negate());
+        context.addVariable("r", BigDecimal.ONE);
+        CalculationContext frozen = context.freeze();
+        assertTrue(frozen.isFrozen());
+        assertFalse(context.isFrozen());
+        assertSame(frozen, frozen.freeze());
+        assertEquals(context, frozen);
+        context.setPrecision(2);
+        context.addVariable("r", BigDecimal.TEN);
+        assertEquals(CalculationContext.DEFAULT_PRECISION, frozen.getPrecision());
+        assertEquals(new BigDecimal("1.0"), getConstant("r", frozen).getValue());
+        assertEquals(new BigDecimal("0.5000000"), TokenUtil.getArithmeticToken("/", frozen).getOperation()
+                .apply(new BigDecimal[]{BigDecimal.ONE, BigDecimal.valueOf(2)}));
+        assertTrue(TokenUtil.isFunction("neg", frozen));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setPrecision(2));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.addVariable("x", BigDecimal.ONE));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.registerConstant("λ", BigDecimal.ONE));
+    }
+
+    @Test
+    @DisplayName("test snapshot is reused until the context is modified")
+    public void testFreezeReusesSnapshot() throws Exception {
+        CalculationContext context = CalculationContext.newInstance().addVariable("r", BigDecimal.ONE);
+        CalculationContext frozen = context.freeze();
+        assertSame(frozen, context.freeze());
+        context.setNumericMode(NumericMode.DOUBLE);
+        CalculationContext modified = context.freeze();
+        assertNotSame(frozen, modified);
+        assertEquals(NumericMode.BIG_DECIMAL, frozen.getNumericMode());
+        assertEquals(NumericMode.DOUBLE, modified.getNumericMode());
+        CalculationContext child = context.withVariables(Map.of("h", BigDecimal.ONE));
+        assertSame(child.getConstantsRegistry(), child.getConstantsRegistry());
+        assertSame(child.getVariablesRegistry(), child.getVariablesRegistry());
+        assertTrue(child.getVariablesRegistry().containsAll(List.of("r", "h")));
+        assertSame(modified, child.getRoot());
+        assertSame(modified, child.withVariables(Map.of("w", BigDecimal.ONE)).getRoot());
+        assertEquals(Set.of("h"), child.getOverlaySymbols());
+        assertSame(context, context.getRoot());
+        assertTrue(context.getOverlaySymbols().isEmpty());
+    }
+
+    @Test
+    @DisplayName("test default operators and functions cannot be registered again")
+    public void testDefaultTokensCannotBeReplaced() throws Exception {
+        CalculationContext context = CalculationContext.newInstance();
+        for (OperatorToken operator : context.getOperatorRegistry()) {
+            assertTrue(context.isDefaultArithmeticToken(operator));
+            assertThrows(IllegalArgumentException.class, () -> context.registerOperator(operator.getSymbol(),
+                    Precedence.LOW, Associativity.LEFT, Multiplicity.BINARY, arr -> arr[0]));
+            assertThrows(IllegalArgumentException.class,
+                    () -> context.registerFunction(operator.getSymbol(), Multiplicity.BINARY, arr -> arr[0]));
+        }
+        for (FunctionToken function : context.getFunctionsRegistry()) {
+            assertTrue(context.isDefaultArithmeticToken(function));
+            assertThrows(IllegalArgumentException.class, () -> context.registerOperator(function.getSymbol(),
+                    Precedence.LOW, Associativity.LEFT, Multiplicity.BINARY, arr -> arr[0]));
+            assertThrows(IllegalArgumentException.class,
+                    () -> context.registerFunction(function.getSymbol(), Multiplicity.BINARY, arr -> arr[0]));
+        }
+        context.registerFunction("neg", Multiplicity.UNARY, arr -> arr[0].negate());
+        assertFalse(context.isDefaultArithmeticToken(TokenUtil.getArithmeticToken("neg", context)));
+        CalculationContext child = context.withVariables(Map.of("x", BigDecimal.ONE));
+        assertTrue(child.isDefaultArithmeticToken(TokenUtil.getOperator("+", child)));
+    }
+
+    @Test
+    @DisplayName("test a new value of an existing variable keeps the symbols version")
+    public void testSymbolsVersion() throws Exception {
+        CalculationContext context = CalculationContext.newInstance().addVariable("r", BigDecimal.ONE);
+        long version = context.getVersion();
+        long symbolsVersion = context.getSymbolsVersion();
+        context.addVariable("r", BigDecimal.TEN);
+        assertNotEquals(version, context.getVersion());
+        assertEquals(symbolsVersion, context.getSymbolsVersion());
+        assertEquals(BigDecimal.TEN, context.getVariable("r"));
+        assertNull(context.getVariable("π"));
+        assertNull(context.getVariable("unknown"));
+        context.addVariable("h", BigDecimal.ONE);
+        assertNotEquals(symbolsVersion, context.getSymbolsVersion());
+        assertEquals(BigDecimal.ONE, context.withVariables(Map.of("r", BigDecimal.ONE)).getVariable("r"));
+    }
+
+    @Test
+    @DisplayName("test builder builds frozen contexts")
+    public void testBuilder() throws Exception {
+        CalculationContext.Builder builder = CalculationContext.builder().withPrecision(3)
+                .withRoundingMode(RoundingMode.DOWN).registerConstant("λ", BigDecimal.ONE)
+                .registerFunction("neg", Multiplicity.UNARY, arr -> arr[0].negate())
+                .registerUnaryDoubleOperation("neg", a -> -a).withNumericMode(NumericMode.DOUBLE);
+        CalculationContext context = builder.build();
+        assertTrue(context.isFrozen());
+        assertEquals(3, context.getPrecision());
+        assertEquals(RoundingMode.DOWN, context.getRoundingMode());
+        assertEquals(NumericMode.DOUBLE, context.getNumericMode());
+        assertTrue(TokenUtil.isDoubleArithmeticToken("neg", context));
+        assertTrue(TokenUtil.isNumericConstant("λ", context));
+        CalculationContext other = builder.addVariable("r", BigDecimal.ONE).build();
+        assertTrue(TokenUtil.isVariable("r", other));
+        assertFalse(TokenUtil.isVariable("r", context));
+    }
+
+    @Test
+    @DisplayName("test child contexts overlay variables")
+    public void testWithVariables() throws Exception {
+        CalculationContext parent = CalculationContext.newInstance().addVariable("r", BigDecimal.ONE);
+        CalculationContext child = parent.withVariables(Map.of("r", BigDecimal.TEN, "h", BigDecimal.ONE));
+        assertTrue(child.isFrozen());
+        assertEquals(new BigDecimal("10.0"), getConstant("r", child).getValue());
+        assertEquals(new BigDecimal("1.0"), getConstant("r", parent).getValue());
+        assertTrue(TokenUtil.isVariable("h", child));
+        assertFalse(TokenUtil.isVariable("h", parent));
+        assertTrue(TokenUtil.isBinaryArithmeticToken("+", child));
+        assertEquals(new BigDecimal("1.0"), getConstant("h", child.withVariables(Map.of("x", BigDecimal.ONE))).getValue());
+        assertTrue(child.print().contains("r,h"));
+        assertThrows(IllegalArgumentException.class, () -> parent.withVariables(Map.of("e", BigDecimal.ONE)));
+        assertThrows(UnsupportedOperationException.class, () -> child.addVariable("x", BigDecimal.ONE));
+    }
+
+    @Test
+    @DisplayName("test declare variable")
+    public void testDeclareVariable() throws Exception {
+        CalculationContext context = CalculationContext.newInstance().addVariable("r", BigDecimal.ONE);
+        context.declareVariable("r").declareVariable("h");
+        assertEquals(new BigDecimal("1.0"), getConstant("r", context).getValue());
+        assertEquals(new BigDecimal("0.0"), getConstant("h", context).getValue());
+        assertTrue(TokenUtil.isVariable("h", context));
+        assertThrows(IllegalArgumentException.class, () -> context.declareVariable("π"));
+    }
+
+    @Test
+    @DisplayName("test aggregate functions take any number of arguments")
+    public void testAggregateFunctions() throws Exception {
+        CalculationContext context = CalculationContext.newInstance();
+        BigDecimal large = new BigDecimal("123456789012345678.25");
+        BigDecimal[] args = {new BigDecimal("5"), large, new BigDecimal("-2.0000001"), new BigDecimal("7")};
+        for (String symbol : List.of("min", "max", "avg", "sum")) {
+            assertTrue(TokenUtil.isMultiArgArithmeticToken(symbol, context));
+        }
+        assertEquals(new BigDecimal("-2.0000001"), TokenUtil.getArithmeticToken("min", context).getOperation()
+                .apply(args));
+        assertEquals(large.setScale(7), TokenUtil.getArithmeticToken("max", context).getOperation().apply(args));
+        assertEquals(new BigDecimal("30864197253086422.0625000"),
+                TokenUtil.getArithmeticToken("avg", context).getOperation().apply(args));
+        assertEquals(new BigDecimal("2.0000000"), TokenUtil.getArithmeticToken("avg", context).getOperation()
+                .apply(new BigDecimal[] {BigDecimal.ONE, new BigDecimal("2"), new BigDecimal("3")}));
+    }
+
+    @Test
+    @DisplayName("test compiled forms are cached per kind and version")
+    public void testGetCompiled() throws Exception {
+        CalculationContext context = CalculationContext.newInstance();
+        String first = context.getCompiled("upper", "1 2 +", String::toUpperCase);
+        assertSame(first, context.getCompiled("upper", "1 2 +", postfix -> postfix + "?"));
+        assertEquals("1 2 +!", context.getCompiled("other", "1 2 +", postfix -> postfix + "!"));
+        context.addVariable("x", BigDecimal.ONE);
+        assertEquals("1 2 +?", context.getCompiled("upper", "1 2 +", postfix -> postfix + "?"));
+        assertThrows(ArithmeticException.class, () -> context.getCompiled("fail", "1 0 /", postfix -> 1 / 0));
+        assertEquals(Integer.valueOf(1), context.getCompiled("fail", "1 0 /", postfix -> 1));
+        for (int idx = 0; idx <= CalculationContext.COMPILED_CACHE_SIZE; idx++) {
+            context.getCompiled("many", String.valueOf(idx), postfix -> postfix);
+        }
+        assertEquals("evicted", context.getCompiled("upper", "1 2 +", postfix -> "evicted"));
+    }
+
+    @Test
+    @DisplayName("test compiled forms are shared by child contexts with the same symbols")
+    public void testGetCompiledByChildContexts() throws Exception {
+        CalculationContext frozen = CalculationContext.newInstance().addVariable("x", BigDecimal.ONE).freeze();
+        CalculationContext child = frozen.withVariables(Map.of("x", BigDecimal.TEN));
+        Object first = child.getCompiled("kind", "x 1 +", postfix -> new Object());
+        assertSame(first, frozen.withVariables(Map.of("x", BigDecimal.ZERO)).getCompiled("kind", "x 1 +",
+                postfix -> new Object()));
+        assertSame(first, child.withVariables(Map.of("x", BigDecimal.ONE)).getCompiled("kind", "x 1 +",
+                postfix -> new Object()));
+        assertNotSame(first, frozen.withVariables(Map.of("y", BigDecimal.ONE)).getCompiled("kind", "x 1 +",
+                postfix -> new Object()));
+        assertNotSame(first, frozen.getCompiled("kind", "x 1 +", postfix -> new Object()));
+        CalculationContext context = CalculationContext.newInstance().addVariable("x", BigDecimal.ONE);
+        Object compiled = context.getCompiled("kind", "x 1 +", postfix -> new Object());
+        context.addVariable("x", BigDecimal.TEN);
+        assertSame(compiled, context.getCompiled("kind", "x 1 +", postfix -> new Object()));
+    }
+
     @Test
     @DisplayName("test not equals when other is null")
     public void testNotEqualsWhenOtherIsNull() throws Exception {
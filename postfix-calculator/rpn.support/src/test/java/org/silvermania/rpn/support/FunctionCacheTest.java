@@ -0,0 +1,166 @@
+/*
+ * File: FunctionCacheTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class FunctionCacheTest is a unit test case to assert that a
+ * {@link FunctionCache} memoizes the results of a pure function by the
+ * numeric values of it's arguments, evicts them by it's
+ * {@link EvictionPolicy}, and is reported by the {@link CalculationContext}.
+ *
+ * @author T.N.Silverman
+ */
+class FunctionCacheTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(FunctionCacheTest.class);
+    private AtomicInteger calls;
+
+    @BeforeEach
+    public void beforeEach(TestInfo info) throws Exception {
+        logger.debug("entering {} {}", info.getTestMethod().orElseThrow().getName(), info.getDisplayName());
+        calls = new AtomicInteger();
+    }
+
+    private FunctionCache square(int capacity, EvictionPolicy policy) {
+        return FunctionCache.create(args -> {
+            calls.incrementAndGet();
+            return args[0].multiply(args[0]);
+        }, capacity, policy);
+    }
+
+    private static BigDecimal[] args(String... values) {
+        BigDecimal[] args = new BigDecimal[values.length];
+        for (int idx = 0; idx < values.length; idx++) {
+            args[idx] = new BigDecimal(values[idx]);
+        }
+        return args;
+    }
+
+    @Test
+    @DisplayName("test arguments are normalized by scale")
+    public void testNormalizedArguments() {
+        FunctionCache cache = square(10, EvictionPolicy.LRU);
+        assertEquals(new BigDecimal("4.00"), cache.apply(args("2.0", "0")));
+        assertEquals(new BigDecimal("4.00"), cache.apply(args("2.000", "0.00")));
+        assertEquals(new BigDecimal("4"), cache.apply(args("2", "0", "1")));
+        assertEquals(2, calls.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1d / 3, cache.getHitRatio());
+    }
+
+    @ParameterizedTest
+    @DisplayName("test eviction policies")
+    @CsvSource({"LRU,5", "FIFO,6"})
+    public void testEvictionPolicies(EvictionPolicy policy, int expected) {
+        FunctionCache cache = square(2, policy);
+        cache.apply(args("1"));
+        cache.apply(args("2"));
+        // LRU keeps 1, which was used last, and evicts 2
+        cache.apply(args("1"));
+        cache.apply(args("3"));
+        cache.apply(args("1"));
+        cache.apply(args("2"));
+        cache.apply(args("3"));
+        assertEquals(2, cache.size());
+        assertEquals(expected, calls.get());
+        assertEquals(expected - 2, cache.getEvictions());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> square(0, policy));
+    }
+
+    @Test
+    @DisplayName("test pure functions of a context are memoized")
+    public void testPureFunctions() {
+        CalculationContext context = CalculationContext.newInstance().registerPureFunction("sq", Multiplicity.UNARY,
+                args -> {
+                    calls.incrementAndGet();
+                    return args[0].multiply(args[0]);
+                }, 4, EvictionPolicy.FIFO);
+        ArithmeticToken sq = TokenUtil.getArithmeticToken("sq", context);
+        assertEquals(new BigDecimal("9"), sq.getOperation().apply(args("3", "0")));
+        assertEquals(new BigDecimal("9"), sq.getOperation().apply(args("3", "0")));
+        assertEquals(1, calls.get());
+        FunctionCache cache = context.getFunctionCaches().get("sq");
+        assertEquals(EvictionPolicy.FIFO, cache.getPolicy());
+        assertEquals(4, cache.getCapacity());
+        assertTrue(context.print().contains("sq[hits=1, misses=1, evictions=0, size=1/4, policy=FIFO]"));
+        // statistics are not part of the identity of a context
+        CalculationContext other = CalculationContext.newInstance().registerPureFunction("sq", Multiplicity.UNARY,
+                args -> args[0]);
+        assertEquals(other, context);
+        assertEquals(other.hashCode(), context.hashCode());
+        // results rounded to the previous precision are forgotten
+        context.setPrecision(3);
+        assertEquals(0, cache.size());
+        assertTrue(CalculationContext.newInstance().getFunctionCaches().isEmpty());
+    }
+
+    @Test
+    @DisplayName("test snapshots memoize pure functions with their own caches")
+    public void testSnapshotCaches() {
+        CalculationContext context = CalculationContext.newInstance().registerPureFunction("sq", Multiplicity.UNARY,
+                args -> {
+                    calls.incrementAndGet();
+                    return args[0].multiply(args[0]);
+                });
+        ArithmeticToken sq = TokenUtil.getArithmeticToken("sq", context);
+        sq.getOperation().apply(args("3"));
+        CalculationContext snapshot = context.freeze();
+        FunctionCache cache = snapshot.getFunctionCaches().get("sq");
+        assertNotSame(context.getFunctionCaches().get("sq"), cache);
+        assertSame(cache, snapshot.withVariables(Map.of("x", BigDecimal.ONE)).getFunctionCaches().get("sq"));
+        ArithmeticToken frozen = TokenUtil.getArithmeticToken("sq", snapshot);
+        frozen.getOperation().apply(args("3"));
+        assertEquals(1, calls.get());
+        // a new precision of the context clears it's cache only, while the snapshot keeps evaluating
+        context.setPrecision(3);
+        assertEquals(0, context.getFunctionCaches().get("sq").size());
+        assertEquals(1, cache.size());
+        frozen.getOperation().apply(args("4"));
+        assertEquals(2, cache.size());
+        assertEquals(0, context.getFunctionCaches().get("sq").size());
+        sq.getOperation().apply(args("4"));
+        assertEquals(3, calls.get());
+        assertEquals(1, cache.getHits());
+    }
+}
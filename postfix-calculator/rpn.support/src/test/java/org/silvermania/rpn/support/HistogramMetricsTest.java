@@ -0,0 +1,161 @@
+/*
+ * File: HistogramMetricsTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.silvermania.rpn.support.CalculationMetrics.Engine;
+import org.silvermania.rpn.support.CalculationMetrics.Phase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class HistogramMetricsTest is a unit test case to assert that
+ * {@link HistogramMetrics} record phases, operations and cache lookups in
+ * {@link LatencyHistogram}s, are exposed over JMX, and are notified of the
+ * lookups of the caches of a {@link CalculationContext}.
+ *
+ * @author T.N.Silverman
+ */
+class HistogramMetricsTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistogramMetricsTest.class);
+    private HistogramMetrics metrics;
+
+    @BeforeEach
+    public void beforeEach(TestInfo info) throws Exception {
+        logger.debug("entering {} {}", info.getTestMethod().orElseThrow().getName(), info.getDisplayName());
+        metrics = HistogramMetrics.newInstance();
+    }
+
+    @ParameterizedTest
+    @DisplayName("test histogram percentiles are bounded by their bucket and the maximum")
+    @CsvSource({"0,1023", "50,65535", "90,100000", "99,100000", "100,100000"})
+    public void testPercentiles(double percentile, long expected) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int idx = 1; idx <= 100; idx++) {
+            histogram.record(idx * 1000L, 2);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(200, histogram.getTokens());
+        assertEquals(50500d, histogram.getMeanNanos());
+        assertEquals(100000, histogram.getMaxNanos());
+        assertEquals(expected, histogram.getPercentileNanos(percentile));
+    }
+
+    @Test
+    @DisplayName("test empty and reset histograms")
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0d, histogram.getMeanNanos());
+        assertEquals(0, histogram.getPercentileNanos(99));
+        histogram.record(-5);
+        assertEquals(0, histogram.getTotalNanos());
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(101));
+    }
+
+    @Test
+    @DisplayName("test phases, operations and caches are recorded")
+    public void testRecordings() {
+        metrics.recordPhase(Phase.CONVERT, 100, 5);
+        metrics.recordPhase(Phase.CONVERT, 300, 7);
+        metrics.recordOperation("+", 10);
+        metrics.recordOperation(new StringBuilder("+"), 30);
+        metrics.recordCache("conversion", true);
+        metrics.recordCache("conversion", true);
+        metrics.recordCache("conversion", false);
+        metrics.recordCache("conversion", true);
+        metrics.recordExecution(Engine.METHOD_HANDLES, NumericMode.DOUBLE, 40, 1);
+        metrics.recordExecution(Engine.COLUMNS, NumericMode.BIG_DECIMAL, 600, 3);
+        assertTrue(metrics.isEnabled());
+        assertEquals(2, metrics.getPhase(Phase.CONVERT).getCount());
+        assertEquals(Map.of("normalize", 0L, "convert", 2L, "evaluate", 0L), metrics.getPhaseCounts());
+        assertEquals(12, metrics.getPhaseTokens().get("convert"));
+        assertEquals(200d, metrics.getPhaseMeanNanos().get("convert"));
+        assertEquals(Map.of("+", 2L), metrics.getOperationCounts());
+        assertEquals(20d, metrics.getOperationMeanNanos().get("+"));
+        assertEquals(0.75d, metrics.getCacheHitRatio("conversion"));
+        assertEquals(0d, metrics.getCacheHitRatio("compiled"));
+        assertEquals(Map.of("method_handles/double", 1L, "columns/big_decimal", 1L), metrics.getExecutionCounts());
+        assertEquals(Map.of("method_handles/double", 1L, "columns/big_decimal", 3L), metrics.getExecutionRows());
+        assertEquals(600d, metrics.getExecutionMeanNanos().get("columns/big_decimal"));
+        assertNull(metrics.getExecution(Engine.BYTECODE, NumericMode.DOUBLE));
+        metrics.reset();
+        assertEquals(0, metrics.getPhase(Phase.CONVERT).getCount());
+        assertNull(metrics.getOperation("+"));
+        assertTrue(metrics.getCacheHitRatios().isEmpty());
+        assertTrue(metrics.getExecutionCounts().isEmpty());
+    }
+
+    @Test
+    @DisplayName("test metrics are exposed as an MBean")
+    public void testMBean() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = metrics.register("org.silvermania.rpn:type=CalculationMetrics,name=test");
+        try {
+            metrics.recordPhase(Phase.EVALUATE, 1000, 3);
+            assertTrue(server.isRegistered(name));
+            assertThrows(IllegalStateException.class, () -> metrics.register(name.toString()));
+            server.invoke(name, "reset", null, null);
+            assertEquals(0, metrics.getPhase(Phase.EVALUATE).getCount());
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Test
+    @DisplayName("test context notifies it's metrics of function cache lookups")
+    public void testContextMetrics() {
+        CalculationContext context = CalculationContext.newInstance();
+        assertSame(CalculationMetrics.NOOP, context.getMetrics());
+        context.registerPureFunction("sq", Multiplicity.UNARY, args -> args[0].multiply(args[0]));
+        context.setMetrics(metrics);
+        FunctionCache cache = context.getFunctionCaches().get("sq");
+        cache.apply(new BigDecimal[] {BigDecimal.TEN});
+        cache.apply(new BigDecimal[] {BigDecimal.TEN});
+        assertEquals(0.5d, metrics.getCacheHitRatio("function sq"));
+        CalculationContext frozen = context.freeze();
+        assertSame(metrics, frozen.getMetrics());
+        assertSame(metrics, frozen.withVariables(Map.of("x", BigDecimal.ONE)).getMetrics());
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setMetrics(CalculationMetrics.NOOP));
+        assertSame(metrics, CalculationContext.builder().withMetrics(metrics).build().getMetrics());
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * File: SymbolIndexTest.java
+ * Creation Date: Oct 16, 2026
+ *
+ * Copyright (c) 2019 T.N.Silverman - all rights reserved
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package org.silvermania.rpn.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.silvermania.rpn.support.Associativity.LEFT;
+import static org.silvermania.rpn.support.Multiplicity.BINARY;
+import static org.silvermania.rpn.support.Multiplicity.UNARY;
+import static org.silvermania.rpn.support.Precedence.HIGH;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class SymbolIndexTest is a unit test case to assert that the
+ * {@link SymbolIndex} of a {@link CalculationContext} is kept in sync with it's
+ * registries.
+ *
+ * @author T.N.Silverman
+ */
+class SymbolIndexTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SymbolIndexTest.class);
+    private CalculationContext context;
+
+    @BeforeEach
+    public void beforeEach(TestInfo info) throws Exception {
+        logger.debug("entering {} {}", info.getTestMethod().orElseThrow().getName(), info.getDisplayName());
+        context = CalculationContext.newInstance();
+    }
+
+    @ParameterizedTest
+    @DisplayName("test default symbols are indexed")
+    @CsvSource({"+,true,false,false,true", "sin,false,true,false,false", "max,false,true,false,false",
+                "pct,false,true,false,true", "π,false,false,true,false", "x,false,false,false,false"})
+    public void testDefaultSymbols(String symbol, boolean operator, boolean function, boolean constant,
+            boolean binary) {
+        SymbolIndex.Entry entry = context.getSymbolIndex().get(symbol);
+        assertEquals(operator, entry.isOperator());
+        assertEquals(function, entry.isFunction());
+        assertEquals(constant, entry.isConstant());
+        assertEquals(binary, entry.isBinaryArithmetic());
+    }
+
+    @Test
+    @DisplayName("test null and unknown symbols")
+    public void testUnknownSymbols() {
+        assertSame(SymbolIndex.NONE, context.getSymbolIndex().get(null));
+        assertSame(SymbolIndex.NONE, context.getSymbolIndex().get("unknown"));
+        assertFalse(SymbolIndex.NONE.isArithmetic());
+    }
+
+    @Test
+    @DisplayName("test registrations update the index")
+    public void testRegistrations() {
+        context.registerFunction("neg", UNARY, arr -> arr[0].negate());
+        context.registerOperator("~", HIGH, LEFT, UNARY, arr -> arr[0].negate());
+        context.registerConstant("λ", BigDecimal.ONE);
+        context.addVariable("r", BigDecimal.TEN);
+        assertTrue(context.getSymbolIndex().get("neg").isUnaryArithmetic());
+        assertTrue(context.getSymbolIndex().get("~").isPrefixUnaryOperator());
+        assertEquals(BigDecimal.ONE, context.getSymbolIndex().get("λ").getValue());
+        assertTrue(context.getSymbolIndex().get("r").isVariable());
+        context.addVariable("r", BigDecimal.ONE);
+        assertEquals(BigDecimal.ONE, context.getSymbolIndex().get("r").getValue());
+    }
+
+    @Test
+    @DisplayName("test lookup of many registered functions")
+    public void testManyFunctions() {
+        for (int idx = 0; idx < 1000; idx++) {
+            context.registerFunction("f" + idx, BINARY, arr -> arr[0].add(arr[1]));
+        }
+        assertTrue(TokenUtil.isBinaryArithmeticToken("f999", context));
+        assertTrue(TokenUtil.isFunction(new StringBuilder("f500"), context));
+        assertEquals("f0", TokenUtil.getArithmeticToken("f0", context).getSymbol());
+    }
+
+}
@@ -31,6 +31,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.silvermania.rpn.support.TokenUtil.getArithmeticToken;
+import static org.silvermania.rpn.support.TokenUtil.getArity;
 import static org.silvermania.rpn.support.TokenUtil.getOperator;
 import static org.silvermania.rpn.support.TokenUtil.getOperatorAssociativity;
 import static org.silvermania.rpn.support.TokenUtil.getOperatorPrecedence;
@@ -61,6 +62,7 @@ import static org.silvermania.rpn.support.TokenUtil.isPrefixUnaryOperator;
 import static org.silvermania.rpn.support.TokenUtil.isToken;
 import static org.silvermania.rpn.support.TokenUtil.isUnaryArithmeticToken;
 import static org.silvermania.rpn.support.TokenUtil.isUnaryOperator;
+import static org.silvermania.rpn.support.TokenUtil.markArity;
 
 import java.util.NoSuchElementException;
 
@@ -383,7 +385,7 @@ class TokenUtilTest {
 
     @ParameterizedTest
     @DisplayName("test is binary arithmetic token")
-    @CsvSource({"^,true", "!,false", "max,true", "sin,false"})
+    @CsvSource({"^,true", "!,false", "pct,true", "max,false", "sin,false"})
     public void testIsBinaryArithmeticToken(String token, String expected) {
         assertEquals(Boolean.valueOf(expected), isBinaryArithmeticToken(token, context));
     }
@@ -425,9 +427,26 @@ class TokenUtilTest {
 
     @ParameterizedTest
     @DisplayName("test is mutli arg operator token")
-    @CsvSource({"sum,true", "!,false", "max,false", "sin,false"})
+    @CsvSource({"sum,true", "!,false", "max,true", "pct,false", "sin,false"})
     public void testIsMultiArgArithmeticToken(String token, String expected) {
         assertEquals(Boolean.valueOf(expected), isMultiArgArithmeticToken(token, context));
     }
 
+    @ParameterizedTest
+    @DisplayName("test arity marked tokens")
+    @CsvSource({"sum#3,3,true", "sum#12,12,true", "sum,-1,true", "sum#,-1,false", "sum#0,-1,false",
+                "sum#x,-1,false", "'#3',-1,false", "max#2,2,true", "pct#2,2,false", "bingo#2,2,false"})
+    public void testArityMarkedTokens(String token, int arity, boolean multiArg) {
+        assertEquals(arity, getArity(token));
+        assertEquals(multiArg, isMultiArgArithmeticToken(token, context));
+        assertEquals(multiArg, isFunction(token, context));
+    }
+
+    @ParameterizedTest
+    @DisplayName("test mark arity")
+    @CsvSource({"sum,1,sum#1", "sum#2,3,sum#3", "sum#9,10,sum#10"})
+    public void testMarkArity(String symbol, int arity, String expected) {
+        assertEquals(expected, markArity(symbol, arity));
+    }
+
 }